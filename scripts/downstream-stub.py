@@ -0,0 +1,61 @@
+#!/usr/bin/env python3
+"""Stub de los servicios de clientes y productos (UriService.BASE_URI).
+
+    scripts/downstream-stub.py [puerto]   (por defecto 8092)
+
+/customers/{id}: cliente PERSONAL, salvo los Id que empiezan con "emp".
+/products/account/{id}: cuenta de AHORRO, salvo los Id que empiezan con "cc".
+/products/credit/{id}: CREDITO_PERSONAL, salvo los Id que empiezan con "emp".
+"""
+import json
+import sys
+from http.server import BaseHTTPRequestHandler, ThreadingHTTPServer
+
+
+def customer(code):
+    enterprise = code.startswith("emp")
+    return {"code": code,
+            "customerType": "EMPRESARIAL" if enterprise else "PERSONAL",
+            "documentType": "RUC" if enterprise else "DNI",
+            "documentNumber": "00000000", "name": "Stub " + code,
+            "state": "ACTIVO"}
+
+
+def account(id_):
+    return {"id": id_,
+            "accountType": "CUENTA_CORRIENTE" if id_.startswith("cc") else "AHORRO",
+            "name": "Cuenta " + id_, "commission": 0.0, "limitMovement": 10,
+            "minimumDailyAverageAmount": 0.0}
+
+
+def credit(id_):
+    return {"id": id_,
+            "creditType": "CREDITO_EMPRESARIAL" if id_.startswith("emp") else "CREDITO_PERSONAL",
+            "maximumNumberCredit": 1}
+
+
+ROUTES = {"customers": customer, "account": account, "credit": credit}
+
+
+class Handler(BaseHTTPRequestHandler):
+    def do_GET(self):
+        parts = self.path.strip("/").split("/")
+        build = ROUTES.get(parts[-2]) if len(parts) >= 2 else None
+        if build is None:
+            self.send_response(404)
+            self.end_headers()
+            return
+        body = json.dumps(build(parts[-1])).encode()
+        self.send_response(200)
+        self.send_header("Content-Type", "application/json")
+        self.send_header("Content-Length", str(len(body)))
+        self.end_headers()
+        self.wfile.write(body)
+
+    def log_message(self, *args):
+        pass
+
+
+if __name__ == "__main__":
+    port = int(sys.argv[1]) if len(sys.argv) > 1 else 8092
+    ThreadingHTTPServer(("", port), Handler).serve_forever()
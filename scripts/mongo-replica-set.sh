@@ -0,0 +1,53 @@
+#!/usr/bin/env bash
+# Levanta un replica set local de tres miembros (rs0) en los puertos
+# 27017-27019 para probar las lecturas en secundarios:
+#   scripts/mongo-replica-set.sh up
+#   SPRING_PROFILES_ACTIVE=replica-set mvn spring-boot:run
+#   scripts/mongo-replica-set.sh lag 30    # retrasa un secundario 30s
+#   scripts/mongo-replica-set.sh down
+set -euo pipefail
+
+IMAGE=${MONGO_IMAGE:-mongo:5.0}
+NETWORK=affiliation-rs
+
+up() {
+  docker network inspect "$NETWORK" >/dev/null 2>&1 \
+    || docker network create "$NETWORK" >/dev/null
+  for i in 0 1 2; do
+    docker run -d --rm --name "mongo-rs$i" --network "$NETWORK" \
+      -p "$((27017 + i)):$((27017 + i))" "$IMAGE" \
+      mongod --replSet rs0 --bind_ip_all --port "$((27017 + i))" >/dev/null
+  done
+  until docker exec mongo-rs0 mongo --quiet --port 27017 \
+      --eval 'db.adminCommand("ping").ok' >/dev/null 2>&1; do
+    sleep 1
+  done
+  # Los miembros se anuncian como localhost para que la aplicación,
+  # fuera de docker, pueda resolverlos.
+  docker exec mongo-rs0 mongo --quiet --port 27017 --eval '
+    rs.initiate({_id: "rs0", members: [
+      {_id: 0, host: "localhost:27017", priority: 2},
+      {_id: 1, host: "localhost:27018"},
+      {_id: 2, host: "localhost:27019"}]})'
+  until docker exec mongo-rs0 mongo --quiet --port 27017 \
+      --eval 'db.isMaster().ismaster' | grep -q true; do
+    sleep 1
+  done
+  echo "rs0 listo: mongodb://localhost:27017,localhost:27018,localhost:27019/?replicaSet=rs0"
+}
+
+# Detiene la replicación de un secundario durante N segundos para
+# comprobar maxStaleness y read-your-writes.
+lag() {
+  local seconds=${1:-30}
+  docker exec mongo-rs2 mongo --quiet --port 27019 --eval 'db.fsyncLock()'
+  sleep "$seconds"
+  docker exec mongo-rs2 mongo --quiet --port 27019 --eval 'db.fsyncUnlock()'
+}
+
+down() {
+  docker rm -f mongo-rs0 mongo-rs1 mongo-rs2 >/dev/null 2>&1 || true
+  docker network rm "$NETWORK" >/dev/null 2>&1 || true
+}
+
+"${1:-up}" "${@:2}"
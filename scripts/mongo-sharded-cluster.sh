@@ -0,0 +1,93 @@
+#!/usr/bin/env bash
+# Levanta un cluster particionado local (config server, dos shards y un
+# mongos en el puerto 27020) y particiona las colecciones de afiliaciones
+# por el hash de idCustomer:
+#   scripts/mongo-sharded-cluster.sh up
+#   SPRING_PROFILES_ACTIVE=sharded mvn spring-boot:run
+#   scripts/mongo-sharded-cluster.sh explain <id> <idCustomer>
+#   scripts/mongo-sharded-cluster.sh down
+set -euo pipefail
+
+IMAGE=${MONGO_IMAGE:-mongo:5.0}
+NETWORK=affiliation-sharded
+DB=${MONGO_DB:-affiliation}
+
+mongo_eval() {
+  local container=$1 port=$2 script=$3
+  docker exec "$container" mongo --quiet --port "$port" --eval "$script"
+}
+
+wait_for() {
+  until mongo_eval "$1" "$2" 'db.adminCommand("ping").ok' >/dev/null 2>&1; do
+    sleep 1
+  done
+}
+
+up() {
+  docker network inspect "$NETWORK" >/dev/null 2>&1 \
+    || docker network create "$NETWORK" >/dev/null
+
+  docker run -d --rm --name affiliation-cfg --network "$NETWORK" "$IMAGE" \
+    mongod --configsvr --replSet cfg --bind_ip_all --port 27019 >/dev/null
+  for i in 1 2; do
+    docker run -d --rm --name "affiliation-shard$i" --network "$NETWORK" \
+      "$IMAGE" mongod --shardsvr --replSet "shard$i" --bind_ip_all \
+      --port 27018 >/dev/null
+  done
+
+  wait_for affiliation-cfg 27019
+  mongo_eval affiliation-cfg 27019 'rs.initiate({_id: "cfg", configsvr: true,
+    members: [{_id: 0, host: "affiliation-cfg:27019"}]})'
+  for i in 1 2; do
+    wait_for "affiliation-shard$i" 27018
+    mongo_eval "affiliation-shard$i" 27018 "rs.initiate({_id: \"shard$i\",
+      members: [{_id: 0, host: \"affiliation-shard$i:27018\"}]})"
+  done
+
+  docker run -d --rm --name affiliation-mongos --network "$NETWORK" \
+    -p 27020:27020 "$IMAGE" mongos --configdb cfg/affiliation-cfg:27019 \
+    --bind_ip_all --port 27020 >/dev/null
+  wait_for affiliation-mongos 27020
+  until mongo_eval affiliation-mongos 27020 '
+      sh.addShard("shard1/affiliation-shard1:27018").ok' 2>/dev/null \
+      | grep -q 1; do
+    sleep 1
+  done
+  mongo_eval affiliation-mongos 27020 '
+    sh.addShard("shard2/affiliation-shard2:27018")'
+
+  # Con datos existentes el indice hashed debe crearse antes de
+  # particionar; en colecciones vacías shardCollection lo crea.
+  mongo_eval affiliation-mongos 27020 "
+    db = db.getSiblingDB('$DB');
+    sh.enableSharding('$DB');
+    ['accountAffiliation', 'creditAffiliation'].forEach(function (c) {
+      db.getCollection(c).createIndex({idCustomer: 'hashed'});
+      sh.shardCollection('$DB.' + c, {idCustomer: 'hashed'});
+    });
+    sh.status();"
+  echo "mongos listo: mongodb://localhost:27020/$DB"
+}
+
+# Muestra cuántos shards atiende una consulta por Id, con y sin la clave
+# de partición (SINGLE_SHARD frente a SHARD_MERGE).
+explain() {
+  local id=$1 customer=$2
+  mongo_eval affiliation-mongos 27020 "
+    db = db.getSiblingDB('$DB');
+    function stage(filter) {
+      var plan = db.accountAffiliation.find(filter).explain().queryPlanner;
+      return plan.winningPlan.stage + ' ' + plan.winningPlan.shards.length;
+    }
+    var id = ObjectId.isValid('$id') ? ObjectId('$id') : '$id';
+    print('solo _id:          ' + stage({_id: id}));
+    print('_id + idCustomer:  ' + stage({_id: id, idCustomer: '$customer'}));"
+}
+
+down() {
+  docker rm -f affiliation-mongos affiliation-shard1 affiliation-shard2 \
+    affiliation-cfg >/dev/null 2>&1 || true
+  docker network rm "$NETWORK" >/dev/null 2>&1 || true
+}
+
+"${1:-up}" "${@:2}"
@@ -0,0 +1,70 @@
+#!/usr/bin/env bash
+# Prueba de humo del ejecutable nativo contra un MongoDB local y el stub
+# de los servicios externos (scripts/downstream-stub.py en el puerto 8092).
+#
+#   mvn -Pnative -DskipTests package
+#   scripts/native-smoke-test.sh [binario]
+#
+# MONGO_URI indica la base de datos (por defecto mongodb://localhost:27017/affiliation-smoke);
+# si no hay un MongoDB escuchando, se inicia uno con docker.
+set -euo pipefail
+
+ROOT="$(cd "$(dirname "$0")/.." && pwd)"
+BIN="${1:-$ROOT/target/affiliation}"
+PORT="${PORT:-18081}"
+MONGO_URI="${MONGO_URI:-mongodb://localhost:27017/affiliation-smoke}"
+BASE="http://localhost:$PORT/affiliations"
+PIDS=()
+cleanup() { kill "${PIDS[@]}" 2>/dev/null || true; }
+trap cleanup EXIT
+
+if ! (exec 3<>/dev/tcp/localhost/27017) 2>/dev/null; then
+  docker run -d --rm --name affiliation-smoke-mongo -p 27017:27017 mongo:5 >/dev/null
+  trap 'cleanup; docker stop affiliation-smoke-mongo >/dev/null' EXIT
+  until (exec 3<>/dev/tcp/localhost/27017) 2>/dev/null; do sleep 0.5; done
+fi
+
+"$ROOT/scripts/downstream-stub.py" 8092 &
+PIDS+=($!)
+
+"$BIN" --server.port="$PORT" --spring.data.mongodb.uri="$MONGO_URI" \
+  --eureka.client.enabled=false --spring.cloud.config.enabled=false \
+  > "$ROOT/target/native-smoke.log" 2>&1 &
+PIDS+=($!)
+until curl -s -o /dev/null "http://localhost:$PORT/actuator"; do sleep 0.1; done
+
+check() {
+  local name=$1 expected=$2 actual=$3
+  if [ "$actual" != "$expected" ]; then
+    echo "FALLO $name: esperado $expected, obtenido $actual"
+    exit 1
+  fi
+  echo "OK    $name"
+}
+
+customer="smoke-$$"
+status=$(curl -s -o /tmp/smoke-account.json -w '%{http_code}' -X POST "$BASE/accounts" \
+  -H 'Content-Type: application/json' \
+  -d "{\"idCustomer\":\"$customer\",\"idAccount\":\"ah-1\",\"number\":\"001\",\"numberOfHolder\":1,\"baseAmount\":100.0,\"balance\":100.0,\"status\":\"ACTIVO\"}")
+check "POST /accounts" 200 "$status"
+id=$(sed -E 's/.*"id":"([^"]+)".*/\1/' /tmp/smoke-account.json)
+
+check "GET /accounts/{id}" 200 \
+  "$(curl -s -o /dev/null -w '%{http_code}' "$BASE/accounts/$id")"
+check "POST /accounts (tipo duplicado)" 400 \
+  "$(curl -s -o /dev/null -w '%{http_code}' -X POST "$BASE/accounts" \
+    -H 'Content-Type: application/json' \
+    -d "{\"idCustomer\":\"$customer\",\"idAccount\":\"ah-2\",\"numberOfHolder\":1,\"baseAmount\":0.0}")"
+check "POST /credits" 200 \
+  "$(curl -s -o /dev/null -w '%{http_code}' -X POST "$BASE/credits" \
+    -H 'Content-Type: application/json' \
+    -d "{\"idCustomer\":\"$customer\",\"idCredit\":\"per-1\",\"baseAmount\":500.0,\"balance\":500.0}")"
+check "GET /customers/{id}/portfolio" 200 \
+  "$(curl -s -o /dev/null -w '%{http_code}' "$BASE/customers/$customer/portfolio")"
+check "GET /accounts/summary" 200 \
+  "$(curl -s -o /dev/null -w '%{http_code}' "$BASE/accounts/summary?groupBy=TYPE")"
+check "DELETE /accounts/{id}" 204 \
+  "$(curl -s -o /dev/null -w '%{http_code}' -X DELETE "$BASE/accounts/$id")"
+check "DELETE /accounts/{id} (eliminada)" 404 \
+  "$(curl -s -o /dev/null -w '%{http_code}' -X DELETE "$BASE/accounts/$id")"
+echo "Prueba de humo correcta"
@@ -0,0 +1,46 @@
+#!/usr/bin/env bash
+# Compara el ejecutable nativo con el jar: tiempo hasta la primera
+# respuesta HTTP y memoria residente (RSS) tras arrancar y tras 200
+# consultas. Usa el mismo MongoDB y stub que native-smoke-test.sh.
+#
+#   mvn package && mvn -Pnative -DskipTests package
+#   scripts/native-vs-jvm.sh [iteraciones]
+set -euo pipefail
+
+RUNS="${1:-3}"
+ROOT="$(cd "$(dirname "$0")/.." && pwd)"
+PORT="${PORT:-18082}"
+JAR="$(ls "$ROOT"/target/affiliation-*-exec.jar "$ROOT"/target/affiliation-*.jar 2>/dev/null | head -1)"
+BIN="$ROOT/target/affiliation"
+MONGO_URI="${MONGO_URI:-mongodb://localhost:27017/affiliation-smoke}"
+ARGS=(--server.port="$PORT" --spring.data.mongodb.uri="$MONGO_URI"
+      --eureka.client.enabled=false --spring.cloud.config.enabled=false)
+
+"$ROOT/scripts/downstream-stub.py" 8092 &
+STUB=$!
+trap 'kill $STUB 2>/dev/null || true' EXIT
+
+rss() { awk '/VmRSS/ {print int($2 / 1024)}' "/proc/$1/status"; }
+
+measure() {
+  local name=$1 start pid ms idle loaded; shift
+  start=$(date +%s%N)
+  "$@" > "$ROOT/target/native-vs-jvm.log" 2>&1 &
+  pid=$!
+  until curl -s -o /dev/null "http://localhost:$PORT/actuator"; do sleep 0.02; done
+  ms=$(( ($(date +%s%N) - start) / 1000000 ))
+  idle=$(rss "$pid")
+  for _ in $(seq 200); do
+    curl -s -o /dev/null "http://localhost:$PORT/affiliations/customers/smoke/portfolio"
+  done
+  loaded=$(rss "$pid")
+  kill "$pid"
+  wait "$pid" 2>/dev/null || true
+  printf '%-8s %7d ms %7d MB (arranque) %7d MB (tras 200 consultas)\n' \
+    "$name" "$ms" "$idle" "$loaded"
+}
+
+for _ in $(seq "$RUNS"); do
+  measure jvm java -jar "$JAR" "${ARGS[@]}"
+  measure native "$BIN" "${ARGS[@]}"
+done
@@ -0,0 +1,64 @@
+#!/usr/bin/env bash
+# Tiempo hasta la primera respuesta HTTP con el jar por defecto, con el
+# perfil fast-startup y con fast-startup + AppCDS (mismo layout que el
+# Dockerfile). Requiere JDK 13+ y el jar construido (mvn package).
+#
+#   scripts/startup-benchmark.sh [iteraciones]
+#
+# Eureka y el config server se desactivan para que la medición no dependa
+# de servicios externos; /actuator responde sin consultar MongoDB.
+set -euo pipefail
+
+RUNS="${1:-5}"
+PORT="${PORT:-18080}"
+ROOT="$(cd "$(dirname "$0")/.." && pwd)"
+JAR="$(ls "$ROOT"/target/affiliation-*.jar | head -1)"
+WORK="$ROOT/target/startup-benchmark"
+MAIN=com.nttdata.affiliation.AffiliationApplication
+ARGS=(--server.port="$PORT" --eureka.client.enabled=false
+      --spring.cloud.config.enabled=false)
+
+rm -rf "$WORK" && mkdir -p "$WORK/app"
+java -Djarmode=layertools -jar "$JAR" extract --destination "$WORK/layers"
+for layer in dependencies spring-boot-loader snapshot-dependencies application; do
+  cp -r "$WORK/layers/$layer/." "$WORK/app/"
+done
+(cd "$WORK/app/BOOT-INF/classes" && jar cf "$WORK/app/application.jar" .)
+CP="$WORK/app/application.jar:$WORK/app/BOOT-INF/lib/*"
+
+echo "Generando archivo AppCDS..."
+java -XX:ArchiveClassesAtExit="$WORK/app.jsa" \
+  -Dspring.profiles.active=cds-training,fast-startup \
+  -cp "$CP" "$MAIN" "${ARGS[@]}" > "$WORK/training.log" 2>&1
+
+measure() {
+  local start pid code=000
+  start=$(date +%s%N)
+  "$@" > "$WORK/run.log" 2>&1 &
+  pid=$!
+  until [ "$code" != "000" ]; do
+    sleep 0.05
+    code=$(curl -s -o /dev/null -w '%{http_code}' \
+      "http://localhost:$PORT/actuator" || true)
+  done
+  echo $(( ($(date +%s%N) - start) / 1000000 ))
+  kill "$pid"
+  wait "$pid" 2>/dev/null || true
+}
+
+run() {
+  local name=$1; shift
+  local total=0 ms
+  for _ in $(seq "$RUNS"); do
+    ms=$(measure "$@")
+    total=$((total + ms))
+    printf '%-24s %6d ms\n' "$name" "$ms"
+  done
+  printf '%-24s %6d ms (promedio)\n\n' "$name" $((total / RUNS))
+}
+
+run default java -cp "$CP" "$MAIN" "${ARGS[@]}"
+run fast-startup java -Dspring.profiles.active=fast-startup \
+  -cp "$CP" "$MAIN" "${ARGS[@]}"
+run fast-startup+cds java -XX:SharedArchiveFile="$WORK/app.jsa" \
+  -Dspring.profiles.active=fast-startup -cp "$CP" "$MAIN" "${ARGS[@]}"
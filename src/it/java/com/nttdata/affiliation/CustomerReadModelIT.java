@@ -0,0 +1,146 @@
+package com.nttdata.affiliation;
+
+import com.mongodb.reactivestreams.client.MongoClient;
+import com.mongodb.reactivestreams.client.MongoClients;
+import com.nttdata.affiliation.infraestructure.model.dao.AccountAffiliationDao;
+import com.nttdata.affiliation.infraestructure.readmodel.AccountAffiliationReadModel;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Modelo de lectura contra un replica set de un solo nodo: carga inicial,
+ * seguimiento del change stream y reanudación desde el resume token.
+ */
+@Testcontainers
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE,
+		properties = {"spring.rsocket.server.port=0",
+				"eureka.client.enabled=false",
+				"affiliation.read-model.enabled=true",
+				"affiliation.read-model.reconnect-delay=100ms"})
+class CustomerReadModelIT {
+
+	private static final String DATABASE = "affiliation-rs";
+	private static final String COLLECTION = "accountAffiliation";
+	private static final Duration WAIT = Duration.ofSeconds(30);
+
+	@Container
+	private static final MongoDBContainer MONGO
+			= new MongoDBContainer(DockerImageName.parse("mongo:4.4"));
+
+	@Autowired
+	private AccountAffiliationReadModel readModel;
+
+	@SpyBean
+	private ReactiveMongoTemplate mongoTemplate;
+
+	@DynamicPropertySource
+	static void mongo(final DynamicPropertyRegistry registry) {
+		registry.add("spring.data.mongodb.uri", () -> MONGO.getReplicaSetUrl(DATABASE));
+	}
+
+	@BeforeAll
+	static void seed() {
+		try (MongoClient client = MongoClients.create(MONGO.getReplicaSetUrl(DATABASE))) {
+			Mono.from(client.getDatabase(DATABASE).getCollection(COLLECTION).insertMany(List.of(
+							new Document("_id", "seed-1").append("idCustomer", "cus-seed"),
+							new Document("_id", "seed-2").append("idCustomer", "cus-seed"))))
+					.block(WAIT);
+		}
+	}
+
+	@Test
+	void bootstrapLoadsTheExistingDocuments() {
+		await(readModel::isReady);
+
+		assertThat(ids("cus-seed")).containsExactlyInAnyOrder("seed-1", "seed-2");
+		assertThat(readModel.customerOf("seed-1")).isEqualTo("cus-seed");
+	}
+
+	@Test
+	void changeStreamKeepsTheModelCurrent() {
+		await(readModel::isReady);
+
+		mongoTemplate.insert(affiliation("tail-1", "cus-tail")).block(WAIT);
+		mongoTemplate.insert(affiliation("tail-2", "cus-tail")).block(WAIT);
+		await(() -> ids("cus-tail").size() == 2);
+
+		mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is("tail-1")),
+				Update.update("idCustomer", "cus-moved"), AccountAffiliationDao.class).block(WAIT);
+		mongoTemplate.remove(Query.query(Criteria.where("_id").is("tail-2")),
+				AccountAffiliationDao.class).block(WAIT);
+
+		await(() -> ids("cus-moved").contains("tail-1") && ids("cus-tail").isEmpty());
+		assertThat(readModel.customerOf("tail-2")).isNull();
+	}
+
+	@Test
+	void restartResumesFromTheLastTokenWithoutReloading() {
+		await(readModel::isReady);
+		mongoTemplate.insert(affiliation("resume-1", "cus-resume")).block(WAIT);
+		await(() -> ids("cus-resume").contains("resume-1"));
+
+		readModel.stop();
+		clearInvocations(mongoTemplate);
+		mongoTemplate.insert(affiliation("resume-2", "cus-resume")).block(WAIT);
+		mongoTemplate.remove(Query.query(Criteria.where("_id").is("resume-1")),
+				AccountAffiliationDao.class).block(WAIT);
+		readModel.start();
+
+		await(() -> ids("cus-resume").equals(List.of("resume-2")));
+		verify(mongoTemplate, never()).findAll(AccountAffiliationDao.class, COLLECTION);
+	}
+
+	private List<String> ids(final String idCustomer) {
+		return readModel.findByIdCustomer(idCustomer)
+				.map(AccountAffiliationDao::getId)
+				.sort()
+				.collect(Collectors.toList())
+				.block(WAIT);
+	}
+
+	private static AccountAffiliationDao affiliation(final String id, final String idCustomer) {
+		AccountAffiliationDao affiliation = new AccountAffiliationDao();
+		affiliation.setId(id);
+		affiliation.setIdCustomer(idCustomer);
+		return affiliation;
+	}
+
+	private static void await(final BooleanSupplier condition) {
+		Instant deadline = Instant.now().plus(WAIT);
+		while (!condition.getAsBoolean()) {
+			assertThat(Instant.now()).as("condición no cumplida en %s", WAIT).isBefore(deadline);
+			try {
+				Thread.sleep(50);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException(e);
+			}
+		}
+	}
+}
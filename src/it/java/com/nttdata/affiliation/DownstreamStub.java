@@ -0,0 +1,70 @@
+package com.nttdata.affiliation;
+
+import com.nttdata.affiliation.infraestructure.client.UriService;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerResponse;
+
+import java.net.URI;
+
+/**
+ * Stub de los servicios de clientes y productos (UriService.BASE_URI),
+ * con las mismas respuestas que scripts/downstream-stub.py.
+ */
+final class DownstreamStub {
+
+	private DownstreamStub() {
+	}
+
+	static DisposableServer start() {
+		return HttpServer.create()
+				.port(URI.create(UriService.BASE_URI).getPort())
+				.route(routes -> routes
+						.get("/customers/{id}", (request, response) ->
+								json(response, customer(request.param("id"))))
+						.get("/products/account", (request, response) ->
+								json(response, "[" + account("acc-it") + ","
+										+ account("cc-it") + "]"))
+						.get("/products/account/{id}", (request, response) ->
+								json(response, account(request.param("id"))))
+						.get("/products/credit", (request, response) ->
+								json(response, "[" + credit("cre-it") + ","
+										+ credit("emp-it") + "]"))
+						.get("/products/credit/{id}", (request, response) ->
+								json(response, credit(request.param("id")))))
+				.bindNow();
+	}
+
+	private static Mono<Void> json(final HttpServerResponse response,
+								   final String body) {
+		return response
+				.header(HttpHeaderNames.CONTENT_TYPE, "application/json")
+				.sendString(Mono.just(body))
+				.then();
+	}
+
+	private static String customer(final String code) {
+		boolean enterprise = code.startsWith("emp");
+		return "{\"code\":\"" + code + "\",\"customerType\":\""
+				+ (enterprise ? "EMPRESARIAL" : "PERSONAL")
+				+ "\",\"documentType\":\"" + (enterprise ? "RUC" : "DNI")
+				+ "\",\"documentNumber\":\"00000000\",\"name\":\"Stub "
+				+ code + "\",\"state\":\"ACTIVO\"}";
+	}
+
+	private static String account(final String id) {
+		return "{\"id\":\"" + id + "\",\"accountType\":\""
+				+ (id.startsWith("cc") ? "CUENTA_CORRIENTE" : "AHORRO")
+				+ "\",\"name\":\"Cuenta " + id + "\",\"commission\":0.0,"
+				+ "\"limitMovement\":10,\"minimumDailyAverageAmount\":0.0}";
+	}
+
+	private static String credit(final String id) {
+		return "{\"id\":\"" + id + "\",\"creditType\":\""
+				+ (id.startsWith("emp")
+						? "CREDITO_EMPRESARIAL" : "CREDITO_PERSONAL")
+				+ "\",\"maximumNumberCredit\":1}";
+	}
+}
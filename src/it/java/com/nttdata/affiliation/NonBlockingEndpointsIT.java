@@ -0,0 +1,232 @@
+package com.nttdata.affiliation;
+
+import com.nttdata.affiliation.domain.AccountAffiliation;
+import com.nttdata.affiliation.domain.CreditAffiliation;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.rsocket.context.LocalRSocketServerPort;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.messaging.rsocket.RSocketRequester;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.blockhound.BlockHound;
+import reactor.blockhound.BlockingOperationError;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Recorre todos los End Points (HTTP y RSocket) con BlockHound instalado:
+ * cualquier llamada bloqueante en un hilo no bloqueante (Netty, parallel)
+ * hace fallar la prueba.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+		properties = {"spring.rsocket.server.port=0",
+				"eureka.client.enabled=false",
+				"spring.data.mongodb.database=affiliation-it",
+				"affiliation.write-behind.enabled=true",
+				"affiliation.write-behind.journal-directory=target/it-write-behind"})
+class NonBlockingEndpointsIT {
+
+	private static final List<String> BLOCKING_CALLS
+			= new CopyOnWriteArrayList<>();
+
+	private static DisposableServer downstream;
+
+	@Autowired
+	private WebTestClient webTestClient;
+
+	@Autowired
+	private ReactiveMongoTemplate mongoTemplate;
+
+	@Autowired
+	private RSocketRequester.Builder builder;
+
+	@LocalRSocketServerPort
+	private int rsocketPort;
+
+	@BeforeAll
+	static void installBlockHound() {
+		BlockHound.builder()
+				// La cola del AsyncAppender puede esperar su lock un instante.
+				.allowBlockingCallsInside(
+						"ch.qos.logback.core.AsyncAppenderBase", "put")
+				.blockingMethodCallback(method -> {
+					BLOCKING_CALLS.add(method + " en "
+							+ Thread.currentThread().getName());
+					throw new BlockingOperationError(method);
+				})
+				.install();
+		downstream = DownstreamStub.start();
+	}
+
+	@AfterAll
+	static void stopDownstream() {
+		downstream.disposeNow();
+	}
+
+	@BeforeEach
+	void setUp() {
+		webTestClient = webTestClient.mutate()
+				.responseTimeout(Duration.ofSeconds(30))
+				.build();
+		mongoTemplate.getMongoDatabase()
+				.flatMap(db -> Mono.from(db.drop()))
+				.block();
+		BLOCKING_CALLS.clear();
+	}
+
+	@AfterEach
+	void noBlockingCalls() {
+		assertThat(BLOCKING_CALLS).isEmpty();
+	}
+
+	@Test
+	void accountEndpoints() {
+		AccountAffiliation affiliation = new AccountAffiliation();
+		affiliation.setIdCustomer("cus-it");
+		affiliation.setIdAccount("acc-it");
+		affiliation.setNumber("191-0001");
+		affiliation.setNumberOfHolder(1);
+		affiliation.setBalance(100.0);
+		String id = create("/affiliations/accounts", affiliation);
+
+		call(HttpMethod.GET, "/affiliations/accounts", null);
+		call(HttpMethod.GET, "/affiliations/accounts/" + id, null);
+		call(HttpMethod.GET, "/affiliations/accounts/customers/cus-it", null);
+		call(HttpMethod.GET, "/affiliations/accounts/cus-it/acc-it", null);
+		call(HttpMethod.GET, "/affiliations/accounts/summary?groupBy=TYPE",
+				null);
+		call(HttpMethod.PUT, "/affiliations/accounts/" + id, affiliation);
+		webTestClient.put()
+				.uri("/affiliations/accounts/" + id + "/balance")
+				.contentType(MediaType.APPLICATION_JSON)
+				.bodyValue(Map.of("balance", 50.0, "movementDay", "15"))
+				.exchange()
+				.expectStatus().isAccepted();
+		assertThat(call(HttpMethod.GET, "/affiliations/accounts/" + id, null))
+				.contains("\"balance\":50.0");
+		call(HttpMethod.GET, "/affiliations/customers/cus-it/portfolio", null);
+		call(HttpMethod.DELETE, "/affiliations/accounts/" + id, null);
+	}
+
+	@Test
+	void creditEndpoints() {
+		CreditAffiliation affiliation = new CreditAffiliation();
+		affiliation.setIdCustomer("cus-it");
+		affiliation.setIdCredit("cre-it");
+		affiliation.setLoanNumber("L-0001");
+		affiliation.setCreditLimit(1000.0);
+		String id = create("/affiliations/credits", affiliation);
+
+		call(HttpMethod.GET, "/affiliations/credits", null);
+		call(HttpMethod.GET, "/affiliations/credits/" + id, null);
+		call(HttpMethod.GET, "/affiliations/credits/customer/cus-it", null);
+		call(HttpMethod.GET, "/affiliations/credits/cus-it/cre-it", null);
+		call(HttpMethod.GET, "/affiliations/credits/summary?groupBy=TYPE",
+				null);
+		call(HttpMethod.PUT, "/affiliations/credits/" + id, affiliation);
+		call(HttpMethod.DELETE, "/affiliations/credits/" + id, null);
+	}
+
+	@Test
+	void importAndExportEndpoints() {
+		String accounts = "{\"idCustomer\":\"cus-imp\",\"idAccount\":\"acc-it\"}\n"
+				+ "{\"idCustomer\":\"cus-imp\",\"idAccount\":\"cc-it\"}\n";
+		String credits = "{\"idCustomer\":\"cus-imp\",\"idCredit\":\"cre-it\"}\n";
+
+		importFile("/affiliations/import/accounts?format=NDJSON", accounts);
+		importFile("/affiliations/import/credits?format=NDJSON", credits);
+		call(HttpMethod.GET, "/affiliations/export/accounts?format=CSV", null);
+		call(HttpMethod.GET,
+				"/affiliations/export/credits?format=NDJSON&gzip=true", null);
+	}
+
+	@Test
+	void rsocketEndpoints() {
+		RSocketRequester requester = builder.tcp("localhost", rsocketPort);
+		try {
+			AccountAffiliation account = new AccountAffiliation();
+			account.setIdCustomer("cus-rs");
+			account.setIdAccount("acc-it");
+			CreditAffiliation credit = new CreditAffiliation();
+			credit.setIdCustomer("cus-rs");
+			credit.setIdCredit("cre-it");
+
+			requester.route("accounts.create").data(Flux.just(account))
+					.retrieveFlux(Map.class).blockLast(Duration.ofSeconds(30));
+			requester.route("credits.create").data(Flux.just(credit))
+					.retrieveFlux(Map.class).blockLast(Duration.ofSeconds(30));
+			for (String route : List.of("accounts", "credits")) {
+				requester.route(route + ".find-all")
+						.retrieveFlux(Map.class)
+						.blockLast(Duration.ofSeconds(30));
+				requester.route(route + ".find-by-customer.cus-rs")
+						.retrieveFlux(Map.class)
+						.blockLast(Duration.ofSeconds(30));
+				requester.route(route + ".find-by-id.missing")
+						.retrieveMono(Map.class)
+						.block(Duration.ofSeconds(30));
+			}
+		} finally {
+			requester.dispose();
+		}
+	}
+
+	private String create(final String uri, final Object body) {
+		String json = webTestClient.post()
+				.uri(uri)
+				.contentType(MediaType.APPLICATION_JSON)
+				.bodyValue(body)
+				.exchange()
+				.expectStatus().isOk()
+				.expectBody(String.class)
+				.returnResult()
+				.getResponseBody();
+		assertThat(json).as("POST %s", uri).contains("\"id\":\"");
+		int start = json.indexOf("\"id\":\"") + 6;
+		return json.substring(start, json.indexOf('"', start));
+	}
+
+	private String call(final HttpMethod method, final String uri,
+						final Object body) {
+		WebTestClient.RequestBodySpec request = webTestClient
+				.method(method)
+				.uri(uri);
+		WebTestClient.ResponseSpec response = body == null
+				? request.exchange()
+				: request.contentType(MediaType.APPLICATION_JSON)
+						.bodyValue(body)
+						.exchange();
+		return response
+				.expectStatus().value(status -> assertThat(status)
+						.as("%s %s", method, uri).isBetween(200, 299))
+				.expectBody(String.class)
+				.returnResult()
+				.getResponseBody();
+	}
+
+	private void importFile(final String uri, final String body) {
+		webTestClient.post()
+				.uri(uri)
+				.contentType(MediaType.APPLICATION_NDJSON)
+				.bodyValue(body)
+				.exchange()
+				.expectStatus().isOk()
+				.expectBody(String.class)
+				.value(progress -> assertThat(progress).contains("completed"));
+	}
+}
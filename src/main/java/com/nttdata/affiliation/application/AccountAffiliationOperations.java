@@ -1,8 +1,12 @@
 package com.nttdata.affiliation.application;
 
 import com.nttdata.affiliation.domain.AccountAffiliation;
+import com.nttdata.affiliation.domain.AffiliationSummary;
+import com.nttdata.affiliation.domain.BalanceUpdate;
 import com.nttdata.affiliation.domain.bean.Account;
 import com.nttdata.affiliation.domain.bean.Customer;
+import com.nttdata.affiliation.domain.bean.Status;
+import com.nttdata.affiliation.domain.bean.SummaryGroup;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
@@ -20,6 +24,17 @@ public interface AccountAffiliationOperations {
     Mono<AccountAffiliation>
     create(AccountAffiliation accountAffiliation);
 
+    /**
+     * Verifica, sin registrarla, que una afiliación de cuenta cumpla los
+     * requisitos; los rechazos se emiten como AffiliationRejectedException.
+     * @param accountAffiliation afiliación de cuenta.
+     * @param budget llamadas externas compartidas (cliente y producto).
+     * @return Mono<AccountAffiliation>
+     */
+    Mono<AccountAffiliation>
+    eligible(AccountAffiliation accountAffiliation,
+             OutboundCallBudget budget);
+
     /**
      * Actualización de una cuenta bancaria para un cliente.
      * @param id codigo.
@@ -29,12 +44,23 @@ public interface AccountAffiliationOperations {
     Mono<AccountAffiliation>
     update(String id, AccountAffiliation accountAffiliation);
 
+    /**
+     * Actualización del saldo y del día de movimiento de una cuenta
+     * bancaria; vacío si no existe. Con la escritura diferida habilitada
+     * la actualización queda pendiente (pending).
+     * @param id codigo.
+     * @param balanceUpdate saldo y día de movimiento.
+     * @return Mono<BalanceUpdate>
+     */
+    Mono<BalanceUpdate>
+    updateBalance(String id, BalanceUpdate balanceUpdate);
+
     /**
      * Eliminación de una cuenta bancaria para un cliente.
      * @param id codigo.
-     * @return Mono<AccountAffiliationDao>
+     * @return Mono<Boolean> true si se eliminó, false si no existe.
      */
-    Mono<Void>
+    Mono<Boolean>
     delete(String id);
 
     /**
@@ -87,4 +113,13 @@ public interface AccountAffiliationOperations {
     Flux<Account>
     getProductAccountById(final String idAccount);
 
+    /**
+     * Totales de afiliaciones de cuentas calculados en la BD.
+     * @param groupBy agrupación (cliente, estado o tipo de cuenta).
+     * @param idCustomer Codigo del cliente (opcional).
+     * @param status estado (opcional).
+     * @return Flux<AffiliationSummary>
+     */
+    Flux<AffiliationSummary>
+    summarize(SummaryGroup groupBy, String idCustomer, Status status);
 }
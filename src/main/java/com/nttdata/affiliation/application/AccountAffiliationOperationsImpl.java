@@ -1,15 +1,22 @@
 package com.nttdata.affiliation.application;
 
 import com.nttdata.affiliation.domain.AccountAffiliation;
+import com.nttdata.affiliation.domain.AffiliationRejectedException;
+import com.nttdata.affiliation.domain.AffiliationSummary;
+import com.nttdata.affiliation.domain.BalanceUpdate;
 import com.nttdata.affiliation.domain.bean.Account;
-import com.nttdata.affiliation.domain.bean.AccountType;
 import com.nttdata.affiliation.domain.bean.Customer;
-import com.nttdata.affiliation.domain.bean.CustomerType;
+import com.nttdata.affiliation.domain.bean.RejectionReason;
+import com.nttdata.affiliation.domain.bean.Status;
+import com.nttdata.affiliation.domain.bean.SummaryGroup;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.Optional;
+
 /**
  * CUSTOMEROPERATIONSIMPL.
  * Implementa las operaciones (CRUD) de la afiliación
@@ -24,19 +31,41 @@ public class AccountAffiliationOperationsImpl
      * Repositorio de los registros (Afiliación) de cuentas bancarias.
      */
     private final AccountAffiliationRepository repository;
+    /**
+     * Tabla de elegibilidad.
+     */
+    private final EligibilityPolicy eligibilityPolicy;
+    /**
+     * Validaciones locales.
+     */
+    private final AffiliationValidator validator;
+    /**
+     * Registro de métricas.
+     */
+    private final MeterRegistry meterRegistry;
 
     /**
      * Constructor.
      * @param accountAffiliationRepository repositorio.
+     * @param policy tabla de elegibilidad.
+     * @param affiliationValidator validaciones locales.
+     * @param registry registro de métricas.
      */
     public
     AccountAffiliationOperationsImpl(
-            final AccountAffiliationRepository accountAffiliationRepository) {
+            final AccountAffiliationRepository accountAffiliationRepository,
+            final EligibilityPolicy policy,
+            final AffiliationValidator affiliationValidator,
+            final MeterRegistry registry) {
       this.repository = accountAffiliationRepository;
+      this.eligibilityPolicy = policy;
+      this.validator = affiliationValidator;
+      this.meterRegistry = registry;
     }
 
     /**
      * Registro (Afiliación) de un cliente con cuenta bancaria.
+     * Se registra solo si cumple los requisitos (ver eligible).
      * @param accountAffiliation afiliación de cuenta.
      * @return Mono<AccountAffiliation>
      */
@@ -45,92 +74,141 @@ public class AccountAffiliationOperationsImpl
     Mono<AccountAffiliation>
     create(final AccountAffiliation accountAffiliation) {
         log.info("[create] Inicio");
-      Flux<Customer>
-      customerList = getCustomerById(accountAffiliation.getIdCustomer());
-      Flux<Account>
-      accountList = getProductAccountById(accountAffiliation.getIdAccount());
-
-        return customerList.flatMap(
-                customer -> {
-
-                    if (customer.getCustomerType().name()
-                        .equals(
-                        CustomerType.EMPRESARIAL.name())
-                    ){
-                        return createEnterprise(accountAffiliation,accountList);
-                    }else if (customer.getCustomerType().name()
-                              .equals(
-                              CustomerType.PERSONAL.name())
-                    ){
-                        return accountList
-                                .flatMap(
-                                        account ->
-                                                createPersonal(
-                                                        accountAffiliation,
-                                                        account)
-                                );
-                    }else {
-                        return Mono.just(new AccountAffiliation());
-                    }
-                }
-        ).next();
-
+        OutboundCallBudget budget = new OutboundCallBudget();
+        return eligible(accountAffiliation, budget)
+                .flatMap(repository::create)
+                .doFinally(signal -> {
+                    budget.cancel();
+                    budget.record(meterRegistry, "account");
+                });
     }
 
     /**
-     * Afiliación de un cliente empresarial.
-     * @param accountAffiliation datos de afiliacion.
-     * @param accountList cuenta bancaria.
+     * Verifica que una afiliación de cuenta cumpla los requisitos.
+     * Primero se aplican las validaciones locales; luego la decisión se
+     * toma en la tabla de elegibilidad según el tipo de cliente y el tipo
+     * de cuenta. Los rechazos se emiten como AffiliationRejectedException.
+     * Cada cliente y cada producto se consulta una sola vez por budget;
+     * el cliente y la cuenta se consultan en paralelo y, si uno de ellos
+     * se rechaza, se cancela la otra consulta.
+     * @param accountAffiliation afiliación de cuenta.
+     * @param budget llamadas externas compartidas.
      * @return Mono<AccountAffiliation>
      */
-    private
+    @Override
+    public
     Mono<AccountAffiliation>
-    createEnterprise(
-      final AccountAffiliation accountAffiliation,
-      final Flux<Account> accountList) {
-        log.info("[createEnterprise] Inicio");
-        return accountList.flatMap(
-                account -> {
-                    if (account.getAccountType().name()
-                        .equals(
-                        AccountType.CUENTA_CORRIENTE.name())
-                            &&
-                        accountAffiliation.getNumberOfHolder() > 0   //Numero de titulares 1 o más
-                    ){
-                        return repository.create(accountAffiliation);
-                    }else{
-                        return Mono.just(new AccountAffiliation());
+    eligible(final AccountAffiliation accountAffiliation,
+             final OutboundCallBudget budget) {
+        Optional<RejectionReason> rejection
+                = validator.validate(accountAffiliation);
+        if (rejection.isPresent()) {
+            return reject(rejection.get());
+        }
+      Mono<Customer>
+      customer = getCustomerById(budget, accountAffiliation.getIdCustomer())
+              .filter(c -> c.getCustomerType() != null)
+              .switchIfEmpty(reject(RejectionReason.CUSTOMER_NOT_FOUND));
+      Mono<Account>
+      account = getProductAccountById(budget, accountAffiliation.getIdAccount())
+              .filter(a -> a.getAccountType() != null)
+              .switchIfEmpty(reject(RejectionReason.PRODUCT_NOT_FOUND));
+
+        return Mono.zip(customer, account).flatMap(
+                t -> {
+                    Customer c = t.getT1();
+                    Account a = t.getT2();
+                    switch (eligibilityPolicy.accountRule(
+                            c.getCustomerType(), a.getAccountType())) {
+                        case ALLOWED:
+                            return Mono.just(accountAffiliation);
+                        case ONE_PER_TYPE:
+                            return onePerType(
+                                    budget, accountAffiliation, a);
+                        default:
+                            log.info("[eligible] Rechazado: {} / {}",
+                                    c.getCustomerType(), a.getAccountType());
+                            return reject(RejectionReason.NOT_ELIGIBLE);
                     }
                 }
-        ).next();
+        );
+    }
 
+    /**
+     * Rechazo de una afiliación.
+     * @param reason motivo del rechazo.
+     * @param <T> tipo del resultado.
+     * @return Mono<T>
+     */
+    private static <T>
+    Mono<T>
+    reject(final RejectionReason reason) {
+        return Mono.error(new AffiliationRejectedException(reason));
     }
+
     /**
-     * Afiliación de un cliente Personal.
+     * Una sola cuenta por tipo (cliente Personal): ni en la BD ni entre
+     * las ya aceptadas con el mismo budget (filas de una importación).
+     * La afiliación con el mismo Id no cuenta: es la propia fila, ya
+     * registrada, de una importación que se reanuda.
+     * @param budget llamadas externas del registro.
      * @param accountAffiliation datos de afiliacion.
      * @param account cuenta bancaria.
      * @return Mono<AccountAffiliation>
      */
     private
     Mono<AccountAffiliation>
-    createPersonal(
+    onePerType(
+      final OutboundCallBudget budget,
       final AccountAffiliation accountAffiliation,
       final Account account) {
-        log.info("[createPersonal] Inicio");
+        log.debug("[onePerType] Inicio");
         return findByIdCustomer(accountAffiliation.getIdCustomer())
-                .filter(accAffiliation ->
-                      getProductAccountById(accAffiliation.getIdAccount())
-                              .blockFirst().getAccountType().name()
-                              .equals(
-                                      account.getAccountType().name()
-                              )
+                .filter(accAffiliation -> accountAffiliation.getId() == null
+                        || !accountAffiliation.getId()
+                                .equals(accAffiliation.getId()))
+                .filterWhen(accAffiliation ->
+                      getProductAccountById(budget,
+                              accAffiliation.getIdAccount())
+                              .map(a -> a.getAccountType()
+                                      == account.getAccountType())
                 )
-                .map( __ -> new AccountAffiliation())
-                .switchIfEmpty(
-                        Mono.defer(
-                                () -> repository.create(accountAffiliation)
-                        ))
-                .next();
+                .next()
+                .flatMap(__ -> AccountAffiliationOperationsImpl
+                        .<AccountAffiliation>reject(
+                                RejectionReason.DUPLICATE_PRODUCT_TYPE))
+                .switchIfEmpty(Mono.defer(() -> budget.claim(
+                                accountAffiliation.getIdCustomer(),
+                                account.getAccountType())
+                        ? Mono.just(accountAffiliation)
+                        : reject(RejectionReason.DUPLICATE_PRODUCT_TYPE)));
+    }
+
+    /**
+     * Obtenemos los datos del cliente una sola vez por registro.
+     * @param budget llamadas externas del registro.
+     * @param idCustomer Codigo del cliente.
+     * @return Mono<Customer>
+     */
+    private
+    Mono<Customer>
+    getCustomerById(final OutboundCallBudget budget, final String idCustomer) {
+        return budget.call(OutboundCallBudget.CUSTOMER, idCustomer,
+                () -> getCustomerById(idCustomer).next());
+    }
+
+    /**
+     * Obtenemos los datos de la cuenta bancaria una sola vez por registro.
+     * @param budget llamadas externas del registro.
+     * @param idAccount codigo de la cuenta bancaria
+     * @return Mono<Account>
+     */
+    private
+    Mono<Account>
+    getProductAccountById(final OutboundCallBudget budget,
+                          final String idAccount) {
+        return budget.call(OutboundCallBudget.ACCOUNT_PRODUCT, idAccount,
+                () -> getProductAccountById(idAccount).next());
     }
 
     /**
@@ -158,14 +236,27 @@ public class AccountAffiliationOperationsImpl
                 });
     }
 
+    /**
+     * Actualización del saldo y del día de movimiento.
+     * @param id codigo.
+     * @param balanceUpdate saldo y día de movimiento.
+     * @return Mono<BalanceUpdate>
+     */
+    @Override
+    public
+    Mono<BalanceUpdate>
+    updateBalance(final String id, final BalanceUpdate balanceUpdate) {
+      return repository.updateBalance(id, balanceUpdate);
+    }
+
     /**
      * Eliminación de un cliente con cuenta bancaria.
      * @param id codigo.
-     * @return Mono<AccountAffiliationDao>
+     * @return Mono<Boolean> true si se eliminó, false si no existe.
      */
     @Override
     public
-    Mono<Void>
+    Mono<Boolean>
     delete(final String id) {
       return repository.delete(id);
     }
@@ -224,7 +315,7 @@ public class AccountAffiliationOperationsImpl
      */
     @Override
     public Flux<Customer> getCustomerById(String idCustomer) {
-        log.info("[getCustomerById] idAccount:"+idCustomer);
+        log.debug("[getCustomerById] idCustomer: {}", idCustomer);
         return repository.getCustomerById(idCustomer);
     }
 
@@ -235,9 +326,22 @@ public class AccountAffiliationOperationsImpl
      */
     @Override
     public Flux<Account> getProductAccountById(String idAccount) {
-        log.info("[getProductAccountById] idAccount:"+idAccount);
+        log.debug("[getProductAccountById] idAccount: {}", idAccount);
         return repository.getProductAccountById(idAccount);
     }
 
-
+    /**
+     * Totales de afiliaciones de cuentas calculados en la BD.
+     * @param groupBy agrupación (cliente, estado o tipo de cuenta).
+     * @param idCustomer Codigo del cliente (opcional).
+     * @param status estado (opcional).
+     * @return Flux<AffiliationSummary>
+     */
+    @Override
+    public
+    Flux<AffiliationSummary>
+    summarize(final SummaryGroup groupBy, final String idCustomer,
+              final Status status) {
+        return repository.summarize(groupBy, idCustomer, status);
+    }
 }
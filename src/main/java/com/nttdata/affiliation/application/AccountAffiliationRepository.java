@@ -1,10 +1,17 @@
 package com.nttdata.affiliation.application;
 
 import com.nttdata.affiliation.domain.AccountAffiliation;
+import com.nttdata.affiliation.domain.AffiliationSummary;
+import com.nttdata.affiliation.domain.BalanceUpdate;
 import com.nttdata.affiliation.domain.bean.Account;
 import com.nttdata.affiliation.domain.bean.Customer;
+import com.nttdata.affiliation.domain.bean.Status;
+import com.nttdata.affiliation.domain.bean.SummaryGroup;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+
+import java.util.List;
+
 /**
  * ACCOUNTAFFILIATIONREPOSITORY.
  * Define las operaciones en la BD para
@@ -19,6 +26,16 @@ public interface AccountAffiliationRepository {
     Mono<AccountAffiliation>
     create(AccountAffiliation accountAffiliation);
 
+    /**
+     * Registro masivo de afiliaciones de cuentas bancarias con Id asignado, sin
+     * orden; una afiliación que ya existe con el mismo Id se considera
+     * registrada.
+     * @param accountAffiliations afiliaciones.
+     * @return Flux<String> Ids registrados.
+     */
+    Flux<String>
+    createAll(List<AccountAffiliation> accountAffiliations);
+
     /**
      * Actualización de un cliente con cuenta bancaria.
      * @param id codigo.
@@ -28,12 +45,23 @@ public interface AccountAffiliationRepository {
     Mono<AccountAffiliation>
     update(String id, AccountAffiliation accountAffiliation);
 
+    /**
+     * Actualización del saldo y del día de movimiento de una afiliación
+     * de cuenta; vacío si la afiliación no existe. Con la escritura diferida
+     * habilitada la actualización queda pendiente (pending).
+     * @param id codigo.
+     * @param balanceUpdate saldo y día de movimiento.
+     * @return Mono<BalanceUpdate>
+     */
+    Mono<BalanceUpdate>
+    updateBalance(String id, BalanceUpdate balanceUpdate);
+
     /**
      * Eliminación de un cliente con cuenta bancaria.
      * @param id codigo.
-     * @return Mono<AccountAffiliationDao>
+     * @return Mono<Boolean> true si se eliminó, false si no existe.
      */
-    Mono<Void>
+    Mono<Boolean>
     delete(String id);
 
     /**
@@ -83,4 +111,13 @@ public interface AccountAffiliationRepository {
     Flux<Account>
     getProductAccountById(final String idAccount);
 
+    /**
+     * Totales de afiliaciones de cuentas calculados en la BD.
+     * @param groupBy agrupación (cliente, estado o tipo de cuenta).
+     * @param idCustomer Codigo del cliente (opcional).
+     * @param status estado (opcional).
+     * @return Flux<AffiliationSummary>
+     */
+    Flux<AffiliationSummary>
+    summarize(SummaryGroup groupBy, String idCustomer, Status status);
 }
@@ -0,0 +1,36 @@
+package com.nttdata.affiliation.application;
+
+import com.nttdata.affiliation.domain.AccountAffiliation;
+import com.nttdata.affiliation.domain.BulkCreateResult;
+import com.nttdata.affiliation.domain.CreditAffiliation;
+import com.nttdata.affiliation.domain.ImportProgress;
+import reactor.core.publisher.Flux;
+
+/**
+ * AFFILIATIONIMPORTOPERATIONS.
+ * Define la importación masiva de afiliaciones
+ *                               de cuentas bancarias y de creditos.
+ */
+public interface AffiliationImportOperations {
+    /**
+     * Importa afiliaciones de cuentas bancarias.
+     * @param importId identificador de la importación (para reanudarla).
+     * @param rows filas numeradas; las que no se pudieron leer llegan
+     *             con su rechazo.
+     * @return Flux<ImportProgress> avance por bloque de filas.
+     */
+    Flux<ImportProgress>
+    importAccounts(String importId,
+                   Flux<BulkCreateResult<AccountAffiliation>> rows);
+
+    /**
+     * Importa afiliaciones de creditos.
+     * @param importId identificador de la importación (para reanudarla).
+     * @param rows filas numeradas; las que no se pudieron leer llegan
+     *             con su rechazo.
+     * @return Flux<ImportProgress> avance por bloque de filas.
+     */
+    Flux<ImportProgress>
+    importCredits(String importId,
+                  Flux<BulkCreateResult<CreditAffiliation>> rows);
+}
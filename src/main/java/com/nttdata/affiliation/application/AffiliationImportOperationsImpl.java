@@ -0,0 +1,347 @@
+package com.nttdata.affiliation.application;
+
+import com.nttdata.affiliation.domain.AccountAffiliation;
+import com.nttdata.affiliation.domain.AffiliationRejectedException;
+import com.nttdata.affiliation.domain.BulkCreateResult;
+import com.nttdata.affiliation.domain.CreditAffiliation;
+import com.nttdata.affiliation.domain.ImportProgress;
+import com.nttdata.affiliation.domain.bean.RejectionReason;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * AFFILIATIONIMPORTOPERATIONSIMPL.
+ * Implementa la importación masiva de afiliaciones. Las filas se procesan
+ * por bloques: dentro de un bloque se verifican en paralelo con las mismas
+ * reglas que un registro individual, consultando una sola vez cada cliente
+ * y cada producto del bloque, y las aceptadas se escriben juntas en un
+ * registro masivo sin orden. Al terminar cada bloque se guarda un punto
+ * de control; cada fila recibe un Id derivado de la importación y de su
+ * número de fila, de modo que al reanudar un bloque ya escrito no se
+ * duplica. Los productos (cliente y tipo) aceptados se comparten entre
+ * todos los bloques de la importación, de modo que la regla ONE_PER_TYPE
+ * también rechaza las filas repetidas del mismo archivo, aunque la BD aún
+ * no las refleje. Una fila aceptada cuya escritura falla conserva su
+ * reserva.
+ */
+@Slf4j
+public class AffiliationImportOperationsImpl
+        implements AffiliationImportOperations {
+    /**
+     * Importación de afiliaciones de cuentas bancarias.
+     */
+    public static final String ACCOUNT = "account";
+    /**
+     * Importación de afiliaciones de creditos.
+     */
+    public static final String CREDIT = "credit";
+    /**
+     * Métrica de filas importadas por resultado.
+     */
+    public static final String METRIC = "affiliation.import.rows";
+    /**
+     * Operaciones de afiliación de cuentas bancarias.
+     */
+    private final AccountAffiliationOperations accountOperations;
+    /**
+     * Operaciones de afiliación de creditos.
+     */
+    private final CreditAffiliationOperations creditOperations;
+    /**
+     * Repositorio de afiliaciones de cuentas bancarias.
+     */
+    private final AccountAffiliationRepository accountRepository;
+    /**
+     * Repositorio de afiliaciones de creditos.
+     */
+    private final CreditAffiliationRepository creditRepository;
+    /**
+     * Puntos de control.
+     */
+    private final ImportCheckpointRepository checkpoints;
+    /**
+     * Registro de métricas.
+     */
+    private final MeterRegistry meterRegistry;
+    /**
+     * Filas por bloque.
+     */
+    private final int chunkSize;
+    /**
+     * Filas verificadas en paralelo dentro de un bloque.
+     */
+    private final int concurrency;
+
+    /**
+     * Constructor.
+     * @param accountAffiliationOperations operaciones de cuentas.
+     * @param creditAffiliationOperations operaciones de creditos.
+     * @param accountAffiliationRepository repositorio de cuentas.
+     * @param creditAffiliationRepository repositorio de creditos.
+     * @param importCheckpointRepository puntos de control.
+     * @param registry registro de métricas.
+     * @param rowsPerChunk filas por bloque.
+     * @param parallelism filas verificadas en paralelo.
+     */
+    public
+    AffiliationImportOperationsImpl(
+            final AccountAffiliationOperations accountAffiliationOperations,
+            final CreditAffiliationOperations creditAffiliationOperations,
+            final AccountAffiliationRepository accountAffiliationRepository,
+            final CreditAffiliationRepository creditAffiliationRepository,
+            final ImportCheckpointRepository importCheckpointRepository,
+            final MeterRegistry registry,
+            final int rowsPerChunk,
+            final int parallelism) {
+        this.accountOperations = accountAffiliationOperations;
+        this.creditOperations = creditAffiliationOperations;
+        this.accountRepository = accountAffiliationRepository;
+        this.creditRepository = creditAffiliationRepository;
+        this.checkpoints = importCheckpointRepository;
+        this.meterRegistry = registry;
+        this.chunkSize = rowsPerChunk;
+        this.concurrency = parallelism;
+    }
+
+    /**
+     * Importa afiliaciones de cuentas bancarias.
+     * @param importId identificador de la importación.
+     * @param rows filas numeradas.
+     * @return Flux<ImportProgress>
+     */
+    @Override
+    public
+    Flux<ImportProgress>
+    importAccounts(final String importId,
+                   final Flux<BulkCreateResult<AccountAffiliation>> rows) {
+        return run(ACCOUNT, importId, rows, accountOperations::eligible,
+                AccountAffiliation::setId, accountRepository::createAll);
+    }
+
+    /**
+     * Importa afiliaciones de creditos.
+     * @param importId identificador de la importación.
+     * @param rows filas numeradas.
+     * @return Flux<ImportProgress>
+     */
+    @Override
+    public
+    Flux<ImportProgress>
+    importCredits(final String importId,
+                  final Flux<BulkCreateResult<CreditAffiliation>> rows) {
+        return run(CREDIT, importId, rows, creditOperations::eligible,
+                CreditAffiliation::setId, creditRepository::createAll);
+    }
+
+    /**
+     * Importa las filas desde el último punto de control.
+     * @param kind tipo de afiliación.
+     * @param importId identificador de la importación.
+     * @param rows filas numeradas.
+     * @param eligible verificación de una afiliación.
+     * @param assignId asigna el Id de una afiliación.
+     * @param createAll registro masivo.
+     * @param <A> afiliación.
+     * @return Flux<ImportProgress>
+     */
+    private <A>
+    Flux<ImportProgress>
+    run(final String kind, final String importId,
+        final Flux<BulkCreateResult<A>> rows,
+        final BiFunction<A, OutboundCallBudget, Mono<A>> eligible,
+        final BiConsumer<A, String> assignId,
+        final Function<List<A>, Flux<String>> createAll) {
+        return checkpoints.find(kind, importId)
+                .switchIfEmpty(Mono.fromSupplier(() -> {
+                    ImportProgress start = new ImportProgress();
+                    start.setImportId(importId);
+                    start.setKind(kind);
+                    return start;
+                }))
+                .flatMapMany(checkpoint -> {
+                    if (checkpoint.isCompleted()) {
+                        return Flux.just(checkpoint);
+                    }
+                    log.info("[run] Inicio: {} {} desde la fila {}",
+                            kind, importId, checkpoint.getLastLine());
+                    AtomicReference<ImportProgress> current
+                            = new AtomicReference<>(checkpoint);
+                    AtomicLong skipped = new AtomicLong();
+                    Set<String> claims = ConcurrentHashMap.newKeySet();
+                    return rows
+                            .filter(row -> {
+                                if (row.getIndex()
+                                        > checkpoint.getLastLine()) {
+                                    return true;
+                                }
+                                skipped.incrementAndGet();
+                                return false;
+                            })
+                            .buffer(chunkSize)
+                            .concatMap(chunk -> chunk(current.get(), chunk,
+                                    claims, eligible, assignId, createAll)
+                                    .doOnNext(progress -> progress
+                                            .setSkipped(skipped.get()))
+                                    .flatMap(checkpoints::save)
+                                    .doOnNext(current::set))
+                            .concatWith(Mono.defer(() -> {
+                                ImportProgress last = next(current.get());
+                                last.setSkipped(skipped.get());
+                                last.setCompleted(true);
+                                log.info("[run] Fin: {} {} => {} / {}",
+                                        kind, importId, last.getImported(),
+                                        last.getRejected());
+                                return checkpoints.save(last);
+                            }));
+                });
+    }
+
+    /**
+     * Procesa un bloque de filas.
+     * @param previous avance anterior.
+     * @param rows filas del bloque.
+     * @param claims productos aceptados en la importación.
+     * @param eligible verificación de una afiliación.
+     * @param assignId asigna el Id de una afiliación.
+     * @param createAll registro masivo.
+     * @param <A> afiliación.
+     * @return Mono<ImportProgress>
+     */
+    private <A>
+    Mono<ImportProgress>
+    chunk(final ImportProgress previous,
+          final List<BulkCreateResult<A>> rows,
+          final Set<String> claims,
+          final BiFunction<A, OutboundCallBudget, Mono<A>> eligible,
+          final BiConsumer<A, String> assignId,
+          final Function<List<A>, Flux<String>> createAll) {
+        OutboundCallBudget budget = new OutboundCallBudget(claims);
+        return Flux.fromIterable(rows)
+                .flatMap(row -> {
+                    if (row.getRejection() != null) {
+                        return Mono.just(row);
+                    }
+                    assignId.accept(row.getAffiliation(),
+                            idOf(previous, row.getIndex()));
+                    return eligible.apply(row.getAffiliation(), budget)
+                            .thenReturn(row)
+                            .onErrorResume(AffiliationRejectedException.class,
+                                    e -> {
+                                        row.setRejection(e.getReason());
+                                        return Mono.just(row);
+                                    });
+                }, concurrency)
+                .collectList()
+                .flatMap(checked -> {
+                    List<A> accepted = checked.stream()
+                            .filter(row -> row.getRejection() == null)
+                            .map(BulkCreateResult::getAffiliation)
+                            .collect(Collectors.toList());
+                    Mono<Set<String>> written = accepted.isEmpty()
+                            ? Mono.just(Collections.emptySet())
+                            : createAll.apply(accepted)
+                                    .collect(Collectors.toSet());
+                    return written.map(ids -> advance(previous, rows, ids));
+                })
+                .doFinally(signal -> {
+                    budget.cancel();
+                    budget.record(meterRegistry,
+                            previous.getKind() + "-import");
+                });
+    }
+
+    /**
+     * Avance después de escribir un bloque.
+     * @param previous avance anterior.
+     * @param rows filas del bloque.
+     * @param written Ids registrados.
+     * @param <A> afiliación.
+     * @return ImportProgress
+     */
+    private <A>
+    ImportProgress
+    advance(final ImportProgress previous,
+            final List<BulkCreateResult<A>> rows,
+            final Set<String> written) {
+        ImportProgress progress = next(previous);
+        for (BulkCreateResult<A> row : rows) {
+            RejectionReason rejection = row.getRejection();
+            if (rejection == null
+                    && !written.contains(idOf(previous, row.getIndex()))) {
+                rejection = RejectionReason.WRITE_FAILED;
+            }
+            if (rejection == null) {
+                progress.setImported(progress.getImported() + 1);
+            } else {
+                progress.setRejected(progress.getRejected() + 1);
+                progress.getErrors().add(
+                        new BulkCreateResult<>(row.getIndex(), null,
+                                rejection));
+            }
+            progress.setLastLine(Math.max(progress.getLastLine(),
+                    row.getIndex()));
+        }
+        meterRegistry.counter(METRIC, "kind", previous.getKind(),
+                "result", "imported").increment(
+                        progress.getImported() - previous.getImported());
+        meterRegistry.counter(METRIC, "kind", previous.getKind(),
+                "result", "rejected").increment(
+                        progress.getRejected() - previous.getRejected());
+        return progress;
+    }
+
+    /**
+     * Copia del avance, sin los rechazos del bloque anterior.
+     * @param previous avance anterior.
+     * @return ImportProgress
+     */
+    private static ImportProgress next(final ImportProgress previous) {
+        ImportProgress progress = new ImportProgress();
+        progress.setImportId(previous.getImportId());
+        progress.setKind(previous.getKind());
+        progress.setLastLine(previous.getLastLine());
+        progress.setImported(previous.getImported());
+        progress.setRejected(previous.getRejected());
+        progress.setSkipped(previous.getSkipped());
+        return progress;
+    }
+
+    /**
+     * Id de la afiliación de una fila: los 12 primeros bytes del SHA-1 del
+     * tipo, la importación y el número de fila (formato de ObjectId).
+     * @param progress importación.
+     * @param line número de fila.
+     * @return String
+     */
+    private static String idOf(final ImportProgress progress,
+                               final long line) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-1").digest(
+                    (progress.getKind() + ":" + progress.getImportId()
+                            + ":" + line).getBytes(StandardCharsets.UTF_8));
+            StringBuilder id = new StringBuilder();
+            for (int i = 0; i < 12; i++) {
+                id.append(String.format("%02x", hash[i]));
+            }
+            return id.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
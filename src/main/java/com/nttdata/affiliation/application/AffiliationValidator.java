@@ -0,0 +1,81 @@
+package com.nttdata.affiliation.application;
+
+import com.nttdata.affiliation.domain.AccountAffiliation;
+import com.nttdata.affiliation.domain.CreditAffiliation;
+import com.nttdata.affiliation.domain.bean.RejectionReason;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+/**
+ * AFFILIATIONVALIDATOR.
+ * Validaciones locales de una afiliación; se ejecutan antes de cualquier
+ * llamada a los servicios de cliente y producto o a la BD.
+ */
+@Component
+public class AffiliationValidator {
+    /**
+     * Valida una afiliación de cuenta bancaria.
+     * @param accountAffiliation afiliación de cuenta.
+     * @return Optional<RejectionReason> vacío si es válida.
+     */
+    public Optional<RejectionReason> validate(
+            final AccountAffiliation accountAffiliation) {
+        if (isBlank(accountAffiliation.getIdCustomer())) {
+            return Optional.of(RejectionReason.MISSING_CUSTOMER);
+        }
+        if (isBlank(accountAffiliation.getIdAccount())) {
+            return Optional.of(RejectionReason.MISSING_PRODUCT);
+        }
+        if (accountAffiliation.getNumberOfHolder() < 1) {
+            return Optional.of(RejectionReason.INVALID_HOLDERS);
+        }
+        if (accountAffiliation.getNumberOfSigner() < 0) {
+            return Optional.of(RejectionReason.INVALID_SIGNERS);
+        }
+        if (isNegative(accountAffiliation.getBaseAmount())
+                || isNegative(accountAffiliation.getBalance())) {
+            return Optional.of(RejectionReason.NEGATIVE_AMOUNT);
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Valida una afiliación de credito.
+     * @param creditAffiliation afiliación de credito.
+     * @return Optional<RejectionReason> vacío si es válida.
+     */
+    public Optional<RejectionReason> validate(
+            final CreditAffiliation creditAffiliation) {
+        if (isBlank(creditAffiliation.getIdCustomer())) {
+            return Optional.of(RejectionReason.MISSING_CUSTOMER);
+        }
+        if (isBlank(creditAffiliation.getIdCredit())) {
+            return Optional.of(RejectionReason.MISSING_PRODUCT);
+        }
+        if (isNegative(creditAffiliation.getBaseAmount())
+                || isNegative(creditAffiliation.getBalance())
+                || isNegative(creditAffiliation.getCreditLimit())) {
+            return Optional.of(RejectionReason.NEGATIVE_AMOUNT);
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Indica si un texto es nulo o vacío.
+     * @param value texto.
+     * @return boolean
+     */
+    private static boolean isBlank(final String value) {
+        return value == null || value.isBlank();
+    }
+
+    /**
+     * Indica si un monto es negativo.
+     * @param value monto.
+     * @return boolean
+     */
+    private static boolean isNegative(final Double value) {
+        return value != null && value < 0;
+    }
+}
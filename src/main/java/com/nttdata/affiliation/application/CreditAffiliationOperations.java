@@ -1,9 +1,11 @@
 package com.nttdata.affiliation.application;
 
 import com.nttdata.affiliation.domain.AccountAffiliation;
+import com.nttdata.affiliation.domain.AffiliationSummary;
 import com.nttdata.affiliation.domain.CreditAffiliation;
 import com.nttdata.affiliation.domain.bean.Credit;
 import com.nttdata.affiliation.domain.bean.Customer;
+import com.nttdata.affiliation.domain.bean.SummaryGroup;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
@@ -21,6 +23,17 @@ public interface CreditAffiliationOperations {
     Mono<CreditAffiliation>
     create(CreditAffiliation creditAffiliation);
 
+    /**
+     * Verifica, sin registrarla, que una afiliación de credito cumpla los
+     * requisitos; los rechazos se emiten como AffiliationRejectedException.
+     * @param creditAffiliation afiliación de credito.
+     * @param budget llamadas externas compartidas (cliente y producto).
+     * @return Mono<CreditAffiliation>
+     */
+    Mono<CreditAffiliation>
+    eligible(CreditAffiliation creditAffiliation,
+             OutboundCallBudget budget);
+
     /**
      * Actualización de un credito para un cliente.
      * @param id codigo.
@@ -33,9 +46,9 @@ public interface CreditAffiliationOperations {
     /**
      * Eliminación de un credito para un cliente.
      * @param id codigo.
-     * @return Mono<CreditAffiliationDao>
+     * @return Mono<Boolean> true si se eliminó, false si no existe.
      */
-    Mono<Void>
+    Mono<Boolean>
     delete(String id);
 
     /**
@@ -85,4 +98,13 @@ public interface CreditAffiliationOperations {
      */
     Mono<Credit>
     getProductCreditById(final String idAccount);
+
+    /**
+     * Totales de afiliaciones de creditos calculados en la BD.
+     * @param groupBy agrupación (cliente o tipo de credito).
+     * @param idCustomer Codigo del cliente (opcional).
+     * @return Flux<AffiliationSummary>
+     */
+    Flux<AffiliationSummary>
+    summarize(SummaryGroup groupBy, String idCustomer);
 }
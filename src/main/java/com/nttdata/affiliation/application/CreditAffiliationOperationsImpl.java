@@ -1,12 +1,20 @@
 package com.nttdata.affiliation.application;
 
 import com.nttdata.affiliation.domain.AccountAffiliation;
+import com.nttdata.affiliation.domain.AffiliationRejectedException;
+import com.nttdata.affiliation.domain.AffiliationSummary;
 import com.nttdata.affiliation.domain.CreditAffiliation;
-import com.nttdata.affiliation.domain.bean.*;
+import com.nttdata.affiliation.domain.bean.Credit;
+import com.nttdata.affiliation.domain.bean.Customer;
+import com.nttdata.affiliation.domain.bean.RejectionReason;
+import com.nttdata.affiliation.domain.bean.SummaryGroup;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+
+import java.util.Optional;
 /**
  * CREDITAFFILIATIONOPERATIONSIMPL.
  * Implementa las operaciones (CRUD) de la afiliación
@@ -20,19 +28,41 @@ public class CreditAffiliationOperationsImpl
      * Repositorio de los registros (Afiliación) de creditos.
      */
     private final CreditAffiliationRepository creditAffiliationRepository;
+    /**
+     * Tabla de elegibilidad.
+     */
+    private final EligibilityPolicy eligibilityPolicy;
+    /**
+     * Validaciones locales.
+     */
+    private final AffiliationValidator validator;
+    /**
+     * Registro de métricas.
+     */
+    private final MeterRegistry meterRegistry;
 
     /**
      * Constructor.
      * @param repository repositorio.
+     * @param policy tabla de elegibilidad.
+     * @param affiliationValidator validaciones locales.
+     * @param registry registro de métricas.
      */
     public
     CreditAffiliationOperationsImpl(
-            final CreditAffiliationRepository repository) {
+            final CreditAffiliationRepository repository,
+            final EligibilityPolicy policy,
+            final AffiliationValidator affiliationValidator,
+            final MeterRegistry registry) {
       this.creditAffiliationRepository = repository;
+      this.eligibilityPolicy = policy;
+      this.validator = affiliationValidator;
+      this.meterRegistry = registry;
     }
 
     /**
      * Creación de credito para un cliente.
+     * Se registra solo si cumple los requisitos (ver eligible).
      * @param creditAffiliation afiliación de credito.
      * @return Mono<CreditAffiliation>
      */
@@ -40,57 +70,126 @@ public class CreditAffiliationOperationsImpl
     public
     Mono<CreditAffiliation>
     create(final CreditAffiliation creditAffiliation) {
-        log.info("[Greg] Inicio");
+        log.info("[create] Inicio");
+        OutboundCallBudget budget = new OutboundCallBudget();
+        return eligible(creditAffiliation, budget)
+                .flatMap(creditAffiliationRepository::create)
+                .doFinally(signal -> {
+                    budget.cancel();
+                    budget.record(meterRegistry, "credit");
+                });
+    }
+
+    /**
+     * Verifica que una afiliación de credito cumpla los requisitos.
+     * Primero se aplican las validaciones locales; luego la decisión se
+     * toma en la tabla de elegibilidad según el tipo de cliente y el tipo
+     * de credito. Los rechazos se emiten como AffiliationRejectedException.
+     * Cada cliente y cada producto se consulta una sola vez por budget;
+     * el cliente y el credito se consultan en paralelo y, si uno de ellos
+     * se rechaza, se cancela la otra consulta.
+     * @param creditAffiliation afiliación de credito.
+     * @param budget llamadas externas compartidas.
+     * @return Mono<CreditAffiliation>
+     */
+    @Override
+    public
+    Mono<CreditAffiliation>
+    eligible(final CreditAffiliation creditAffiliation,
+             final OutboundCallBudget budget) {
+        Optional<RejectionReason> rejection
+                = validator.validate(creditAffiliation);
+        if (rejection.isPresent()) {
+            return reject(rejection.get());
+        }
         Mono<Customer>
-                customers = getCustomerById(creditAffiliation.getIdCustomer());
+                customer = budget.call(OutboundCallBudget.CUSTOMER,
+                        creditAffiliation.getIdCustomer(),
+                        () -> getCustomerById(creditAffiliation.getIdCustomer()))
+                .filter(c -> c.getCustomerType() != null)
+                .switchIfEmpty(reject(RejectionReason.CUSTOMER_NOT_FOUND));
         Mono<Credit>
-                credits = getProductCreditById(creditAffiliation.getIdCredit());
-
-        Mono<Customer> customersEnterprise
-                = customers.filter(a -> a.getCustomerType() !=null && a.getCustomerType().equals(CustomerType.EMPRESARIAL));
-        Mono<Customer> customersPersonal
-                = customers.filter(a -> a.getCustomerType() !=null && a.getCustomerType().equals(CustomerType.PERSONAL));
-
-        Mono<Credit> creditsEnterprise
-                = credits.filter(a -> a.getCreditType() !=null && (a.getCreditType().equals(CreditType.CREDITO_EMPRESARIAL) ||
-                                 a.getCreditType().equals(CreditType.TARJETA_DE_CREDITO_EMPRESARIAL)));
-
-        Mono<Credit> creditsPersonal
-                = credits.filter(a -> a.getCreditType() !=null && (a.getCreditType().equals(CreditType.CREDITO_PERSONAL) ||
-                                 a.getCreditType().equals(CreditType.TARJETA_DE_CREDITO_PERSONAL)));
-
-        /*Registro de Empresa si cumple condición:*/
-        log.info("[Greg] Analizando los requisitos de la empresa ");
-        Mono<CreditAffiliation> credAffEnterprise = Mono
-           .zip(customersEnterprise, creditsEnterprise, (customer,credit) -> {
-                CreditAffiliation affiliation = new CreditAffiliation();
-                affiliation.setCustomer(customer);
-                affiliation.setCredit(credit);
-            return affiliation;
-        });
-        Mono<CreditAffiliation> creditEnterprise = credAffEnterprise.filter( c -> c.getCustomer() != null && c.getCredit() != null)
-                    .flatMap(a -> creditAffiliationRepository.create(creditAffiliation));
-
-        /*Regitro de Persona si cumple condición*/
-        log.info("[Greg] Analizando los requisitos de la persona ");
-        Mono<CreditAffiliation> credAffPersonal = Mono.zip(customersPersonal, creditsPersonal, (customer,credit) -> {
-            CreditAffiliation affiliation = new CreditAffiliation();
-            affiliation.setCustomer(customer);
-            affiliation.setCredit(credit);
-            return affiliation;
-        });
-        Mono<CreditAffiliation> creditPersonal = credAffPersonal.filter( c -> c.getCustomer() != null && c.getCredit() != null)
-                    .flatMap(a ->creditAffiliationRepository.create(creditAffiliation));//subscribe(a -> log.info("[Greg] grabar Persona"));
-
-        log.info("[Greg] Realizando el registro o descartando los datos de afilicación por no cumplir requisitos");
-
-        return creditEnterprise
-                .switchIfEmpty(creditPersonal
-                        .switchIfEmpty(Mono
-                                .just(new CreditAffiliation())
-                                .map(personalAffiliation-> personalAffiliation))
-                        .map(enterpriseAffiliation->enterpriseAffiliation)
-                );
+                credit = getProductCreditById(budget,
+                        creditAffiliation.getIdCredit())
+                .filter(c -> c.getCreditType() != null)
+                .switchIfEmpty(reject(RejectionReason.PRODUCT_NOT_FOUND));
+
+        return Mono.zip(customer, credit)
+                .flatMap(t -> {
+                    Customer c = t.getT1();
+                    Credit cr = t.getT2();
+                    switch (eligibilityPolicy.creditRule(
+                            c.getCustomerType(), cr.getCreditType())) {
+                        case ALLOWED:
+                            return Mono.just(creditAffiliation);
+                        case ONE_PER_TYPE:
+                            return onePerType(
+                                    budget, creditAffiliation, cr);
+                        default:
+                            log.info("[eligible] Rechazado: {} / {}",
+                                    c.getCustomerType(), cr.getCreditType());
+                            return reject(RejectionReason.NOT_ELIGIBLE);
+                    }
+                });
+    }
+
+    /**
+     * Rechazo de una afiliación.
+     * @param reason motivo del rechazo.
+     * @param <T> tipo del resultado.
+     * @return Mono<T>
+     */
+    private static <T>
+    Mono<T>
+    reject(final RejectionReason reason) {
+        return Mono.error(new AffiliationRejectedException(reason));
+    }
+
+    /**
+     * Un solo credito por tipo: ni en la BD ni entre los ya aceptados con
+     * el mismo budget (filas de una importación). La afiliación con el
+     * mismo Id no cuenta: es la propia fila, ya registrada, de una
+     * importación que se reanuda.
+     * @param budget llamadas externas del registro.
+     * @param creditAffiliation afiliación de credito.
+     * @param credit credito.
+     * @return Mono<CreditAffiliation>
+     */
+    private
+    Mono<CreditAffiliation>
+    onePerType(
+            final OutboundCallBudget budget,
+            final CreditAffiliation creditAffiliation,
+            final Credit credit) {
+        return findByIdCustomer(creditAffiliation.getIdCustomer())
+                .filter(crAffiliation -> creditAffiliation.getId() == null
+                        || !creditAffiliation.getId()
+                                .equals(crAffiliation.getId()))
+                .filterWhen(crAffiliation ->
+                        getProductCreditById(budget,
+                                crAffiliation.getIdCredit())
+                                .map(c -> c.getCreditType()
+                                        == credit.getCreditType()))
+                .hasElements()
+                .flatMap(exists -> exists || !budget.claim(
+                                creditAffiliation.getIdCustomer(),
+                                credit.getCreditType())
+                        ? reject(RejectionReason.DUPLICATE_PRODUCT_TYPE)
+                        : Mono.just(creditAffiliation));
+    }
+
+    /**
+     * Obtenemos los datos del credito una sola vez por registro.
+     * @param budget llamadas externas del registro.
+     * @param idCredit codigo del credito.
+     * @return Mono<Credit>
+     */
+    private
+    Mono<Credit>
+    getProductCreditById(final OutboundCallBudget budget,
+                         final String idCredit) {
+        return budget.call(OutboundCallBudget.CREDIT_PRODUCT, idCredit,
+                () -> getProductCreditById(idCredit));
     }
 
     /**
@@ -120,11 +219,11 @@ public class CreditAffiliationOperationsImpl
     /**
      * Eliminación de un credito para un cliente.
      * @param id codigo.
-     * @return Mono<CreditAffiliationDao>
+     * @return Mono<Boolean> true si se eliminó, false si no existe.
      */
     @Override
     public
-    Mono<Void>
+    Mono<Boolean>
     delete(final String id) {
         return creditAffiliationRepository.delete(id);
     }
@@ -184,7 +283,7 @@ public class CreditAffiliationOperationsImpl
      */
     @Override
     public Mono<Customer> getCustomerById(String idCustomer) {
-        log.info("[getCustomerById] idAccount:"+idCustomer);
+        log.debug("[getCustomerById] idCustomer: {}", idCustomer);
         return creditAffiliationRepository.getCustomerById(idCustomer);
     }
 
@@ -195,7 +294,20 @@ public class CreditAffiliationOperationsImpl
      */
     @Override
     public Mono<Credit> getProductCreditById(String idCredit) {
-        log.info("[getProductCreditById] idCredit:"+idCredit);
+        log.debug("[getProductCreditById] idCredit: {}", idCredit);
         return creditAffiliationRepository.getProductCreditById(idCredit);
     }
+
+    /**
+     * Totales de afiliaciones de creditos calculados en la BD.
+     * @param groupBy agrupación (cliente o tipo de credito).
+     * @param idCustomer Codigo del cliente (opcional).
+     * @return Flux<AffiliationSummary>
+     */
+    @Override
+    public
+    Flux<AffiliationSummary>
+    summarize(final SummaryGroup groupBy, final String idCustomer) {
+        return creditAffiliationRepository.summarize(groupBy, idCustomer);
+    }
 }
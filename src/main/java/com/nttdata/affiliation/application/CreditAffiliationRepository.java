@@ -1,10 +1,15 @@
 package com.nttdata.affiliation.application;
 
+import com.nttdata.affiliation.domain.AffiliationSummary;
 import com.nttdata.affiliation.domain.CreditAffiliation;
 import com.nttdata.affiliation.domain.bean.Credit;
 import com.nttdata.affiliation.domain.bean.Customer;
+import com.nttdata.affiliation.domain.bean.SummaryGroup;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+
+import java.util.List;
+
 /**
  * CREDITAFFILIATIONREPOSITORY.
  * Define las operaciones en la BD para
@@ -19,6 +24,16 @@ public interface CreditAffiliationRepository {
     Mono<CreditAffiliation>
     create(CreditAffiliation creditAffiliation);
 
+    /**
+     * Registro masivo de afiliaciones de creditos con Id asignado, sin
+     * orden; una afiliación que ya existe con el mismo Id se considera
+     * registrada.
+     * @param creditAffiliations afiliaciones.
+     * @return Flux<String> Ids registrados.
+     */
+    Flux<String>
+    createAll(List<CreditAffiliation> creditAffiliations);
+
     /**
      * Actualización de un credito para un cliente.
      * @param id codigo.
@@ -31,9 +46,9 @@ public interface CreditAffiliationRepository {
     /**
      * Eliminación de un credito para un cliente.
      * @param id codigo.
-     * @return Mono<CreditAffiliationDao>
+     * @return Mono<Boolean> true si se eliminó, false si no existe.
      */
-    Mono<Void>
+    Mono<Boolean>
     delete(String id);
 
     /**
@@ -81,4 +96,13 @@ public interface CreditAffiliationRepository {
      */
     Mono<Credit>
     getProductCreditById(final String idAccount);
+
+    /**
+     * Totales de afiliaciones de creditos calculados en la BD.
+     * @param groupBy agrupación (cliente o tipo de credito).
+     * @param idCustomer Codigo del cliente (opcional).
+     * @return Flux<AffiliationSummary>
+     */
+    Flux<AffiliationSummary>
+    summarize(SummaryGroup groupBy, String idCustomer);
 }
@@ -0,0 +1,19 @@
+package com.nttdata.affiliation.application;
+
+import com.nttdata.affiliation.domain.CustomerPortfolio;
+import reactor.core.publisher.Mono;
+
+/**
+ * CUSTOMERPORTFOLIOOPERATIONS.
+ * Define las operaciones de consulta del portafolio
+ *                               (cuentas bancarias y creditos) de un cliente.
+ */
+public interface CustomerPortfolioOperations {
+    /**
+     * Portafolio de afiliaciones de un cliente.
+     * @param idCustomer Codigo del cliente.
+     * @return Mono<CustomerPortfolio>
+     */
+    Mono<CustomerPortfolio>
+    findByIdCustomer(String idCustomer);
+}
@@ -0,0 +1,113 @@
+package com.nttdata.affiliation.application;
+
+import com.nttdata.affiliation.domain.AccountAffiliation;
+import com.nttdata.affiliation.domain.CreditAffiliation;
+import com.nttdata.affiliation.domain.CustomerPortfolio;
+import com.nttdata.affiliation.domain.bean.Account;
+import com.nttdata.affiliation.domain.bean.Credit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.function.Tuples;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * CUSTOMERPORTFOLIOOPERATIONSIMPL.
+ * Implementa la consulta del portafolio de un cliente: las afiliaciones
+ * de cuentas y de creditos se consultan en paralelo, el cliente se obtiene
+ * una sola vez y cada producto distinto se consulta una sola vez.
+ */
+@Service
+@Slf4j
+public class CustomerPortfolioOperationsImpl
+        implements CustomerPortfolioOperations {
+    /**
+     * Repositorio de los registros (Afiliación) de cuentas bancarias.
+     */
+    private final AccountAffiliationRepository accountRepository;
+    /**
+     * Repositorio de los registros (Afiliación) de creditos.
+     */
+    private final CreditAffiliationRepository creditRepository;
+
+    /**
+     * Constructor.
+     * @param accountAffiliationRepository repositorio de cuentas.
+     * @param creditAffiliationRepository repositorio de creditos.
+     */
+    public
+    CustomerPortfolioOperationsImpl(
+            final AccountAffiliationRepository accountAffiliationRepository,
+            final CreditAffiliationRepository creditAffiliationRepository) {
+        this.accountRepository = accountAffiliationRepository;
+        this.creditRepository = creditAffiliationRepository;
+    }
+
+    /**
+     * Portafolio de afiliaciones de un cliente.
+     * @param idCustomer Codigo del cliente.
+     * @return Mono<CustomerPortfolio>
+     */
+    @Override
+    public
+    Mono<CustomerPortfolio>
+    findByIdCustomer(final String idCustomer) {
+        log.debug("[findByIdCustomer] Inicio: {}", idCustomer);
+        return Mono.zip(
+                accountRepository.findByIdCustomer(idCustomer).collectList(),
+                creditRepository.findByIdCustomer(idCustomer).collectList())
+                .filter(t -> !t.getT1().isEmpty() || !t.getT2().isEmpty())
+                .flatMap(t -> Mono.zip(
+                        creditRepository.getCustomerById(idCustomer),
+                        resolve(t.getT1(), AccountAffiliation::getIdAccount,
+                                id -> accountRepository
+                                        .getProductAccountById(id).next()),
+                        resolve(t.getT2(), CreditAffiliation::getIdCredit,
+                                creditRepository::getProductCreditById))
+                        .map(r -> {
+                            Map<String, Account> accounts = r.getT2();
+                            Map<String, Credit> credits = r.getT3();
+                            t.getT1().forEach(a -> {
+                                a.setCustomer(r.getT1());
+                                a.setAccount(accounts.get(a.getIdAccount()));
+                            });
+                            t.getT2().forEach(c -> {
+                                c.setCustomer(r.getT1());
+                                c.setCredit(credits.get(c.getIdCredit()));
+                            });
+                            CustomerPortfolio portfolio
+                                    = new CustomerPortfolio();
+                            portfolio.setIdCustomer(idCustomer);
+                            portfolio.setCustomer(r.getT1());
+                            portfolio.setAccounts(t.getT1());
+                            portfolio.setCredits(t.getT2());
+                            return portfolio;
+                        }));
+    }
+
+    /**
+     * Obtiene una sola vez cada producto distinto de las afiliaciones
+     * (las que no tienen producto se omiten).
+     * @param affiliations afiliaciones.
+     * @param productId Id del producto de la afiliación.
+     * @param lookup consulta del producto.
+     * @param <A> afiliación.
+     * @param <P> producto.
+     * @return Mono<Map<String, P>>
+     */
+    private <A, P>
+    Mono<Map<String, P>>
+    resolve(final List<A> affiliations,
+            final Function<A, String> productId,
+            final Function<String, Mono<P>> lookup) {
+        return Flux.fromIterable(affiliations)
+                .mapNotNull(productId)
+                .distinct()
+                .flatMap(id -> lookup.apply(id).map(p -> Tuples.of(id, p)))
+                .collectMap(p -> p.getT1(), p -> p.getT2());
+    }
+}
@@ -0,0 +1,95 @@
+package com.nttdata.affiliation.application;
+
+import com.nttdata.affiliation.domain.bean.AccountType;
+import com.nttdata.affiliation.domain.bean.CreditType;
+import com.nttdata.affiliation.domain.bean.CustomerType;
+import com.nttdata.affiliation.domain.bean.EligibilityRule;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * ELIGIBILITYPOLICY.
+ * Tabla de decisión (tipo de cliente x tipo de producto) precompilada en
+ * EnumMap al iniciar. Las combinaciones no configuradas quedan como
+ * DENIED, de modo que ningún tipo de cliente queda sin decisión.
+ */
+public class EligibilityPolicy {
+    /**
+     * Reglas de afiliación de cuentas bancarias.
+     */
+    private final Map<CustomerType, Map<AccountType, EligibilityRule>>
+            accountRules;
+    /**
+     * Reglas de afiliación de creditos.
+     */
+    private final Map<CustomerType, Map<CreditType, EligibilityRule>>
+            creditRules;
+
+    /**
+     * Constructor.
+     * @param account reglas de cuentas bancarias.
+     * @param credit reglas de creditos.
+     */
+    public EligibilityPolicy(
+            final Map<CustomerType, Map<AccountType, EligibilityRule>> account,
+            final Map<CustomerType, Map<CreditType, EligibilityRule>> credit) {
+        this.accountRules = compile(account, AccountType.class);
+        this.creditRules = compile(credit, CreditType.class);
+    }
+
+    /**
+     * Decisión para afiliar un cliente a una cuenta bancaria.
+     * @param customerType tipo de cliente.
+     * @param accountType tipo de cuenta bancaria.
+     * @return EligibilityRule
+     */
+    public EligibilityRule accountRule(final CustomerType customerType,
+                                       final AccountType accountType) {
+        if (customerType == null || accountType == null) {
+            return EligibilityRule.DENIED;
+        }
+        return accountRules.get(customerType).get(accountType);
+    }
+
+    /**
+     * Decisión para afiliar un cliente a un credito.
+     * @param customerType tipo de cliente.
+     * @param creditType tipo de credito.
+     * @return EligibilityRule
+     */
+    public EligibilityRule creditRule(final CustomerType customerType,
+                                      final CreditType creditType) {
+        if (customerType == null || creditType == null) {
+            return EligibilityRule.DENIED;
+        }
+        return creditRules.get(customerType).get(creditType);
+    }
+
+    /**
+     * Completa la tabla para todas las combinaciones de tipos.
+     * @param rules reglas configuradas.
+     * @param productType tipo de producto.
+     * @param <P> tipo de producto.
+     * @return Map<CustomerType, Map<P, EligibilityRule>>
+     */
+    private static <P extends Enum<P>>
+    Map<CustomerType, Map<P, EligibilityRule>>
+    compile(final Map<CustomerType, Map<P, EligibilityRule>> rules,
+            final Class<P> productType) {
+        Map<CustomerType, Map<P, EligibilityRule>> table
+                = new EnumMap<>(CustomerType.class);
+        for (CustomerType customerType : CustomerType.values()) {
+            Map<P, EligibilityRule> row = new EnumMap<>(productType);
+            Map<P, EligibilityRule> configured = rules == null
+                    ? null : rules.get(customerType);
+            for (P product : productType.getEnumConstants()) {
+                EligibilityRule rule = configured == null
+                        ? null : configured.get(product);
+                row.put(product, rule == null ? EligibilityRule.DENIED : rule);
+            }
+            table.put(customerType, row);
+        }
+        return table;
+    }
+}
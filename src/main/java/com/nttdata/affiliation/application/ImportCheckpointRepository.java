@@ -0,0 +1,28 @@
+package com.nttdata.affiliation.application;
+
+import com.nttdata.affiliation.domain.ImportProgress;
+import reactor.core.publisher.Mono;
+
+/**
+ * IMPORTCHECKPOINTREPOSITORY.
+ * Define las operaciones en la BD para los puntos de control
+ * de las importaciones masivas de afiliaciones
+ */
+public interface ImportCheckpointRepository {
+    /**
+     * Último punto de control de una importación.
+     * @param kind tipo de afiliación (account o credit).
+     * @param importId identificador de la importación.
+     * @return Mono<ImportProgress> vacío si la importación es nueva.
+     */
+    Mono<ImportProgress>
+    find(String kind, String importId);
+
+    /**
+     * Guarda el punto de control de una importación.
+     * @param progress avance de la importación.
+     * @return Mono<ImportProgress>
+     */
+    Mono<ImportProgress>
+    save(ImportProgress progress);
+}
@@ -0,0 +1,153 @@
+package com.nttdata.affiliation.application;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * OUTBOUNDCALLBUDGET.
+ * Llamadas a los servicios externos de una sola operación de registro:
+ * cada entidad (servicio + Id) se consulta una vez y el resultado se
+ * comparte entre todos los que la necesiten. Al terminar se registra la
+ * cantidad de llamadas realizadas por servicio. También lleva los
+ * productos (cliente y tipo) ya aceptados, que una importación comparte
+ * entre todos sus bloques.
+ */
+public class OutboundCallBudget {
+    /**
+     * Métrica de llamadas externas por registro.
+     */
+    public static final String METRIC = "affiliation.create.outbound.calls";
+    /**
+     * Servicio de clientes.
+     */
+    public static final String CUSTOMER = "customer";
+    /**
+     * Servicio de productos: cuentas bancarias.
+     */
+    public static final String ACCOUNT_PRODUCT = "account-product";
+    /**
+     * Servicio de productos: creditos.
+     */
+    public static final String CREDIT_PRODUCT = "credit-product";
+    /**
+     * Resultados compartidos por servicio e Id.
+     */
+    private final Map<String, Mono<?>> calls = new ConcurrentHashMap<>();
+    /**
+     * Llamadas realizadas por servicio.
+     */
+    private final Map<String, AtomicInteger> counts = new ConcurrentHashMap<>();
+    /**
+     * Llamadas iniciadas.
+     */
+    private final Queue<Disposable> pending = new ConcurrentLinkedQueue<>();
+    /**
+     * Cliente y tipo de producto aceptados.
+     */
+    private final Set<String> claims;
+
+    /**
+     * Constructor de una sola operación de registro.
+     */
+    public OutboundCallBudget() {
+        this(ConcurrentHashMap.newKeySet());
+    }
+
+    /**
+     * Constructor de un bloque de importación.
+     * @param acceptedProducts cliente y tipo de producto aceptados en la
+     *                         importación (concurrente).
+     */
+    public OutboundCallBudget(final Set<String> acceptedProducts) {
+        this.claims = acceptedProducts;
+    }
+
+    /**
+     * Obtiene una entidad de un servicio externo una sola vez.
+     * La llamada se inicia con el primer suscriptor y su resultado se
+     * comparte con los demás.
+     * @param downstream servicio externo.
+     * @param id codigo de la entidad.
+     * @param supplier llamada al servicio.
+     * @param <T> entidad.
+     * @return Mono<T>
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Mono<T> call(final String downstream, final String id,
+                            final Supplier<Mono<T>> supplier) {
+        return (Mono<T>) calls.computeIfAbsent(downstream + ":" + id,
+                key -> {
+                    Sinks.One<T> result = Sinks.one();
+                    AtomicBoolean started = new AtomicBoolean();
+                    return Mono.deferContextual(context -> {
+                        if (started.compareAndSet(false, true)) {
+                            counts.computeIfAbsent(downstream,
+                                    d -> new AtomicInteger()).incrementAndGet();
+                            pending.add(supplier.get()
+                                    .contextWrite(context)
+                                    .subscribe(
+                                            result::tryEmitValue,
+                                            result::tryEmitError,
+                                            result::tryEmitEmpty));
+                        }
+                        return result.asMono();
+                    });
+                });
+    }
+
+    /**
+     * Reserva un tipo de producto para un cliente (regla ONE_PER_TYPE).
+     * @param idCustomer codigo del cliente.
+     * @param productType tipo de producto.
+     * @return boolean false si ya se aceptó otra afiliación del cliente
+     *         con el mismo tipo de producto.
+     */
+    public boolean claim(final String idCustomer, final Enum<?> productType) {
+        return claims.add(idCustomer + ":" + productType.name());
+    }
+
+    /**
+     * Cancela las llamadas que aún no terminan (por ejemplo, cuando otra
+     * consulta del mismo registro ya fue rechazada).
+     */
+    public void cancel() {
+        pending.forEach(Disposable::dispose);
+    }
+
+    /**
+     * Cantidad de llamadas realizadas a un servicio externo.
+     * @param downstream servicio externo.
+     * @return int
+     */
+    public int count(final String downstream) {
+        AtomicInteger count = counts.get(downstream);
+        return count == null ? 0 : count.get();
+    }
+
+    /**
+     * Registra las llamadas realizadas por servicio.
+     * @param registry registro de métricas.
+     * @param operation operación (account o credit).
+     */
+    public void record(final MeterRegistry registry, final String operation) {
+        counts.forEach((downstream, count) -> DistributionSummary
+                .builder(METRIC)
+                .description("Llamadas externas por registro de afiliación")
+                .tag("operation", operation)
+                .tag("downstream", downstream)
+                .register(registry)
+                .record(count.get()));
+    }
+}
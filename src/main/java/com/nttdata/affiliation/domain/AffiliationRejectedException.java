@@ -0,0 +1,26 @@
+package com.nttdata.affiliation.domain;
+
+import com.nttdata.affiliation.domain.bean.RejectionReason;
+import lombok.Getter;
+
+/**
+ * AFFILIATIONREJECTEDEXCEPTION.
+ * Indica que una afiliación no cumple los requisitos para registrarse
+ */
+@Getter
+public class AffiliationRejectedException extends RuntimeException {
+    /**
+     * Motivo del rechazo.
+     */
+    private final RejectionReason reason;
+
+    /**
+     * Constructor.
+     * @param rejectionReason motivo del rechazo.
+     */
+    public AffiliationRejectedException(
+            final RejectionReason rejectionReason) {
+        super(rejectionReason.name(), null, false, false);
+        this.reason = rejectionReason;
+    }
+}
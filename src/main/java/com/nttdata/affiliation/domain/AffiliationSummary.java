@@ -0,0 +1,28 @@
+package com.nttdata.affiliation.domain;
+
+import lombok.Data;
+
+/**
+ * AFFILIATIONSUMMARY.
+ * La clase Resumen de afiliaciones contendrá los totales calculados
+ * en la BD para un grupo (cliente, estado o tipo de producto)
+ */
+@Data
+public class AffiliationSummary {
+    /**
+     * Valor del grupo (Id del cliente, estado o tipo de producto).
+     */
+    private String key;
+    /**
+     * Cantidad de afiliaciones.
+     */
+    private long count;
+    /**
+     * Saldo total.
+     */
+    private Double totalBalance;
+    /**
+     * Promedio del monto base.
+     */
+    private Double averageBaseAmount;
+}
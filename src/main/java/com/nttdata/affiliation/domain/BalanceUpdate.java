@@ -0,0 +1,55 @@
+package com.nttdata.affiliation.domain;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * BALANCEUPDATE.
+ * Actualización del saldo y del día de movimiento de una afiliación de
+ * cuenta bancaria; los campos nulos no se modifican
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BalanceUpdate {
+    /**
+     * Saldo.
+     */
+    private Double balance;
+    /**
+     * Día de movimiento.
+     */
+    private String movementDay;
+    /**
+     * Cliente de la afiliación (clave de partición). Solo de salida: se
+     * obtiene del parámetro idCustomer o del modelo de lectura, nunca del
+     * cuerpo de la petición.
+     */
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private String idCustomer;
+    /**
+     * Indica que la actualización quedó pendiente de escritura
+     * (write-behind) en lugar de aplicarse en la BD. Solo de salida: el
+     * valor enviado por el cliente se ignora.
+     */
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private boolean pending;
+
+    /**
+     * Combina con una actualización posterior: los campos informados en
+     * la posterior prevalecen.
+     * @param later actualización posterior.
+     * @return BalanceUpdate
+     */
+    public BalanceUpdate merge(final BalanceUpdate later) {
+        return new BalanceUpdate(
+                later.getBalance() != null ? later.getBalance() : balance,
+                later.getMovementDay() != null
+                        ? later.getMovementDay() : movementDay,
+                later.getIdCustomer() != null
+                        ? later.getIdCustomer() : idCustomer,
+                later.isPending() || pending);
+    }
+}
@@ -0,0 +1,30 @@
+package com.nttdata.affiliation.domain;
+
+import com.nttdata.affiliation.domain.bean.RejectionReason;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * BULKCREATERESULT.
+ * Resultado del registro de una afiliación dentro de un registro masivo:
+ * la afiliación creada o el motivo de su rechazo
+ * @param <T> afiliación (cuenta o credito).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkCreateResult<T> {
+    /**
+     * Posición de la afiliación en la secuencia recibida.
+     */
+    private long index;
+    /**
+     * Afiliación creada.
+     */
+    private T affiliation;
+    /**
+     * Motivo del rechazo.
+     */
+    private RejectionReason rejection;
+}
@@ -0,0 +1,31 @@
+package com.nttdata.affiliation.domain;
+
+import com.nttdata.affiliation.domain.bean.Customer;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * CUSTOMERPORTFOLIO.
+ * La clase Portafolio del cliente contendrá los datos del cliente junto
+ * con sus afiliaciones de cuentas bancarias y de creditos
+ */
+@Data
+public class CustomerPortfolio {
+    /**
+     * Identificador del cliente.
+     */
+    private String idCustomer;
+    /**
+     * Datos del cliente.
+     */
+    private Customer customer;
+    /**
+     * Afiliaciones de cuentas bancarias.
+     */
+    private List<AccountAffiliation> accounts;
+    /**
+     * Afiliaciones de creditos.
+     */
+    private List<CreditAffiliation> credits;
+}
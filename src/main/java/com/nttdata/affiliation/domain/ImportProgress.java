@@ -0,0 +1,48 @@
+package com.nttdata.affiliation.domain;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * IMPORTPROGRESS.
+ * Avance de una importación masiva de afiliaciones; se emite al terminar
+ * cada bloque de filas y se guarda como punto de control para reanudar
+ * la importación desde la última fila procesada
+ */
+@Data
+public class ImportProgress {
+    /**
+     * Identificador de la importación.
+     */
+    private String importId;
+    /**
+     * Tipo de afiliación importada (account o credit).
+     */
+    private String kind;
+    /**
+     * Última fila procesada (las filas se numeran desde 1).
+     */
+    private long lastLine;
+    /**
+     * Filas registradas.
+     */
+    private long imported;
+    /**
+     * Filas rechazadas.
+     */
+    private long rejected;
+    /**
+     * Filas omitidas por haberse procesado en un intento anterior.
+     */
+    private long skipped;
+    /**
+     * Indica si la importación terminó.
+     */
+    private boolean completed;
+    /**
+     * Filas rechazadas en el último bloque.
+     */
+    private List<BulkCreateResult<Void>> errors = new ArrayList<>();
+}
@@ -0,0 +1,22 @@
+package com.nttdata.affiliation.domain.bean;
+
+/**
+ * TIPO VALUE OBJECT.
+ * ELIGIBILITYRULE: La clase Enumerada 'Regla de elegibilidad' contiene
+ * las decisiones posibles para afiliar un tipo de cliente a un tipo
+ * de producto
+ */
+public enum EligibilityRule {
+    /**
+     * No se permite la afiliación.
+     */
+    DENIED,
+    /**
+     * Se permite la afiliación.
+     */
+    ALLOWED,
+    /**
+     * Se permite una sola afiliación por tipo de producto.
+     */
+    ONE_PER_TYPE;
+}
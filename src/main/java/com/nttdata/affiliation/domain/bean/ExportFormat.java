@@ -0,0 +1,17 @@
+package com.nttdata.affiliation.domain.bean;
+
+/**
+ * TIPO VALUE OBJECT.
+ * EXPORTFORMAT: La clase Enumerada 'Formato de exportación' contiene
+ * los formatos de la descarga completa de afiliaciones
+ */
+public enum ExportFormat {
+    /**
+     * Valores separados por comas, con cabecera.
+     */
+    CSV,
+    /**
+     * Un objeto JSON por línea.
+     */
+    NDJSON;
+}
@@ -0,0 +1,53 @@
+package com.nttdata.affiliation.domain.bean;
+
+/**
+ * TIPO VALUE OBJECT.
+ * REJECTIONREASON: La clase Enumerada 'Motivo de rechazo' contiene
+ * los motivos por los que no se registra una afiliación
+ */
+public enum RejectionReason {
+    /**
+     * Falta el identificador del cliente.
+     */
+    MISSING_CUSTOMER,
+    /**
+     * Falta el identificador del producto.
+     */
+    MISSING_PRODUCT,
+    /**
+     * La cuenta debe tener al menos un titular.
+     */
+    INVALID_HOLDERS,
+    /**
+     * El numero de firmantes no puede ser negativo.
+     */
+    INVALID_SIGNERS,
+    /**
+     * Los montos no pueden ser negativos.
+     */
+    NEGATIVE_AMOUNT,
+    /**
+     * El cliente no existe o no tiene tipo.
+     */
+    CUSTOMER_NOT_FOUND,
+    /**
+     * El producto no existe o no tiene tipo.
+     */
+    PRODUCT_NOT_FOUND,
+    /**
+     * El tipo de cliente no puede afiliarse al tipo de producto.
+     */
+    NOT_ELIGIBLE,
+    /**
+     * El cliente ya tiene una afiliación de ese tipo de producto.
+     */
+    DUPLICATE_PRODUCT_TYPE,
+    /**
+     * La fila importada no se pudo leer.
+     */
+    INVALID_ROW,
+    /**
+     * La fila importada no se pudo escribir en la BD.
+     */
+    WRITE_FAILED;
+}
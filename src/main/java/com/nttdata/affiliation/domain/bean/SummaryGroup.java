@@ -0,0 +1,21 @@
+package com.nttdata.affiliation.domain.bean;
+
+/**
+ * TIPO VALUE OBJECT.
+ * SUMMARYGROUP: La clase Enumerada 'Agrupación de resumen' contiene
+ * los criterios de agrupación de los totales de afiliaciones
+ */
+public enum SummaryGroup {
+    /**
+     * Agrupado por cliente.
+     */
+    CUSTOMER,
+    /**
+     * Agrupado por estado (solo cuentas bancarias).
+     */
+    STATUS,
+    /**
+     * Agrupado por tipo de cuenta bancaria o tipo de credito.
+     */
+    TYPE;
+}
@@ -32,4 +32,16 @@ public class UriService {
      */
     public static final
     String PRODUCT_CREDIT_GET_BY_ID = "/products/credit/{id}";
+
+    /**
+     * Servicios de Producto: Listar los productos de cuenta bancaria.
+     */
+    public static final
+    String PRODUCT_ACCOUNT_GET_ALL = "/products/account";
+
+    /**
+     * Servicios de Producto: Listar los productos de credito.
+     */
+    public static final
+    String PRODUCT_CREDIT_GET_ALL = "/products/credit";
 }
@@ -0,0 +1,45 @@
+package com.nttdata.affiliation.infraestructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * ARCHIVALPROPERTIES.
+ * Configuración del archivo de afiliaciones inactivas
+ *                (affiliation.archival.*)
+ */
+@Data
+@ConfigurationProperties(prefix = "affiliation.archival")
+public class ArchivalProperties {
+    /**
+     * Habilita el archivo periódico.
+     */
+    private boolean enabled = false;
+    /**
+     * Programación (cron) del archivo; se usa al iniciar la aplicación.
+     */
+    private String cron = "0 0 3 * * *";
+    /**
+     * Antigüedad mínima (desde la última modificación) de una afiliación
+     * inactiva para archivarla.
+     */
+    private Duration minAge = Duration.ofDays(90);
+    /**
+     * Afiliaciones movidas por lote.
+     */
+    private int batchSize = 500;
+    /**
+     * Pausa entre lotes para no competir con el tráfico de las peticiones.
+     */
+    private Duration pause = Duration.ofMillis(500);
+    /**
+     * Lotes como máximo por ejecución.
+     */
+    private int maxBatchesPerRun = 200;
+    /**
+     * Colección de archivo de las afiliaciones de cuentas bancarias.
+     */
+    private String accountCollection = "accountAffiliationArchive";
+}
@@ -0,0 +1,46 @@
+package com.nttdata.affiliation.infraestructure.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.boot.web.codec.CodecCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.codec.cbor.Jackson2CborDecoder;
+import org.springframework.http.codec.cbor.Jackson2CborEncoder;
+import org.springframework.http.codec.json.Jackson2SmileDecoder;
+import org.springframework.http.codec.json.Jackson2SmileEncoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * BINARYCODECCONFIGURATION.
+ * Registra los formatos binarios Smile (application/x-jackson-smile) y
+ * CBOR (application/cbor) junto a JSON, tanto para los controladores
+ * (según la cabecera Accept / Content-Type) como para el WebClient.
+ * Ambos usan la misma configuración de Jackson que JSON.
+ */
+@Configuration(proxyBeanMethods = false)
+public class BinaryCodecConfiguration {
+
+    /**
+     * Codecs Smile y CBOR.
+     * @param builder builder de Jackson configurado por Spring Boot.
+     * @return CodecCustomizer
+     */
+    @Bean
+    public CodecCustomizer binaryCodecCustomizer(
+            final Jackson2ObjectMapperBuilder builder) {
+        ObjectMapper smile = builder.factory(new SmileFactory()).build();
+        ObjectMapper cbor = builder.factory(new CBORFactory()).build();
+        return configurer -> {
+            configurer.customCodecs()
+                    .registerWithDefaultConfig(new Jackson2SmileEncoder(smile));
+            configurer.customCodecs()
+                    .registerWithDefaultConfig(new Jackson2SmileDecoder(smile));
+            configurer.customCodecs()
+                    .registerWithDefaultConfig(new Jackson2CborEncoder(cbor));
+            configurer.customCodecs()
+                    .registerWithDefaultConfig(new Jackson2CborDecoder(cbor));
+        };
+    }
+}
@@ -0,0 +1,47 @@
+package com.nttdata.affiliation.infraestructure.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BLOCKINGSCHEDULERCONFIGURATION.
+ * Scheduler del trabajo bloqueante (por ejemplo, el registro local de
+ * la escritura diferida): hilos y cola acotados, con las métricas del
+ * executor (affiliation.blocking).
+ */
+@Configuration
+public class BlockingSchedulerConfiguration {
+    /**
+     * Nombre del scheduler (prefijo de los hilos y tag de las métricas).
+     */
+    public static final String NAME = "affiliation.blocking";
+
+    /**
+     * Scheduler del trabajo bloqueante.
+     * @param properties configuración.
+     * @param registry registro de métricas.
+     * @return Scheduler
+     */
+    @Bean(destroyMethod = "dispose")
+    public Scheduler blockingScheduler(
+            final BlockingSchedulerProperties properties,
+            final MeterRegistry registry) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                properties.getThreads(), properties.getThreads(),
+                60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+                new CustomizableThreadFactory(NAME + "-"));
+        executor.allowCoreThreadTimeOut(true);
+        return Schedulers.fromExecutorService(
+                ExecutorServiceMetrics.monitor(registry, executor, NAME));
+    }
+}
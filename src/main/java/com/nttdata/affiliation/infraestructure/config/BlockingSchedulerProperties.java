@@ -0,0 +1,22 @@
+package com.nttdata.affiliation.infraestructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * BLOCKINGSCHEDULERPROPERTIES.
+ * Configuración del scheduler del trabajo bloqueante
+ *                (affiliation.blocking-scheduler.*)
+ */
+@Data
+@ConfigurationProperties(prefix = "affiliation.blocking-scheduler")
+public class BlockingSchedulerProperties {
+    /**
+     * Hilos del scheduler.
+     */
+    private int threads = 8;
+    /**
+     * Tareas en espera; al llenarse las nuevas se rechazan.
+     */
+    private int queueCapacity = 1000;
+}
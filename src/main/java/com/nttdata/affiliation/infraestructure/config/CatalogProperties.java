@@ -0,0 +1,25 @@
+package com.nttdata.affiliation.infraestructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * CATALOGPROPERTIES.
+ * Configuración del catálogo de productos en memoria
+ *                (affiliation.catalog.*)
+ */
+@Data
+@ConfigurationProperties(prefix = "affiliation.catalog")
+public class CatalogProperties {
+    /**
+     * Habilita el catálogo de productos (deshabilitado: cada producto se
+     * consulta al servicio de productos).
+     */
+    private boolean enabled = false;
+    /**
+     * Intervalo de recarga del catálogo completo.
+     */
+    private Duration refreshInterval = Duration.ofMinutes(5);
+}
@@ -0,0 +1,30 @@
+package com.nttdata.affiliation.infraestructure.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+
+/**
+ * CDSTRAININGCONFIGURATION.
+ * Perfil cds-training: la aplicación termina en cuanto está lista. Se usa
+ * al construir la imagen para generar el archivo AppCDS con las clases
+ * cargadas durante el arranque (-XX:ArchiveClassesAtExit).
+ */
+@Slf4j
+@Configuration(proxyBeanMethods = false)
+@Profile("cds-training")
+public class CdsTrainingConfiguration {
+
+    /**
+     * Termina la aplicación al estar lista.
+     * @param event evento de aplicación lista.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void exit(final ApplicationReadyEvent event) {
+        log.info("[exit] Entrenamiento CDS terminado");
+        System.exit(SpringApplication.exit(event.getApplicationContext()));
+    }
+}
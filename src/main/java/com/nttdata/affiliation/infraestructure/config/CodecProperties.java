@@ -0,0 +1,24 @@
+package com.nttdata.affiliation.infraestructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.http.MediaType;
+
+import java.util.List;
+
+/**
+ * CODECPROPERTIES.
+ * Configuración de los formatos de intercambio
+ *                (affiliation.codec.*)
+ */
+@Data
+@ConfigurationProperties(prefix = "affiliation.codec")
+public class CodecProperties {
+    /**
+     * Formatos aceptados en las llamadas a los servicios externos, en
+     * orden de preferencia. Por ejemplo application/x-jackson-smile,
+     * application/json para usar Smile cuando el servicio lo soporte.
+     */
+    private List<MediaType> downstreamAccept
+            = List.of(MediaType.APPLICATION_JSON);
+}
@@ -0,0 +1,73 @@
+package com.nttdata.affiliation.infraestructure.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * DEADLINEPROPERTIES.
+ * Configuración del plazo de las peticiones
+ *                (affiliation.deadline.*)
+ */
+@Data
+@ConfigurationProperties(prefix = "affiliation.deadline")
+public class DeadlineProperties {
+    /**
+     * Habilita el plazo de las peticiones.
+     */
+    private boolean enabled = false;
+    /**
+     * Cabecera de la petición con el plazo en milisegundos.
+     */
+    private String header = "X-Request-Timeout";
+    /**
+     * Plazo de las rutas no configuradas.
+     */
+    private Duration defaultTimeout = Duration.ofSeconds(10);
+    /**
+     * Plazo máximo que puede pedir un cliente con la cabecera.
+     */
+    private Duration maxTimeout = Duration.ofSeconds(60);
+    /**
+     * Plazo por ruta (cero: sin plazo, aunque el cliente envíe la
+     * cabecera). Por defecto no tienen plazo la exportación, la
+     * importación y los listados, que se envían por partes: cancelarlos
+     * con la respuesta ya iniciada la cortaría sin un código de error.
+     */
+    private List<Route> routes = new ArrayList<>(Arrays.asList(
+            new Route(null, "/affiliations/export/**", Duration.ZERO),
+            new Route(null, "/affiliations/import/**", Duration.ZERO),
+            new Route("GET", "/affiliations/accounts", Duration.ZERO),
+            new Route("GET", "/affiliations/accounts/customers/*",
+                    Duration.ZERO),
+            new Route("GET", "/affiliations/credits", Duration.ZERO),
+            new Route("GET", "/affiliations/credits/customer/*",
+                    Duration.ZERO)));
+
+    /**
+     * Plazo de una ruta.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Route {
+        /**
+         * Método HTTP (vacío: todos).
+         */
+        private String method;
+        /**
+         * Patrón de la ruta (PathPattern).
+         */
+        private String pattern;
+        /**
+         * Plazo (cero: sin plazo).
+         */
+        private Duration timeout;
+    }
+}
@@ -0,0 +1,24 @@
+package com.nttdata.affiliation.infraestructure.config;
+
+import com.nttdata.affiliation.application.EligibilityPolicy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * ELIGIBILITYCONFIGURATION.
+ * Compila la tabla de elegibilidad a partir de la configuración
+ */
+@Configuration
+public class EligibilityConfiguration {
+    /**
+     * Tabla de elegibilidad.
+     * @param properties reglas configuradas.
+     * @return EligibilityPolicy
+     */
+    @Bean
+    public EligibilityPolicy eligibilityPolicy(
+            final EligibilityProperties properties) {
+        return new EligibilityPolicy(properties.getAccount(),
+                properties.getCredit());
+    }
+}
@@ -0,0 +1,66 @@
+package com.nttdata.affiliation.infraestructure.config;
+
+import com.nttdata.affiliation.domain.bean.AccountType;
+import com.nttdata.affiliation.domain.bean.CreditType;
+import com.nttdata.affiliation.domain.bean.CustomerType;
+import com.nttdata.affiliation.domain.bean.EligibilityRule;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * ELIGIBILITYPROPERTIES.
+ * Reglas de elegibilidad por tipo de cliente y tipo de producto
+ * (affiliation.eligibility.account.PERSONAL.AHORRO=ONE_PER_TYPE, etc.).
+ * Una entrada por tipo de cliente reemplaza su fila completa.
+ */
+@Data
+@ConfigurationProperties(prefix = "affiliation.eligibility")
+public class EligibilityProperties {
+    /**
+     * Reglas de cuentas bancarias.
+     */
+    private Map<CustomerType, Map<AccountType, EligibilityRule>> account
+            = new EnumMap<>(CustomerType.class);
+    /**
+     * Reglas de creditos.
+     */
+    private Map<CustomerType, Map<CreditType, EligibilityRule>> credit
+            = new EnumMap<>(CustomerType.class);
+
+    /**
+     * Constructor con las reglas por defecto: un cliente personal puede
+     * tener una cuenta de cada tipo y un cliente empresarial solo cuentas
+     * corrientes; cada tipo de cliente accede a sus propios creditos.
+     */
+    public EligibilityProperties() {
+        Map<AccountType, EligibilityRule> personalAccount
+                = new EnumMap<>(AccountType.class);
+        for (AccountType accountType : AccountType.values()) {
+            personalAccount.put(accountType, EligibilityRule.ONE_PER_TYPE);
+        }
+        account.put(CustomerType.PERSONAL, personalAccount);
+        Map<AccountType, EligibilityRule> enterpriseAccount
+                = new EnumMap<>(AccountType.class);
+        enterpriseAccount.put(AccountType.CUENTA_CORRIENTE,
+                EligibilityRule.ALLOWED);
+        account.put(CustomerType.EMPRESARIAL, enterpriseAccount);
+
+        Map<CreditType, EligibilityRule> personalCredit
+                = new EnumMap<>(CreditType.class);
+        personalCredit.put(CreditType.CREDITO_PERSONAL,
+                EligibilityRule.ALLOWED);
+        personalCredit.put(CreditType.TARJETA_DE_CREDITO_PERSONAL,
+                EligibilityRule.ALLOWED);
+        credit.put(CustomerType.PERSONAL, personalCredit);
+        Map<CreditType, EligibilityRule> enterpriseCredit
+                = new EnumMap<>(CreditType.class);
+        enterpriseCredit.put(CreditType.CREDITO_EMPRESARIAL,
+                EligibilityRule.ALLOWED);
+        enterpriseCredit.put(CreditType.TARJETA_DE_CREDITO_EMPRESARIAL,
+                EligibilityRule.ALLOWED);
+        credit.put(CustomerType.EMPRESARIAL, enterpriseCredit);
+    }
+}
@@ -0,0 +1,22 @@
+package com.nttdata.affiliation.infraestructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * EXPORTPROPERTIES.
+ * Configuración de la exportación de afiliaciones
+ *                (affiliation.export.*)
+ */
+@Data
+@ConfigurationProperties(prefix = "affiliation.export")
+public class ExportProperties {
+    /**
+     * Documentos por lote del cursor de Mongo.
+     */
+    private int batchSize = 2_000;
+    /**
+     * Filas por bloque escrito en la respuesta.
+     */
+    private int chunkRows = 500;
+}
@@ -0,0 +1,38 @@
+package com.nttdata.affiliation.infraestructure.config;
+
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+
+/**
+ * FASTSTARTUPCONFIGURATION.
+ * Perfil fast-startup: la inicialización diferida (lazy) se aplica a la
+ * infraestructura que no atiende peticiones (springdoc, actuator, etc.);
+ * los beans del camino de las peticiones se crean al iniciar para que la
+ * primera petición no pague su inicialización.
+ */
+@Configuration(proxyBeanMethods = false)
+@Profile("fast-startup")
+public class FastStartupConfiguration {
+    /**
+     * Paquete de la aplicación.
+     */
+    private static final String APPLICATION_PACKAGE = "com.nttdata.affiliation.";
+
+    /**
+     * Beans excluidos de la inicialización diferida: los de la aplicación
+     * (controladores, operaciones, repositorios y modelos de lectura), el
+     * template de Mongo y el cliente web.
+     * @return LazyInitializationExcludeFilter
+     */
+    @Bean
+    static LazyInitializationExcludeFilter hotPathLazyInitializationExcludeFilter() {
+        return (beanName, beanDefinition, beanType) -> beanType != null
+                && (beanType.getName().startsWith(APPLICATION_PACKAGE)
+                || ReactiveMongoTemplate.class.isAssignableFrom(beanType)
+                || WebClient.Builder.class.isAssignableFrom(beanType));
+    }
+}
@@ -0,0 +1,45 @@
+package com.nttdata.affiliation.infraestructure.config;
+
+import com.nttdata.affiliation.application.AccountAffiliationOperations;
+import com.nttdata.affiliation.application.AccountAffiliationRepository;
+import com.nttdata.affiliation.application.AffiliationImportOperations;
+import com.nttdata.affiliation.application.AffiliationImportOperationsImpl;
+import com.nttdata.affiliation.application.CreditAffiliationOperations;
+import com.nttdata.affiliation.application.CreditAffiliationRepository;
+import com.nttdata.affiliation.application.ImportCheckpointRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * IMPORTCONFIGURATION.
+ * Crea la importación masiva de afiliaciones con su configuración
+ */
+@Configuration
+public class ImportConfiguration {
+    /**
+     * Importación masiva de afiliaciones.
+     * @param accountOperations operaciones de cuentas bancarias.
+     * @param creditOperations operaciones de creditos.
+     * @param accountRepository repositorio de cuentas bancarias.
+     * @param creditRepository repositorio de creditos.
+     * @param checkpoints puntos de control.
+     * @param registry registro de métricas.
+     * @param properties configuración de la importación.
+     * @return AffiliationImportOperations
+     */
+    @Bean
+    public AffiliationImportOperations affiliationImportOperations(
+            final AccountAffiliationOperations accountOperations,
+            final CreditAffiliationOperations creditOperations,
+            final AccountAffiliationRepository accountRepository,
+            final CreditAffiliationRepository creditRepository,
+            final ImportCheckpointRepository checkpoints,
+            final MeterRegistry registry,
+            final ImportProperties properties) {
+        return new AffiliationImportOperationsImpl(accountOperations,
+                creditOperations, accountRepository, creditRepository,
+                checkpoints, registry, properties.getChunkSize(),
+                properties.getConcurrency());
+    }
+}
@@ -0,0 +1,22 @@
+package com.nttdata.affiliation.infraestructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * IMPORTPROPERTIES.
+ * Configuración de la importación masiva de afiliaciones
+ *                (affiliation.import.*)
+ */
+@Data
+@ConfigurationProperties(prefix = "affiliation.import")
+public class ImportProperties {
+    /**
+     * Filas por bloque (un insertMany y un punto de control por bloque).
+     */
+    private int chunkSize = 1_000;
+    /**
+     * Filas verificadas en paralelo dentro de un bloque.
+     */
+    private int concurrency = 32;
+}
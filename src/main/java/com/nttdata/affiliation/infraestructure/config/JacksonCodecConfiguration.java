@@ -0,0 +1,40 @@
+package com.nttdata.affiliation.infraestructure.config;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * JACKSONCODECCONFIGURATION.
+ * Configuración de Jackson para los codecs del servidor WebFlux y del
+ * WebClient: omite los campos nulos (clientes, productos y respuestas de
+ * respaldo vacías) y registra Blackbird para acceder a las propiedades con
+ * lambdas generadas en lugar de reflexión. El tamaño máximo en memoria es
+ * el de Spring Boot (spring.codec.max-in-memory-size), que se aplica a
+ * ambos.
+ */
+@Configuration(proxyBeanMethods = false)
+public class JacksonCodecConfiguration {
+
+    /**
+     * Omite los campos nulos al serializar.
+     * @return Jackson2ObjectMapperBuilderCustomizer
+     */
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer nonNullInclusionCustomizer() {
+        return builder -> builder
+                .serializationInclusion(JsonInclude.Include.NON_NULL);
+    }
+
+    /**
+     * Acceso acelerado a las propiedades (Spring Boot registra los
+     * módulos declarados como beans).
+     * @return BlackbirdModule
+     */
+    @Bean
+    public BlackbirdModule blackbirdModule() {
+        return new BlackbirdModule();
+    }
+}
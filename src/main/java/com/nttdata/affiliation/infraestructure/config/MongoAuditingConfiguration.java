@@ -0,0 +1,13 @@
+package com.nttdata.affiliation.infraestructure.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.config.EnableReactiveMongoAuditing;
+
+/**
+ * MONGOAUDITINGCONFIGURATION.
+ * Habilita la auditoría de los documentos (@LastModifiedDate)
+ */
+@Configuration(proxyBeanMethods = false)
+@EnableReactiveMongoAuditing
+public class MongoAuditingConfiguration {
+}
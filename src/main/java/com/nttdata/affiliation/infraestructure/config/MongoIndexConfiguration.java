@@ -0,0 +1,60 @@
+package com.nttdata.affiliation.infraestructure.config;
+
+import com.nttdata.affiliation.infraestructure.model.dao.AccountAffiliationDao;
+import com.nttdata.affiliation.infraestructure.model.dao.CreditAffiliationDao;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import reactor.core.publisher.Flux;
+
+/**
+ * MONGOINDEXCONFIGURATION.
+ * Crea los indices usados por las consultas por cliente, por las
+ * etapas $match de las agregaciones y por el archivo de inactivas
+ */
+@Slf4j
+@Configuration
+@RequiredArgsConstructor
+public class MongoIndexConfiguration {
+    /**
+     * Template.
+     */
+    private final ReactiveMongoTemplate mongoTemplate;
+    /**
+     * Configuración del archivo de afiliaciones inactivas.
+     */
+    private final ArchivalProperties archivalProperties;
+
+    /**
+     * Crea los indices si no existen.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureIndexes() {
+        Flux.concat(
+                mongoTemplate.indexOps(AccountAffiliationDao.class)
+                        .ensureIndex(new Index()
+                                .on("idCustomer", Sort.Direction.ASC)
+                                .on("idAccount", Sort.Direction.ASC)),
+                mongoTemplate.indexOps(AccountAffiliationDao.class)
+                        .ensureIndex(new Index()
+                                .on("status", Sort.Direction.ASC)
+                                .on("lastModifiedDate", Sort.Direction.ASC)),
+                mongoTemplate
+                        .indexOps(archivalProperties.getAccountCollection())
+                        .ensureIndex(new Index()
+                                .on("idCustomer", Sort.Direction.ASC)),
+                mongoTemplate.indexOps(CreditAffiliationDao.class)
+                        .ensureIndex(new Index()
+                                .on("idCustomer", Sort.Direction.ASC)
+                                .on("idCredit", Sort.Direction.ASC)))
+                .subscribe(
+                        name -> log.info("[ensureIndexes] {}", name),
+                        e -> log.warn("[ensureIndexes] Error: {}",
+                                e.toString()));
+    }
+}
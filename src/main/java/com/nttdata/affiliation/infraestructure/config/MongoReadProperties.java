@@ -0,0 +1,173 @@
+package com.nttdata.affiliation.infraestructure.config;
+
+import com.mongodb.ReadConcern;
+import com.mongodb.ReadConcernLevel;
+import com.mongodb.ReadPreference;
+import com.mongodb.TagSet;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import javax.annotation.PostConstruct;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MONGOREADPROPERTIES.
+ * Preferencia y nivel de lectura por operación del repositorio
+ *                (affiliation.mongo-read.*)
+ */
+@Data
+@ConfigurationProperties(prefix = "affiliation.mongo-read")
+public class MongoReadProperties {
+    /**
+     * Valores comunes; cada operación toma de aquí lo que no configura.
+     */
+    private Settings defaults = Settings.standard();
+    /**
+     * Valores por operación (find-by-id, find-all, find-by-customer,
+     * summarize, export); solo lo que cambia respecto a defaults.
+     */
+    private Map<String, Settings> operations = new HashMap<>();
+    /**
+     * Tiempo en que las lecturas de un cliente o de una afiliación recién
+     * escrita se atienden en el primario dentro de una sesión causal (solo
+     * en la instancia que hizo la escritura).
+     */
+    private Duration readYourWritesWindow = Duration.ofSeconds(10);
+    /**
+     * Escrituras recientes que se recuerdan como máximo.
+     */
+    private int maxTrackedWrites = 10_000;
+
+    /**
+     * Valores de una operación: los propios combinados con defaults.
+     * @param operation operación.
+     * @return Settings nueva instancia.
+     */
+    public Settings settings(final String operation) {
+        return defaults.merge(operations.get(operation));
+    }
+
+    /**
+     * Valida los valores de cada operación al enlazar la configuración.
+     * @throws IllegalStateException si una combinación no es válida.
+     */
+    @PostConstruct
+    public void validate() {
+        defaults.validate("defaults");
+        operations.keySet().forEach(
+                operation -> settings(operation).validate(operation));
+    }
+
+    /**
+     * SETTINGS.
+     * Preferencia y nivel de lectura de una operación; los campos nulos no
+     * están configurados.
+     */
+    @Data
+    public static class Settings {
+        /**
+         * Atraso mínimo que MongoDB acepta en max-staleness.
+         */
+        private static final Duration MIN_STALENESS = Duration.ofSeconds(90);
+        /**
+         * primary, primaryPreferred, secondary, secondaryPreferred o
+         * nearest.
+         */
+        private String readPreference;
+        /**
+         * Atraso máximo tolerado de un secundario (mínimo 90s según
+         * MongoDB); no aplica a primary.
+         */
+        private Duration maxStaleness;
+        /**
+         * local, available, majority, linearizable o snapshot (vacío: el
+         * del servidor).
+         */
+        private String readConcern;
+
+        /**
+         * Valores por defecto: lectura en el primario con el nivel del
+         * servidor.
+         * @return Settings
+         */
+        public static Settings standard() {
+            Settings standard = new Settings();
+            standard.setReadPreference("primary");
+            return standard;
+        }
+
+        /**
+         * Combina con los valores de una operación: los que la operación
+         * configura prevalecen. Una operación que pasa a primary no hereda
+         * max-staleness.
+         * @param override valores de la operación (puede ser null).
+         * @return Settings nueva instancia.
+         */
+        public Settings merge(final Settings override) {
+            Settings merged = new Settings();
+            Settings own = override == null ? new Settings() : override;
+            merged.setReadPreference(own.getReadPreference() != null
+                    ? own.getReadPreference() : readPreference);
+            merged.setMaxStaleness(own.getMaxStaleness() != null
+                    || "primary".equalsIgnoreCase(own.getReadPreference())
+                    ? own.getMaxStaleness() : maxStaleness);
+            merged.setReadConcern(own.getReadConcern() != null
+                    ? own.getReadConcern() : readConcern);
+            return merged;
+        }
+
+        /**
+         * Verifica que la combinación sea válida para el driver.
+         * @param operation operación (para el mensaje).
+         * @throws IllegalStateException si no lo es.
+         */
+        public void validate(final String operation) {
+            String prefix = "affiliation.mongo-read." + operation + ": ";
+            if (maxStaleness != null) {
+                if (readPreference == null
+                        || "primary".equalsIgnoreCase(readPreference)) {
+                    throw new IllegalStateException(prefix
+                            + "max-staleness no aplica a read-preference"
+                            + " primary");
+                }
+                if (maxStaleness.compareTo(MIN_STALENESS) < 0) {
+                    throw new IllegalStateException(prefix
+                            + "max-staleness debe ser de al menos 90s");
+                }
+            }
+            try {
+                toReadPreference();
+                toReadConcern();
+            } catch (IllegalArgumentException e) {
+                throw new IllegalStateException(prefix + e.getMessage(), e);
+            }
+        }
+
+        /**
+         * Preferencia de lectura del driver.
+         * @return ReadPreference
+         */
+        public ReadPreference toReadPreference() {
+            if (maxStaleness == null) {
+                return ReadPreference.valueOf(readPreference);
+            }
+            return ReadPreference.valueOf(readPreference,
+                    Collections.<TagSet>emptyList(),
+                    maxStaleness.toMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        /**
+         * Nivel de lectura del driver.
+         * @return ReadConcern
+         */
+        public ReadConcern toReadConcern() {
+            return readConcern == null || readConcern.isEmpty()
+                    ? ReadConcern.DEFAULT
+                    : new ReadConcern(ReadConcernLevel.fromString(readConcern));
+        }
+    }
+}
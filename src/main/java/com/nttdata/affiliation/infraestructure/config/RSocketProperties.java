@@ -0,0 +1,19 @@
+package com.nttdata.affiliation.infraestructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * RSOCKETPROPERTIES.
+ * Configuración de la interfaz RSocket
+ *                (affiliation.rsocket.*)
+ */
+@Data
+@ConfigurationProperties(prefix = "affiliation.rsocket")
+public class RSocketProperties {
+    /**
+     * Registros en curso a la vez dentro de un registro masivo
+     * (request-channel).
+     */
+    private int bulkConcurrency = 8;
+}
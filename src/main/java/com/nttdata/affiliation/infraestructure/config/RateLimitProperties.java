@@ -0,0 +1,105 @@
+package com.nttdata.affiliation.infraestructure.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * RATELIMITPROPERTIES.
+ * Configuración de la limitación de peticiones por cliente y por ruta
+ *                (affiliation.rate-limit.*); se vuelve a leer al
+ *                refrescar la configuración desde el config server
+ */
+@Data
+@ConfigurationProperties(prefix = "affiliation.rate-limit")
+public class RateLimitProperties {
+    /**
+     * Habilita la limitación.
+     */
+    private boolean enabled = false;
+    /**
+     * Cabecera que identifica al cliente; sin ella se usa la dirección
+     * remota. Se confía en su valor: el servicio solo debe ser accesible
+     * a través del gateway, que la fija según el cliente autenticado y
+     * descarta la enviada por el cliente.
+     */
+    private String clientHeader = "X-Client-Id";
+    /**
+     * Clientes con etiqueta propia en las métricas; los demás se
+     * registran como "other".
+     */
+    private Set<String> knownClients = new LinkedHashSet<>();
+    /**
+     * Máximo de buckets en memoria; al alcanzarlo, los clientes nuevos
+     * comparten un bucket por ruta hasta que se descarten los llenos.
+     */
+    private int maxBuckets = 100_000;
+    /**
+     * Límite por cliente compartido por las rutas no configuradas.
+     */
+    private Limit defaults = new Limit(100, 50);
+    /**
+     * Presupuesto por cliente compartido por todas las rutas costosas,
+     * además del límite de cada ruta.
+     */
+    private Limit expensive = new Limit(10, 2);
+    /**
+     * Rutas con límite propio.
+     */
+    private List<Route> routes = new ArrayList<>(Arrays.asList(
+            new Route("GET", "/affiliations/accounts", null, true),
+            new Route("GET", "/affiliations/credits", null, true),
+            new Route("POST", "/affiliations/accounts", null, true),
+            new Route("POST", "/affiliations/credits", null, true),
+            new Route("GET", "/affiliations/export/**", null, true),
+            new Route("POST", "/affiliations/import/**", null, true)));
+
+    /**
+     * Límite de un token bucket.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Limit {
+        /**
+         * Peticiones que se pueden hacer seguidas (tamaño del bucket).
+         */
+        private long capacity;
+        /**
+         * Peticiones por segundo que se recuperan.
+         */
+        private double refillPerSecond;
+    }
+
+    /**
+     * Ruta con límite propio.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Route {
+        /**
+         * Método HTTP (vacío: todos).
+         */
+        private String method;
+        /**
+         * Patrón de la ruta (PathPattern).
+         */
+        private String pattern;
+        /**
+         * Límite de la ruta (vacío: el límite por defecto).
+         */
+        private Limit limit;
+        /**
+         * Indica si la ruta consume además el presupuesto costoso.
+         */
+        private boolean expensive;
+    }
+}
@@ -0,0 +1,24 @@
+package com.nttdata.affiliation.infraestructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * READMODELPROPERTIES.
+ * Configuración del modelo de lectura en memoria por cliente
+ *                (affiliation.read-model.*)
+ */
+@Data
+@ConfigurationProperties(prefix = "affiliation.read-model")
+public class ReadModelProperties {
+    /**
+     * Habilita el modelo de lectura (requiere un replica set).
+     */
+    private boolean enabled = false;
+    /**
+     * Espera antes de reabrir el change stream tras un error.
+     */
+    private Duration reconnectDelay = Duration.ofSeconds(5);
+}
@@ -0,0 +1,149 @@
+package com.nttdata.affiliation.infraestructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * RESILIENCEPROPERTIES.
+ * Circuit breaker, time limiter y reintentos por servicio externo
+ *                (affiliation.resilience.*)
+ * Los servicios son customer, account-product y credit-product; se
+ * pueden cambiar en caliente desde el servidor de configuración.
+ */
+@Data
+@ConfigurationProperties(prefix = "affiliation.resilience")
+public class ResilienceProperties {
+    /**
+     * Configuración común; cada servicio externo toma de aquí lo que no
+     * configura.
+     */
+    private Downstream defaults = Downstream.standard();
+    /**
+     * Configuración por servicio externo (solo lo que cambia respecto a
+     * defaults).
+     */
+    private Map<String, Downstream> downstreams = new HashMap<>();
+
+    /**
+     * Configuración de un servicio externo: la propia combinada con
+     * defaults.
+     * @param downstream servicio externo.
+     * @return Downstream nueva instancia.
+     */
+    public Downstream downstream(final String downstream) {
+        return defaults.merge(downstreams.get(downstream));
+    }
+
+    /**
+     * Políticas de un servicio externo; los campos nulos no están
+     * configurados.
+     */
+    @Data
+    public static class Downstream {
+        /**
+         * Porcentaje de fallos que abre el circuito.
+         */
+        private Float failureRateThreshold;
+        /**
+         * Porcentaje de llamadas lentas que abre el circuito.
+         */
+        private Float slowCallRateThreshold;
+        /**
+         * Duración a partir de la cual una llamada es lenta.
+         */
+        private Duration slowCallDuration;
+        /**
+         * Llamadas de la ventana deslizante.
+         */
+        private Integer slidingWindowSize;
+        /**
+         * Llamadas mínimas antes de calcular los porcentajes.
+         */
+        private Integer minimumNumberOfCalls;
+        /**
+         * Tiempo que el circuito permanece abierto.
+         */
+        private Duration waitDurationInOpenState;
+        /**
+         * Llamadas de prueba con el circuito medio abierto.
+         */
+        private Integer permittedNumberOfCallsInHalfOpenState;
+        /**
+         * Tiempo máximo de cada intento.
+         */
+        private Duration timeout;
+        /**
+         * Intentos por llamada (1: sin reintentos).
+         */
+        private Integer maxAttempts;
+        /**
+         * Espera inicial entre intentos (crece exponencialmente).
+         */
+        private Duration retryBackoff;
+
+        /**
+         * Valores por defecto de todos los campos.
+         * @return Downstream
+         */
+        public static Downstream standard() {
+            Downstream standard = new Downstream();
+            standard.setFailureRateThreshold(50f);
+            standard.setSlowCallRateThreshold(100f);
+            standard.setSlowCallDuration(Duration.ofSeconds(2));
+            standard.setSlidingWindowSize(100);
+            standard.setMinimumNumberOfCalls(100);
+            standard.setWaitDurationInOpenState(Duration.ofSeconds(60));
+            standard.setPermittedNumberOfCallsInHalfOpenState(10);
+            standard.setTimeout(Duration.ofSeconds(2));
+            standard.setMaxAttempts(1);
+            standard.setRetryBackoff(Duration.ofMillis(100));
+            return standard;
+        }
+
+        /**
+         * Combina con la configuración de un servicio: los campos que el
+         * servicio configura prevalecen.
+         * @param override configuración del servicio (puede ser null).
+         * @return Downstream nueva instancia.
+         */
+        public Downstream merge(final Downstream override) {
+            Downstream merged = new Downstream();
+            Downstream own = override == null ? new Downstream() : override;
+            merged.setFailureRateThreshold(pick(
+                    own.getFailureRateThreshold(), failureRateThreshold));
+            merged.setSlowCallRateThreshold(pick(
+                    own.getSlowCallRateThreshold(), slowCallRateThreshold));
+            merged.setSlowCallDuration(pick(
+                    own.getSlowCallDuration(), slowCallDuration));
+            merged.setSlidingWindowSize(pick(
+                    own.getSlidingWindowSize(), slidingWindowSize));
+            merged.setMinimumNumberOfCalls(pick(
+                    own.getMinimumNumberOfCalls(), minimumNumberOfCalls));
+            merged.setWaitDurationInOpenState(pick(
+                    own.getWaitDurationInOpenState(),
+                    waitDurationInOpenState));
+            merged.setPermittedNumberOfCallsInHalfOpenState(pick(
+                    own.getPermittedNumberOfCallsInHalfOpenState(),
+                    permittedNumberOfCallsInHalfOpenState));
+            merged.setTimeout(pick(own.getTimeout(), timeout));
+            merged.setMaxAttempts(pick(own.getMaxAttempts(), maxAttempts));
+            merged.setRetryBackoff(pick(own.getRetryBackoff(), retryBackoff));
+            return merged;
+        }
+
+        /**
+         * Valor configurado o, si no lo está, el por defecto.
+         * @param value valor configurado.
+         * @param fallback valor por defecto.
+         * @param <T> tipo.
+         * @return T
+         */
+        private static <T> T pick(final T value, final T fallback) {
+            return value != null ? value : fallback;
+        }
+    }
+}
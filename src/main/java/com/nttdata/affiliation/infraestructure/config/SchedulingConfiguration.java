@@ -0,0 +1,13 @@
+package com.nttdata.affiliation.infraestructure.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * SCHEDULINGCONFIGURATION.
+ * Habilita las tareas programadas (@Scheduled)
+ */
+@Configuration(proxyBeanMethods = false)
+@EnableScheduling
+public class SchedulingConfiguration {
+}
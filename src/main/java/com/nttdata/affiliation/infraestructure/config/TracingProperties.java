@@ -0,0 +1,26 @@
+package com.nttdata.affiliation.infraestructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * TRACINGPROPERTIES.
+ * Configuración del desglose de latencia por petición
+ *                (affiliation.tracing.*)
+ */
+@Data
+@ConfigurationProperties(prefix = "affiliation.tracing")
+public class TracingProperties {
+    /**
+     * Agrega la cabecera Server-Timing a todas las respuestas.
+     */
+    private boolean serverTiming = false;
+    /**
+     * Cabecera de la petición que activa el desglose (modo debug).
+     */
+    private String debugHeader = "X-Debug-Timing";
+    /**
+     * Escribe en el log los spans terminados (exportador local).
+     */
+    private boolean logExporter = false;
+}
@@ -0,0 +1,43 @@
+package com.nttdata.affiliation.infraestructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+
+/**
+ * WRITEBEHINDPROPERTIES.
+ * Configuración de la escritura diferida de saldos
+ *                (affiliation.write-behind.*)
+ */
+@Data
+@ConfigurationProperties(prefix = "affiliation.write-behind")
+public class WriteBehindProperties {
+    /**
+     * Habilita la escritura diferida de saldos.
+     */
+    private boolean enabled = false;
+    /**
+     * Ventana en que se combinan las actualizaciones de una afiliación.
+     */
+    private Duration flushInterval = Duration.ofMillis(250);
+    /**
+     * Afiliaciones pendientes que adelantan la escritura.
+     */
+    private int maxPending = 10_000;
+    /**
+     * Directorio del registro local de actualizaciones pendientes.
+     */
+    private Path journalDirectory = Paths.get("data", "write-behind");
+    /**
+     * Fuerza el registro a disco en cada actualización (más lento, pero
+     * resiste una caída del equipo y no solo del proceso).
+     */
+    private boolean fsync = false;
+    /**
+     * Espera máxima de la escritura final al detener la aplicación.
+     */
+    private Duration shutdownTimeout = Duration.ofSeconds(10);
+}
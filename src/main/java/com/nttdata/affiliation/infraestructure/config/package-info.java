@@ -0,0 +1,4 @@
+/**
+ * Paquete de configuración.
+ */
+package com.nttdata.affiliation.infraestructure.config;
@@ -0,0 +1,125 @@
+package com.nttdata.affiliation.infraestructure.deadline;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * DEADLINE.
+ * Plazo de una petición, llevado en el Context de Reactor: cada llamada
+ * externa y cada consulta a Mongo recibe solo el tiempo que le queda a la
+ * petición, y al vencer se cancela el trabajo pendiente.
+ */
+public final class Deadline {
+    /**
+     * Vencimiento (System.nanoTime).
+     */
+    private final long expiresAt;
+
+    /**
+     * Constructor.
+     * @param expiresAtNanos vencimiento (System.nanoTime).
+     */
+    private Deadline(final long expiresAtNanos) {
+        this.expiresAt = expiresAtNanos;
+    }
+
+    /**
+     * Plazo que vence después de un tiempo.
+     * @param timeout tiempo.
+     * @return Deadline
+     */
+    public static Deadline after(final Duration timeout) {
+        return new Deadline(System.nanoTime() + timeout.toNanos());
+    }
+
+    /**
+     * Tiempo restante.
+     * @return Duration (cero o negativo si ya venció)
+     */
+    public Duration remaining() {
+        return Duration.ofNanos(expiresAt - System.nanoTime());
+    }
+
+    /**
+     * Indica si el plazo venció.
+     * @return boolean
+     */
+    public boolean isExpired() {
+        return expiresAt - System.nanoTime() <= 0;
+    }
+
+    /**
+     * Agrega el plazo al Context.
+     * @param deadline plazo.
+     * @return Context
+     */
+    public static Context with(final Deadline deadline) {
+        return Context.of(Deadline.class, deadline);
+    }
+
+    /**
+     * Plazo de la petición en curso.
+     * @param context Context.
+     * @return Optional<Deadline>
+     */
+    public static Optional<Deadline> current(final ContextView context) {
+        return context.getOrEmpty(Deadline.class);
+    }
+
+    /**
+     * Milisegundos restantes de la petición en curso (para maxTimeMS).
+     * @param context Context.
+     * @return long 0 si no hay plazo.
+     * @throws DeadlineExceededException si el plazo ya venció.
+     */
+    public static long remainingMillis(final ContextView context) {
+        Optional<Deadline> deadline = current(context);
+        if (!deadline.isPresent()) {
+            return 0;
+        }
+        long millis = deadline.get().remaining().toMillis();
+        if (millis <= 0) {
+            throw new DeadlineExceededException();
+        }
+        return millis;
+    }
+
+    /**
+     * Limita un Mono al tiempo restante de la petición; si el plazo ya
+     * venció no se suscribe.
+     * @param source Mono.
+     * @param <T> resultado.
+     * @return Mono<T>
+     */
+    public static <T> Mono<T> bounded(final Mono<T> source) {
+        return Mono.deferContextual(context -> current(context)
+                .map(deadline -> deadline.isExpired()
+                        ? Mono.<T>error(new DeadlineExceededException())
+                        : source.timeout(deadline.remaining(), Mono.error(
+                                DeadlineExceededException::new)))
+                .orElse(source));
+    }
+
+    /**
+     * Limita un Flux al tiempo restante de la petición; si el plazo ya
+     * venció no se suscribe.
+     * @param source Flux.
+     * @param <T> elemento.
+     * @return Flux<T>
+     */
+    public static <T> Flux<T> bounded(final Flux<T> source) {
+        return Flux.deferContextual(context -> current(context)
+                .map(deadline -> deadline.isExpired()
+                        ? Flux.<T>error(new DeadlineExceededException())
+                        : source.takeUntilOther(Mono
+                                .delay(deadline.remaining())
+                                .then(Mono.error(
+                                        DeadlineExceededException::new))))
+                .orElse(source));
+    }
+}
@@ -0,0 +1,18 @@
+package com.nttdata.affiliation.infraestructure.deadline;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * DEADLINEEXCEEDEDEXCEPTION.
+ * Indica que el plazo de la petición venció antes de terminar; se
+ * responde 504.
+ */
+public class DeadlineExceededException extends ResponseStatusException {
+    /**
+     * Constructor.
+     */
+    public DeadlineExceededException() {
+        super(HttpStatus.GATEWAY_TIMEOUT, "Plazo de la petición vencido");
+    }
+}
@@ -0,0 +1,179 @@
+package com.nttdata.affiliation.infraestructure.deadline;
+
+import com.nttdata.affiliation.infraestructure.config.DeadlineProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.context.scope.refresh.RefreshScopeRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DEADLINEWEBFILTER.
+ * Fija el plazo de cada petición: el de la cabecera
+ * affiliation.deadline.header (milisegundos, hasta max-timeout) o el de
+ * su ruta; las rutas sin plazo lo ignoran. El plazo se agrega al Context
+ * y, al vencer, se cancela la petición y se responde 504.
+ */
+@Slf4j
+@Component
+public class DeadlineWebFilter implements WebFilter, Ordered {
+    /**
+     * Configuración.
+     */
+    private final DeadlineProperties properties;
+    /**
+     * Rutas configuradas.
+     */
+    private volatile List<CompiledRoute> routes;
+
+    /**
+     * Constructor.
+     * @param deadlineProperties configuración.
+     */
+    public DeadlineWebFilter(final DeadlineProperties deadlineProperties) {
+        this.properties = deadlineProperties;
+        this.routes = compile();
+    }
+
+    /**
+     * Se ejecuta después de la limitación de peticiones.
+     * @return int
+     */
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE + 1;
+    }
+
+    /**
+     * Vuelve a leer las rutas después de refrescar la configuración.
+     */
+    @EventListener(RefreshScopeRefreshedEvent.class)
+    public void refresh() {
+        routes = compile();
+    }
+
+    /**
+     * Filtro.
+     * @param exchange petición.
+     * @param chain cadena de filtros.
+     * @return Mono<Void>
+     */
+    @Override
+    public Mono<Void> filter(final ServerWebExchange exchange,
+                             final WebFilterChain chain) {
+        if (!properties.isEnabled()) {
+            return chain.filter(exchange);
+        }
+        Duration timeout = timeout(exchange.getRequest());
+        if (timeout.isZero() || timeout.isNegative()) {
+            return chain.filter(exchange);
+        }
+        return Deadline.bounded(chain.filter(exchange))
+                .contextWrite(Deadline.with(Deadline.after(timeout)));
+    }
+
+    /**
+     * Plazo de la petición.
+     * @param request petición.
+     * @return Duration
+     */
+    private Duration timeout(final ServerHttpRequest request) {
+        Duration timeout = routeTimeout(request);
+        if (timeout.isZero() || timeout.isNegative()) {
+            return Duration.ZERO;
+        }
+        String header = request.getHeaders().getFirst(properties.getHeader());
+        if (header != null) {
+            try {
+                long millis = Long.parseLong(header.trim());
+                if (millis > 0) {
+                    Duration requested = Duration.ofMillis(millis);
+                    return requested.compareTo(properties.getMaxTimeout()) > 0
+                            ? properties.getMaxTimeout() : requested;
+                }
+            } catch (NumberFormatException e) {
+                log.debug("[timeout] Cabecera inválida: {}", header);
+            }
+        }
+        return timeout;
+    }
+
+    /**
+     * Plazo configurado para la ruta de la petición.
+     * @param request petición.
+     * @return Duration
+     */
+    private Duration routeTimeout(final ServerHttpRequest request) {
+        PathContainer path = request.getPath().pathWithinApplication();
+        String method = request.getMethodValue();
+        for (CompiledRoute route : routes) {
+            if ((route.method == null || route.method.equals(method))
+                    && route.pattern.matches(path)) {
+                return route.timeout;
+            }
+        }
+        return properties.getDefaultTimeout();
+    }
+
+    /**
+     * Compila las rutas configuradas.
+     * @return List<CompiledRoute>
+     */
+    private List<CompiledRoute> compile() {
+        List<CompiledRoute> compiled = new ArrayList<>();
+        PathPatternParser parser = new PathPatternParser();
+        for (DeadlineProperties.Route route : properties.getRoutes()) {
+            compiled.add(new CompiledRoute(
+                    route.getMethod() == null || route.getMethod().isEmpty()
+                            ? null : route.getMethod().toUpperCase(),
+                    parser.parse(route.getPattern()),
+                    route.getTimeout() == null
+                            ? Duration.ZERO : route.getTimeout()));
+        }
+        return compiled;
+    }
+
+    /**
+     * Ruta configurada, con su patrón compilado.
+     */
+    private static final class CompiledRoute {
+        /**
+         * Método HTTP (null: todos).
+         */
+        private final String method;
+        /**
+         * Patrón.
+         */
+        private final PathPattern pattern;
+        /**
+         * Plazo.
+         */
+        private final Duration timeout;
+
+        /**
+         * Constructor.
+         * @param routeMethod método HTTP.
+         * @param routePattern patrón.
+         * @param routeTimeout plazo.
+         */
+        CompiledRoute(final String routeMethod,
+                      final PathPattern routePattern,
+                      final Duration routeTimeout) {
+            this.method = routeMethod;
+            this.pattern = routePattern;
+            this.timeout = routeTimeout;
+        }
+    }
+}
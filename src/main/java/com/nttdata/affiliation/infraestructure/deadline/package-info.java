@@ -0,0 +1,4 @@
+/**
+ * Paquete del plazo de las peticiones (deadline).
+ */
+package com.nttdata.affiliation.infraestructure.deadline;
@@ -0,0 +1,93 @@
+package com.nttdata.affiliation.infraestructure.logging;
+
+import ch.qos.logback.classic.LoggerContext;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * LOGSAMPLINGENDPOINT.
+ * Endpoint de actuator para consultar y cambiar en tiempo de ejecución la
+ * tasa de muestreo del log por categoría:
+ * <ul>
+ *     <li>GET /actuator/logsampling: tasas configuradas.</li>
+ *     <li>POST /actuator/logsampling/{category} con {"rate": N}: escribe
+ *     1 de cada N eventos de la categoría (N de 1 o menos la elimina).</li>
+ *     <li>DELETE /actuator/logsampling/{category}: elimina el muestreo de
+ *     la categoría.</li>
+ * </ul>
+ * La categoría es un logger o un paquete, p. ej.
+ * POST /actuator/logsampling/com.nttdata.affiliation.application.
+ */
+@Slf4j
+@Component
+@Endpoint(id = "logsampling")
+public class LogSamplingEndpoint {
+
+    /**
+     * Tasas de muestreo configuradas.
+     * @return Map<String, Integer>
+     */
+    @ReadOperation
+    public Map<String, Integer> rates() {
+        return filter().getRates();
+    }
+
+    /**
+     * Configura la tasa de muestreo de una categoría.
+     * @param category categoría (logger o paquete).
+     * @param rate se escribe 1 de cada rate eventos.
+     * @return Map<String, Integer>
+     */
+    @WriteOperation
+    public Map<String, Integer> setRate(@Selector final String category,
+                                        final int rate) {
+        log.info("[setRate] {} = {}", category, rate);
+        filter().setRate(category, rate);
+        return filter().getRates();
+    }
+
+    /**
+     * Elimina el muestreo de una categoría.
+     * @param category categoría (logger o paquete).
+     * @return Map<String, Integer>
+     */
+    @DeleteOperation
+    public Map<String, Integer> remove(@Selector final String category) {
+        log.info("[remove] {}", category);
+        filter().setRate(category, 1);
+        return filter().getRates();
+    }
+
+    /**
+     * Filtro declarado en el contexto de logback; si la configuración no lo
+     * declara se registra uno nuevo.
+     * @return LogSamplingTurboFilter
+     */
+    private LogSamplingTurboFilter filter() {
+        LoggerContext context
+                = (LoggerContext) LoggerFactory.getILoggerFactory();
+        synchronized (context) {
+            return context.getTurboFilterList().stream()
+                    .filter(LogSamplingTurboFilter.class::isInstance)
+                    .map(LogSamplingTurboFilter.class::cast)
+                    .findFirst()
+                    .orElseGet(() -> {
+                        LogSamplingTurboFilter filter
+                                = new LogSamplingTurboFilter();
+                        filter.setName("sampling");
+                        filter.setContext(context);
+                        filter.start();
+                        context.addTurboFilter(filter);
+                        return filter;
+                    });
+        }
+    }
+}
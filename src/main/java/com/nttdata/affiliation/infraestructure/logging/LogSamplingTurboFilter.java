@@ -0,0 +1,120 @@
+package com.nttdata.affiliation.infraestructure.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * LOGSAMPLINGTURBOFILTER.
+ * Muestreo del log por categoría: para una categoría (nombre del logger o
+ * uno de sus paquetes) con tasa N solo se escribe 1 de cada N eventos.
+ * WARN y ERROR nunca se muestrean. Se declara en logback-spring.xml y se
+ * modifica en tiempo de ejecución con el endpoint logsampling
+ * (ver LogSamplingEndpoint).
+ */
+public class LogSamplingTurboFilter extends TurboFilter {
+    /**
+     * Tasa de muestreo por categoría.
+     */
+    private final Map<String, Integer> rates = new ConcurrentHashMap<>();
+    /**
+     * Eventos evaluados por categoría.
+     */
+    private final Map<String, AtomicLong> counters = new ConcurrentHashMap<>();
+
+    /**
+     * Decide si el evento se escribe.
+     * @param marker marker.
+     * @param logger logger.
+     * @param level nivel.
+     * @param format mensaje.
+     * @param params parámetros.
+     * @param t excepción.
+     * @return FilterReply
+     */
+    @Override
+    public FilterReply decide(final Marker marker, final Logger logger,
+                              final Level level, final String format,
+                              final Object[] params, final Throwable t) {
+        if (rates.isEmpty() || format == null
+                || level.isGreaterOrEqual(Level.WARN)
+                || !logger.isEnabledFor(level)) {
+            return FilterReply.NEUTRAL;
+        }
+        String category = categoryOf(logger.getName());
+        // La tasa se lee una sola vez: setRate puede eliminarla entretanto.
+        Integer rate = category == null ? null : rates.get(category);
+        if (rate == null) {
+            return FilterReply.NEUTRAL;
+        }
+        long count = counters
+                .computeIfAbsent(category, k -> new AtomicLong())
+                .getAndIncrement();
+        return count % rate == 0
+                ? FilterReply.NEUTRAL
+                : FilterReply.DENY;
+    }
+
+    /**
+     * Categoría configurada más específica para un logger.
+     * @param name nombre del logger.
+     * @return String
+     */
+    private String categoryOf(final String name) {
+        String category = name;
+        while (true) {
+            if (rates.containsKey(category)) {
+                return category;
+            }
+            int dot = category.lastIndexOf('.');
+            if (dot < 0) {
+                return null;
+            }
+            category = category.substring(0, dot);
+        }
+    }
+
+    /**
+     * Tasas de muestreo configuradas.
+     * @return Map<String, Integer>
+     */
+    public Map<String, Integer> getRates() {
+        return Collections.unmodifiableMap(new TreeMap<>(rates));
+    }
+
+    /**
+     * Configura la tasa de muestreo de una categoría; 1 o menos la elimina.
+     * @param category categoría.
+     * @param rate se escribe 1 de cada rate eventos.
+     */
+    public void setRate(final String category, final int rate) {
+        counters.remove(category);
+        if (rate <= 1) {
+            rates.remove(category);
+        } else {
+            rates.put(category, rate);
+        }
+    }
+
+    /**
+     * Configuración inicial desde logback-spring.xml, en el formato
+     * categoria=N separado por comas.
+     * @param sampling tasas iniciales.
+     */
+    public void setSampling(final String sampling) {
+        for (String entry : sampling.split(",")) {
+            String[] pair = entry.trim().split("=");
+            if (pair.length == 2) {
+                setRate(pair[0].trim(), Integer.parseInt(pair[1].trim()));
+            }
+        }
+    }
+}
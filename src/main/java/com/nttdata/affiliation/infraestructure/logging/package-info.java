@@ -0,0 +1,4 @@
+/**
+ * Paquete de configuración del log.
+ */
+package com.nttdata.affiliation.infraestructure.logging;
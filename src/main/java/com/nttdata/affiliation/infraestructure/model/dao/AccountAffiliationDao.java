@@ -5,16 +5,24 @@ import com.nttdata.affiliation.domain.bean.Customer;
 import com.nttdata.affiliation.domain.bean.Status;
 import lombok.Data;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.annotation.Transient;
 import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Sharded;
+import org.springframework.data.mongodb.core.mapping.ShardingStrategy;
+
+import java.time.Instant;
 
 /**
  * ACCOUNTAFFILIATIONDAO.
  * Contiene los atributos del documento Afiliación de cuentas bancarias
- *                        (accountAffiliation) para la persistencia
+ *                        (accountAffiliation) para la persistencia.
+ * La colección se particiona por el hash del cliente (idCustomer).
  */
 @Data
 @Document("accountAffiliation")
+@Sharded(shardKey = "idCustomer", shardingStrategy = ShardingStrategy.HASH,
+        immutableKey = true)
 public class AccountAffiliationDao {
     /**
      * Codigo de la afiliación de cuenta bancaria.
@@ -67,4 +75,10 @@ public class AccountAffiliationDao {
      * Estado Activo o Inactivo.
      */
     private Status status;
+    /**
+     * Fecha de la última modificación (auditoría); define la antigüedad de
+     * las afiliaciones inactivas para su archivo.
+     */
+    @LastModifiedDate
+    private Instant lastModifiedDate;
 }
@@ -6,14 +6,19 @@ import lombok.Data;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.Transient;
 import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Sharded;
+import org.springframework.data.mongodb.core.mapping.ShardingStrategy;
 
 /**
  * CREDITAFFILIATIONDAO.
  * Contiene los atributos del documento Afiliación de Creditos
- *                        (creditAffiliation) para la persistencia
+ *                        (creditAffiliation) para la persistencia.
+ * La colección se particiona por el hash del cliente (idCustomer).
  */
 @Data
 @Document("creditAffiliation")
+@Sharded(shardKey = "idCustomer", shardingStrategy = ShardingStrategy.HASH,
+        immutableKey = true)
 public class CreditAffiliationDao {
     /**
      * Codigo de la Afiliación de Crédito.
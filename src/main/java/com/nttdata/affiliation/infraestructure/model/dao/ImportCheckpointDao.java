@@ -0,0 +1,56 @@
+package com.nttdata.affiliation.infraestructure.model.dao;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * IMPORTCHECKPOINTDAO.
+ * Contiene los atributos del documento Punto de control de importación
+ *                        (affiliationImportCheckpoint) para la persistencia.
+ */
+@Data
+@Document("affiliationImportCheckpoint")
+public class ImportCheckpointDao {
+    /**
+     * Tipo de afiliación e identificador de la importación (kind:importId).
+     */
+    @Id
+    private String id;
+    /**
+     * Identificador de la importación.
+     */
+    private String importId;
+    /**
+     * Tipo de afiliación importada (account o credit).
+     */
+    private String kind;
+    /**
+     * Última fila procesada.
+     */
+    private long lastLine;
+    /**
+     * Filas registradas.
+     */
+    private long imported;
+    /**
+     * Filas rechazadas.
+     */
+    private long rejected;
+    /**
+     * Filas omitidas en el último intento.
+     */
+    private long skipped;
+    /**
+     * Indica si la importación terminó.
+     */
+    private boolean completed;
+    /**
+     * Fecha del último punto de control.
+     */
+    @LastModifiedDate
+    private Instant lastModifiedDate;
+}
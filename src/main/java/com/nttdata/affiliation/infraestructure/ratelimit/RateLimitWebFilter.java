@@ -0,0 +1,304 @@
+package com.nttdata.affiliation.infraestructure.ratelimit;
+
+import com.nttdata.affiliation.infraestructure.config.RateLimitProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.context.scope.refresh.RefreshScopeRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RATELIMITWEBFILTER.
+ * Limita las peticiones de cada cliente (cabecera
+ * affiliation.rate-limit.client-header o dirección remota) con un token
+ * bucket por ruta configurada; las rutas no configuradas comparten un
+ * bucket por cliente. Las rutas costosas (listados completos, registros,
+ * exportación e importación) consumen además un presupuesto por cliente
+ * común a todas ellas. Al superar un límite se responde 429 con
+ * Retry-After. Las rutas y límites se vuelven a leer al refrescar la
+ * configuración.
+ * La cabecera del cliente no se valida: solo es confiable detrás del
+ * gateway, que la fija para cada cliente autenticado. En las métricas,
+ * los clientes fuera de affiliation.rate-limit.known-clients se
+ * agrupan como "other", y los buckets se limitan a
+ * affiliation.rate-limit.max-buckets.
+ */
+@Slf4j
+@Component
+public class RateLimitWebFilter implements WebFilter, Ordered {
+    /**
+     * Métrica de peticiones por cliente, ruta y resultado.
+     */
+    public static final String METRIC = "affiliation.rate-limit.requests";
+    /**
+     * Ruta de las peticiones no configuradas.
+     */
+    private static final String DEFAULT_ROUTE = "default";
+    /**
+     * Presupuesto de las rutas costosas.
+     */
+    private static final String EXPENSIVE_ROUTE = "expensive";
+    /**
+     * Cliente sin cabecera (en las métricas).
+     */
+    private static final String ANONYMOUS = "anonymous";
+    /**
+     * Clientes no configurados (en las métricas) y bucket compartido al
+     * alcanzar el máximo de buckets.
+     */
+    private static final String OTHER = "other";
+    /**
+     * Configuración.
+     */
+    private final RateLimitProperties properties;
+    /**
+     * Registro de métricas.
+     */
+    private final MeterRegistry meterRegistry;
+    /**
+     * Buckets por cliente y ruta.
+     */
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    /**
+     * Rutas configuradas.
+     */
+    private volatile List<CompiledRoute> routes;
+
+    /**
+     * Constructor.
+     * @param rateLimitProperties configuración.
+     * @param registry registro de métricas.
+     */
+    public RateLimitWebFilter(final RateLimitProperties rateLimitProperties,
+                              final MeterRegistry registry) {
+        this.properties = rateLimitProperties;
+        this.meterRegistry = registry;
+        this.routes = compile();
+    }
+
+    /**
+     * Se ejecuta antes que los demás filtros.
+     * @return int
+     */
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+    /**
+     * Vuelve a leer las rutas y límites después de refrescar la
+     * configuración; los buckets se reinician con los nuevos límites.
+     */
+    @EventListener(RefreshScopeRefreshedEvent.class)
+    public void refresh() {
+        routes = compile();
+        buckets.clear();
+        log.info("[refresh] Límites actualizados: {} rutas", routes.size());
+    }
+
+    /**
+     * Descarta los buckets llenos (equivalen a uno nuevo).
+     */
+    @Scheduled(fixedDelay = 60_000)
+    public void evict() {
+        long now = System.nanoTime();
+        buckets.values().removeIf(bucket -> bucket.isFull(now));
+    }
+
+    /**
+     * Filtro.
+     * @param exchange petición.
+     * @param chain cadena de filtros.
+     * @return Mono<Void>
+     */
+    @Override
+    public Mono<Void> filter(final ServerWebExchange exchange,
+                             final WebFilterChain chain) {
+        if (!properties.isEnabled()) {
+            return chain.filter(exchange);
+        }
+        ServerHttpRequest request = exchange.getRequest();
+        String header = request.getHeaders()
+                .getFirst(properties.getClientHeader());
+        String client = header != null ? header : remoteAddress(request);
+        CompiledRoute route = match(request);
+        String routeName = route == null ? DEFAULT_ROUTE : route.name;
+        RateLimitProperties.Limit limit = route == null
+                || route.limit == null
+                ? properties.getDefaults() : route.limit;
+        long now = System.nanoTime();
+        TokenBucket bucket = bucket(client, routeName, limit, now);
+        long wait = bucket.tryConsume(now);
+        if (wait == 0 && route != null && route.expensive) {
+            wait = bucket(client, EXPENSIVE_ROUTE, properties.getExpensive(),
+                    now).tryConsume(now);
+            if (wait > 0) {
+                bucket.refund();
+            }
+        }
+        meterRegistry.counter(METRIC,
+                "client", clientTag(header),
+                "route", routeName,
+                "result", wait == 0 ? "allowed" : "limited").increment();
+        if (wait == 0) {
+            return chain.filter(exchange);
+        }
+        log.debug("[filter] Limitado: {} {}", client, routeName);
+        exchange.getResponse().setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+        exchange.getResponse().getHeaders().set(HttpHeaders.RETRY_AFTER,
+                String.valueOf(Math.max(1,
+                        TimeUnit.NANOSECONDS.toSeconds(wait) + 1)));
+        return exchange.getResponse().setComplete();
+    }
+
+    /**
+     * Bucket de un cliente y una ruta. Al alcanzar el máximo de buckets se
+     * descartan los llenos y, si no basta, el cliente nuevo comparte el
+     * bucket "other" de la ruta.
+     * @param client cliente.
+     * @param routeName ruta.
+     * @param limit límite de la ruta.
+     * @param now momento actual (System.nanoTime).
+     * @return TokenBucket
+     */
+    private TokenBucket bucket(final String client, final String routeName,
+                               final RateLimitProperties.Limit limit,
+                               final long now) {
+        String key = client + "|" + routeName;
+        TokenBucket bucket = buckets.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (buckets.size() >= properties.getMaxBuckets()) {
+            evict();
+            if (buckets.size() >= properties.getMaxBuckets()) {
+                log.debug("[bucket] Máximo de buckets alcanzado: {}", key);
+                key = OTHER + "|" + routeName;
+            }
+        }
+        return buckets.computeIfAbsent(key, k -> new TokenBucket(limit, now));
+    }
+
+    /**
+     * Etiqueta del cliente en las métricas.
+     * @param header cabecera del cliente.
+     * @return String
+     */
+    private String clientTag(final String header) {
+        if (header == null) {
+            return ANONYMOUS;
+        }
+        return properties.getKnownClients().contains(header) ? header : OTHER;
+    }
+
+    /**
+     * Ruta configurada de la petición.
+     * @param request petición.
+     * @return CompiledRoute (null si la ruta no está configurada)
+     */
+    private CompiledRoute match(final ServerHttpRequest request) {
+        PathContainer path = request.getPath().pathWithinApplication();
+        String method = request.getMethodValue();
+        for (CompiledRoute route : routes) {
+            if ((route.method == null || route.method.equals(method))
+                    && route.pattern.matches(path)) {
+                return route;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Compila las rutas configuradas.
+     * @return List<CompiledRoute>
+     */
+    private List<CompiledRoute> compile() {
+        List<CompiledRoute> compiled = new ArrayList<>();
+        PathPatternParser parser = new PathPatternParser();
+        for (RateLimitProperties.Route route : properties.getRoutes()) {
+            String method = route.getMethod() == null
+                    || route.getMethod().isEmpty()
+                    ? null : route.getMethod().toUpperCase();
+            compiled.add(new CompiledRoute(
+                    (method == null ? "" : method + " ") + route.getPattern(),
+                    method, parser.parse(route.getPattern()),
+                    route.getLimit(), route.isExpensive()));
+        }
+        return compiled;
+    }
+
+    /**
+     * Dirección remota de la petición.
+     * @param request petición.
+     * @return String
+     */
+    private static String remoteAddress(final ServerHttpRequest request) {
+        InetSocketAddress address = request.getRemoteAddress();
+        return address == null || address.getAddress() == null
+                ? ANONYMOUS : address.getAddress().getHostAddress();
+    }
+
+    /**
+     * Ruta configurada, con su patrón compilado.
+     */
+    private static final class CompiledRoute {
+        /**
+         * Nombre (método y patrón).
+         */
+        private final String name;
+        /**
+         * Método HTTP (null: todos).
+         */
+        private final String method;
+        /**
+         * Patrón.
+         */
+        private final PathPattern pattern;
+        /**
+         * Límite (null: el límite por defecto).
+         */
+        private final RateLimitProperties.Limit limit;
+        /**
+         * Consume además el presupuesto costoso.
+         */
+        private final boolean expensive;
+
+        /**
+         * Constructor.
+         * @param routeName nombre.
+         * @param routeMethod método HTTP.
+         * @param routePattern patrón.
+         * @param routeLimit límite.
+         * @param routeExpensive consume el presupuesto costoso.
+         */
+        CompiledRoute(final String routeName, final String routeMethod,
+                      final PathPattern routePattern,
+                      final RateLimitProperties.Limit routeLimit,
+                      final boolean routeExpensive) {
+            this.name = routeName;
+            this.method = routeMethod;
+            this.pattern = routePattern;
+            this.limit = routeLimit;
+            this.expensive = routeExpensive;
+        }
+    }
+}
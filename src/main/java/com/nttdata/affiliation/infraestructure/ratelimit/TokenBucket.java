@@ -0,0 +1,88 @@
+package com.nttdata.affiliation.infraestructure.ratelimit;
+
+import com.nttdata.affiliation.infraestructure.config.RateLimitProperties;
+
+/**
+ * TOKENBUCKET.
+ * Token bucket de un cliente: cada petición consume un token y los tokens
+ * se recuperan de forma continua hasta la capacidad del límite.
+ */
+final class TokenBucket {
+    /**
+     * Nanosegundos por segundo.
+     */
+    private static final double NANOS_PER_SECOND = 1_000_000_000d;
+    /**
+     * Límite.
+     */
+    private final RateLimitProperties.Limit limit;
+    /**
+     * Tokens disponibles.
+     */
+    private double tokens;
+    /**
+     * Momento de la última recuperación (System.nanoTime).
+     */
+    private long refilledAt;
+
+    /**
+     * Constructor: el bucket empieza lleno.
+     * @param bucketLimit límite.
+     * @param now momento actual (System.nanoTime).
+     */
+    TokenBucket(final RateLimitProperties.Limit bucketLimit, final long now) {
+        this.limit = bucketLimit;
+        this.tokens = bucketLimit.getCapacity();
+        this.refilledAt = now;
+    }
+
+    /**
+     * Consume un token.
+     * @param now momento actual (System.nanoTime).
+     * @return long 0 si se consumió; si no, nanosegundos hasta el
+     *         siguiente token.
+     */
+    synchronized long tryConsume(final long now) {
+        refill(now);
+        if (tokens >= 1) {
+            tokens--;
+            return 0;
+        }
+        if (limit.getRefillPerSecond() <= 0) {
+            return Long.MAX_VALUE;
+        }
+        return (long) Math.ceil((1 - tokens) * NANOS_PER_SECOND
+                / limit.getRefillPerSecond());
+    }
+
+    /**
+     * Devuelve un token consumido (la petición no se atendió).
+     */
+    synchronized void refund() {
+        tokens = Math.min(limit.getCapacity(), tokens + 1);
+    }
+
+    /**
+     * Indica si el bucket está lleno, es decir, si equivale a uno nuevo y
+     * se puede descartar.
+     * @param now momento actual (System.nanoTime).
+     * @return boolean
+     */
+    synchronized boolean isFull(final long now) {
+        refill(now);
+        return tokens >= limit.getCapacity();
+    }
+
+    /**
+     * Recupera los tokens del tiempo transcurrido.
+     * @param now momento actual (System.nanoTime).
+     */
+    private void refill(final long now) {
+        if (now > refilledAt) {
+            tokens = Math.min(limit.getCapacity(), tokens
+                    + (now - refilledAt) / NANOS_PER_SECOND
+                    * limit.getRefillPerSecond());
+            refilledAt = now;
+        }
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Paquete de limitación de peticiones por cliente.
+ */
+package com.nttdata.affiliation.infraestructure.ratelimit;
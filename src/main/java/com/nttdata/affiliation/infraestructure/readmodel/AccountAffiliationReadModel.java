@@ -0,0 +1,50 @@
+package com.nttdata.affiliation.infraestructure.readmodel;
+
+import com.nttdata.affiliation.infraestructure.config.ReadModelProperties;
+import com.nttdata.affiliation.infraestructure.model.dao.AccountAffiliationDao;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * ACCOUNTAFFILIATIONREADMODEL.
+ * Modelo de lectura en memoria de la afiliación de cuentas bancarias
+ *                              (accountAffiliation) por cliente
+ */
+@Component
+@ConditionalOnProperty(prefix = "affiliation.read-model",
+        name = "enabled", havingValue = "true")
+public class AccountAffiliationReadModel
+        extends CustomerReadModel<AccountAffiliationDao> {
+    /**
+     * Constructor.
+     * @param reactiveMongoTemplate Template.
+     * @param readModelProperties configuración.
+     */
+    public AccountAffiliationReadModel(
+            final ReactiveMongoTemplate reactiveMongoTemplate,
+            final ReadModelProperties readModelProperties) {
+        super(reactiveMongoTemplate, readModelProperties,
+                AccountAffiliationDao.class, "accountAffiliation");
+    }
+
+    /**
+     * Identificador de la afiliación.
+     * @param document afiliación de cuenta.
+     * @return String
+     */
+    @Override
+    protected String idOf(final AccountAffiliationDao document) {
+        return document.getId();
+    }
+
+    /**
+     * Identificador del cliente de la afiliación.
+     * @param document afiliación de cuenta.
+     * @return String
+     */
+    @Override
+    protected String customerOf(final AccountAffiliationDao document) {
+        return document.getIdCustomer();
+    }
+}
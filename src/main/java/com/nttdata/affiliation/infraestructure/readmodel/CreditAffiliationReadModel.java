@@ -0,0 +1,50 @@
+package com.nttdata.affiliation.infraestructure.readmodel;
+
+import com.nttdata.affiliation.infraestructure.config.ReadModelProperties;
+import com.nttdata.affiliation.infraestructure.model.dao.CreditAffiliationDao;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * CREDITAFFILIATIONREADMODEL.
+ * Modelo de lectura en memoria de la afiliación de creditos
+ *                              (creditAffiliation) por cliente
+ */
+@Component
+@ConditionalOnProperty(prefix = "affiliation.read-model",
+        name = "enabled", havingValue = "true")
+public class CreditAffiliationReadModel
+        extends CustomerReadModel<CreditAffiliationDao> {
+    /**
+     * Constructor.
+     * @param reactiveMongoTemplate Template.
+     * @param readModelProperties configuración.
+     */
+    public CreditAffiliationReadModel(
+            final ReactiveMongoTemplate reactiveMongoTemplate,
+            final ReadModelProperties readModelProperties) {
+        super(reactiveMongoTemplate, readModelProperties,
+                CreditAffiliationDao.class, "creditAffiliation");
+    }
+
+    /**
+     * Identificador de la afiliación.
+     * @param document afiliación de credito.
+     * @return String
+     */
+    @Override
+    protected String idOf(final CreditAffiliationDao document) {
+        return document.getId();
+    }
+
+    /**
+     * Identificador del cliente de la afiliación.
+     * @param document afiliación de credito.
+     * @return String
+     */
+    @Override
+    protected String customerOf(final CreditAffiliationDao document) {
+        return document.getIdCustomer();
+    }
+}
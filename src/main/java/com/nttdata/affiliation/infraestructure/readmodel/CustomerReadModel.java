@@ -0,0 +1,333 @@
+package com.nttdata.affiliation.infraestructure.readmodel;
+
+import com.mongodb.MongoCommandException;
+import com.mongodb.client.model.changestream.OperationType;
+import com.nttdata.affiliation.infraestructure.config.ReadModelProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.BsonDocument;
+import org.bson.BsonTimestamp;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.ChangeStreamEvent;
+import org.springframework.data.mongodb.core.ChangeStreamOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * CUSTOMERREADMODEL.
+ * Modelo de lectura en memoria indexado por cliente. Se carga desde la
+ * colección y se mantiene actualizado siguiendo su change stream; ante
+ * una desconexión se reanuda desde el último resume token.
+ * Requiere que MongoDB se ejecute como replica set (basta un solo nodo:
+ * mongod --replSet rs0 y rs.initiate()).
+ * @param <D> documento de la colección.
+ */
+@Slf4j
+public abstract class CustomerReadModel<D> {
+    /**
+     * Código de error: el resume token ya no está en el oplog.
+     */
+    private static final int HISTORY_LOST = 286;
+    /**
+     * Código de error: el change stream no puede reanudarse.
+     */
+    private static final int FATAL_ERROR = 280;
+    /**
+     * Template.
+     */
+    private final ReactiveMongoTemplate mongoTemplate;
+    /**
+     * Configuración del modelo de lectura.
+     */
+    private final ReadModelProperties properties;
+    /**
+     * Clase del documento.
+     */
+    private final Class<D> documentClass;
+    /**
+     * Nombre de la colección.
+     */
+    private final String collectionName;
+    /**
+     * Documentos agrupados por cliente y por Id.
+     */
+    private final Map<String, Map<String, D>> byCustomer
+            = new ConcurrentHashMap<>();
+    /**
+     * Cliente al que pertenece cada documento (para las eliminaciones).
+     */
+    private final Map<String, String> customerById = new ConcurrentHashMap<>();
+    /**
+     * Último resume token procesado.
+     */
+    private final AtomicReference<BsonValue> resumeToken
+            = new AtomicReference<>();
+    /**
+     * Indica si la carga inicial terminó.
+     */
+    private volatile boolean ready;
+    /**
+     * Suscripción al change stream.
+     */
+    private Disposable subscription;
+
+    /**
+     * Constructor.
+     * @param reactiveMongoTemplate Template.
+     * @param readModelProperties configuración.
+     * @param clazz clase del documento.
+     * @param collection nombre de la colección.
+     */
+    protected CustomerReadModel(
+            final ReactiveMongoTemplate reactiveMongoTemplate,
+            final ReadModelProperties readModelProperties,
+            final Class<D> clazz,
+            final String collection) {
+        this.mongoTemplate = reactiveMongoTemplate;
+        this.properties = readModelProperties;
+        this.documentClass = clazz;
+        this.collectionName = collection;
+    }
+
+    /**
+     * Identificador del documento.
+     * @param document documento.
+     * @return String
+     */
+    protected abstract String idOf(D document);
+
+    /**
+     * Identificador del cliente del documento.
+     * @param document documento.
+     * @return String
+     */
+    protected abstract String customerOf(D document);
+
+    /**
+     * Inicia la carga y el seguimiento del change stream.
+     */
+    @PostConstruct
+    public void start() {
+        log.info("[start] Inicio: {}", collectionName);
+        subscription = Flux.defer(this::synchronize)
+                .retryWhen(Retry
+                        .fixedDelay(Long.MAX_VALUE,
+                                properties.getReconnectDelay())
+                        .doBeforeRetry(signal -> log.warn(
+                                "[start] Reconectando {}: {}",
+                                collectionName,
+                                signal.failure().toString())))
+                .subscribe();
+    }
+
+    /**
+     * Detiene el seguimiento del change stream.
+     */
+    @PreDestroy
+    public void stop() {
+        if (subscription != null) {
+            subscription.dispose();
+        }
+    }
+
+    /**
+     * Indica si el modelo puede atender consultas.
+     * @return boolean
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Listado de documentos de un cliente.
+     * @param idCustomer Codigo del cliente.
+     * @return Flux<D>
+     */
+    public Flux<D> findByIdCustomer(final String idCustomer) {
+        Map<String, D> documents = byCustomer.get(idCustomer);
+        return documents == null
+                ? Flux.empty()
+                : Flux.fromIterable(documents.values());
+    }
+
+    /**
+     * Cliente al que pertenece un documento (clave de partición).
+     * @param id codigo.
+     * @return String (null si el documento no está en el modelo)
+     */
+    public String customerOf(final String id) {
+        return customerById.get(id);
+    }
+
+    /**
+     * Reanuda desde el último resume token, o bien recarga la colección
+     * y sigue los cambios ocurridos desde el tiempo de operación del
+     * cluster previo a la carga.
+     * @return Flux<ChangeStreamEvent<D>>
+     */
+    private Flux<ChangeStreamEvent<D>> synchronize() {
+        BsonValue token = resumeToken.get();
+        if (token != null) {
+            return tail(ChangeStreamOptions.builder()
+                    .returnFullDocumentOnUpdate()
+                    .resumeAfter(token)
+                    .build());
+        }
+        return operationTime()
+                .flatMapMany(startAt -> load()
+                        .thenMany(Flux.defer(() -> tail(ChangeStreamOptions
+                                .builder()
+                                .returnFullDocumentOnUpdate()
+                                .resumeAt(startAt)
+                                .build()))));
+    }
+
+    /**
+     * Tiempo de operación del cluster antes de la carga. El change stream
+     * empieza en ese instante: no se pierden los cambios ocurridos durante
+     * la carga (los que ya se cargaron se aplican de nuevo sin efecto) y
+     * no depende del reloj local.
+     * @return Mono<BsonTimestamp>
+     */
+    private Mono<BsonTimestamp> operationTime() {
+        return mongoTemplate.executeCommand(new Document("ping", 1))
+                .map(reply -> {
+                    Object operationTime = reply.get("operationTime");
+                    if (!(operationTime instanceof BsonTimestamp)) {
+                        throw new IllegalStateException("Sin operationTime"
+                                + " del cluster (se requiere un replica"
+                                + " set): " + collectionName);
+                    }
+                    return (BsonTimestamp) operationTime;
+                });
+    }
+
+    /**
+     * Carga inicial de la colección.
+     * @return Flux<D>
+     */
+    private Flux<D> load() {
+        ready = false;
+        byCustomer.clear();
+        customerById.clear();
+        return mongoTemplate.findAll(documentClass, collectionName)
+                .doOnNext(this::put)
+                .doOnComplete(() -> {
+                    ready = true;
+                    log.info("[load] {} documentos cargados de {}",
+                            customerById.size(), collectionName);
+                });
+    }
+
+    /**
+     * Sigue el change stream de la colección.
+     * @param options opciones del change stream.
+     * @return Flux<ChangeStreamEvent<D>>
+     */
+    private Flux<ChangeStreamEvent<D>> tail(final ChangeStreamOptions options) {
+        return mongoTemplate
+                .changeStream(collectionName, options, documentClass)
+                .doOnNext(this::apply)
+                .doOnError(MongoCommandException.class, e -> {
+                    if (e.getErrorCode() == HISTORY_LOST
+                            || e.getErrorCode() == FATAL_ERROR) {
+                        resumeToken.set(null);
+                    }
+                });
+    }
+
+    /**
+     * Aplica un evento del change stream al modelo.
+     * @param event evento.
+     */
+    private void apply(final ChangeStreamEvent<D> event) {
+        OperationType operationType = event.getOperationType();
+        if (operationType == OperationType.INSERT
+                || operationType == OperationType.UPDATE
+                || operationType == OperationType.REPLACE) {
+            if (event.getBody() != null) {
+                put(event.getBody());
+            }
+        } else if (operationType == OperationType.DELETE) {
+            remove(deletedId(event.getRaw().getDocumentKey()));
+        } else if (operationType == OperationType.INVALIDATE
+                || operationType == OperationType.DROP
+                || operationType == OperationType.DROP_DATABASE
+                || operationType == OperationType.RENAME) {
+            resumeToken.set(null);
+            throw new IllegalStateException(
+                    "Change stream invalidado: " + collectionName);
+        }
+        resumeToken.set(event.getResumeToken());
+    }
+
+    /**
+     * Agrega o reemplaza un documento en el modelo.
+     * @param document documento.
+     */
+    private void put(final D document) {
+        String id = idOf(document);
+        String idCustomer = customerOf(document);
+        if (id == null || idCustomer == null) {
+            return;
+        }
+        String previous = customerById.put(id, idCustomer);
+        if (previous != null && !previous.equals(idCustomer)) {
+            removeFromCustomer(previous, id);
+        }
+        byCustomer
+                .computeIfAbsent(idCustomer, k -> new ConcurrentHashMap<>())
+                .put(id, document);
+    }
+
+    /**
+     * Elimina un documento del modelo.
+     * @param id codigo.
+     */
+    private void remove(final String id) {
+        if (id == null) {
+            return;
+        }
+        String idCustomer = customerById.remove(id);
+        if (idCustomer != null) {
+            removeFromCustomer(idCustomer, id);
+        }
+    }
+
+    /**
+     * Elimina un documento del indice de un cliente.
+     * @param idCustomer Codigo del cliente.
+     * @param id codigo.
+     */
+    private void removeFromCustomer(final String idCustomer, final String id) {
+        byCustomer.computeIfPresent(idCustomer, (k, documents) -> {
+            documents.remove(id);
+            return documents.isEmpty() ? null : documents;
+        });
+    }
+
+    /**
+     * Obtiene el Id desde la clave del documento eliminado.
+     * @param documentKey clave del documento.
+     * @return String
+     */
+    private String deletedId(final BsonDocument documentKey) {
+        if (documentKey == null || !documentKey.containsKey("_id")) {
+            return null;
+        }
+        BsonValue id = documentKey.get("_id");
+        if (id.isObjectId()) {
+            return id.asObjectId().getValue().toHexString();
+        }
+        return id.isString() ? id.asString().getValue() : id.toString();
+    }
+}
@@ -0,0 +1,310 @@
+package com.nttdata.affiliation.infraestructure.readmodel;
+
+import com.nttdata.affiliation.domain.bean.Account;
+import com.nttdata.affiliation.domain.bean.Credit;
+import com.nttdata.affiliation.infraestructure.client.UriService;
+import com.nttdata.affiliation.infraestructure.config.CatalogProperties;
+import com.nttdata.affiliation.infraestructure.config.CodecProperties;
+import com.nttdata.affiliation.infraestructure.resilience.DownstreamResilience;
+import com.nttdata.affiliation.infraestructure.tracing.LatencyBreakdown;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeanUtils;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * PRODUCTCATALOG.
+ * Catálogo en memoria de los productos de cuenta bancaria y de credito.
+ * Se carga completo al iniciar y se recarga cada refreshInterval; las
+ * consultas por Id se atienden sin llamadas externas y solo un producto
+ * que no está en el catálogo se consulta al servicio de productos (y se
+ * agrega al catálogo). Si una recarga falla se conserva el catálogo
+ * anterior. Cada consulta recibe una copia del producto, de modo que
+ * quien la modifique no altera el catálogo. Se habilita con
+ * affiliation.catalog.enabled=true.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "affiliation.catalog", name = "enabled",
+        havingValue = "true")
+public class ProductCatalog {
+    /**
+     * Métrica de consultas al catálogo (result: hit o miss).
+     */
+    public static final String METRIC = "affiliation.catalog.lookups";
+    /**
+     * Servicio web cliente.
+     */
+    private final WebClient webClient;
+    /**
+     * Formatos aceptados de los servicios externos.
+     */
+    private final MediaType[] downstreamAccept;
+    /**
+     * Circuit breaker, time limiter y reintentos por servicio externo.
+     */
+    private final DownstreamResilience resilience;
+    /**
+     * Configuración del catálogo.
+     */
+    private final CatalogProperties properties;
+    /**
+     * Registro de métricas.
+     */
+    private final MeterRegistry meterRegistry;
+    /**
+     * Productos de cuenta bancaria.
+     */
+    private final Products<Account> accounts = new Products<>("account",
+            LatencyBreakdown.ACCOUNT_PRODUCT,
+            UriService.PRODUCT_ACCOUNT_GET_ALL, Account.class,
+            Account::getId, a -> a.getAccountType() != null);
+    /**
+     * Productos de credito.
+     */
+    private final Products<Credit> credits = new Products<>("credit",
+            LatencyBreakdown.CREDIT_PRODUCT,
+            UriService.PRODUCT_CREDIT_GET_ALL, Credit.class,
+            Credit::getId, c -> c.getCreditType() != null);
+    /**
+     * Recarga periódica.
+     */
+    private Disposable subscription;
+
+    /**
+     * Constructor.
+     * @param webClientBuilder builder del cliente web (instrumentado).
+     * @param codecProperties formatos de intercambio.
+     * @param downstreamResilience políticas por servicio externo.
+     * @param catalogProperties configuración.
+     * @param registry registro de métricas.
+     */
+    public ProductCatalog(final WebClient.Builder webClientBuilder,
+                          final CodecProperties codecProperties,
+                          final DownstreamResilience downstreamResilience,
+                          final CatalogProperties catalogProperties,
+                          final MeterRegistry registry) {
+        this.webClient = webClientBuilder.clone()
+                .baseUrl(UriService.BASE_URI)
+                .build();
+        this.downstreamAccept = codecProperties.getDownstreamAccept()
+                .toArray(new MediaType[0]);
+        this.resilience = downstreamResilience;
+        this.properties = catalogProperties;
+        this.meterRegistry = registry;
+    }
+
+    /**
+     * Inicia la carga y la recarga periódica.
+     */
+    @PostConstruct
+    public void start() {
+        subscription = Flux.interval(Duration.ZERO,
+                        properties.getRefreshInterval())
+                .onBackpressureDrop()
+                .concatMap(tick -> refresh())
+                .subscribe();
+    }
+
+    /**
+     * Detiene la recarga periódica.
+     */
+    @PreDestroy
+    public void stop() {
+        if (subscription != null) {
+            subscription.dispose();
+        }
+    }
+
+    /**
+     * Recarga el catálogo completo.
+     * @return Mono<Void>
+     */
+    public Mono<Void> refresh() {
+        return Mono.when(reload(accounts), reload(credits));
+    }
+
+    /**
+     * Producto de cuenta bancaria por Id.
+     * @param idAccount codigo de la cuenta bancaria.
+     * @return Optional<Account> vacío si no está en el catálogo.
+     */
+    public Optional<Account> account(final String idAccount) {
+        return find(accounts, idAccount);
+    }
+
+    /**
+     * Producto de credito por Id.
+     * @param idCredit codigo del credito.
+     * @return Optional<Credit> vacío si no está en el catálogo.
+     */
+    public Optional<Credit> credit(final String idCredit) {
+        return find(credits, idCredit);
+    }
+
+    /**
+     * Agrega al catálogo un producto de cuenta bancaria consultado.
+     * @param account cuenta bancaria.
+     */
+    public void put(final Account account) {
+        accounts.put(account);
+    }
+
+    /**
+     * Agrega al catálogo un producto de credito consultado.
+     * @param credit credito.
+     */
+    public void put(final Credit credit) {
+        credits.put(credit);
+    }
+
+    /**
+     * Busca un producto y registra si estaba en el catálogo.
+     * @param products productos.
+     * @param id codigo del producto.
+     * @param <P> producto.
+     * @return Optional<P> copia del producto.
+     */
+    private <P> Optional<P> find(final Products<P> products, final String id) {
+        Optional<P> product = Optional.ofNullable(id)
+                .map(products.byId::get)
+                .map(products::copy);
+        meterRegistry.counter(METRIC, "product", products.name,
+                "result", product.isPresent() ? "hit" : "miss").increment();
+        return product;
+    }
+
+    /**
+     * Recarga los productos de un tipo.
+     * @param products productos.
+     * @param <P> producto.
+     * @return Mono<Void>
+     */
+    private <P> Mono<Void> reload(final Products<P> products) {
+        return resilience.run(products.downstream,
+                        webClient
+                                .get()
+                                .uri(products.uri)
+                                .accept(downstreamAccept)
+                                .retrieve()
+                                .bodyToFlux(products.type),
+                        Flux::error)
+                .filter(products::complete)
+                .collectMap(products.id)
+                .doOnNext(loaded -> {
+                    products.byId = new ConcurrentHashMap<>(loaded);
+                    log.info("[refresh] {} productos de {} cargados",
+                            loaded.size(), products.name);
+                })
+                .onErrorResume(e -> {
+                    log.warn("[refresh] Error al cargar {}: {}",
+                            products.name, e.toString());
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    /**
+     * Productos de un tipo.
+     * @param <P> producto.
+     */
+    private static final class Products<P> {
+        /**
+         * Tipo de producto (account o credit).
+         */
+        private final String name;
+        /**
+         * Servicio externo.
+         */
+        private final String downstream;
+        /**
+         * End Point del listado.
+         */
+        private final String uri;
+        /**
+         * Clase del producto.
+         */
+        private final Class<P> type;
+        /**
+         * Id del producto.
+         */
+        private final Function<P, String> id;
+        /**
+         * Indica si el producto está completo (se descartan los vacíos).
+         */
+        private final Predicate<P> valid;
+        /**
+         * Productos por Id.
+         */
+        private volatile Map<String, P> byId = new ConcurrentHashMap<>();
+
+        /**
+         * Constructor.
+         * @param productName tipo de producto.
+         * @param downstreamName servicio externo.
+         * @param listUri End Point del listado.
+         * @param productType clase del producto.
+         * @param productId Id del producto.
+         * @param complete indica si el producto está completo.
+         */
+        private Products(final String productName,
+                         final String downstreamName,
+                         final String listUri,
+                         final Class<P> productType,
+                         final Function<P, String> productId,
+                         final Predicate<P> complete) {
+            this.name = productName;
+            this.downstream = downstreamName;
+            this.uri = listUri;
+            this.type = productType;
+            this.id = productId;
+            this.valid = complete;
+        }
+
+        /**
+         * Indica si un producto tiene Id y está completo.
+         * @param product producto.
+         * @return boolean
+         */
+        private boolean complete(final P product) {
+            return product != null && id.apply(product) != null
+                    && valid.test(product);
+        }
+
+        /**
+         * Agrega una copia de un producto completo.
+         * @param product producto.
+         */
+        private void put(final P product) {
+            if (complete(product)) {
+                byId.put(id.apply(product), copy(product));
+            }
+        }
+
+        /**
+         * Copia de un producto (sus propiedades son inmutables).
+         * @param product producto.
+         * @return P
+         */
+        private P copy(final P product) {
+            P copy = BeanUtils.instantiateClass(type);
+            BeanUtils.copyProperties(product, copy);
+            return copy;
+        }
+    }
+}
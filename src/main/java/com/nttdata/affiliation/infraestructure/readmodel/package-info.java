@@ -0,0 +1,4 @@
+/**
+ * Paquete del modelo de lectura en memoria.
+ */
+package com.nttdata.affiliation.infraestructure.readmodel;
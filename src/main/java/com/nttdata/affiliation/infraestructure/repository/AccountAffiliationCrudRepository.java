@@ -2,20 +2,41 @@ package com.nttdata.affiliation.infraestructure.repository;
 
 import com.nttdata.affiliation.application.AccountAffiliationRepository;
 import com.nttdata.affiliation.domain.AccountAffiliation;
+import com.nttdata.affiliation.domain.AffiliationSummary;
+import com.nttdata.affiliation.domain.BalanceUpdate;
 import com.nttdata.affiliation.domain.bean.Account;
 import com.nttdata.affiliation.domain.bean.Customer;
+import com.nttdata.affiliation.domain.bean.Status;
+import com.nttdata.affiliation.domain.bean.SummaryGroup;
 import com.nttdata.affiliation.infraestructure.client.UriService;
+import com.nttdata.affiliation.infraestructure.config.ArchivalProperties;
+import com.nttdata.affiliation.infraestructure.config.CodecProperties;
+import com.nttdata.affiliation.infraestructure.deadline.Deadline;
 import com.nttdata.affiliation.infraestructure.model.dao.AccountAffiliationDao;
+import com.nttdata.affiliation.infraestructure.readmodel.AccountAffiliationReadModel;
+import com.nttdata.affiliation.infraestructure.readmodel.ProductCatalog;
+import com.nttdata.affiliation.infraestructure.resilience.DownstreamResilience;
+import com.nttdata.affiliation.infraestructure.tracing.LatencyBreakdown;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.BeanUtils;
-import org.springframework.cloud.circuitbreaker.resilience4j.ReactiveResilience4JCircuitBreakerFactory;
-import org.springframework.cloud.client.circuitbreaker.ReactiveCircuitBreaker;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
 /**
  * ACCOUNTAFFILIATIONCRUDREPOSITORY.
  * Implementa las operaciones (CRUD) de la afiliación de cuentas bancarias
@@ -33,24 +54,77 @@ public class AccountAffiliationCrudRepository
      */
     private final WebClient webClient;
     /**
-     * Circuit Breaker.
+     * Formatos aceptados de los servicios externos.
+     */
+    private final MediaType[] downstreamAccept;
+    /**
+     * Circuit breaker, time limiter y reintentos por servicio externo.
+     */
+    private final DownstreamResilience resilience;
+    /**
+     * Modelo de lectura en memoria (null si no está habilitado).
+     */
+    private final AccountAffiliationReadModel readModel;
+    /**
+     * Catálogo de productos en memoria (null si no está habilitado).
+     */
+    private final ProductCatalog productCatalog;
+    /**
+     * Preferencia de lectura por operación y read-your-writes.
+     */
+    private final MongoReadRouter readRouter;
+    /**
+     * Clave de partición de las consultas por Id.
      */
-    private final ReactiveCircuitBreaker reactiveCircuitBreaker;
+    private final ShardKeyResolver shardKeyResolver;
+    /**
+     * Escritura diferida de saldos (null si no está habilitada).
+     */
+    private final BalanceWriteBehindBuffer writeBehind;
+    /**
+     * Colección de archivo de las afiliaciones inactivas.
+     */
+    private final String archiveCollection;
 
     /**
      * Constructor.
-     * @param circuitBreakerFactory corto circuito.
+     * @param downstreamResilience políticas por servicio externo.
+     * @param webClientBuilder builder del cliente web (instrumentado).
+     * @param codecProperties formatos de intercambio.
      * @param iAccountAffiliationCrudRepository respositorio.
+     * @param accountAffiliationReadModel modelo de lectura en memoria.
+     * @param catalog catálogo de productos en memoria.
+     * @param mongoReadRouter preferencia de lectura por operación.
+     * @param resolver clave de partición de las consultas por Id.
+     * @param balanceWriteBehindBuffer escritura diferida de saldos.
+     * @param archivalProperties archivo de afiliaciones inactivas.
      */
     public
     AccountAffiliationCrudRepository(
-    final ReactiveResilience4JCircuitBreakerFactory circuitBreakerFactory,
-    final IAccountAffiliationCrudRepository iAccountAffiliationCrudRepository) {
+    final DownstreamResilience downstreamResilience,
+    final WebClient.Builder webClientBuilder,
+    final CodecProperties codecProperties,
+    final IAccountAffiliationCrudRepository iAccountAffiliationCrudRepository,
+    final ObjectProvider<AccountAffiliationReadModel>
+            accountAffiliationReadModel,
+    final ObjectProvider<ProductCatalog> catalog,
+    final MongoReadRouter mongoReadRouter,
+    final ShardKeyResolver resolver,
+    final ObjectProvider<BalanceWriteBehindBuffer> balanceWriteBehindBuffer,
+    final ArchivalProperties archivalProperties) {
         this.repository = iAccountAffiliationCrudRepository;
-        this.webClient = WebClient.builder()
+        this.readRouter = mongoReadRouter;
+        this.productCatalog = catalog.getIfAvailable();
+        this.shardKeyResolver = resolver;
+        this.writeBehind = balanceWriteBehindBuffer.getIfAvailable();
+        this.archiveCollection = archivalProperties.getAccountCollection();
+        this.readModel = accountAffiliationReadModel.getIfAvailable();
+        this.webClient = webClientBuilder.clone()
                 .baseUrl(UriService.BASE_URI)
                 .build();
-        this.reactiveCircuitBreaker = circuitBreakerFactory.create("account");
+        this.downstreamAccept = codecProperties.getDownstreamAccept()
+                .toArray(new MediaType[0]);
+        this.resilience = downstreamResilience;
     }
     /**
      * Regitra las afiliaciones de cuentas bancarias de un cliente.
@@ -62,15 +136,42 @@ public class AccountAffiliationCrudRepository
     Mono<AccountAffiliation>
     create(final AccountAffiliation accountAffiliation) {
         log.info("[create] Inicio");
-        return repository
-                .save(
+        return LatencyBreakdown.timed(LatencyBreakdown.MONGO, readRouter
+                .write(operations -> operations.save(
                         mapAccountAffiliationToAccountAffiliationDao(
                                 accountAffiliation
-                        )
-                )
-                .map(this::mapAccountAffiliationDaoToAccountAffiliation);
+                        )),
+                        AccountAffiliationCrudRepository::writtenKeys))
+                .flatMap(this::mapAccountAffiliationDaoToAccountAffiliation);
 
     }
+    /**
+     * Registra las afiliaciones de cuentas bancarias de una importación
+     * con un solo insertMany sin orden.
+     * @param accountAffiliations afiliaciones con Id asignado.
+     * @return Flux<String> Ids registrados.
+     */
+    @Override
+    public
+    Flux<String>
+    createAll(final List<AccountAffiliation> accountAffiliations) {
+        log.info("[createAll] Inicio: {}", accountAffiliations.size());
+        Instant now = Instant.now();
+        List<AccountAffiliationDao> daos = new ArrayList<>();
+        accountAffiliations.forEach(accountAffiliation -> {
+            AccountAffiliationDao accountAffiliationDao
+                    = mapAccountAffiliationToAccountAffiliationDao(
+                            accountAffiliation);
+            accountAffiliationDao.setLastModifiedDate(now);
+            daos.add(accountAffiliationDao);
+        });
+        return LatencyBreakdown.timed(LatencyBreakdown.MONGO,
+                AffiliationBulkInserts.insertUnordered(readRouter,
+                        AccountAffiliationDao.class, daos,
+                        AccountAffiliationDao::getId,
+                        AccountAffiliationDao::getIdCustomer))
+                .flatMapIterable(ids -> ids);
+    }
     /**
      * Actualiza las afiliaciones de cuentas bancarias de un cliente.
      * @param id codigo.
@@ -81,29 +182,92 @@ public class AccountAffiliationCrudRepository
     public
     Mono<AccountAffiliation>
     update(final String id, final AccountAffiliation accountAffiliation) {
-        return repository
-                .findById(id)
-                .flatMap(p ->
-                        create(
+        return LatencyBreakdown.timed(LatencyBreakdown.MONGO,
+                findForWrite(id))
+                .flatMap(p -> discardPendingBalance(id)
+                        .then(create(
                                 mapAccountAffiliationDaoToAccountAffiliation(
                                         p, accountAffiliation)
-                        )
+                        ))
                 );
     }
+    /**
+     * Actualiza el saldo y el día de movimiento de una afiliación.
+     * Con la escritura diferida la actualización se combina en memoria y
+     * se escribe en el siguiente bulkWrite; sin ella se aplica con un solo
+     * $set, sin leer antes el documento.
+     * @param id codigo.
+     * @param balanceUpdate saldo y día de movimiento.
+     * @return Mono<BalanceUpdate>
+     */
+    @Override
+    public
+    Mono<BalanceUpdate>
+    updateBalance(final String id, final BalanceUpdate balanceUpdate) {
+        return shardKeyResolver.resolve("accountAffiliation", id, readModel)
+                .flatMap(idCustomer -> {
+                    balanceUpdate.setIdCustomer(idCustomer.orElse(null));
+                    if (writeBehind != null) {
+                        return writeBehind.submit(id, balanceUpdate);
+                    }
+                    Update update = new Update()
+                            .currentDate("lastModifiedDate");
+                    if (balanceUpdate.getBalance() != null) {
+                        update.set("balance", balanceUpdate.getBalance());
+                    }
+                    if (balanceUpdate.getMovementDay() != null) {
+                        update.set("movementDay",
+                                balanceUpdate.getMovementDay());
+                    }
+                    return LatencyBreakdown.timed(LatencyBreakdown.MONGO,
+                            readRouter.write(operations -> operations
+                                    .updateFirst(Query.query(ShardKeyResolver
+                                            .byId(id, Optional.ofNullable(
+                                                    balanceUpdate
+                                                            .getIdCustomer()))),
+                                            update,
+                                            AccountAffiliationDao.class)
+                                    .filter(r -> r.getMatchedCount() > 0)
+                                    .map(r -> balanceUpdate),
+                                    u -> Collections.singletonList(id)));
+                });
+    }
+    /**
+     * Descarta el saldo pendiente de escritura de una afiliación.
+     * @param id codigo.
+     * @return Mono<Void>
+     */
+    private
+    Mono<Void>
+    discardPendingBalance(final String id) {
+        return writeBehind == null ? Mono.empty() : writeBehind.discard(id);
+    }
     /**
      * Elimina los datos de la afiliacion de cuentas bancarias de un cliente.
      * @param id Codigo de la cuenta.
-     * @return Mono<AccountAffiliationDao>
+     * @return Mono<Boolean> true si se eliminó, false si no existe.
      */
     @Override
     public
-    Mono<Void>
+    Mono<Boolean>
     delete(final String id) {
-        return repository.findById(id)
-                .flatMap(p -> repository.deleteById(p.getId()));
+        return LatencyBreakdown.timed(LatencyBreakdown.MONGO,
+                findForWrite(id))
+                .flatMap(p -> LatencyBreakdown.timed(LatencyBreakdown.MONGO,
+                        readRouter.write(operations -> operations.remove(
+                                        Query.query(ShardKeyResolver.byId(
+                                                p.getId(), Optional.ofNullable(
+                                                        p.getIdCustomer()))),
+                                        AccountAffiliationDao.class)
+                                        .filter(result ->
+                                                result.getDeletedCount() > 0)
+                                        .map(result -> p),
+                                AccountAffiliationCrudRepository::writtenKeys)))
+                .hasElement();
     }
     /**
-     * Busca por Id los datos de la afiliacion de cuentas bancarias.
+     * Busca por Id los datos de la afiliacion de cuentas bancarias; con
+     * includeArchived se busca también en el archivo.
      * @param id codigo.
      * @return Mono<AccountAffiliation>
      */
@@ -111,23 +275,43 @@ public class AccountAffiliationCrudRepository
     public
     Mono<AccountAffiliation>
     findById(final String id) {
-        return repository.findById((id))
-                .map(this::mapAccountAffiliationDaoToAccountAffiliation);
+        return LatencyBreakdown.timed(LatencyBreakdown.MONGO,
+                shardKeyResolver.resolve("accountAffiliation", id, readModel)
+                        .flatMap(idCustomer -> readRouter.find(
+                                MongoReadRouter.FIND_BY_ID,
+                                Query.query(ShardKeyResolver
+                                        .byId(id, idCustomer)),
+                                AccountAffiliationDao.class,
+                                AccountAffiliationDao.class, id)
+                                .next()))
+                .switchIfEmpty(archived(MongoReadRouter.FIND_BY_ID,
+                        Query.query(ShardKeyResolver.byId(id,
+                                Optional.empty())), id).next())
+                .map(this::withPendingBalance)
+                .flatMap(this::mapAccountAffiliationDaoToAccountAffiliation);
     }
     /**
-     * Busca todas las afiliaciones de cuentas bancarias de un cliente.
+     * Busca todas las afiliaciones de cuentas bancarias de un cliente; con
+     * includeArchived se agregan las archivadas.
      * @return Flux<AccountAffiliation>
      */
     @Override
     public
     Flux<AccountAffiliation>
     findAll() {
-        return repository.findAll()
-                .map(this::mapAccountAffiliationDaoToAccountAffiliation);
+        return LatencyBreakdown.timed(LatencyBreakdown.MONGO,
+                readRouter.find(MongoReadRouter.FIND_ALL, new Query(),
+                        AccountAffiliationDao.class, AccountAffiliationDao.class)
+                        .concatWith(archived(MongoReadRouter.FIND_ALL,
+                                new Query())))
+                .map(this::withPendingBalance)
+                .flatMapSequential(
+                        this::mapAccountAffiliationDaoToAccountAffiliation);
     }
 
     /**
-     * Listado de Afiliaciones de cuentas por Cliente.
+     * Listado de Afiliaciones de cuentas por Cliente; con includeArchived
+     * se agregan las archivadas.
      * @param idCustomer Codigo del cliente.
      * @return Flux<AccountAffiliation>
      */
@@ -135,7 +319,22 @@ public class AccountAffiliationCrudRepository
     public
     Flux<AccountAffiliation>
     findByIdCustomer(String idCustomer) {
-        return repository.findByIdCustomer(idCustomer);
+        Flux<AccountAffiliationDao> archived = archived(
+                MongoReadRouter.FIND_BY_CUSTOMER,
+                Query.query(Criteria.where("idCustomer").is(idCustomer)),
+                idCustomer);
+        Flux<AccountAffiliationDao> found;
+        if (readModel != null && readModel.isReady()
+                && !readRouter.recentlyWritten(idCustomer)) {
+            found = readModel.findByIdCustomer(idCustomer)
+                    .concatWith(archived);
+        } else {
+            found = LatencyBreakdown.timed(LatencyBreakdown.MONGO,
+                    repository.findByIdCustomer(idCustomer)
+                            .concatWith(archived));
+        }
+        return found.map(this::withPendingBalance)
+                .map(this::copyAccountAffiliationDao);
     }
 
     /**
@@ -148,7 +347,10 @@ public class AccountAffiliationCrudRepository
     public
     Flux<AccountAffiliation>
     findByIdCustomerByIdAccount(String idCustomer, String idAccount) {
-        return repository.findByIdCustomerInAndIdAccount(idCustomer, idAccount);
+        return LatencyBreakdown.timed(LatencyBreakdown.MONGO,
+                repository.findByIdCustomerInAndIdAccount(idCustomer, idAccount))
+                .map(this::withPendingBalance)
+                .map(this::copyAccountAffiliationDao);
     }
 
     /**
@@ -167,26 +369,65 @@ public class AccountAffiliationCrudRepository
         return accountAffiliationDao;
     }
     /**
-     * Crea AccountAffiliation y asigna los datos de AccountAffiliationDao.
+     * Crea AccountAffiliation, asigna los datos de AccountAffiliationDao y
+     * la complementa con el cliente y la cuenta (consultados en paralelo).
+     * @param accountAffiliationDao afiliación de cuenta.
+     * @return Mono<AccountAffiliation>
+     */
+    private
+    Mono<AccountAffiliation>
+    mapAccountAffiliationDaoToAccountAffiliation(
+      final AccountAffiliationDao accountAffiliationDao) {
+
+        log.debug("[mapAccountAffiliationDaoToAccountAffiliation] Inicio: {}",
+                accountAffiliationDao.getId());
+        AccountAffiliation accountAffiliation
+                = copyAccountAffiliationDao(accountAffiliationDao);
+        //Complementamos los datos faltantes
+        return Mono.zip(
+                getCustomerById(accountAffiliationDao.getIdCustomer())
+                        .next().map(Optional::of)
+                        .defaultIfEmpty(Optional.empty()),
+                getProductAccountById(accountAffiliationDao.getIdAccount())
+                        .next().map(Optional::of)
+                        .defaultIfEmpty(Optional.empty()))
+                .map(t -> {
+                    accountAffiliation.setCustomer(t.getT1().orElse(null));
+                    accountAffiliation.setAccount(t.getT2().orElse(null));
+                    return accountAffiliation;
+                });
+    }
+    /**
+     * Copia los datos de AccountAffiliationDao sin complementarlos.
      * @param accountAffiliationDao afiliación de cuenta.
      * @return AccountAffiliation
      */
     private
     AccountAffiliation
-    mapAccountAffiliationDaoToAccountAffiliation(
+    copyAccountAffiliationDao(
       final AccountAffiliationDao accountAffiliationDao) {
 
-        log.info("[mapAccountAffiliationDaoToAccountAffiliation] Inicio");
         AccountAffiliation accountAffiliation = new AccountAffiliation();
         BeanUtils.copyProperties(accountAffiliationDao, accountAffiliation);
-        //Complementamos los datos faltantes
-        Flux<Customer> customers = getCustomerById(accountAffiliationDao.getIdCustomer());
-        accountAffiliation.setCustomer(customers.blockFirst());
-        Flux<Account> accounts = getProductAccountById(accountAffiliationDao.getIdAccount());
-        accountAffiliation.setAccount(accounts.blockFirst());
-        log.info("[mapAccountAffiliationDaoToAccountAffiliation] Fin");
         return accountAffiliation;
     }
+    /**
+     * Aplica a una afiliación leída (de la BD, del archivo o del modelo de
+     * lectura) los saldos que aún no se escriben. Se aplican sobre una
+     * copia: el documento del modelo de lectura no se modifica.
+     * @param accountAffiliationDao afiliación de cuenta.
+     * @return AccountAffiliationDao
+     */
+    private
+    AccountAffiliationDao
+    withPendingBalance(final AccountAffiliationDao accountAffiliationDao) {
+        if (writeBehind == null) {
+            return accountAffiliationDao;
+        }
+        AccountAffiliationDao copy = new AccountAffiliationDao();
+        BeanUtils.copyProperties(accountAffiliationDao, copy);
+        return writeBehind.overlay(copy);
+    }
     /**
      * Asigna el Id de AccountAffiliationDao a AccountAffiliation.
      * @param accountAffiliationDao afiliación de cuenta Dao.
@@ -211,28 +452,26 @@ public class AccountAffiliationCrudRepository
     public
     Flux<Customer>
     getCustomerById(final String idCustomer) {
-        log.info("[getCustomerById] Inicio:"+idCustomer);
-        return reactiveCircuitBreaker
-                .run(
-                        webClient
-                                .get()
-                                .uri(
-                                        UriService.CUSTOMER_GET_BY_ID,
-                                        idCustomer
-                                )
-                                .accept(MediaType.APPLICATION_JSON)
-                                .retrieve()
-                                .bodyToFlux(Customer.class),
-                throwable -> {
-                    log.info("throwable => {}", throwable.toString());
-                    log.info("[getCustomerById] Error en la llamada:"
-                            + UriService.CUSTOMER_GET_BY_ID
-                            + idCustomer);
-                    return Flux.just(new Customer());
-                });
+        log.debug("[getCustomerById] Inicio: {}", idCustomer);
+        return resilience.run(LatencyBreakdown.CUSTOMER,
+                        LatencyBreakdown.timed(LatencyBreakdown.CUSTOMER,
+                                webClient
+                                        .get()
+                                        .uri(UriService.CUSTOMER_GET_BY_ID, idCustomer)
+                                        .accept(downstreamAccept)
+                                        .retrieve()
+                                        .bodyToFlux(Customer.class)),
+                        throwable -> {
+                            log.warn("[getCustomerById] Error en la llamada: {} {} => {}",
+                                    UriService.CUSTOMER_GET_BY_ID, idCustomer,
+                                    throwable.toString());
+                            return Flux.just(new Customer());
+                        });
     }
     /**
      * Obtenemos los datos del producto: Cuenta Bancaria.
+     * Se atiende desde el catálogo en memoria; solo si el producto no
+     * está en el catálogo se consulta al servicio de productos.
      * @param idAccount codigo de la cuenta bancaria
      * @return Flux<Account>
      */
@@ -240,24 +479,123 @@ public class AccountAffiliationCrudRepository
     public
     Flux<Account>
     getProductAccountById(final String idAccount) {
-        log.info("[getProductAccountById] Inicio");
-        return reactiveCircuitBreaker
-                .run(
-                        webClient
-                                .get()
-                                .uri(
-                                        UriService.PRODUCT_ACCOUNT_GET_BY_ID,
-                                        idAccount
-                                )
-                                .accept(MediaType.APPLICATION_JSON)
-                                .retrieve()
-                                .bodyToFlux(Account.class),
-                throwable -> {
-                    log.info("throwable => {}", throwable.toString());
-                    log.info("[getProductAccountById] Error en la llamada:"
-                            + UriService.PRODUCT_ACCOUNT_GET_BY_ID
-                            + idAccount);
-                    return Flux.just(new Account());
-                });
+        log.debug("[getProductAccountById] Inicio: {}", idAccount);
+        if (productCatalog == null) {
+            return fetchProductAccountById(idAccount);
+        }
+        return productCatalog.account(idAccount)
+                .map(Flux::just)
+                .orElseGet(() -> fetchProductAccountById(idAccount)
+                        .doOnNext(productCatalog::put));
+    }
+    /**
+     * Consulta el producto al servicio de productos (fuera del catálogo).
+     * @param idAccount codigo del producto
+     * @return Flux<Account>
+     */
+    private
+    Flux<Account>
+    fetchProductAccountById(final String idAccount) {
+        return resilience.run(LatencyBreakdown.ACCOUNT_PRODUCT,
+                        LatencyBreakdown.timed(LatencyBreakdown.ACCOUNT_PRODUCT,
+                                webClient
+                                        .get()
+                                        .uri(UriService.PRODUCT_ACCOUNT_GET_BY_ID, idAccount)
+                                        .accept(downstreamAccept)
+                                        .retrieve()
+                                        .bodyToFlux(Account.class)),
+                        throwable -> {
+                            log.warn("[getProductAccountById] Error en la llamada: {} {} => {}",
+                                    UriService.PRODUCT_ACCOUNT_GET_BY_ID, idAccount,
+                                    throwable.toString());
+                            return Flux.just(new Account());
+                        });
+    }
+
+    /**
+     * Totales de afiliaciones de cuentas calculados en la BD.
+     * El tipo de cuenta pertenece al producto, por lo que se agrupa por
+     * producto y luego se combinan los productos del mismo tipo.
+     * @param groupBy agrupación (cliente, estado o tipo de cuenta).
+     * @param idCustomer Codigo del cliente (opcional).
+     * @param status estado (opcional).
+     * @return Flux<AffiliationSummary>
+     */
+    @Override
+    public
+    Flux<AffiliationSummary>
+    summarize(final SummaryGroup groupBy, final String idCustomer,
+              final Status status) {
+        switch (groupBy) {
+            case STATUS:
+                return LatencyBreakdown.timed(LatencyBreakdown.MONGO,
+                        repository.summarize("status", idCustomer, status));
+            case TYPE:
+                return AffiliationSummaries.foldByKey(LatencyBreakdown
+                        .timed(LatencyBreakdown.MONGO, repository.summarize("idAccount", idCustomer, status))
+                        .flatMap(summary -> getProductAccountById(
+                                summary.getKey())
+                                .next()
+                                .map(account -> {
+                                    summary.setKey(
+                                            account.getAccountType() == null
+                                            ? null
+                                            : account.getAccountType().name());
+                                    return summary;
+                                })));
+            default:
+                return LatencyBreakdown.timed(LatencyBreakdown.MONGO,
+                        repository.summarize("idCustomer", idCustomer, status));
+        }
+    }
+
+    /**
+     * Afiliaciones archivadas, solo si la petición las incluye.
+     * @param operation operación (define la preferencia de lectura).
+     * @param query consulta.
+     * @param keys cliente o Id consultados.
+     * @return Flux<AccountAffiliationDao>
+     */
+    private
+    Flux<AccountAffiliationDao>
+    archived(final String operation, final Query query,
+             final String... keys) {
+        return ArchiveScope.included()
+                .flatMapMany(included -> included
+                        ? LatencyBreakdown.timed(LatencyBreakdown.MONGO,
+                                readRouter.find(operation, query,
+                                        AccountAffiliationDao.class,
+                                        archiveCollection,
+                                        AccountAffiliationDao.class, keys))
+                        : Flux.empty());
+    }
+
+    /**
+     * Lee en el primario una afiliación que se va a modificar, con la
+     * clave de partición si se conoce.
+     * @param id codigo.
+     * @return Mono<AccountAffiliationDao>
+     */
+    private
+    Mono<AccountAffiliationDao>
+    findForWrite(final String id) {
+        return Deadline.bounded(shardKeyResolver
+                .resolve("accountAffiliation", id, readModel)
+                .flatMap(idCustomer -> idCustomer.isPresent()
+                        ? repository.findByIdAndIdCustomer(id,
+                                idCustomer.get())
+                        : repository.findById(id)));
+    }
+
+    /**
+     * Claves de una afiliación escrita (Id y cliente) para read-your-writes.
+     * @param accountAffiliationDao afiliación escrita.
+     * @return Collection<String>
+     */
+    private static
+    Collection<String>
+    writtenKeys(final AccountAffiliationDao accountAffiliationDao) {
+        return Arrays.asList(accountAffiliationDao.getId(),
+                accountAffiliationDao.getIdCustomer());
     }
 }
@@ -0,0 +1,101 @@
+package com.nttdata.affiliation.infraestructure.repository;
+
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.client.model.InsertManyOptions;
+import org.bson.Document;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * AFFILIATIONBULKINSERTS.
+ * Registro masivo de documentos con un solo insertMany sin orden: un
+ * documento rechazado no detiene a los demás, y un documento que ya existe
+ * con el mismo Id (por ejemplo, al reanudar una importación) se considera
+ * registrado.
+ */
+final class AffiliationBulkInserts {
+    /**
+     * Código de error: clave duplicada.
+     */
+    private static final int DUPLICATE_KEY = 11000;
+
+    /**
+     * Constructor privado.
+     */
+    private AffiliationBulkInserts() {
+        super();
+    }
+
+    /**
+     * Registra los documentos y emite los Ids registrados.
+     * @param readRouter escritura con read-your-writes.
+     * @param daoClass clase del documento.
+     * @param daos documentos con Id asignado.
+     * @param id Id del documento.
+     * @param idCustomer cliente del documento.
+     * @param <D> documento.
+     * @return Mono<List<String>>
+     */
+    static <D> Mono<List<String>> insertUnordered(
+            final MongoReadRouter readRouter,
+            final Class<D> daoClass,
+            final List<D> daos,
+            final Function<D, String> id,
+            final Function<D, String> idCustomer) {
+        List<String> keys = new ArrayList<>(daos.size() * 2);
+        daos.forEach(dao -> {
+            keys.add(id.apply(dao));
+            keys.add(idCustomer.apply(dao));
+        });
+        return readRouter.write(operations -> {
+            List<Document> documents = new ArrayList<>(daos.size());
+            daos.forEach(dao -> {
+                Document document = new Document();
+                operations.getConverter().write(dao, document);
+                documents.add(document);
+            });
+            return operations
+                    .getCollection(operations.getCollectionName(daoClass))
+                    .flatMap(collection -> Mono.from(collection.insertMany(
+                                    documents,
+                                    new InsertManyOptions().ordered(false)))
+                            .map(result -> Collections.<Integer>emptySet())
+                            .onErrorResume(MongoBulkWriteException.class,
+                                    AffiliationBulkInserts::failed))
+                    .map(failed -> {
+                        List<String> written = new ArrayList<>(daos.size());
+                        for (int i = 0; i < daos.size(); i++) {
+                            if (!failed.contains(i)) {
+                                written.add(id.apply(daos.get(i)));
+                            }
+                        }
+                        return written;
+                    });
+        }, written -> keys);
+    }
+
+    /**
+     * Posiciones de los documentos rechazados, sin contar los duplicados.
+     * @param e error del registro masivo.
+     * @return Mono<Set<Integer>>
+     */
+    private static Mono<Set<Integer>> failed(final MongoBulkWriteException e) {
+        if (e.getWriteConcernError() != null) {
+            return Mono.error(e);
+        }
+        Set<Integer> failed = new HashSet<>();
+        for (BulkWriteError error : e.getWriteErrors()) {
+            if (error.getCode() != DUPLICATE_KEY) {
+                failed.add(error.getIndex());
+            }
+        }
+        return Mono.just(failed);
+    }
+}
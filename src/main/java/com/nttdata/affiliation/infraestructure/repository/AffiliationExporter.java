@@ -0,0 +1,236 @@
+package com.nttdata.affiliation.infraestructure.repository;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Sorts;
+import com.nttdata.affiliation.domain.bean.ExportFormat;
+import com.nttdata.affiliation.infraestructure.config.ExportProperties;
+import com.nttdata.affiliation.infraestructure.model.dao.AccountAffiliationDao;
+import com.nttdata.affiliation.infraestructure.model.dao.CreditAffiliationDao;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * AFFILIATIONEXPORTER.
+ * Exporta las afiliaciones en CSV o NDJSON directamente desde un cursor de
+ * Mongo ordenado por Id: los documentos no se mapean ni se complementan
+ * con los servicios externos, y se agrupan en bloques de filas, por lo que
+ * la memoria usada no depende del tamaño de la colección. La exportación
+ * se reanuda desde el último Id exportado (afterId).
+ */
+@Component
+public class AffiliationExporter {
+    /**
+     * Columnas de las afiliaciones de cuentas bancarias.
+     */
+    public static final List<String> ACCOUNT_COLUMNS = Arrays.asList(
+            "id", "idCustomer", "idAccount", "number", "movementDay",
+            "numberOfHolder", "numberOfSigner", "baseAmount", "balance",
+            "status", "lastModifiedDate");
+    /**
+     * Columnas de las afiliaciones de creditos.
+     */
+    public static final List<String> CREDIT_COLUMNS = Arrays.asList(
+            "id", "idCustomer", "idCredit", "loanNumber", "cardNumber",
+            "baseAmount", "balance", "creditLimit");
+
+    /**
+     * Template.
+     */
+    private final ReactiveMongoTemplate mongoTemplate;
+    /**
+     * Preferencia de lectura por operación.
+     */
+    private final MongoReadRouter readRouter;
+    /**
+     * Serialización de las filas NDJSON.
+     */
+    private final ObjectMapper objectMapper;
+    /**
+     * Configuración de la exportación.
+     */
+    private final ExportProperties properties;
+
+    /**
+     * Constructor.
+     * @param reactiveMongoTemplate Template.
+     * @param mongoReadRouter preferencia de lectura por operación.
+     * @param mapper serialización JSON.
+     * @param exportProperties configuración de la exportación.
+     */
+    public
+    AffiliationExporter(final ReactiveMongoTemplate reactiveMongoTemplate,
+                        final MongoReadRouter mongoReadRouter,
+                        final ObjectMapper mapper,
+                        final ExportProperties exportProperties) {
+        this.mongoTemplate = reactiveMongoTemplate;
+        this.readRouter = mongoReadRouter;
+        this.objectMapper = mapper;
+        this.properties = exportProperties;
+    }
+
+    /**
+     * Exporta las afiliaciones de cuentas bancarias.
+     * @param format formato.
+     * @param afterId último Id exportado (opcional).
+     * @return Flux<byte[]> bloques de filas.
+     */
+    public Flux<byte[]> exportAccounts(final ExportFormat format,
+                                       final String afterId) {
+        return export(mongoTemplate
+                        .getCollectionName(AccountAffiliationDao.class),
+                ACCOUNT_COLUMNS, format, afterId);
+    }
+
+    /**
+     * Exporta las afiliaciones de creditos.
+     * @param format formato.
+     * @param afterId último Id exportado (opcional).
+     * @return Flux<byte[]> bloques de filas.
+     */
+    public Flux<byte[]> exportCredits(final ExportFormat format,
+                                      final String afterId) {
+        return export(mongoTemplate
+                        .getCollectionName(CreditAffiliationDao.class),
+                CREDIT_COLUMNS, format, afterId);
+    }
+
+    /**
+     * Exporta una colección.
+     * @param collectionName colección.
+     * @param columns columnas.
+     * @param format formato.
+     * @param afterId último Id exportado (opcional).
+     * @return Flux<byte[]> bloques de filas.
+     */
+    private Flux<byte[]> export(final String collectionName,
+                                final List<String> columns,
+                                final ExportFormat format,
+                                final String afterId) {
+        boolean resumed = afterId != null && !afterId.isEmpty();
+        Bson filter = !resumed
+                ? new Document()
+                : Filters.gt("_id", ObjectId.isValid(afterId)
+                        ? new ObjectId(afterId) : afterId);
+        Flux<byte[]> rows = readRouter
+                .documents(MongoReadRouter.EXPORT, collectionName, filter,
+                        Sorts.ascending("_id"), properties.getBatchSize())
+                .map(document -> format == ExportFormat.CSV
+                        ? csv(columns, document)
+                        : ndjson(columns, document));
+        if (format == ExportFormat.CSV && !resumed) {
+            rows = rows.startWith(csvHeader(columns));
+        }
+        return rows.buffer(properties.getChunkRows())
+                .map(AffiliationExporter::join);
+    }
+
+    /**
+     * Cabecera CSV.
+     * @param columns columnas.
+     * @return byte[]
+     */
+    private static byte[] csvHeader(final List<String> columns) {
+        return (String.join(",", columns) + "\n")
+                .getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Fila CSV.
+     * @param columns columnas.
+     * @param document documento.
+     * @return byte[]
+     */
+    private static byte[] csv(final List<String> columns,
+                              final Document document) {
+        StringBuilder line = new StringBuilder();
+        for (int i = 0; i < columns.size(); i++) {
+            if (i > 0) {
+                line.append(',');
+            }
+            Object value = value(document, columns.get(i));
+            if (value != null) {
+                String text = value.toString();
+                if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0
+                        || text.indexOf('\n') >= 0
+                        || text.indexOf('\r') >= 0) {
+                    line.append('"').append(text.replace("\"", "\"\""))
+                            .append('"');
+                } else {
+                    line.append(text);
+                }
+            }
+        }
+        return line.append('\n').toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Fila NDJSON.
+     * @param columns columnas.
+     * @param document documento.
+     * @return byte[]
+     */
+    private byte[] ndjson(final List<String> columns,
+                          final Document document) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        for (String column : columns) {
+            Object value = value(document, column);
+            if (value != null) {
+                row.put(column, value);
+            }
+        }
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(row);
+            byte[] line = Arrays.copyOf(json, json.length + 1);
+            line[json.length] = '\n';
+            return line;
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Valor de una columna: el Id como texto y las fechas como Instant.
+     * @param document documento.
+     * @param column columna.
+     * @return Object
+     */
+    private static Object value(final Document document, final String column) {
+        Object value = document.get("id".equals(column) ? "_id" : column);
+        if (value instanceof ObjectId) {
+            return ((ObjectId) value).toHexString();
+        }
+        if (value instanceof Date) {
+            return ((Date) value).toInstant();
+        }
+        return value;
+    }
+
+    /**
+     * Une las filas de un bloque.
+     * @param rows filas.
+     * @return byte[]
+     */
+    private static byte[] join(final List<byte[]> rows) {
+        int size = 0;
+        for (byte[] row : rows) {
+            size += row.length;
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(size);
+        rows.forEach(row -> out.write(row, 0, row.length));
+        return out.toByteArray();
+    }
+}
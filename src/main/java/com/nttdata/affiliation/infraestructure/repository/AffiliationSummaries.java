@@ -0,0 +1,75 @@
+package com.nttdata.affiliation.infraestructure.repository;
+
+import com.nttdata.affiliation.domain.AffiliationSummary;
+import reactor.core.publisher.Flux;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * AFFILIATIONSUMMARIES.
+ * Combina los totales calculados en la BD cuando varios grupos
+ * (por ejemplo, productos del mismo tipo) comparten la misma clave.
+ */
+final class AffiliationSummaries {
+    /**
+     * Constructor privado.
+     */
+    private AffiliationSummaries() {
+        super();
+    }
+
+    /**
+     * Combina los totales que tienen la misma clave.
+     * @param summaries totales por grupo.
+     * @return Flux<AffiliationSummary>
+     */
+    static Flux<AffiliationSummary> foldByKey(
+            final Flux<AffiliationSummary> summaries) {
+        return summaries
+                .collect(LinkedHashMap<String, AffiliationSummary>::new,
+                        (map, summary) -> map.merge(
+                                String.valueOf(summary.getKey()),
+                                summary,
+                                AffiliationSummaries::combine))
+                .flatMapIterable(Map::values);
+    }
+
+    /**
+     * Combina dos totales; el promedio se pondera por la cantidad.
+     * @param a total.
+     * @param b total.
+     * @return AffiliationSummary
+     */
+    private static AffiliationSummary combine(
+            final AffiliationSummary a, final AffiliationSummary b) {
+        AffiliationSummary summary = new AffiliationSummary();
+        summary.setKey(a.getKey());
+        summary.setCount(a.getCount() + b.getCount());
+        summary.setTotalBalance(sum(a.getTotalBalance(), b.getTotalBalance()));
+        if (a.getAverageBaseAmount() == null) {
+            summary.setAverageBaseAmount(b.getAverageBaseAmount());
+        } else if (b.getAverageBaseAmount() == null) {
+            summary.setAverageBaseAmount(a.getAverageBaseAmount());
+        } else {
+            summary.setAverageBaseAmount(
+                    (a.getAverageBaseAmount() * a.getCount()
+                    + b.getAverageBaseAmount() * b.getCount())
+                    / summary.getCount());
+        }
+        return summary;
+    }
+
+    /**
+     * Suma dos montos que pueden ser nulos.
+     * @param a monto.
+     * @param b monto.
+     * @return Double
+     */
+    private static Double sum(final Double a, final Double b) {
+        if (a == null) {
+            return b;
+        }
+        return b == null ? a : a + b;
+    }
+}
@@ -0,0 +1,41 @@
+package com.nttdata.affiliation.infraestructure.repository;
+
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+
+import java.util.function.Function;
+
+/**
+ * ARCHIVESCOPE.
+ * Indica en el contexto de la petición si las consultas deben incluir las
+ * afiliaciones archivadas (parámetro includeArchived); por defecto solo se
+ * consulta la colección principal.
+ */
+public final class ArchiveScope {
+    /**
+     * Constructor privado.
+     */
+    private ArchiveScope() {
+    }
+
+    /**
+     * Agrega al contexto si se incluyen las afiliaciones archivadas.
+     * @param includeArchived incluir archivadas.
+     * @return Function<Context, Context>
+     */
+    public static Function<Context, Context> include(
+            final boolean includeArchived) {
+        return context -> includeArchived
+                ? context.put(ArchiveScope.class, Boolean.TRUE)
+                : context;
+    }
+
+    /**
+     * Indica si la petición incluye las afiliaciones archivadas.
+     * @return Mono<Boolean>
+     */
+    public static Mono<Boolean> included() {
+        return Mono.deferContextual(context -> Mono.just(
+                context.getOrDefault(ArchiveScope.class, Boolean.FALSE)));
+    }
+}
@@ -0,0 +1,253 @@
+package com.nttdata.affiliation.infraestructure.repository;
+
+import com.nttdata.affiliation.domain.BalanceUpdate;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * BALANCEJOURNAL.
+ * Registro local (solo se agregan líneas) de las actualizaciones de saldo
+ * que aún no se escriben en la BD. Antes de cada escritura el registro
+ * activo se sella y se abre uno nuevo; el sellado se elimina cuando su
+ * contenido ya está en la BD. Al iniciar, los registros pendientes se
+ * leen en orden y se compactan en el registro activo.
+ * Formato de línea: S, id, saldo, día de movimiento y cliente
+ * (actualización) o D e id (descarte), separados por tabulador.
+ */
+@Slf4j
+public class BalanceJournal implements Closeable {
+    /**
+     * Nombre del registro activo.
+     */
+    private static final String ACTIVE = "balance.journal";
+    /**
+     * Sufijo de los registros sellados.
+     */
+    private static final String SEALED = ".sealed";
+    /**
+     * Directorio de los registros.
+     */
+    private final Path directory;
+    /**
+     * Forzar a disco en cada línea.
+     */
+    private final boolean fsync;
+    /**
+     * Registros sellados en esta ejecución.
+     */
+    private long sequence;
+    /**
+     * Registro activo.
+     */
+    private FileChannel channel;
+
+    /**
+     * Constructor.
+     * @param journalDirectory directorio de los registros.
+     * @param forceToDisk forzar a disco en cada línea.
+     * @throws IOException si no se puede abrir el registro.
+     */
+    public BalanceJournal(final Path journalDirectory,
+                          final boolean forceToDisk) throws IOException {
+        this.directory = journalDirectory;
+        this.fsync = forceToDisk;
+        Files.createDirectories(directory);
+        this.channel = open();
+    }
+
+    /**
+     * Agrega una actualización.
+     * @param id codigo de la afiliación.
+     * @param update actualización.
+     * @throws IOException si no se puede escribir.
+     */
+    public synchronized void append(final String id,
+                                    final BalanceUpdate update)
+            throws IOException {
+        write(channel, line(id, update));
+    }
+
+    /**
+     * Agrega el descarte de las actualizaciones de una afiliación.
+     * @param id codigo de la afiliación.
+     * @throws IOException si no se puede escribir.
+     */
+    public synchronized void discard(final String id) throws IOException {
+        write(channel, "D\t" + id);
+    }
+
+    /**
+     * Sella el registro activo y abre uno nuevo.
+     * @return Path registro sellado.
+     * @throws IOException si no se puede sellar.
+     */
+    public synchronized Path seal() throws IOException {
+        channel.close();
+        Path sealed = directory.resolve(String.format("%s.%013d-%06d%s",
+                ACTIVE, System.currentTimeMillis(), sequence++, SEALED));
+        Files.move(directory.resolve(ACTIVE), sealed,
+                StandardCopyOption.ATOMIC_MOVE);
+        channel = open();
+        return sealed;
+    }
+
+    /**
+     * Elimina un registro sellado cuyo contenido ya está en la BD.
+     * @param sealed registro sellado.
+     * @throws IOException si no se puede eliminar.
+     */
+    public void delete(final Path sealed) throws IOException {
+        Files.deleteIfExists(sealed);
+    }
+
+    /**
+     * Lee los registros pendientes de una ejecución anterior y los
+     * compacta en el registro activo.
+     * @return Map<String, BalanceUpdate> actualizaciones por afiliación.
+     * @throws IOException si no se pueden leer.
+     */
+    public synchronized Map<String, BalanceUpdate> recover()
+            throws IOException {
+        channel.close();
+        List<Path> files;
+        try (Stream<Path> list = Files.list(directory)) {
+            files = list.filter(p -> p.getFileName().toString()
+                            .endsWith(SEALED))
+                    .sorted()
+                    .collect(Collectors.toCollection(ArrayList::new));
+        }
+        files.add(directory.resolve(ACTIVE));
+        Map<String, BalanceUpdate> updates = new LinkedHashMap<>();
+        for (Path file : files) {
+            read(file, updates);
+        }
+        Path compacted = directory.resolve(ACTIVE + ".tmp");
+        try (FileChannel out = FileChannel.open(compacted,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE)) {
+            for (Map.Entry<String, BalanceUpdate> e : updates.entrySet()) {
+                write(out, line(e.getKey(), e.getValue()));
+            }
+            out.force(true);
+        }
+        Files.move(compacted, directory.resolve(ACTIVE),
+                StandardCopyOption.ATOMIC_MOVE,
+                StandardCopyOption.REPLACE_EXISTING);
+        for (Path file : files.subList(0, files.size() - 1)) {
+            Files.deleteIfExists(file);
+        }
+        channel = open();
+        return updates;
+    }
+
+    /**
+     * Cierra el registro activo.
+     * @throws IOException si no se puede cerrar.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Abre el registro activo para agregar líneas.
+     * @return FileChannel
+     * @throws IOException si no se puede abrir.
+     */
+    private FileChannel open() throws IOException {
+        return FileChannel.open(directory.resolve(ACTIVE),
+                StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+    }
+
+    /**
+     * Línea de una actualización.
+     * @param id codigo de la afiliación.
+     * @param update actualización.
+     * @return String
+     */
+    private static String line(final String id, final BalanceUpdate update) {
+        return "S\t" + id
+                + "\t" + (update.getBalance() == null
+                        ? "" : update.getBalance())
+                + "\t" + (update.getMovementDay() == null
+                        ? "" : update.getMovementDay())
+                + "\t" + (update.getIdCustomer() == null
+                        ? "" : update.getIdCustomer());
+    }
+
+    /**
+     * Escribe una línea.
+     * @param out registro.
+     * @param line línea.
+     * @throws IOException si no se puede escribir.
+     */
+    private void write(final FileChannel out, final String line)
+            throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(
+                (line + "\n").getBytes(StandardCharsets.UTF_8));
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+        if (fsync) {
+            out.force(false);
+        }
+    }
+
+    /**
+     * Aplica las líneas de un registro; una última línea incompleta (por
+     * una caída durante la escritura) se ignora.
+     * @param file registro.
+     * @param updates actualizaciones por afiliación.
+     * @throws IOException si no se puede leer.
+     */
+    private void read(final Path file, final Map<String, BalanceUpdate> updates)
+            throws IOException {
+        if (!Files.exists(file)) {
+            return;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(file,
+                StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] fields = line.split("\t", -1);
+                try {
+                    if ("D".equals(fields[0]) && fields.length == 2) {
+                        updates.remove(fields[1]);
+                    } else if ("S".equals(fields[0])
+                            && (fields.length == 4 || fields.length == 5)) {
+                        updates.merge(fields[1], new BalanceUpdate(
+                                fields[2].isEmpty()
+                                        ? null : Double.valueOf(fields[2]),
+                                fields[3].isEmpty() ? null : fields[3],
+                                fields.length == 5 && !fields[4].isEmpty()
+                                        ? fields[4] : null,
+                                false), BalanceUpdate::merge);
+                    } else {
+                        log.warn("[read] Linea ignorada en {}", file);
+                    }
+                } catch (NumberFormatException e) {
+                    log.warn("[read] Linea ignorada en {}", file);
+                }
+            }
+        }
+    }
+}
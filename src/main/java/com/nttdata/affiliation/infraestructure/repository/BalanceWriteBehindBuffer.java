@@ -0,0 +1,404 @@
+package com.nttdata.affiliation.infraestructure.repository;
+
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.Updates;
+import com.nttdata.affiliation.domain.BalanceUpdate;
+import com.nttdata.affiliation.infraestructure.config.WriteBehindProperties;
+import com.nttdata.affiliation.infraestructure.model.dao.AccountAffiliationDao;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.bson.types.ObjectId;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * BALANCEWRITEBEHINDBUFFER.
+ * Escritura diferida del saldo y del día de movimiento de las afiliaciones
+ * de cuentas bancarias. Las actualizaciones de una misma afiliación se
+ * combinan en memoria durante affiliation.write-behind.flush-interval y
+ * se escriben juntas en un solo bulkWrite sin orden; cada actualización
+ * se agrega antes al registro local (BalanceJournal), que se relee al
+ * iniciar. Al detener la aplicación se escriben las pendientes.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "affiliation.write-behind", name = "enabled",
+        havingValue = "true")
+public class BalanceWriteBehindBuffer {
+    /**
+     * Prefijo de las métricas.
+     */
+    public static final String METRIC = "affiliation.write-behind";
+    /**
+     * Template.
+     */
+    private final ReactiveMongoTemplate mongoTemplate;
+    /**
+     * Configuración de la escritura diferida.
+     */
+    private final WriteBehindProperties properties;
+    /**
+     * Registro local de las actualizaciones pendientes.
+     */
+    private final BalanceJournal journal;
+    /**
+     * Scheduler del trabajo bloqueante (registro local).
+     */
+    private final Scheduler blockingScheduler;
+    /**
+     * Actualizaciones combinadas por afiliación, pendientes de escritura.
+     */
+    private final Map<String, BalanceUpdate> pending
+            = new ConcurrentHashMap<>();
+    /**
+     * Actualizaciones que se están escribiendo.
+     */
+    private final Map<String, BalanceUpdate> inFlight
+            = new ConcurrentHashMap<>();
+    /**
+     * Las actualizaciones comparten el registro; sellarlo y tomar las
+     * pendientes es exclusivo.
+     */
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    /**
+     * Indica si hay una escritura en curso.
+     */
+    private final AtomicBoolean flushing = new AtomicBoolean();
+    /**
+     * Escritura en curso (o la última), para esperar a que termine.
+     */
+    private volatile Mono<Void> running = Mono.empty();
+    /**
+     * Actualizaciones recibidas.
+     */
+    private final Counter received;
+    /**
+     * Documentos escritos.
+     */
+    private final Counter written;
+    /**
+     * Escrituras periódicas.
+     */
+    private Disposable ticker;
+
+    /**
+     * Constructor.
+     * @param reactiveMongoTemplate Template.
+     * @param writeBehindProperties configuración.
+     * @param registry registro de métricas.
+     * @param scheduler scheduler del trabajo bloqueante.
+     * @throws IOException si no se puede abrir el registro local.
+     */
+    public BalanceWriteBehindBuffer(
+            final ReactiveMongoTemplate reactiveMongoTemplate,
+            final WriteBehindProperties writeBehindProperties,
+            final MeterRegistry registry,
+            final Scheduler scheduler) throws IOException {
+        this.mongoTemplate = reactiveMongoTemplate;
+        this.blockingScheduler = scheduler;
+        this.properties = writeBehindProperties;
+        this.journal = new BalanceJournal(
+                properties.getJournalDirectory(), properties.isFsync());
+        this.received = Counter.builder(METRIC + ".received")
+                .description("Actualizaciones de saldo recibidas")
+                .register(registry);
+        this.written = Counter.builder(METRIC + ".written")
+                .description("Documentos escritos por la escritura diferida")
+                .register(registry);
+        Gauge.builder(METRIC + ".pending", pending, Map::size)
+                .description("Afiliaciones con actualizaciones pendientes")
+                .register(registry);
+    }
+
+    /**
+     * Recupera las actualizaciones del registro local e inicia las
+     * escrituras periódicas.
+     * @throws IOException si no se puede leer el registro local.
+     */
+    @PostConstruct
+    public void start() throws IOException {
+        Map<String, BalanceUpdate> recovered = journal.recover();
+        pending.putAll(recovered);
+        if (!recovered.isEmpty()) {
+            log.info("[start] {} actualizaciones recuperadas",
+                    recovered.size());
+        }
+        ticker = Flux.interval(properties.getFlushInterval())
+                .onBackpressureDrop()
+                .concatMap(tick -> flush()
+                        .onErrorResume(e -> {
+                            log.warn("[flush] Error en el registro local:"
+                                    + " {}", e.toString());
+                            return Mono.empty();
+                        }))
+                .subscribe(null, e -> log.error(
+                        "[start] Escrituras periódicas detenidas", e));
+    }
+
+    /**
+     * Escribe las actualizaciones pendientes y cierra el registro local.
+     * Si la escritura falla, las actualizaciones quedan en el registro y se
+     * recuperan en el siguiente inicio. Antes de cerrar el registro espera
+     * a la escritura en curso, que sigue aunque se agote el tiempo de
+     * espera: así no escribe ni restaura sobre un registro cerrado.
+     */
+    @PreDestroy
+    public void stop() {
+        if (ticker != null) {
+            ticker.dispose();
+        }
+        Mono.defer(this::flush)
+                .then(Mono.delay(Duration.ofMillis(10)))
+                .repeat(() -> flushing.get() || !pending.isEmpty())
+                .then()
+                .timeout(properties.getShutdownTimeout())
+                .onErrorResume(e -> {
+                    log.warn("[stop] Quedan {} actualizaciones en el registro"
+                            + " local: {}", pending.size(), e.toString());
+                    return Mono.empty();
+                })
+                .block();
+        running.onErrorResume(e -> Mono.empty())
+                .timeout(properties.getShutdownTimeout(), Mono.empty())
+                .block();
+        try {
+            journal.close();
+        } catch (IOException e) {
+            log.warn("[stop] Error al cerrar el registro: {}", e.toString());
+        }
+    }
+
+    /**
+     * Registra una actualización para escribirla en la siguiente ventana.
+     * @param id codigo de la afiliación.
+     * @param update actualización.
+     * @return Mono<BalanceUpdate> la actualización, marcada como pendiente.
+     */
+    public Mono<BalanceUpdate> submit(final String id,
+                                      final BalanceUpdate update) {
+        return Mono.fromCallable(() -> {
+            lock.readLock().lock();
+            try {
+                journal.append(id, update);
+                pending.merge(id, update, BalanceUpdate::merge);
+            } finally {
+                lock.readLock().unlock();
+            }
+            received.increment();
+            if (pending.size() >= properties.getMaxPending()) {
+                flush().subscribe(null, e -> log.warn(
+                        "[submit] Error al escribir: {}", e.toString()));
+            }
+            return new BalanceUpdate(update.getBalance(),
+                    update.getMovementDay(), update.getIdCustomer(), true);
+        }).subscribeOn(blockingScheduler);
+    }
+
+    /**
+     * Descarta las actualizaciones pendientes de una afiliación (por
+     * ejemplo, porque se reemplazó completa). Si se están escribiendo,
+     * espera a que termine la escritura en curso: así su $set no
+     * sobrescribe el reemplazo y el registro sellado ya no existe (o sus
+     * actualizaciones volvieron al registro activo, donde se descartan).
+     * @param id codigo de la afiliación.
+     * @return Mono<Void>
+     */
+    public Mono<Void> discard(final String id) {
+        return Mono.fromCallable(() -> tryDiscard(id))
+                .subscribeOn(blockingScheduler)
+                .flatMap(discarded -> discarded
+                        ? Mono.<Void>empty()
+                        : running.onErrorResume(e -> Mono.empty())
+                                .then(Mono.defer(() -> discard(id))));
+    }
+
+    /**
+     * Descarta las actualizaciones pendientes de una afiliación si no se
+     * están escribiendo.
+     * @param id codigo de la afiliación.
+     * @return boolean false si hay que esperar a la escritura en curso.
+     * @throws IOException si no se puede escribir en el registro.
+     */
+    private boolean tryDiscard(final String id) throws IOException {
+        lock.readLock().lock();
+        try {
+            if (inFlight.containsKey(id)) {
+                return false;
+            }
+            if (pending.containsKey(id)) {
+                journal.discard(id);
+                pending.remove(id);
+            }
+            return true;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Aplica a un documento leído de la BD las actualizaciones que aún no
+     * se escriben.
+     * @param dao afiliación de cuenta.
+     * @return AccountAffiliationDao
+     */
+    public AccountAffiliationDao overlay(final AccountAffiliationDao dao) {
+        BalanceUpdate writing = inFlight.get(dao.getId());
+        BalanceUpdate waiting = pending.get(dao.getId());
+        BalanceUpdate update = writing == null ? waiting
+                : waiting == null ? writing : writing.merge(waiting);
+        if (update != null) {
+            if (update.getBalance() != null) {
+                dao.setBalance(update.getBalance());
+            }
+            if (update.getMovementDay() != null) {
+                dao.setMovementDay(update.getMovementDay());
+            }
+        }
+        return dao;
+    }
+
+    /**
+     * Escribe las actualizaciones pendientes en un solo bulkWrite.
+     * @return Mono<Void>
+     */
+    public Mono<Void> flush() {
+        if (pending.isEmpty() || !flushing.compareAndSet(false, true)) {
+            return Mono.empty();
+        }
+        Mono<Void> flush = Mono.fromCallable(this::drain)
+                .subscribeOn(blockingScheduler)
+                .flatMap(sealed -> write()
+                        .doOnNext(result -> {
+                            written.increment(result.getModifiedCount());
+                            log.debug("[flush] {} afiliaciones, {} sin"
+                                    + " registro en la BD", inFlight.size(),
+                                    inFlight.size() - result.getMatchedCount());
+                        })
+                        .then(Mono.fromCallable(() -> {
+                            journal.delete(sealed);
+                            inFlight.clear();
+                            return sealed;
+                        }).subscribeOn(blockingScheduler))
+                        .onErrorResume(e -> restore(sealed, e)))
+                .doFinally(signal -> flushing.set(false))
+                .then()
+                .cache();
+        running = flush;
+        return flush;
+    }
+
+    /**
+     * Sella el registro local y toma las actualizaciones pendientes.
+     * @return Path registro sellado.
+     * @throws IOException si no se puede sellar.
+     */
+    private Path drain() throws IOException {
+        lock.writeLock().lock();
+        try {
+            Path sealed = journal.seal();
+            for (String id : new ArrayList<>(pending.keySet())) {
+                BalanceUpdate update = pending.remove(id);
+                if (update != null) {
+                    inFlight.put(id, update);
+                }
+            }
+            return sealed;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Escribe las actualizaciones tomadas.
+     * @return Mono<BulkWriteResult>
+     */
+    private Mono<BulkWriteResult> write() {
+        List<UpdateOneModel<Document>> models = new ArrayList<>();
+        inFlight.forEach((id, update) -> {
+            List<Bson> sets = new ArrayList<>();
+            if (update.getBalance() != null) {
+                sets.add(Updates.set("balance", update.getBalance()));
+            }
+            if (update.getMovementDay() != null) {
+                sets.add(Updates.set("movementDay", update.getMovementDay()));
+            }
+            if (!sets.isEmpty()) {
+                sets.add(Updates.currentDate("lastModifiedDate"));
+                Bson filter = Filters.eq("_id", ObjectId.isValid(id)
+                        ? new ObjectId(id) : id);
+                if (update.getIdCustomer() != null) {
+                    filter = Filters.and(filter, Filters.eq(
+                            ShardKeyResolver.SHARD_KEY,
+                            update.getIdCustomer()));
+                }
+                models.add(new UpdateOneModel<>(filter,
+                        Updates.combine(sets)));
+            }
+        });
+        if (models.isEmpty()) {
+            return Mono.empty();
+        }
+        return mongoTemplate
+                .getCollection(mongoTemplate
+                        .getCollectionName(AccountAffiliationDao.class))
+                .flatMap(collection -> Mono.from(collection.bulkWrite(models,
+                        new BulkWriteOptions().ordered(false))));
+    }
+
+    /**
+     * Devuelve a pendientes las actualizaciones que no se pudieron
+     * escribir: se combinan con las recibidas mientras tanto y se agregan
+     * de nuevo al registro activo antes de eliminar el sellado. Si el
+     * registro activo falla se conserva el sellado.
+     * @param sealed registro sellado.
+     * @param error error de la escritura.
+     * @return Mono<Path>
+     */
+    private Mono<Path> restore(final Path sealed, final Throwable error) {
+        log.warn("[flush] Error, se reintentará: {}", error.toString());
+        return Mono.fromCallable(() -> {
+            lock.writeLock().lock();
+            try {
+                List<String> ids = new ArrayList<>(inFlight.keySet());
+                for (String id : ids) {
+                    BalanceUpdate later = pending.get(id);
+                    BalanceUpdate update = inFlight.remove(id);
+                    pending.put(id, later == null
+                            ? update : update.merge(later));
+                }
+                for (String id : ids) {
+                    journal.append(id, pending.get(id));
+                }
+                journal.delete(sealed);
+                return sealed;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }).subscribeOn(blockingScheduler);
+    }
+}
@@ -1,21 +1,35 @@
 package com.nttdata.affiliation.infraestructure.repository;
 
 import com.nttdata.affiliation.application.CreditAffiliationRepository;
+import com.nttdata.affiliation.domain.AffiliationSummary;
 import com.nttdata.affiliation.domain.CreditAffiliation;
 import com.nttdata.affiliation.domain.bean.Credit;
 import com.nttdata.affiliation.domain.bean.Customer;
+import com.nttdata.affiliation.domain.bean.SummaryGroup;
 import com.nttdata.affiliation.infraestructure.client.UriService;
+import com.nttdata.affiliation.infraestructure.config.CodecProperties;
+import com.nttdata.affiliation.infraestructure.deadline.Deadline;
 import com.nttdata.affiliation.infraestructure.model.dao.CreditAffiliationDao;
+import com.nttdata.affiliation.infraestructure.readmodel.CreditAffiliationReadModel;
+import com.nttdata.affiliation.infraestructure.readmodel.ProductCatalog;
+import com.nttdata.affiliation.infraestructure.resilience.DownstreamResilience;
+import com.nttdata.affiliation.infraestructure.tracing.LatencyBreakdown;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.BeanUtils;
-import org.springframework.cloud.circuitbreaker.resilience4j.ReactiveResilience4JCircuitBreakerFactory;
-import org.springframework.cloud.client.circuitbreaker.ReactiveCircuitBreaker;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 /**
  * CREDITAFFILIATIONCRUDREPOSITORY.
  * Implementa las operaciones (CRUD) de la afiliación de Credito
@@ -33,24 +47,62 @@ public class CreditAffiliationCrudRepository
      */
     private final WebClient webClient;
     /**
-     * Circuit Breaker.
+     * Formatos aceptados de los servicios externos.
+     */
+    private final MediaType[] downstreamAccept;
+    /**
+     * Circuit breaker, time limiter y reintentos por servicio externo.
+     */
+    private final DownstreamResilience resilience;
+    /**
+     * Modelo de lectura en memoria (null si no está habilitado).
+     */
+    private final CreditAffiliationReadModel readModel;
+    /**
+     * Catálogo de productos en memoria (null si no está habilitado).
      */
-    private final ReactiveCircuitBreaker reactiveCircuitBreaker;
+    private final ProductCatalog productCatalog;
+    /**
+     * Preferencia de lectura por operación y read-your-writes.
+     */
+    private final MongoReadRouter readRouter;
+    /**
+     * Clave de partición de las consultas por Id.
+     */
+    private final ShardKeyResolver shardKeyResolver;
 
     /**
      * Constructor.
-     * @param circuitBreakerFactory corto circuito.
+     * @param downstreamResilience políticas por servicio externo.
+     * @param webClientBuilder builder del cliente web (instrumentado).
+     * @param codecProperties formatos de intercambio.
      * @param iCreditAffiliationCrudRepository repositorio.
+     * @param creditAffiliationReadModel modelo de lectura en memoria.
+     * @param catalog catálogo de productos en memoria.
+     * @param mongoReadRouter preferencia de lectura por operación.
+     * @param resolver clave de partición de las consultas por Id.
      */
     public CreditAffiliationCrudRepository(
-    final ReactiveResilience4JCircuitBreakerFactory circuitBreakerFactory,
-    final ICreditAffiliationCrudRepository iCreditAffiliationCrudRepository) {
+    final DownstreamResilience downstreamResilience,
+    final WebClient.Builder webClientBuilder,
+    final CodecProperties codecProperties,
+    final ICreditAffiliationCrudRepository iCreditAffiliationCrudRepository,
+    final ObjectProvider<CreditAffiliationReadModel>
+            creditAffiliationReadModel,
+    final ObjectProvider<ProductCatalog> catalog,
+    final MongoReadRouter mongoReadRouter,
+    final ShardKeyResolver resolver) {
         this.repository = iCreditAffiliationCrudRepository;
-        this.webClient = WebClient
-                .builder()
+        this.readRouter = mongoReadRouter;
+        this.productCatalog = catalog.getIfAvailable();
+        this.shardKeyResolver = resolver;
+        this.readModel = creditAffiliationReadModel.getIfAvailable();
+        this.webClient = webClientBuilder.clone()
                 .baseUrl(UriService.BASE_URI)
                 .build();
-        this.reactiveCircuitBreaker = circuitBreakerFactory.create("credit");
+        this.downstreamAccept = codecProperties.getDownstreamAccept()
+                .toArray(new MediaType[0]);
+        this.resilience = downstreamResilience;
     }
     /**
      * Regitra las afiliaciones de credito de un cliente.
@@ -62,13 +114,35 @@ public class CreditAffiliationCrudRepository
     Mono<CreditAffiliation>
     create(
             final CreditAffiliation creditAffiliation) {
-        return repository
-                .save(
+        return LatencyBreakdown.timed(LatencyBreakdown.MONGO, readRouter
+                .write(operations -> operations.save(
                         mapCreditAffiliationToCreditAffiliationDao(
                                 creditAffiliation
-                        )
-                )
-                .map(this::mapCreditAffiliationDaoToCreditAffiliation);
+                        )),
+                        CreditAffiliationCrudRepository::writtenKeys))
+                .flatMap(this::mapCreditAffiliationDaoToCreditAffiliation);
+    }
+    /**
+     * Registra las afiliaciones de credito de una importación con un solo
+     * insertMany sin orden.
+     * @param creditAffiliations afiliaciones con Id asignado.
+     * @return Flux<String> Ids registrados.
+     */
+    @Override
+    public
+    Flux<String>
+    createAll(final List<CreditAffiliation> creditAffiliations) {
+        log.info("[createAll] Inicio: {}", creditAffiliations.size());
+        List<CreditAffiliationDao> daos = new ArrayList<>();
+        creditAffiliations.forEach(creditAffiliation -> daos.add(
+                mapCreditAffiliationToCreditAffiliationDao(
+                        creditAffiliation)));
+        return LatencyBreakdown.timed(LatencyBreakdown.MONGO,
+                AffiliationBulkInserts.insertUnordered(readRouter,
+                        CreditAffiliationDao.class, daos,
+                        CreditAffiliationDao::getId,
+                        CreditAffiliationDao::getIdCustomer))
+                .flatMapIterable(ids -> ids);
     }
     /**
      * Actualiza las afiliaciones de credito de un cliente.
@@ -81,8 +155,8 @@ public class CreditAffiliationCrudRepository
     Mono<CreditAffiliation>
     update(
             final String id, final CreditAffiliation creditAffiliation) {
-        return repository
-                .findById(id)
+        return LatencyBreakdown.timed(LatencyBreakdown.MONGO,
+                findForWrite(id))
                 .flatMap(p ->  create(
                         mapCreditAffiliationDaoToCreditAffiliation(
                                 p, creditAffiliation
@@ -92,15 +166,25 @@ public class CreditAffiliationCrudRepository
     /**
      * Elimina los datos de la afiliacion de Credito de un cliente.
      * @param id codigo.
-     * @return Mono<CreditAffiliationDao>
+     * @return Mono<Boolean> true si se eliminó, false si no existe.
      */
     @Override
     public
-    Mono<Void>
+    Mono<Boolean>
     delete(final String id) {
-        return repository
-                .findById(id)
-                .flatMap(p -> repository.deleteById(p.getId()));
+        return LatencyBreakdown.timed(LatencyBreakdown.MONGO,
+                findForWrite(id))
+                .flatMap(p -> LatencyBreakdown.timed(LatencyBreakdown.MONGO,
+                        readRouter.write(operations -> operations.remove(
+                                        Query.query(ShardKeyResolver.byId(
+                                                p.getId(), Optional.ofNullable(
+                                                        p.getIdCustomer()))),
+                                        CreditAffiliationDao.class)
+                                        .filter(result ->
+                                                result.getDeletedCount() > 0)
+                                        .map(result -> p),
+                                CreditAffiliationCrudRepository::writtenKeys)))
+                .hasElement();
     }
     /**
      * Busca por el Id los datos de la afiliacion de credito de un cliente.
@@ -111,8 +195,16 @@ public class CreditAffiliationCrudRepository
     public
     Mono<CreditAffiliation>
     findById(final String id) {
-        return repository.findById((id))
-                .map(this::mapCreditAffiliationDaoToCreditAffiliation);
+        return LatencyBreakdown.timed(LatencyBreakdown.MONGO,
+                shardKeyResolver.resolve("creditAffiliation", id, readModel)
+                        .flatMap(idCustomer -> readRouter.find(
+                                MongoReadRouter.FIND_BY_ID,
+                                Query.query(ShardKeyResolver
+                                        .byId(id, idCustomer)),
+                                CreditAffiliationDao.class,
+                                CreditAffiliationDao.class, id)
+                                .next()))
+                .flatMap(this::mapCreditAffiliationDaoToCreditAffiliation);
     }
     /**
      * Busca  los datos de todas las afiliaciones de credito de un cliente.
@@ -122,9 +214,11 @@ public class CreditAffiliationCrudRepository
     public
     Flux<CreditAffiliation>
     findAll() {
-        return repository
-                .findAll()
-                .map(this::mapCreditAffiliationDaoToCreditAffiliation);
+        return LatencyBreakdown.timed(LatencyBreakdown.MONGO,
+                readRouter.find(MongoReadRouter.FIND_ALL, new Query(),
+                        CreditAffiliationDao.class, CreditAffiliationDao.class))
+                .flatMapSequential(
+                        this::mapCreditAffiliationDaoToCreditAffiliation);
     }
     /*
     mapCreditAffiliationToCreditAffiliationDao:
@@ -143,20 +237,42 @@ public class CreditAffiliationCrudRepository
         return creditAffiliationDao;
     }
     /**
-     * A la clase CreditAffiliation asigna los datos de CreditAffiliationDao.
+     * A la clase CreditAffiliation asigna los datos de CreditAffiliationDao
+     * y la complementa con el cliente y el credito (en paralelo).
+     * @param creditAffiliationDao afiliación de credito.
+     * @return Mono<CreditAffiliation>
+     */
+    private
+    Mono<CreditAffiliation>
+    mapCreditAffiliationDaoToCreditAffiliation(
+            final CreditAffiliationDao creditAffiliationDao) {
+        log.debug("[mapCreditAffiliationDaoToCreditAffiliation] Inicio: {}",
+                creditAffiliationDao.getId());
+        CreditAffiliation creditAffiliation
+                = copyCreditAffiliationDao(creditAffiliationDao);
+        return Mono.zip(
+                getCustomerById(creditAffiliationDao.getIdCustomer())
+                        .map(Optional::of)
+                        .defaultIfEmpty(Optional.empty()),
+                getProductCreditById(creditAffiliationDao.getIdCredit())
+                        .map(Optional::of)
+                        .defaultIfEmpty(Optional.empty()))
+                .map(t -> {
+                    creditAffiliation.setCustomer(t.getT1().orElse(null));
+                    creditAffiliation.setCredit(t.getT2().orElse(null));
+                    return creditAffiliation;
+                });
+    }
+
+    /**
+     * Copia los datos de CreditAffiliationDao sin complementarlos.
      * @param creditAffiliationDao afiliación de credito.
      * @return CreditAffiliation
      */
-    private CreditAffiliation mapCreditAffiliationDaoToCreditAffiliation(
+    private CreditAffiliation copyCreditAffiliationDao(
             final CreditAffiliationDao creditAffiliationDao) {
-        log.info("[mapCreditAffiliationDaoToCreditAffiliation] Inicio");
         CreditAffiliation creditAffiliation = new CreditAffiliation();
         BeanUtils.copyProperties(creditAffiliationDao, creditAffiliation);
-        Mono<Customer> customers = getCustomerById(creditAffiliationDao.getIdCustomer());
-        creditAffiliation.setCustomer(customers.block());
-        Mono<Credit> credits = getProductCreditById(creditAffiliationDao.getIdCredit());
-        creditAffiliation.setCredit(credits.block());
-        log.info("[mapCreditAffiliationDaoToCreditAffiliation] Fin");
         return creditAffiliation;
     }
 
@@ -181,7 +297,13 @@ public class CreditAffiliationCrudRepository
     public
     Flux<CreditAffiliation>
     findByIdCustomer(String idCustomer) {
-        return repository.findByIdCustomer(idCustomer);
+        if (readModel != null && readModel.isReady()
+                && !readRouter.recentlyWritten(idCustomer)) {
+            return readModel.findByIdCustomer(idCustomer)
+                    .map(this::copyCreditAffiliationDao);
+        }
+        return LatencyBreakdown.timed(LatencyBreakdown.MONGO,
+                repository.findByIdCustomer(idCustomer));
     }
 
     /**
@@ -194,7 +316,8 @@ public class CreditAffiliationCrudRepository
     public
     Flux<CreditAffiliation>
     findByIdCustomerByIdAccount(String idCustomer, String idCredit) {
-        return repository.findByIdCustomerInAndIdCredit(idCustomer, idCredit);
+        return LatencyBreakdown.timed(LatencyBreakdown.MONGO,
+                repository.findByIdCustomerInAndIdCredit(idCustomer, idCredit));
     }
 
     /**
@@ -206,28 +329,26 @@ public class CreditAffiliationCrudRepository
     public
     Mono<Customer>
     getCustomerById(final String idCustomer) {
-        log.info("[getCustomerById] Inicio:"+idCustomer);
-        return reactiveCircuitBreaker
-                .run(
-                        webClient
-                                .get()
-                                .uri(
-                                        UriService.CUSTOMER_GET_BY_ID,
-                                        idCustomer
-                                )
-                                .accept(MediaType.APPLICATION_JSON)
-                                .retrieve()
-                                .bodyToMono(Customer.class),
+        log.debug("[getCustomerById] Inicio: {}", idCustomer);
+        return resilience.run(LatencyBreakdown.CUSTOMER,
+                        LatencyBreakdown.timed(LatencyBreakdown.CUSTOMER,
+                                webClient
+                                        .get()
+                                        .uri(UriService.CUSTOMER_GET_BY_ID, idCustomer)
+                                        .accept(downstreamAccept)
+                                        .retrieve()
+                                        .bodyToMono(Customer.class)),
                         throwable -> {
-                            log.info("throwable => {}", throwable.toString());
-                            log.info("[getCustomerById] Error en la llamada:"
-                                    + UriService.CUSTOMER_GET_BY_ID
-                                    + idCustomer);
+                            log.warn("[getCustomerById] Error en la llamada: {} {} => {}",
+                                    UriService.CUSTOMER_GET_BY_ID, idCustomer,
+                                    throwable.toString());
                             return Mono.just(new Customer());
                         });
     }
     /**
      * Obtenemos los datos del producto: Credito.
+     * Se atiende desde el catálogo en memoria; solo si el producto no
+     * está en el catálogo se consulta al servicio de productos.
      * @param idCredit codigo del credito
      * @return Mono<Credit>
      */
@@ -235,24 +356,99 @@ public class CreditAffiliationCrudRepository
     public
     Mono<Credit>
     getProductCreditById(final String idCredit) {
-        log.info("[getProductCreditById] Inicio");
-        return reactiveCircuitBreaker
-                .run(
-                    webClient
-                            .get()
-                            .uri(
-                                    UriService.PRODUCT_CREDIT_GET_BY_ID,
-                                    idCredit
-                            )
-                            .accept(MediaType.APPLICATION_JSON)
-                            .retrieve()
-                            .bodyToMono(Credit.class),
-                    throwable -> {
-                        log.info("throwable => {}", throwable.toString());
-                        log.info("[getProductAccountById] Error en la llamada:"
-                                + UriService.PRODUCT_CREDIT_GET_BY_ID
-                                + idCredit);
-                        return Mono.just(new Credit());
-                    });
+        log.debug("[getProductCreditById] Inicio: {}", idCredit);
+        if (productCatalog == null) {
+            return fetchProductCreditById(idCredit);
+        }
+        return productCatalog.credit(idCredit)
+                .map(Mono::just)
+                .orElseGet(() -> fetchProductCreditById(idCredit)
+                        .doOnNext(productCatalog::put));
+    }
+    /**
+     * Consulta el producto al servicio de productos (fuera del catálogo).
+     * @param idCredit codigo del producto
+     * @return Mono<Credit>
+     */
+    private
+    Mono<Credit>
+    fetchProductCreditById(final String idCredit) {
+        return resilience.run(LatencyBreakdown.CREDIT_PRODUCT,
+                        LatencyBreakdown.timed(LatencyBreakdown.CREDIT_PRODUCT,
+                                webClient
+                                        .get()
+                                        .uri(UriService.PRODUCT_CREDIT_GET_BY_ID, idCredit)
+                                        .accept(downstreamAccept)
+                                        .retrieve()
+                                        .bodyToMono(Credit.class)),
+                        throwable -> {
+                            log.warn("[getProductCreditById] Error en la llamada: {} {} => {}",
+                                    UriService.PRODUCT_CREDIT_GET_BY_ID, idCredit,
+                                    throwable.toString());
+                            return Mono.just(new Credit());
+                        });
+    }
+
+    /**
+     * Totales de afiliaciones de creditos calculados en la BD.
+     * El tipo de credito pertenece al producto, por lo que se agrupa por
+     * producto y luego se combinan los productos del mismo tipo.
+     * @param groupBy agrupación (cliente o tipo de credito).
+     * @param idCustomer Codigo del cliente (opcional).
+     * @return Flux<AffiliationSummary>
+     */
+    @Override
+    public
+    Flux<AffiliationSummary>
+    summarize(final SummaryGroup groupBy, final String idCustomer) {
+        switch (groupBy) {
+            case STATUS:
+                return Flux.error(new IllegalArgumentException(
+                        "Las afiliaciones de credito no tienen estado"));
+            case TYPE:
+                return AffiliationSummaries.foldByKey(LatencyBreakdown
+                        .timed(LatencyBreakdown.MONGO, repository.summarize("idCredit", idCustomer))
+                        .flatMap(summary -> getProductCreditById(
+                                summary.getKey())
+                                .map(credit -> {
+                                    summary.setKey(
+                                            credit.getCreditType() == null
+                                            ? null
+                                            : credit.getCreditType().name());
+                                    return summary;
+                                })));
+            default:
+                return LatencyBreakdown.timed(LatencyBreakdown.MONGO,
+                        repository.summarize("idCustomer", idCustomer));
+        }
+    }
+
+    /**
+     * Lee en el primario una afiliación que se va a modificar, con la
+     * clave de partición si se conoce.
+     * @param id codigo.
+     * @return Mono<CreditAffiliationDao>
+     */
+    private
+    Mono<CreditAffiliationDao>
+    findForWrite(final String id) {
+        return Deadline.bounded(shardKeyResolver
+                .resolve("creditAffiliation", id, readModel)
+                .flatMap(idCustomer -> idCustomer.isPresent()
+                        ? repository.findByIdAndIdCustomer(id,
+                                idCustomer.get())
+                        : repository.findById(id)));
+    }
+
+    /**
+     * Claves de una afiliación escrita (Id y cliente) para read-your-writes.
+     * @param creditAffiliationDao afiliación escrita.
+     * @return Collection<String>
+     */
+    private static
+    Collection<String>
+    writtenKeys(final CreditAffiliationDao creditAffiliationDao) {
+        return Arrays.asList(creditAffiliationDao.getId(),
+                creditAffiliationDao.getIdCustomer());
     }
 }
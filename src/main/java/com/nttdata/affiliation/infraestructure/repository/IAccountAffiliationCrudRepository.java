@@ -2,6 +2,8 @@ package com.nttdata.affiliation.infraestructure.repository;
 
 import com.nttdata.affiliation.infraestructure.model.dao.AccountAffiliationDao;
 import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import reactor.core.publisher.Mono;
+
 /**
  * IACCOUNTAFFILIATIONCRUDREPOSITORY.
  * Define las operaciones (CRUD) de la Afiliación
@@ -11,4 +13,12 @@ import org.springframework.data.repository.reactive.ReactiveCrudRepository;
 public interface IAccountAffiliationCrudRepository
         extends ReactiveCrudRepository<AccountAffiliationDao, String>,
                 ICustomAccountAffiliationCrudRepository {
+    /**
+     * Busca por Id y clave de partición (consulta dirigida a un shard).
+     * @param id codigo.
+     * @param idCustomer Codigo del cliente.
+     * @return Mono<AccountAffiliationDao>
+     */
+    Mono<AccountAffiliationDao>
+    findByIdAndIdCustomer(String id, String idCustomer);
 }
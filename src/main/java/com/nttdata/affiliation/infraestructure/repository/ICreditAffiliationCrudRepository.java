@@ -2,6 +2,8 @@ package com.nttdata.affiliation.infraestructure.repository;
 
 import com.nttdata.affiliation.infraestructure.model.dao.CreditAffiliationDao;
 import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import reactor.core.publisher.Mono;
+
 
 /**
  * ICREDITAFFILIATIONCRUDREPOSITORY.
@@ -11,4 +13,12 @@ import org.springframework.data.repository.reactive.ReactiveCrudRepository;
 public interface ICreditAffiliationCrudRepository
         extends ReactiveCrudRepository<CreditAffiliationDao, String>,
                 ICustomCreditAffiliationCrudRepository {
+    /**
+     * Busca por Id y clave de partición (consulta dirigida a un shard).
+     * @param id codigo.
+     * @param idCustomer Codigo del cliente.
+     * @return Mono<CreditAffiliationDao>
+     */
+    Mono<CreditAffiliationDao>
+    findByIdAndIdCustomer(String id, String idCustomer);
 }
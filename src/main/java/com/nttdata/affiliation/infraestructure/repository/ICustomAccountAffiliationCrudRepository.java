@@ -1,6 +1,8 @@
 package com.nttdata.affiliation.infraestructure.repository;
 
-import com.nttdata.affiliation.domain.AccountAffiliation;
+import com.nttdata.affiliation.domain.AffiliationSummary;
+import com.nttdata.affiliation.domain.bean.Status;
+import com.nttdata.affiliation.infraestructure.model.dao.AccountAffiliationDao;
 import reactor.core.publisher.Flux;
 /**
  * ICUSTOMACCOUNTAFFILIATIONCRUDREPOSITORY.
@@ -11,16 +13,25 @@ public interface ICustomAccountAffiliationCrudRepository {
     /**
      * Listado de Afiliaciones de cuentas por Cliente.
      * @param idCustomer Codigo del cliente.
-     * @return Flux<AccountAffiliation>
+     * @return Flux<AccountAffiliationDao>
      */
-    Flux<AccountAffiliation>
+    Flux<AccountAffiliationDao>
     findByIdCustomer(String idCustomer);
     /**
      * Listado de Afiliaciones por Cliente y por cuenta bancaria.
      * @param idCustomer Codigo del cliente.
      * @param idAccount Codigo de la cuenta bancaria
-     * @return Flux<AccountAffiliation>
+     * @return Flux<AccountAffiliationDao>
      */
-    Flux<AccountAffiliation>
+    Flux<AccountAffiliationDao>
     findByIdCustomerInAndIdAccount(String idCustomer, String idAccount);
+    /**
+     * Totales de afiliaciones de cuentas agrupados por un campo.
+     * @param field campo de agrupación.
+     * @param idCustomer Codigo del cliente (opcional).
+     * @param status estado (opcional).
+     * @return Flux<AffiliationSummary>
+     */
+    Flux<AffiliationSummary>
+    summarize(String field, String idCustomer, Status status);
 }
@@ -0,0 +1,104 @@
+package com.nttdata.affiliation.infraestructure.repository;
+
+import com.nttdata.affiliation.domain.AffiliationSummary;
+import com.nttdata.affiliation.domain.bean.Status;
+import com.nttdata.affiliation.infraestructure.model.dao.AccountAffiliationDao;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import reactor.core.publisher.Flux;
+
+import java.util.ArrayList;
+import java.util.List;
+/**
+ * ICUSTOMACCOUNTAFFILIATIONCRUDREPOSITORYIMPL.
+ * Implementa las operaciones personalizadas
+ * de la afiliación de cuentas bancarias.
+ */
+public class ICustomAccountAffiliationCrudRepositoryImpl
+        implements ICustomAccountAffiliationCrudRepository {
+    /**
+     * Template.
+     */
+    private final ReactiveMongoTemplate mongoTemplate;
+    /**
+     * Preferencia de lectura por operación y read-your-writes.
+     */
+    private final MongoReadRouter readRouter;
+
+    /**
+     * Constructor.
+     * @param reactiveMongoTemplate Template.
+     * @param mongoReadRouter preferencia de lectura por operación.
+     */
+    public  ICustomAccountAffiliationCrudRepositoryImpl(
+            final ReactiveMongoTemplate reactiveMongoTemplate,
+            final MongoReadRouter mongoReadRouter) {
+        this.mongoTemplate = reactiveMongoTemplate;
+        this.readRouter = mongoReadRouter;
+
+    }
+    /**
+     * Listado de Afiliaciones de cuentas por Cliente.
+     * @param idCustomer Codigo del cliente.
+     * @return Flux<AccountAffiliationDao>
+     */
+    @Override
+    public Flux<AccountAffiliationDao> findByIdCustomer(String idCustomer) {
+       Query query = new Query(Criteria.where("idCustomer").is(idCustomer));
+       return readRouter.find(MongoReadRouter.FIND_BY_CUSTOMER, query,
+               AccountAffiliationDao.class, AccountAffiliationDao.class,
+               idCustomer);
+    }
+
+    /**
+     * Listado de Afiliaciones de cuentas por Cliente.
+     * @param idCustomer Codigo del cliente.
+     * @param idAccount Codigo de la cuenta bancaria
+     * @return  Flux<AccountAffiliationDao>
+     */
+    @Override
+    public
+    Flux<AccountAffiliationDao>
+    findByIdCustomerInAndIdAccount(String idCustomer, String idAccount) {
+        Query query = new Query(Criteria.where("idCustomer").is(idCustomer).and("idAccount").is(idAccount));
+        return mongoTemplate.find(query, AccountAffiliationDao.class);
+    }
+
+    /**
+     * Totales de afiliaciones de cuentas agrupados por un campo.
+     * El filtro por cliente usa el indice (idCustomer, idAccount).
+     * @param field campo de agrupación.
+     * @param idCustomer Codigo del cliente (opcional).
+     * @param status estado (opcional).
+     * @return Flux<AffiliationSummary>
+     */
+    @Override
+    public
+    Flux<AffiliationSummary>
+    summarize(String field, String idCustomer, Status status) {
+        List<AggregationOperation> operations = new ArrayList<>();
+        Criteria criteria = new Criteria();
+        if (idCustomer != null) {
+            criteria = criteria.and("idCustomer").is(idCustomer);
+        }
+        if (status != null) {
+            criteria = criteria.and("status").is(status.name());
+        }
+        if (idCustomer != null || status != null) {
+            operations.add(Aggregation.match(criteria));
+        }
+        operations.add(Aggregation.group(field)
+                .count().as("count")
+                .sum("balance").as("totalBalance")
+                .avg("baseAmount").as("averageBaseAmount"));
+        operations.add(Aggregation
+                .project("count", "totalBalance", "averageBaseAmount")
+                .and("key").previousOperation());
+        return readRouter.aggregate(MongoReadRouter.SUMMARIZE,
+                Aggregation.newAggregation(operations),
+                "accountAffiliation", AffiliationSummary.class, idCustomer);
+    }
+}
@@ -1,6 +1,7 @@
 package com.nttdata.affiliation.infraestructure.repository;
 
 import com.nttdata.affiliation.domain.AccountAffiliation;
+import com.nttdata.affiliation.domain.AffiliationSummary;
 import com.nttdata.affiliation.domain.CreditAffiliation;
 import reactor.core.publisher.Flux;
 
@@ -25,4 +26,12 @@ public interface ICustomCreditAffiliationCrudRepository {
      */
     Flux<CreditAffiliation>
     findByIdCustomerInAndIdCredit(String idCustomer, String idCredit);
+    /**
+     * Totales de afiliaciones de creditos agrupados por un campo.
+     * @param field campo de agrupación.
+     * @param idCustomer Codigo del cliente (opcional).
+     * @return Flux<AffiliationSummary>
+     */
+    Flux<AffiliationSummary>
+    summarize(String field, String idCustomer);
 }
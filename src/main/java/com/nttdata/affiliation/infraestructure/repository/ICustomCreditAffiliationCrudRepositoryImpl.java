@@ -0,0 +1,98 @@
+package com.nttdata.affiliation.infraestructure.repository;
+
+import com.nttdata.affiliation.domain.AccountAffiliation;
+import com.nttdata.affiliation.domain.AffiliationSummary;
+import com.nttdata.affiliation.domain.CreditAffiliation;
+import com.nttdata.affiliation.infraestructure.model.dao.CreditAffiliationDao;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import reactor.core.publisher.Flux;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ICUSTOMCREDITAFFILIATIONCRUDREPOSITORYIMPL.
+ * Implementa las operaciones personalizadas
+ * de la afiliación de Creditos.
+ */
+public class ICustomCreditAffiliationCrudRepositoryImpl
+        implements ICustomCreditAffiliationCrudRepository {
+    /**
+     * Template.
+     */
+    private final ReactiveMongoTemplate mongoTemplate;
+    /**
+     * Preferencia de lectura por operación y read-your-writes.
+     */
+    private final MongoReadRouter readRouter;
+
+    /**
+     * Constructor.
+     * @param reactiveMongoTemplate Template.
+     * @param mongoReadRouter preferencia de lectura por operación.
+     */
+    public ICustomCreditAffiliationCrudRepositoryImpl(
+            final ReactiveMongoTemplate reactiveMongoTemplate,
+            final MongoReadRouter mongoReadRouter) {
+        this.mongoTemplate = reactiveMongoTemplate;
+        this.readRouter = mongoReadRouter;
+
+    }
+    /**
+     * Listado de Afiliaciones de Credito por Cliente.
+     * @param idCustomer Codigo del cliente.
+     * @return Flux<CreditAffiliation>
+     */
+    @Override
+    public Flux<CreditAffiliation> findByIdCustomer(String idCustomer) {
+       Query query = new Query(Criteria.where("idCustomer").is(idCustomer));
+       return readRouter.find(MongoReadRouter.FIND_BY_CUSTOMER, query,
+               CreditAffiliationDao.class, CreditAffiliation.class, idCustomer);
+    }
+
+    /**
+     * Listado de Afiliaciones de credito y por Cliente.
+     * @param idCustomer Codigo del cliente.
+     * @param idCredit Codigo de credito.
+     * @return Flux<CreditAffiliation>
+     */
+    @Override
+    public
+    Flux<CreditAffiliation>
+    findByIdCustomerInAndIdCredit(String idCustomer, String idCredit) {
+        Query query = new Query(Criteria.where("idCustomer").is(idCustomer).and("idCredit").is(idCredit));
+        return mongoTemplate.find(query, CreditAffiliation.class);
+    }
+
+    /**
+     * Totales de afiliaciones de creditos agrupados por un campo.
+     * El filtro por cliente usa el indice (idCustomer, idCredit).
+     * @param field campo de agrupación.
+     * @param idCustomer Codigo del cliente (opcional).
+     * @return Flux<AffiliationSummary>
+     */
+    @Override
+    public
+    Flux<AffiliationSummary>
+    summarize(String field, String idCustomer) {
+        List<AggregationOperation> operations = new ArrayList<>();
+        if (idCustomer != null) {
+            operations.add(Aggregation
+                    .match(Criteria.where("idCustomer").is(idCustomer)));
+        }
+        operations.add(Aggregation.group(field)
+                .count().as("count")
+                .sum("balance").as("totalBalance")
+                .avg("baseAmount").as("averageBaseAmount"));
+        operations.add(Aggregation
+                .project("count", "totalBalance", "averageBaseAmount")
+                .and("key").previousOperation());
+        return readRouter.aggregate(MongoReadRouter.SUMMARIZE,
+                Aggregation.newAggregation(operations),
+                "creditAffiliation", AffiliationSummary.class, idCustomer);
+    }
+}
@@ -0,0 +1,63 @@
+package com.nttdata.affiliation.infraestructure.repository;
+
+import com.nttdata.affiliation.application.ImportCheckpointRepository;
+import com.nttdata.affiliation.domain.ImportProgress;
+import com.nttdata.affiliation.infraestructure.model.dao.ImportCheckpointDao;
+import com.nttdata.affiliation.infraestructure.tracing.LatencyBreakdown;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.BeanUtils;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * IMPORTCHECKPOINTCRUDREPOSITORY.
+ * Implementa los puntos de control de las importaciones masivas; se leen
+ * y se escriben siempre en el primario
+ */
+@Component
+@RequiredArgsConstructor
+public class ImportCheckpointCrudRepository
+        implements ImportCheckpointRepository {
+    /**
+     * Template.
+     */
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    /**
+     * Último punto de control de una importación.
+     * @param kind tipo de afiliación.
+     * @param importId identificador de la importación.
+     * @return Mono<ImportProgress>
+     */
+    @Override
+    public
+    Mono<ImportProgress>
+    find(final String kind, final String importId) {
+        return LatencyBreakdown.timed(LatencyBreakdown.MONGO,
+                mongoTemplate.findById(kind + ":" + importId,
+                        ImportCheckpointDao.class))
+                .map(dao -> {
+                    ImportProgress progress = new ImportProgress();
+                    BeanUtils.copyProperties(dao, progress);
+                    return progress;
+                });
+    }
+
+    /**
+     * Guarda el punto de control de una importación.
+     * @param progress avance de la importación.
+     * @return Mono<ImportProgress>
+     */
+    @Override
+    public
+    Mono<ImportProgress>
+    save(final ImportProgress progress) {
+        ImportCheckpointDao dao = new ImportCheckpointDao();
+        BeanUtils.copyProperties(progress, dao);
+        dao.setId(progress.getKind() + ":" + progress.getImportId());
+        return LatencyBreakdown.timed(LatencyBreakdown.MONGO,
+                mongoTemplate.save(dao))
+                .thenReturn(progress);
+    }
+}
@@ -0,0 +1,201 @@
+package com.nttdata.affiliation.infraestructure.repository;
+
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.ReplaceOneModel;
+import com.mongodb.client.model.ReplaceOptions;
+import com.nttdata.affiliation.domain.bean.Status;
+import com.nttdata.affiliation.infraestructure.config.ArchivalProperties;
+import com.nttdata.affiliation.infraestructure.model.dao.AccountAffiliationDao;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
+import reactor.util.function.Tuples;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * INACTIVEAFFILIATIONARCHIVER.
+ * Mueve a la colección de archivo las afiliaciones de cuentas bancarias
+ * inactivas cuya última modificación supera affiliation.archival.min-age
+ * (los documentos anteriores a la auditoría usan la fecha de su Id). Se
+ * procesa por lotes con una pausa entre ellos: cada lote se copia al
+ * archivo (idempotente) y luego se elimina de la colección principal solo
+ * si sigue inactivo; si se reactivó entre ambos pasos, su copia se retira
+ * del archivo.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "affiliation.archival", name = "enabled",
+        havingValue = "true")
+public class InactiveAffiliationArchiver {
+    /**
+     * Métrica de afiliaciones archivadas.
+     */
+    public static final String METRIC = "affiliation.archival.archived";
+    /**
+     * Template.
+     */
+    private final ReactiveMongoTemplate mongoTemplate;
+    /**
+     * Configuración del archivo.
+     */
+    private final ArchivalProperties properties;
+    /**
+     * Afiliaciones archivadas.
+     */
+    private final Counter archived;
+    /**
+     * Indica si hay una ejecución en curso.
+     */
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    /**
+     * Constructor.
+     * @param reactiveMongoTemplate Template.
+     * @param archivalProperties configuración del archivo.
+     * @param registry registro de métricas.
+     */
+    public InactiveAffiliationArchiver(
+            final ReactiveMongoTemplate reactiveMongoTemplate,
+            final ArchivalProperties archivalProperties,
+            final MeterRegistry registry) {
+        this.mongoTemplate = reactiveMongoTemplate;
+        this.properties = archivalProperties;
+        this.archived = Counter.builder(METRIC)
+                .description("Afiliaciones movidas a la colección de archivo")
+                .tag("collection", "accountAffiliation")
+                .register(registry);
+    }
+
+    /**
+     * Ejecución programada.
+     */
+    @Scheduled(cron = "${affiliation.archival.cron:0 0 3 * * *}")
+    public void scheduled() {
+        archive().subscribe(
+                count -> log.info("[archive] {} afiliaciones archivadas",
+                        count),
+                e -> log.warn("[archive] Error: {}", e.toString()));
+    }
+
+    /**
+     * Archiva por lotes las afiliaciones inactivas antiguas.
+     * @return Mono<Long> afiliaciones archivadas.
+     */
+    public Mono<Long> archive() {
+        if (!running.compareAndSet(false, true)) {
+            return Mono.just(0L);
+        }
+        Instant cutoff = Instant.now().minus(properties.getMinAge());
+        return Mono.defer(() -> archiveBatch(cutoff))
+                .delayUntil(batch -> batch.getT1() == 0
+                        ? Mono.empty()
+                        : Mono.delay(properties.getPause()))
+                .repeat(properties.getMaxBatchesPerRun() - 1L)
+                .takeUntil(batch -> batch.getT1() < properties.getBatchSize())
+                .reduce(0L, (total, batch) -> total + batch.getT2())
+                .doFinally(signal -> running.set(false));
+    }
+
+    /**
+     * Mueve un lote.
+     * @param cutoff fecha límite de la última modificación.
+     * @return Mono<Tuple2<Integer, Long>> documentos leídos y archivados.
+     */
+    private Mono<Tuple2<Integer, Long>> archiveBatch(final Instant cutoff) {
+        String hot = mongoTemplate
+                .getCollectionName(AccountAffiliationDao.class);
+        Query query = new Query(eligible(cutoff))
+                .with(Sort.by("_id"))
+                .limit(properties.getBatchSize());
+        return mongoTemplate.find(query, Document.class, hot)
+                .collectList()
+                .flatMap(batch -> batch.isEmpty()
+                        ? Mono.just(Tuples.of(0, 0L))
+                        : copy(batch)
+                                .then(remove(hot, batch, cutoff))
+                                .map(deleted -> Tuples.of(batch.size(),
+                                        deleted)));
+    }
+
+    /**
+     * Copia un lote al archivo (reemplazo por Id, idempotente).
+     * @param batch documentos.
+     * @return Mono<Void>
+     */
+    private Mono<Void> copy(final List<Document> batch) {
+        List<ReplaceOneModel<Document>> models = batch.stream()
+                .map(document -> new ReplaceOneModel<>(
+                        Filters.eq("_id", document.get("_id")), document,
+                        new ReplaceOptions().upsert(true)))
+                .collect(Collectors.toList());
+        return mongoTemplate.getCollection(properties.getAccountCollection())
+                .flatMap(collection -> Mono.from(collection.bulkWrite(models,
+                        new BulkWriteOptions().ordered(false))))
+                .then();
+    }
+
+    /**
+     * Elimina de la colección principal los documentos copiados que siguen
+     * cumpliendo la condición y retira del archivo los que no.
+     * @param hot colección principal.
+     * @param batch documentos copiados.
+     * @param cutoff fecha límite de la última modificación.
+     * @return Mono<Long> documentos eliminados.
+     */
+    private Mono<Long> remove(final String hot, final List<Document> batch,
+                              final Instant cutoff) {
+        List<Object> ids = batch.stream()
+                .map(document -> document.get("_id"))
+                .collect(Collectors.toList());
+        return mongoTemplate.remove(new Query(Criteria.where("_id").in(ids)
+                        .andOperator(eligible(cutoff))), hot)
+                .flatMap(result -> {
+                    archived.increment(result.getDeletedCount());
+                    if (result.getDeletedCount() == ids.size()) {
+                        return Mono.just(result.getDeletedCount());
+                    }
+                    return mongoTemplate.find(
+                                    new Query(Criteria.where("_id").in(ids)),
+                                    Document.class, hot)
+                            .map(document -> document.get("_id"))
+                            .collectList()
+                            .flatMap(kept -> mongoTemplate.remove(
+                                    new Query(Criteria.where("_id").in(kept)),
+                                    properties.getAccountCollection()))
+                            .thenReturn(result.getDeletedCount());
+                });
+    }
+
+    /**
+     * Afiliaciones inactivas cuya última modificación es anterior a la
+     * fecha límite; sin fecha de auditoría se usa la fecha del Id.
+     * @param cutoff fecha límite.
+     * @return Criteria
+     */
+    private static Criteria eligible(final Instant cutoff) {
+        return Criteria.where("status").is(Status.INACTIVO.name())
+                .orOperator(
+                        Criteria.where("lastModifiedDate")
+                                .lt(Date.from(cutoff)),
+                        Criteria.where("lastModifiedDate").exists(false)
+                                .and("_id").lt(new ObjectId(
+                                        Date.from(cutoff))));
+    }
+}
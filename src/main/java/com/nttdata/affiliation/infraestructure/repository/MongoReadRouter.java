@@ -0,0 +1,403 @@
+package com.nttdata.affiliation.infraestructure.repository;
+
+import com.mongodb.ClientSessionOptions;
+import com.mongodb.ReadPreference;
+import com.mongodb.reactivestreams.client.ClientSession;
+import com.mongodb.reactivestreams.client.FindPublisher;
+import com.mongodb.reactivestreams.client.MongoCollection;
+import com.nttdata.affiliation.infraestructure.config.MongoReadProperties;
+import com.nttdata.affiliation.infraestructure.deadline.Deadline;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.BsonDocument;
+import org.bson.BsonTimestamp;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.reactivestreams.Publisher;
+import org.springframework.data.mongodb.core.ReactiveMongoOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * MONGOREADROUTER.
+ * Dirige cada lectura según la preferencia y el nivel de lectura
+ * configurados para su operación (affiliation.mongo-read.*), de modo que
+ * los listados y las agregaciones puedan atenderse en los secundarios.
+ * Las escrituras se hacen en una sesión causal; durante una ventana
+ * corta, las lecturas del mismo cliente o de la misma afiliación se
+ * atienden en el primario dentro de una sesión causal que continúa desde
+ * esa escritura (read-your-writes).
+ * Las escrituras recientes se recuerdan en memoria: la garantía vale solo
+ * para las lecturas que llegan a la misma instancia (pod) que hizo la
+ * escritura. Una lectura que el balanceador envía a otra instancia se
+ * atiende con la preferencia configurada y puede no ver la escritura.
+ */
+@Slf4j
+@Component
+public class MongoReadRouter {
+    /**
+     * Busqueda por Id.
+     */
+    public static final String FIND_BY_ID = "find-by-id";
+    /**
+     * Listado completo.
+     */
+    public static final String FIND_ALL = "find-all";
+    /**
+     * Listado por cliente.
+     */
+    public static final String FIND_BY_CUSTOMER = "find-by-customer";
+    /**
+     * Totales (agregaciones).
+     */
+    public static final String SUMMARIZE = "summarize";
+    /**
+     * Exportación completa.
+     */
+    public static final String EXPORT = "export";
+    /**
+     * Opciones de las sesiones causales.
+     */
+    private static final ClientSessionOptions CAUSAL = ClientSessionOptions
+            .builder()
+            .causallyConsistent(true)
+            .build();
+    /**
+     * Template.
+     */
+    private final ReactiveMongoTemplate mongoTemplate;
+    /**
+     * Configuración de las lecturas.
+     */
+    private final MongoReadProperties properties;
+    /**
+     * Conversor de documentos.
+     */
+    private final MongoConverter converter;
+    /**
+     * Traduce las consultas a los nombres de campo de la colección.
+     */
+    private final QueryMapper queryMapper;
+    /**
+     * Últimas escrituras por cliente y por Id de afiliación (solo las de
+     * esta instancia).
+     */
+    private final Map<String, WriteMark> recentWrites
+            = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor.
+     * @param reactiveMongoTemplate Template.
+     * @param mongoReadProperties configuración de las lecturas.
+     */
+    public MongoReadRouter(final ReactiveMongoTemplate reactiveMongoTemplate,
+                           final MongoReadProperties mongoReadProperties) {
+        this.mongoTemplate = reactiveMongoTemplate;
+        this.properties = mongoReadProperties;
+        this.converter = reactiveMongoTemplate.getConverter();
+        this.queryMapper = new QueryMapper(converter);
+    }
+
+    /**
+     * Consulta de documentos.
+     * @param operation operación (define la preferencia de lectura).
+     * @param query consulta.
+     * @param entityClass clase mapeada a la colección.
+     * @param resultType clase del resultado.
+     * @param keys cliente o Id consultados (para read-your-writes).
+     * @param <T> resultado.
+     * @return Flux<T>
+     */
+    public <T>
+    Flux<T>
+    find(final String operation, final Query query,
+         final Class<?> entityClass, final Class<T> resultType,
+         final String... keys) {
+        return find(operation, query, entityClass,
+                mongoTemplate.getCollectionName(entityClass), resultType, keys);
+    }
+
+    /**
+     * Consulta de documentos en una colección distinta a la de la clase
+     * (por ejemplo, la de archivo).
+     * @param operation operación (define la preferencia de lectura).
+     * @param query consulta.
+     * @param entityClass clase mapeada a los documentos.
+     * @param collectionName colección.
+     * @param resultType clase del resultado.
+     * @param keys cliente o Id consultados (para read-your-writes).
+     * @param <T> resultado.
+     * @return Flux<T>
+     */
+    public <T>
+    Flux<T>
+    find(final String operation, final Query query,
+         final Class<?> entityClass, final String collectionName,
+         final Class<T> resultType, final String... keys) {
+        MongoPersistentEntity<?> entity = converter.getMappingContext()
+                .getPersistentEntity(entityClass);
+        Document filter = queryMapper
+                .getMappedObject(query.getQueryObject(), entity);
+        Document sort = queryMapper
+                .getMappedSort(query.getSortObject(), entity);
+        return read(operation, collectionName, keys,
+                (collection, session, maxTimeMs) -> {
+                    FindPublisher<Document> publisher = session == null
+                            ? collection.find(filter)
+                            : collection.find(session, filter);
+                    publisher.maxTime(maxTimeMs, TimeUnit.MILLISECONDS);
+                    return sort.isEmpty() ? publisher : publisher.sort(sort);
+                })
+                .map(document -> converter.read(resultType, document));
+    }
+
+    /**
+     * Recorre una colección con un cursor, sin mapear los documentos.
+     * @param operation operación (define la preferencia de lectura).
+     * @param collectionName colección.
+     * @param filter filtro.
+     * @param sort orden.
+     * @param batchSize documentos por lote del cursor.
+     * @return Flux<Document>
+     */
+    public
+    Flux<Document>
+    documents(final String operation, final String collectionName,
+              final Bson filter, final Bson sort, final int batchSize) {
+        return read(operation, collectionName, new String[0],
+                (collection, session, maxTimeMs) -> collection.find(filter)
+                        .sort(sort)
+                        .batchSize(batchSize)
+                        .maxTime(maxTimeMs, TimeUnit.MILLISECONDS));
+    }
+
+    /**
+     * Agregación.
+     * @param operation operación (define la preferencia de lectura).
+     * @param aggregation agregación.
+     * @param collectionName colección.
+     * @param resultType clase del resultado.
+     * @param keys cliente o Id consultados (para read-your-writes).
+     * @param <T> resultado.
+     * @return Flux<T>
+     */
+    public <T>
+    Flux<T>
+    aggregate(final String operation, final Aggregation aggregation,
+              final String collectionName, final Class<T> resultType,
+              final String... keys) {
+        List<Document> pipeline = aggregation
+                .toPipeline(Aggregation.DEFAULT_CONTEXT);
+        return read(operation, collectionName, keys,
+                (collection, session, maxTimeMs) -> (session == null
+                        ? collection.aggregate(pipeline)
+                        : collection.aggregate(session, pipeline))
+                        .maxTime(maxTimeMs, TimeUnit.MILLISECONDS))
+                .map(document -> converter.read(resultType, document));
+    }
+
+    /**
+     * Escritura en una sesión causal; se recuerda su tiempo de operación
+     * para las lecturas siguientes de las mismas claves. La escritura se
+     * limita al tiempo restante de la petición (Deadline).
+     * @param callback escritura.
+     * @param keys cliente e Id de la afiliación escrita.
+     * @param <T> resultado.
+     * @return Mono<T>
+     */
+    public <T>
+    Mono<T>
+    write(final Function<ReactiveMongoOperations, Mono<T>> callback,
+          final Function<T, Collection<String>> keys) {
+        return Deadline.bounded(Mono.usingWhen(
+                mongoTemplate.getMongoDatabaseFactory().getSession(CAUSAL),
+                session -> callback.apply(mongoTemplate.withSession(session))
+                        .doOnNext(result ->
+                                remember(keys.apply(result), session)),
+                session -> Mono.fromRunnable(session::close)));
+    }
+
+    /**
+     * Indica si una clave se escribió dentro de la ventana read-your-writes.
+     * @param key cliente o Id.
+     * @return boolean
+     */
+    public boolean recentlyWritten(final String key) {
+        return !marks(new String[] {key}).isEmpty();
+    }
+
+    /**
+     * Ejecuta una lectura con la preferencia de su operación o, si alguna
+     * clave se escribió hace poco, en el primario dentro de una sesión
+     * causal. La lectura recibe como maxTimeMS el tiempo restante de la
+     * petición (Deadline) y se cancela al vencer.
+     * @param operation operación.
+     * @param collectionName colección.
+     * @param keys claves consultadas.
+     * @param query lectura.
+     * @return Flux<Document>
+     */
+    private Flux<Document> read(
+            final String operation, final String collectionName,
+            final String[] keys, final CollectionRead query) {
+        return Deadline.bounded(Flux.deferContextual(context -> {
+            long maxTimeMs = Deadline.remainingMillis(context);
+            MongoReadProperties.Settings settings
+                    = properties.settings(operation);
+            List<WriteMark> marks = marks(keys);
+            if (marks.isEmpty()) {
+                return mongoTemplate.getCollection(collectionName)
+                        .flatMapMany(collection -> query.apply(collection
+                                .withReadPreference(
+                                        settings.toReadPreference())
+                                .withReadConcern(settings.toReadConcern()),
+                                null, maxTimeMs));
+            }
+            log.debug("[read] {} en el primario (read-your-writes)",
+                    operation);
+            return Flux.usingWhen(
+                    mongoTemplate.getMongoDatabaseFactory().getSession(CAUSAL)
+                            .doOnNext(session -> marks
+                                    .forEach(mark -> mark.advance(session))),
+                    session -> mongoTemplate.getCollection(collectionName)
+                            .flatMapMany(collection -> query.apply(collection
+                                    .withReadPreference(
+                                            ReadPreference.primary())
+                                    .withReadConcern(
+                                            settings.toReadConcern()),
+                                    session, maxTimeMs)),
+                    session -> Mono.fromRunnable(session::close));
+        }));
+    }
+
+    /**
+     * Escrituras vigentes de las claves.
+     * @param keys claves.
+     * @return List<WriteMark>
+     */
+    private List<WriteMark> marks(final String[] keys) {
+        List<WriteMark> marks = new ArrayList<>();
+        long now = System.nanoTime();
+        for (String key : keys) {
+            WriteMark mark = key == null ? null : recentWrites.get(key);
+            if (mark == null) {
+                continue;
+            }
+            if (mark.isExpired(now)) {
+                recentWrites.remove(key, mark);
+            } else {
+                marks.add(mark);
+            }
+        }
+        return marks;
+    }
+
+    /**
+     * Recuerda el tiempo de operación de una escritura.
+     * Si ya se recuerdan demasiadas escrituras vigentes, la nueva no se
+     * registra y sus lecturas siguen la preferencia configurada.
+     * @param keys claves escritas.
+     * @param session sesión de la escritura.
+     */
+    private void remember(final Collection<String> keys,
+                          final ClientSession session) {
+        long now = System.nanoTime();
+        if (recentWrites.size() >= properties.getMaxTrackedWrites()) {
+            recentWrites.values().removeIf(mark -> mark.isExpired(now));
+            if (recentWrites.size() >= properties.getMaxTrackedWrites()) {
+                log.debug("[remember] Limite de escrituras alcanzado");
+                return;
+            }
+        }
+        WriteMark mark = new WriteMark(session.getOperationTime(),
+                session.getClusterTime(),
+                now + properties.getReadYourWritesWindow().toNanos());
+        keys.stream()
+                .filter(key -> key != null)
+                .forEach(key -> recentWrites.put(key, mark));
+    }
+
+    /**
+     * Lectura sobre una colección.
+     */
+    @FunctionalInterface
+    private interface CollectionRead {
+        /**
+         * Crea la lectura.
+         * @param collection colección (con la preferencia de lectura).
+         * @param session sesión causal (null fuera de read-your-writes).
+         * @param maxTimeMs tiempo máximo en el servidor (0: sin límite).
+         * @return Publisher<Document>
+         */
+        Publisher<Document> apply(MongoCollection<Document> collection,
+                                  ClientSession session, long maxTimeMs);
+    }
+
+    /**
+     * WRITEMARK.
+     * Tiempo de operación de una escritura y su vencimiento.
+     */
+    private static final class WriteMark {
+        /**
+         * Tiempo de operación (null en un servidor standalone).
+         */
+        private final BsonTimestamp operationTime;
+        /**
+         * Tiempo del cluster.
+         */
+        private final BsonDocument clusterTime;
+        /**
+         * Vencimiento (System.nanoTime).
+         */
+        private final long expiresAt;
+
+        /**
+         * Constructor.
+         * @param operation tiempo de operación.
+         * @param cluster tiempo del cluster.
+         * @param expiration vencimiento.
+         */
+        WriteMark(final BsonTimestamp operation, final BsonDocument cluster,
+                  final long expiration) {
+            this.operationTime = operation;
+            this.clusterTime = cluster;
+            this.expiresAt = expiration;
+        }
+
+        /**
+         * Indica si venció.
+         * @param now System.nanoTime.
+         * @return boolean
+         */
+        boolean isExpired(final long now) {
+            return now - expiresAt > 0;
+        }
+
+        /**
+         * Continúa una sesión causal desde esta escritura.
+         * @param session sesión.
+         */
+        void advance(final ClientSession session) {
+            if (clusterTime != null) {
+                session.advanceClusterTime(clusterTime);
+            }
+            if (operationTime != null) {
+                session.advanceOperationTime(operationTime);
+            }
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.nttdata.affiliation.infraestructure.repository;
+
+import com.nttdata.affiliation.infraestructure.readmodel.CustomerReadModel;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * SHARDKEYRESOLVER.
+ * Obtiene la clave de partición (idCustomer) de una afiliación a partir de
+ * su Id, para que las consultas por Id se dirijan a un solo shard. La
+ * clave se toma, en orden, del contexto de la petición (parámetro
+ * idCustomer), del modelo de lectura en memoria o, si no se conoce, la
+ * consulta se envía a todos los shards y se cuenta en la métrica
+ * affiliation.mongo.untargeted.
+ */
+@Slf4j
+@Component
+public class ShardKeyResolver {
+    /**
+     * Métrica de consultas por Id sin clave de partición.
+     */
+    public static final String METRIC = "affiliation.mongo.untargeted";
+    /**
+     * Campo de la clave de partición.
+     */
+    public static final String SHARD_KEY = "idCustomer";
+    /**
+     * Registro de métricas.
+     */
+    private final MeterRegistry registry;
+
+    /**
+     * Constructor.
+     * @param meterRegistry registro de métricas.
+     */
+    public ShardKeyResolver(final MeterRegistry meterRegistry) {
+        this.registry = meterRegistry;
+    }
+
+    /**
+     * Agrega al contexto la clave de partición informada por el cliente.
+     * @param idCustomer Codigo del cliente (puede ser null).
+     * @return Function<Context, Context>
+     */
+    public static Function<Context, Context> withCustomer(
+            final String idCustomer) {
+        return context -> idCustomer == null || idCustomer.isEmpty()
+                ? context
+                : context.put(ShardKeyResolver.class, idCustomer);
+    }
+
+    /**
+     * Criterio por Id, con la clave de partición si se conoce.
+     * @param id codigo.
+     * @param idCustomer clave de partición.
+     * @return Criteria
+     */
+    public static Criteria byId(final String id,
+                                final Optional<String> idCustomer) {
+        Criteria criteria = Criteria.where("id").is(id);
+        return idCustomer.map(c -> criteria.and(SHARD_KEY).is(c))
+                .orElse(criteria);
+    }
+
+    /**
+     * Clave de partición de una afiliación.
+     * @param collection colección (para la métrica).
+     * @param id codigo.
+     * @param readModel modelo de lectura (puede ser null).
+     * @return Mono<Optional<String>>
+     */
+    public Mono<Optional<String>> resolve(final String collection,
+                                          final String id,
+                                          final CustomerReadModel<?> readModel) {
+        return Mono.deferContextual(context -> {
+            Optional<String> idCustomer = context
+                    .<String>getOrEmpty(ShardKeyResolver.class);
+            if (!idCustomer.isPresent() && readModel != null) {
+                idCustomer = Optional.ofNullable(readModel.customerOf(id));
+            }
+            if (!idCustomer.isPresent()) {
+                log.debug("[resolve] {} {} sin clave de partición",
+                        collection, id);
+                Counter.builder(METRIC)
+                        .description("Consultas por Id enviadas a todos"
+                                + " los shards")
+                        .tag("collection", collection)
+                        .register(registry)
+                        .increment();
+            }
+            return Mono.just(idCustomer);
+        });
+    }
+}
@@ -0,0 +1,244 @@
+package com.nttdata.affiliation.infraestructure.resilience;
+
+import com.nttdata.affiliation.infraestructure.config.ResilienceProperties;
+import com.nttdata.affiliation.infraestructure.deadline.Deadline;
+import com.nttdata.affiliation.infraestructure.deadline.DeadlineExceededException;
+import com.nttdata.affiliation.infraestructure.tracing.LatencyBreakdown;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.context.scope.refresh.RefreshScopeRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.context.ContextView;
+import reactor.util.retry.Retry;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+/**
+ * DOWNSTREAMRESILIENCE.
+ * Circuit breaker, time limiter y reintentos de cada servicio externo
+ * (customer, account-product y credit-product), según
+ * affiliation.resilience.*. Al refrescar la configuración se reemplazan
+ * las políticas de los servicios que cambiaron.
+ * El plazo de la petición envuelve a los reintentos: al vencer se
+ * cancela la llamada (el circuit breaker no la cuenta como fallo) y no
+ * se aplica el fallback.
+ */
+@Slf4j
+@Component
+public class DownstreamResilience {
+    /**
+     * Registro de circuit breakers (expone las métricas).
+     */
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+    /**
+     * Configuración por servicio externo.
+     */
+    private final ResilienceProperties properties;
+    /**
+     * Políticas vigentes por servicio externo.
+     */
+    private final Map<String, Policy> policies = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor.
+     * @param registry registro de circuit breakers.
+     * @param resilienceProperties configuración.
+     */
+    public DownstreamResilience(
+            final CircuitBreakerRegistry registry,
+            final ResilienceProperties resilienceProperties) {
+        this.circuitBreakerRegistry = registry;
+        this.properties = resilienceProperties;
+    }
+
+    /**
+     * Ejecuta una llamada externa que devuelve un Mono.
+     * @param downstream servicio externo.
+     * @param call llamada.
+     * @param fallback resultado si la llamada falla.
+     * @param <T> resultado.
+     * @return Mono<T>
+     */
+    public <T> Mono<T> run(final String downstream, final Mono<T> call,
+                           final Function<Throwable, Mono<T>> fallback) {
+        Policy policy = policy(downstream);
+        return Deadline.bounded(LatencyBreakdown.timed(
+                LatencyBreakdown.CIRCUIT_BREAKER,
+                call.timeout(policy.settings.getTimeout())
+                        .transformDeferred(CircuitBreakerOperator
+                                .of(policy.circuitBreaker))
+                        .retryWhen(policy.retry)
+                        .onErrorResume(e -> Mono.deferContextual(
+                                context -> fallback(context, e)
+                                        ? fallback.apply(e)
+                                        : Mono.error(expired(e))))));
+    }
+
+    /**
+     * Ejecuta una llamada externa que devuelve un Flux.
+     * @param downstream servicio externo.
+     * @param call llamada.
+     * @param fallback resultado si la llamada falla.
+     * @param <T> elemento.
+     * @return Flux<T>
+     */
+    public <T> Flux<T> run(final String downstream, final Flux<T> call,
+                           final Function<Throwable, Flux<T>> fallback) {
+        Policy policy = policy(downstream);
+        return Deadline.bounded(LatencyBreakdown.timed(
+                LatencyBreakdown.CIRCUIT_BREAKER,
+                call.timeout(policy.settings.getTimeout())
+                        .transformDeferred(CircuitBreakerOperator
+                                .of(policy.circuitBreaker))
+                        .retryWhen(policy.retry)
+                        .onErrorResume(e -> Flux.deferContextual(
+                                context -> fallback(context, e)
+                                        ? fallback.apply(e)
+                                        : Flux.error(expired(e))))));
+    }
+
+    /**
+     * Reemplaza las políticas de los servicios cuya configuración cambió
+     * (el circuit breaker reemplazado empieza cerrado).
+     */
+    @EventListener(RefreshScopeRefreshedEvent.class)
+    public void refresh() {
+        policies.replaceAll((downstream, policy) -> {
+            if (policy.settings.equals(properties.downstream(downstream))) {
+                return policy;
+            }
+            log.info("[refresh] Políticas actualizadas: {}", downstream);
+            return create(downstream);
+        });
+    }
+
+    /**
+     * Política vigente de un servicio externo.
+     * @param downstream servicio externo.
+     * @return Policy
+     */
+    private Policy policy(final String downstream) {
+        return policies.computeIfAbsent(downstream, this::create);
+    }
+
+    /**
+     * Crea la política de un servicio externo con la configuración actual.
+     * @param downstream servicio externo.
+     * @return Policy
+     */
+    private Policy create(final String downstream) {
+        ResilienceProperties.Downstream settings
+                = properties.downstream(downstream);
+        circuitBreakerRegistry.remove(downstream);
+        CircuitBreaker circuitBreaker = circuitBreakerRegistry.circuitBreaker(
+                downstream, CircuitBreakerConfig.custom()
+                        .failureRateThreshold(
+                                settings.getFailureRateThreshold())
+                        .slowCallRateThreshold(
+                                settings.getSlowCallRateThreshold())
+                        .slowCallDurationThreshold(
+                                settings.getSlowCallDuration())
+                        .slidingWindowSize(settings.getSlidingWindowSize())
+                        .minimumNumberOfCalls(
+                                settings.getMinimumNumberOfCalls())
+                        .waitDurationInOpenState(
+                                settings.getWaitDurationInOpenState())
+                        .permittedNumberOfCallsInHalfOpenState(settings
+                                .getPermittedNumberOfCallsInHalfOpenState())
+                        .build());
+        Retry retry = settings.getMaxAttempts() <= 1
+                ? Retry.max(0)
+                        .onRetryExhaustedThrow(
+                                (spec, signal) -> signal.failure())
+                : Retry.backoff(settings.getMaxAttempts() - 1,
+                                settings.getRetryBackoff())
+                        .filter(DownstreamResilience::retryable)
+                        .onRetryExhaustedThrow(
+                                (spec, signal) -> signal.failure());
+        return new Policy(settings, circuitBreaker, retry);
+    }
+
+    /**
+     * Indica si un error justifica otro intento: tiempo agotado, error de
+     * conexión o error 5xx. Los rechazos del circuito abierto y los 4xx no
+     * se reintentan.
+     * @param error error.
+     * @return boolean
+     */
+    private static boolean retryable(final Throwable error) {
+        if (error instanceof WebClientResponseException) {
+            return ((WebClientResponseException) error)
+                    .getStatusCode().is5xxServerError();
+        }
+        return error instanceof TimeoutException
+                || error instanceof WebClientRequestException;
+    }
+
+    /**
+     * Indica si se aplica el fallback: no cuando el plazo de la petición
+     * venció, que debe llegar al cliente como 504.
+     * @param context Context.
+     * @param error error.
+     * @return boolean
+     */
+    private static boolean fallback(final ContextView context,
+                                    final Throwable error) {
+        return !(error instanceof DeadlineExceededException)
+                && !Deadline.current(context)
+                        .map(Deadline::isExpired)
+                        .orElse(false);
+    }
+
+    /**
+     * Error de plazo vencido.
+     * @param error error de la llamada.
+     * @return Throwable
+     */
+    private static Throwable expired(final Throwable error) {
+        return error instanceof DeadlineExceededException
+                ? error : new DeadlineExceededException();
+    }
+
+    /**
+     * Políticas de un servicio externo.
+     */
+    private static final class Policy {
+        /**
+         * Configuración con la que se creó.
+         */
+        private final ResilienceProperties.Downstream settings;
+        /**
+         * Circuit breaker.
+         */
+        private final CircuitBreaker circuitBreaker;
+        /**
+         * Reintentos.
+         */
+        private final Retry retry;
+
+        /**
+         * Constructor.
+         * @param downstreamSettings configuración.
+         * @param breaker circuit breaker.
+         * @param retrySpec reintentos.
+         */
+        private Policy(final ResilienceProperties.Downstream downstreamSettings,
+                       final CircuitBreaker breaker,
+                       final Retry retrySpec) {
+            this.settings = downstreamSettings;
+            this.circuitBreaker = breaker;
+            this.retry = retrySpec;
+        }
+    }
+}
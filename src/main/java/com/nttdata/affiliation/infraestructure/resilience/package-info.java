@@ -0,0 +1,4 @@
+/**
+ * Paquete de políticas de resiliencia por servicio externo.
+ */
+package com.nttdata.affiliation.infraestructure.resilience;
@@ -2,6 +2,12 @@ package com.nttdata.affiliation.infraestructure.rest;
 
 import com.nttdata.affiliation.application.AccountAffiliationOperations;
 import com.nttdata.affiliation.domain.AccountAffiliation;
+import com.nttdata.affiliation.domain.AffiliationSummary;
+import com.nttdata.affiliation.domain.BalanceUpdate;
+import com.nttdata.affiliation.domain.bean.Status;
+import com.nttdata.affiliation.domain.bean.SummaryGroup;
+import com.nttdata.affiliation.infraestructure.repository.ArchiveScope;
+import com.nttdata.affiliation.infraestructure.repository.ShardKeyResolver;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
@@ -26,52 +32,93 @@ public class AccountAffiliationController {
 
     /**
      * Busca todas las afiliaciones de cuentas bancarias.
+     * @param includeArchived incluir las afiliaciones archivadas.
      * @return Flux<AccountAffiliation>
      */
     @GetMapping
     public
     Mono<ResponseEntity<Flux<AccountAffiliation>>>
-    getAll() {
+    getAll(@RequestParam(defaultValue = "false")
+           final boolean includeArchived) {
 
         return Mono.just(
                 ResponseEntity
                         .status(HttpStatus.OK)
-                        .body(accountAffiliationOperations.findAll())
+                        .body(accountAffiliationOperations.findAll()
+                                .contextWrite(ArchiveScope
+                                        .include(includeArchived)))
+        );
+    }
+
+    /**
+     * Totales de las afiliaciones de cuentas bancarias calculados en la BD.
+     * @param groupBy agrupación: CUSTOMER, STATUS o TYPE.
+     * @param idCustomer codigo del cliente (opcional).
+     * @param status estado (opcional).
+     * @return Flux<AffiliationSummary>
+     */
+    @GetMapping("/summary")
+    public
+    Mono<ResponseEntity<Flux<AffiliationSummary>>>
+    getSummary(
+            @RequestParam(defaultValue = "CUSTOMER")
+            final SummaryGroup groupBy,
+            @RequestParam(required = false) final String idCustomer,
+            @RequestParam(required = false) final Status status) {
+
+        return Mono.just(
+                ResponseEntity
+                        .ok()
+                        .body(accountAffiliationOperations
+                                .summarize(groupBy, idCustomer, status))
         );
     }
 
     /**
      * Busca por Id los datos de la afiliacion de cuentas bancarias.
      * @param id codigo.
+     * @param idCustomer codigo del cliente (clave de partición,
+     *                   opcional).
+     * @param includeArchived buscar también en el archivo.
      * @return Mono<AccountAffiliation>
      */
     @GetMapping("/{id}")
     public
     Mono<ResponseEntity<AccountAffiliation>>
-    getById(@PathVariable final String id) {
+    getById(@PathVariable final String id,
+            @RequestParam(required = false)
+            final String idCustomer,
+            @RequestParam(defaultValue = "false")
+            final boolean includeArchived) {
 
         return accountAffiliationOperations.findById(id)
                 .map(a -> ResponseEntity
                         .ok()
                         .body(a))
-                .defaultIfEmpty(new ResponseEntity<>(HttpStatus.NOT_FOUND));
+                .defaultIfEmpty(new ResponseEntity<>(HttpStatus.NOT_FOUND))
+                .contextWrite(ShardKeyResolver.withCustomer(idCustomer))
+                .contextWrite(ArchiveScope.include(includeArchived));
     }
 
     /**
      * Busca por Id del cliente los datos de la afiliacion de cuentas bancarias.
      * @param id codigo del cliente.
+     * @param includeArchived incluir las afiliaciones archivadas.
      * @return Mono<AccountAffiliation>
      */
     @GetMapping("/customers/{id}")
     public
     Flux<ResponseEntity<AccountAffiliation>>
-    getByIdCustomer(@PathVariable final String id) {
+    getByIdCustomer(@PathVariable final String id,
+                    @RequestParam(defaultValue = "false")
+                    final boolean includeArchived) {
 
         return accountAffiliationOperations.findByIdCustomer(id)
                 .map(a -> ResponseEntity
                         .ok()
                         .body(a))
-                .defaultIfEmpty(new ResponseEntity<>(HttpStatus.NOT_FOUND));
+                .defaultIfEmpty(new ResponseEntity<>(HttpStatus.NOT_FOUND))
+                .contextWrite(ArchiveScope.include(includeArchived));
     }
     /**
      * Busca por Id del cliente y Id del Producto la afiliacion de cuentas bancarias.
@@ -121,37 +168,70 @@ public class AccountAffiliationController {
      * Actualiza las afiliaciones de cuentas bancarias de un cliente.
      * @param id codigo.
      * @param accountAffiliation afiliación de cuenta.
+     * @param idCustomer codigo del cliente (clave de partición,
+     *                   opcional).
      * @return Mono<AccountAffiliation>
      */
     @PutMapping("/{id}")
     public
     Mono<ResponseEntity<AccountAffiliation>>
     put(@PathVariable final String id,
-        @RequestBody final AccountAffiliation accountAffiliation) {
+        @RequestBody final AccountAffiliation accountAffiliation,
+        @RequestParam(required = false)
+        final String idCustomer) {
 
         return accountAffiliationOperations.update(id, accountAffiliation)
                 .map(a -> ResponseEntity
                         .ok()
                         .body(a))
-                .defaultIfEmpty(new ResponseEntity<>(HttpStatus.NOT_FOUND));
+                .defaultIfEmpty(new ResponseEntity<>(HttpStatus.NOT_FOUND))
+                .contextWrite(ShardKeyResolver.withCustomer(idCustomer));
+    }
+
+    /**
+     * Actualiza el saldo y el día de movimiento de una afiliación.
+     * Responde 202 cuando la actualización quedó pendiente de escritura
+     * (affiliation.write-behind.enabled) y 200 cuando ya se aplicó.
+     * @param id codigo.
+     * @param balanceUpdate saldo y día de movimiento.
+     * @param idCustomer codigo del cliente (clave de partición,
+     *                   opcional).
+     * @return Mono<BalanceUpdate>
+     */
+    @PutMapping("/{id}/balance")
+    public
+    Mono<ResponseEntity<BalanceUpdate>>
+    putBalance(@PathVariable final String id,
+               @RequestBody final BalanceUpdate balanceUpdate,
+               @RequestParam(required = false)
+               final String idCustomer) {
+
+        return accountAffiliationOperations.updateBalance(id, balanceUpdate)
+                .map(u -> ResponseEntity
+                        .status(u.isPending()
+                                ? HttpStatus.ACCEPTED : HttpStatus.OK)
+                        .body(u))
+                .defaultIfEmpty(new ResponseEntity<>(HttpStatus.NOT_FOUND))
+                .contextWrite(ShardKeyResolver.withCustomer(idCustomer));
     }
 
     /**
      * Elimina los datos de la afiliacion de cuentas bancarias de un cliente.
      * @param id codigo.
-     * @return Mono<AccountAffiliationDao>
+     * @param idCustomer codigo del cliente (clave de partición,
+     *                   opcional).
+     * @return Mono<ResponseEntity<Void>> 204 si se eliminó, 404 si no existe.
      */
     @DeleteMapping("/{id}")
     public
     Mono<ResponseEntity<Void>>
-    delete(@PathVariable final String id) {
-
+    delete(@PathVariable final String id,
+           @RequestParam(required = false)
+           final String idCustomer) {
         return accountAffiliationOperations.delete(id)
-                .map(c -> ResponseEntity
-                        .noContent()
-                        .<Void>build())
-                .defaultIfEmpty(ResponseEntity
-                        .notFound()
-                        .build());
+                .map(deleted -> deleted
+                        ? ResponseEntity.noContent().<Void>build()
+                        : ResponseEntity.notFound().<Void>build())
+                .contextWrite(ShardKeyResolver.withCustomer(idCustomer));
     }
 }
@@ -0,0 +1,38 @@
+package com.nttdata.affiliation.infraestructure.rest;
+
+import com.nttdata.affiliation.domain.AffiliationRejectedException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.util.Map;
+
+/**
+ * AFFILIATIONEXCEPTIONHANDLER.
+ * Convierte los rechazos de afiliación en respuestas 400 con el motivo
+ */
+@Slf4j
+@RestControllerAdvice
+public class AffiliationExceptionHandler {
+    /**
+     * Cabecera con el motivo del rechazo.
+     */
+    public static final String REJECTION_REASON_HEADER = "X-Rejection-Reason";
+
+    /**
+     * Respuesta para una afiliación rechazada.
+     * @param e rechazo.
+     * @return ResponseEntity<Map<String, String>>
+     */
+    @ExceptionHandler(AffiliationRejectedException.class)
+    public
+    ResponseEntity<Map<String, String>>
+    handleRejected(final AffiliationRejectedException e) {
+        log.debug("[handleRejected] {}", e.getReason());
+        return ResponseEntity
+                .badRequest()
+                .header(REJECTION_REASON_HEADER, e.getReason().name())
+                .body(Map.of("reason", e.getReason().name()));
+    }
+}
@@ -0,0 +1,250 @@
+package com.nttdata.affiliation.infraestructure.rest;
+
+import com.nttdata.affiliation.domain.bean.ExportFormat;
+import com.nttdata.affiliation.infraestructure.repository.AffiliationExporter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * AFFILIATIONEXPORTCONTROLLER.
+ * Descarga completa de las afiliaciones en CSV o NDJSON. La respuesta se
+ * escribe por bloques a medida que el cliente los consume y se comprime
+ * con gzip (Content-Encoding) cuando se pide con gzip=true o el cliente
+ * acepta gzip con q mayor que 0 en Accept-Encoding; el nombre del archivo
+ * no cambia. Para reanudar una descarga interrumpida se envía el Id de la
+ * última fila recibida (afterId)
+ */
+@Slf4j
+@RestController
+@RequestMapping("/affiliations/export")
+@RequiredArgsConstructor
+public class AffiliationExportController {
+    /**
+     * Tipo de contenido NDJSON.
+     */
+    private static final MediaType NDJSON
+            = MediaType.parseMediaType("application/x-ndjson");
+    /**
+     * Exportación de afiliaciones.
+     */
+    private final AffiliationExporter exporter;
+
+    /**
+     * Exporta las afiliaciones de cuentas bancarias.
+     * @param format formato: CSV o NDJSON.
+     * @param afterId último Id exportado (opcional).
+     * @param gzip comprimir la respuesta (también si Accept-Encoding
+     *             acepta gzip).
+     * @param exchange intercambio HTTP.
+     * @return Mono<Void>
+     */
+    @GetMapping("/accounts")
+    public
+    Mono<Void>
+    exportAccounts(@RequestParam(defaultValue = "CSV")
+                   final ExportFormat format,
+                   @RequestParam(required = false) final String afterId,
+                   @RequestParam(defaultValue = "false") final boolean gzip,
+                   final ServerWebExchange exchange) {
+        log.info("[exportAccounts] Inicio: {} afterId={}", format, afterId);
+        return write(exchange, "account-affiliations", format, gzip,
+                exporter.exportAccounts(format, afterId));
+    }
+
+    /**
+     * Exporta las afiliaciones de creditos.
+     * @param format formato: CSV o NDJSON.
+     * @param afterId último Id exportado (opcional).
+     * @param gzip comprimir la respuesta (también si Accept-Encoding
+     *             acepta gzip).
+     * @param exchange intercambio HTTP.
+     * @return Mono<Void>
+     */
+    @GetMapping("/credits")
+    public
+    Mono<Void>
+    exportCredits(@RequestParam(defaultValue = "CSV")
+                  final ExportFormat format,
+                  @RequestParam(required = false) final String afterId,
+                  @RequestParam(defaultValue = "false") final boolean gzip,
+                  final ServerWebExchange exchange) {
+        log.info("[exportCredits] Inicio: {} afterId={}", format, afterId);
+        return write(exchange, "credit-affiliations", format, gzip,
+                exporter.exportCredits(format, afterId));
+    }
+
+    /**
+     * Escribe los bloques en la respuesta.
+     * @param exchange intercambio HTTP.
+     * @param name nombre del archivo.
+     * @param format formato.
+     * @param gzip comprimir la respuesta.
+     * @param chunks bloques de filas.
+     * @return Mono<Void>
+     */
+    private
+    Mono<Void>
+    write(final ServerWebExchange exchange, final String name,
+          final ExportFormat format, final boolean gzip,
+          final Flux<byte[]> chunks) {
+        ServerHttpResponse response = exchange.getResponse();
+        HttpHeaders headers = response.getHeaders();
+        boolean compress = gzip || acceptsGzip(exchange.getRequest()
+                .getHeaders().getOrEmpty(HttpHeaders.ACCEPT_ENCODING));
+        String extension = format == ExportFormat.CSV ? ".csv" : ".ndjson";
+        headers.setContentType(format == ExportFormat.CSV
+                ? new MediaType("text", "csv") : NDJSON);
+        headers.setContentDisposition(ContentDisposition.attachment()
+                .filename(name + extension)
+                .build());
+        headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        DataBufferFactory factory = response.bufferFactory();
+        if (!compress) {
+            return response.writeWith(chunks.map(factory::wrap));
+        }
+        headers.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+        return response.writeWith(Flux.using(
+                Compressor::new,
+                compressor -> chunks
+                        .map(compressor::compress)
+                        .concatWith(Mono.fromCallable(compressor::finish))
+                        .filter(bytes -> bytes.length > 0)
+                        .map(factory::wrap),
+                Compressor::close));
+    }
+
+    /**
+     * Indica si Accept-Encoding acepta gzip: gzip (o x-gzip) con q mayor
+     * que 0 o, si no aparece, * con q mayor que 0.
+     * @param acceptEncoding valores de Accept-Encoding.
+     * @return boolean
+     */
+    static boolean acceptsGzip(final List<String> acceptEncoding) {
+        Double gzip = null;
+        Double any = null;
+        for (String value : acceptEncoding) {
+            for (String coding : value.split(",")) {
+                String[] parts = coding.split(";");
+                String name = parts[0].trim().toLowerCase(Locale.ROOT);
+                double q = quality(parts);
+                if (name.equals("gzip") || name.equals("x-gzip")) {
+                    gzip = q;
+                } else if (name.equals("*")) {
+                    any = q;
+                }
+            }
+        }
+        Double accepted = gzip != null ? gzip : any;
+        return accepted != null && accepted > 0;
+    }
+
+    /**
+     * Valor q de una codificación (1 si no se indica o no es válido).
+     * @param parts codificación y sus parámetros.
+     * @return double
+     */
+    private static double quality(final String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String[] parameter = parts[i].trim().split("=", 2);
+            if (parameter.length == 2
+                    && parameter[0].trim().equalsIgnoreCase("q")) {
+                try {
+                    return Double.parseDouble(parameter[1].trim());
+                } catch (NumberFormatException e) {
+                    return 1;
+                }
+            }
+        }
+        return 1;
+    }
+
+    /**
+     * Compresión gzip por bloques: cada bloque se vacía al comprimirse,
+     * de modo que solo se retiene el bloque en curso.
+     */
+    private static final class Compressor {
+        /**
+         * Bytes comprimidos pendientes de enviar.
+         */
+        private final ByteArrayOutputStream buffer
+                = new ByteArrayOutputStream();
+        /**
+         * Flujo gzip.
+         */
+        private final GZIPOutputStream gzip;
+
+        /**
+         * Constructor.
+         * @throws IOException error al escribir la cabecera gzip.
+         */
+        Compressor() throws IOException {
+            this.gzip = new GZIPOutputStream(buffer, true);
+        }
+
+        /**
+         * Comprime un bloque.
+         * @param chunk bloque.
+         * @return byte[] bytes comprimidos.
+         */
+        byte[] compress(final byte[] chunk) {
+            try {
+                gzip.write(chunk);
+                gzip.flush();
+                return drain();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        /**
+         * Termina la compresión.
+         * @return byte[] últimos bytes comprimidos.
+         * @throws IOException error al cerrar el flujo gzip.
+         */
+        byte[] finish() throws IOException {
+            gzip.finish();
+            return drain();
+        }
+
+        /**
+         * Libera el flujo gzip.
+         */
+        void close() {
+            try {
+                gzip.close();
+            } catch (IOException e) {
+                log.debug("[close] {}", e.toString());
+            }
+        }
+
+        /**
+         * Bytes comprimidos pendientes.
+         * @return byte[]
+         */
+        private byte[] drain() {
+            byte[] bytes = buffer.toByteArray();
+            buffer.reset();
+            return bytes;
+        }
+    }
+}
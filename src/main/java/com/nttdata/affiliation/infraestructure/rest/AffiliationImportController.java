@@ -0,0 +1,83 @@
+package com.nttdata.affiliation.infraestructure.rest;
+
+import com.nttdata.affiliation.application.AffiliationImportOperations;
+import com.nttdata.affiliation.domain.AccountAffiliation;
+import com.nttdata.affiliation.domain.CreditAffiliation;
+import com.nttdata.affiliation.domain.ImportProgress;
+import com.nttdata.affiliation.domain.bean.ExportFormat;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+
+/**
+ * AFFILIATIONIMPORTCONTROLLER.
+ * Importación masiva de afiliaciones desde un archivo CSV o NDJSON enviado
+ * como cuerpo de la petición. El avance se informa en NDJSON (un evento
+ * por bloque con sus filas rechazadas); para reanudar una importación
+ * interrumpida se reenvía el mismo archivo con el mismo importId
+ */
+@Slf4j
+@RestController
+@RequestMapping("/affiliations/import")
+@RequiredArgsConstructor
+public class AffiliationImportController {
+    /**
+     * Importación de afiliaciones.
+     */
+    private final AffiliationImportOperations importOperations;
+    /**
+     * Lectura del archivo.
+     */
+    private final AffiliationImportReader reader;
+
+    /**
+     * Importa afiliaciones de cuentas bancarias.
+     * @param format formato: CSV o NDJSON.
+     * @param importId identificador de la importación (opcional).
+     * @param exchange intercambio HTTP.
+     * @return Flux<ImportProgress>
+     */
+    @PostMapping(value = "/accounts",
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public
+    Flux<ImportProgress>
+    importAccounts(@RequestParam(defaultValue = "CSV")
+                   final ExportFormat format,
+                   @RequestParam(required = false) final String importId,
+                   final ServerWebExchange exchange) {
+        String id = importId == null ? new ObjectId().toHexString() : importId;
+        log.info("[importAccounts] Inicio: {} {}", format, id);
+        return importOperations.importAccounts(id, reader.read(
+                exchange.getRequest().getBody(), format,
+                AccountAffiliation.class));
+    }
+
+    /**
+     * Importa afiliaciones de creditos.
+     * @param format formato: CSV o NDJSON.
+     * @param importId identificador de la importación (opcional).
+     * @param exchange intercambio HTTP.
+     * @return Flux<ImportProgress>
+     */
+    @PostMapping(value = "/credits",
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public
+    Flux<ImportProgress>
+    importCredits(@RequestParam(defaultValue = "CSV")
+                  final ExportFormat format,
+                  @RequestParam(required = false) final String importId,
+                  final ServerWebExchange exchange) {
+        String id = importId == null ? new ObjectId().toHexString() : importId;
+        log.info("[importCredits] Inicio: {} {}", format, id);
+        return importOperations.importCredits(id, reader.read(
+                exchange.getRequest().getBody(), format,
+                CreditAffiliation.class));
+    }
+}
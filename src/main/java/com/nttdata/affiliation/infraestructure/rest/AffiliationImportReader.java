@@ -0,0 +1,207 @@
+package com.nttdata.affiliation.infraestructure.rest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nttdata.affiliation.domain.BulkCreateResult;
+import com.nttdata.affiliation.domain.bean.ExportFormat;
+import com.nttdata.affiliation.domain.bean.RejectionReason;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.StringDecoder;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * AFFILIATIONIMPORTREADER.
+ * Lee un archivo de afiliaciones (CSV con cabecera o NDJSON) a medida que
+ * llega, registro por registro, y numera las filas desde 1 sin contar la
+ * cabecera (la misma numeración que la exportación). Un registro CSV
+ * ocupa varias líneas cuando un valor entre comillas contiene saltos de
+ * línea, como los que escribe la exportación. Las filas que no se
+ * pueden leer se emiten con el rechazo INVALID_ROW. El Id de origen se
+ * ignora: la importación asigna el suyo.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AffiliationImportReader {
+    /**
+     * Separación por líneas.
+     */
+    private static final StringDecoder LINES = StringDecoder
+            .allMimeTypes(Collections.singletonList("\n"), true);
+    /**
+     * Conversión de las filas.
+     */
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Lee las filas del archivo.
+     * @param body contenido del archivo.
+     * @param format formato.
+     * @param type clase de la afiliación.
+     * @param <T> afiliación.
+     * @return Flux<BulkCreateResult<T>>
+     */
+    public <T> Flux<BulkCreateResult<T>> read(final Flux<DataBuffer> body,
+                                              final ExportFormat format,
+                                              final Class<T> type) {
+        Flux<String> lines = LINES
+                .decode(body, ResolvableType.forClass(String.class),
+                        null, Collections.emptyMap())
+                .map(AffiliationImportReader::stripCarriageReturn);
+        if (format == ExportFormat.NDJSON) {
+            return lines.index()
+                    .filter(line -> !line.getT2().isBlank())
+                    .map(line -> row(line.getT1() + 1, type, () ->
+                            objectMapper.readValue(line.getT2(), Map.class)));
+        }
+        return records(lines).switchOnFirst((first, all) -> {
+            if (!first.hasValue()) {
+                return Flux.empty();
+            }
+            List<String> header = split(first.get());
+            return all.skip(1)
+                    .index()
+                    .filter(line -> !line.getT2().isBlank())
+                    .map(line -> row(line.getT1() + 1, type,
+                            () -> columns(header, split(line.getT2()))));
+        });
+    }
+
+    /**
+     * Convierte una fila en afiliación.
+     * @param line número de fila.
+     * @param type clase de la afiliación.
+     * @param fields lectura de los campos de la fila.
+     * @param <T> afiliación.
+     * @return BulkCreateResult<T>
+     */
+    private <T> BulkCreateResult<T> row(final long line,
+                                        final Class<T> type,
+                                        final Fields fields) {
+        try {
+            Map<?, ?> values = fields.read();
+            values.remove("id");
+            return new BulkCreateResult<>(line,
+                    objectMapper.convertValue(values, type), null);
+        } catch (Exception e) {
+            log.debug("[row] Fila {} inválida: {}", line, e.toString());
+            return new BulkCreateResult<>(line, null,
+                    RejectionReason.INVALID_ROW);
+        }
+    }
+
+    /**
+     * Asocia los valores de una fila CSV con las columnas de la cabecera;
+     * los valores vacíos se omiten.
+     * @param header columnas.
+     * @param values valores.
+     * @return Map<String, String>
+     */
+    private static Map<String, String> columns(final List<String> header,
+                                               final List<String> values) {
+        if (values.size() > header.size()) {
+            throw new IllegalArgumentException(
+                    "Más valores que columnas: " + values.size());
+        }
+        Map<String, String> row = new HashMap<>();
+        for (int i = 0; i < values.size(); i++) {
+            if (!values.get(i).isEmpty()) {
+                row.put(header.get(i), values.get(i));
+            }
+        }
+        return row;
+    }
+
+    /**
+     * Agrupa las líneas en registros CSV: mientras un valor entre comillas
+     * siga abierto (cantidad impar de comillas) la línea siguiente es
+     * parte del mismo registro. Un registro que termina con las comillas
+     * abiertas se emite igual y se rechaza al separarlo.
+     * @param lines líneas.
+     * @return Flux<String>
+     */
+    static Flux<String> records(final Flux<String> lines) {
+        return Flux.defer(() -> {
+            AtomicBoolean quoted = new AtomicBoolean();
+            return lines
+                    .bufferUntil(line -> {
+                        if (line.chars().filter(c -> c == '"').count() % 2
+                                != 0) {
+                            quoted.set(!quoted.get());
+                        }
+                        return !quoted.get();
+                    })
+                    .map(record -> String.join("\n", record));
+        });
+    }
+
+    /**
+     * Separa los valores de un registro CSV (comillas dobles opcionales).
+     * @param line registro.
+     * @return List<String>
+     */
+    static List<String> split(final String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length()
+                        && line.charAt(i + 1) == '"') {
+                    value.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    value.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(value.toString());
+                value.setLength(0);
+            } else {
+                value.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Comillas sin cerrar");
+        }
+        values.add(value.toString());
+        return values;
+    }
+
+    /**
+     * Quita el retorno de carro final (archivos con fin de línea CRLF).
+     * @param line línea.
+     * @return String
+     */
+    private static String stripCarriageReturn(final String line) {
+        return line.endsWith("\r")
+                ? line.substring(0, line.length() - 1) : line;
+    }
+
+    /**
+     * Lectura de los campos de una fila.
+     */
+    @FunctionalInterface
+    private interface Fields {
+        /**
+         * Lee los campos.
+         * @return Map<?, ?>
+         * @throws Exception fila inválida.
+         */
+        Map<?, ?> read() throws Exception;
+    }
+}
@@ -2,7 +2,10 @@ package com.nttdata.affiliation.infraestructure.rest;
 
 import com.nttdata.affiliation.application.CreditAffiliationOperations;
 import com.nttdata.affiliation.domain.AccountAffiliation;
+import com.nttdata.affiliation.domain.AffiliationSummary;
 import com.nttdata.affiliation.domain.CreditAffiliation;
+import com.nttdata.affiliation.domain.bean.SummaryGroup;
+import com.nttdata.affiliation.infraestructure.repository.ShardKeyResolver;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
@@ -14,6 +17,7 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -46,20 +50,48 @@ public class CreditAffiliationController {
                         .body(creditAffiliationOperations.findAll()));
     }
 
+    /**
+     * Totales de las afiliaciones de credito calculados en la BD.
+     * @param groupBy agrupación: CUSTOMER o TYPE.
+     * @param idCustomer codigo del cliente (opcional).
+     * @return Flux<AffiliationSummary>
+     */
+    @GetMapping("/summary")
+    public
+    Mono<ResponseEntity<Flux<AffiliationSummary>>>
+    getSummary(
+            @RequestParam(defaultValue = "CUSTOMER")
+            final SummaryGroup groupBy,
+            @RequestParam(required = false) final String idCustomer) {
+        if (groupBy == SummaryGroup.STATUS) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+        return Mono.just(
+                ResponseEntity
+                        .ok()
+                        .body(creditAffiliationOperations
+                                .summarize(groupBy, idCustomer)));
+    }
+
     /**
      * Busca por el Id los datos de la afiliacion de credito de un cliente.
      * @param id codigo.
+     * @param idCustomer codigo del cliente (clave de partición,
+     *                   opcional).
      * @return Mono<CreditAffiliation>
      */
     @GetMapping("/{id}")
     public
     Mono<ResponseEntity<CreditAffiliation>>
-    getById(@PathVariable final String id) {
+    getById(@PathVariable final String id,
+            @RequestParam(required = false)
+            final String idCustomer) {
         return creditAffiliationOperations.findById(id)
                 .map(a -> ResponseEntity
                         .ok()
                         .body(a))
-                .defaultIfEmpty(new ResponseEntity<>(HttpStatus.NOT_FOUND));
+                .defaultIfEmpty(new ResponseEntity<>(HttpStatus.NOT_FOUND))
+                .contextWrite(ShardKeyResolver.withCustomer(idCustomer));
     }
     /**
      * Busca por Id del cliente los datos de la afiliacion de cuentas bancarias.
@@ -122,35 +154,42 @@ public class CreditAffiliationController {
      * Actualiza las afiliaciones de credito de un cliente.
      * @param id codigo.
      * @param credittAffiliation afiliación de credito.
+     * @param idCustomer codigo del cliente (clave de partición,
+     *                   opcional).
      * @return Mono<CreditAffiliation>
      */
     @PutMapping("/{id}")
     public
     Mono<ResponseEntity<CreditAffiliation>>
     put(@PathVariable final String id,
-        @RequestBody final CreditAffiliation credittAffiliation) {
+        @RequestBody final CreditAffiliation credittAffiliation,
+        @RequestParam(required = false)
+        final String idCustomer) {
         return creditAffiliationOperations.update(id, credittAffiliation)
                 .map(a -> ResponseEntity
                         .ok()
                         .body(a))
-                .defaultIfEmpty(new ResponseEntity<>(HttpStatus.NOT_FOUND));
+                .defaultIfEmpty(new ResponseEntity<>(HttpStatus.NOT_FOUND))
+                .contextWrite(ShardKeyResolver.withCustomer(idCustomer));
     }
 
     /**
      * Elimina los datos de la afiliacion de Credito de un cliente.
      * @param id codigo.
-     * @return Mono<CreditAffiliationDao>
+     * @param idCustomer codigo del cliente (clave de partición,
+     *                   opcional).
+     * @return Mono<ResponseEntity<Void>> 204 si se eliminó, 404 si no existe.
      */
     @DeleteMapping("/{id}")
     public
     Mono<ResponseEntity<Void>>
-    delete(@PathVariable final String id) {
+    delete(@PathVariable final String id,
+           @RequestParam(required = false)
+           final String idCustomer) {
         return creditAffiliationOperations.delete(id)
-                .map(c -> ResponseEntity
-                        .noContent()
-                        .<Void>build())
-                .defaultIfEmpty(ResponseEntity
-                        .notFound()
-                        .build());
+                .map(deleted -> deleted
+                        ? ResponseEntity.noContent().<Void>build()
+                        : ResponseEntity.notFound().<Void>build())
+                .contextWrite(ShardKeyResolver.withCustomer(idCustomer));
     }
 }
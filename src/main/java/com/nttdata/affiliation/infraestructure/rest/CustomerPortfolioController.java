@@ -0,0 +1,46 @@
+package com.nttdata.affiliation.infraestructure.rest;
+
+import com.nttdata.affiliation.application.CustomerPortfolioOperations;
+import com.nttdata.affiliation.domain.CustomerPortfolio;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+/**
+ * CUSTOMERPORTFOLIOCONTROLLER.
+ * Consulta el portafolio de afiliaciones (cuentas bancarias y creditos)
+ * de un cliente en una sola llamada
+ */
+@Slf4j
+@RestController
+@RequestMapping("/affiliations/customers")
+@RequiredArgsConstructor
+public class CustomerPortfolioController {
+    /**
+     * Operaciones del portafolio del cliente.
+     */
+    private final CustomerPortfolioOperations customerPortfolioOperations;
+
+    /**
+     * Busca por Id del cliente sus afiliaciones de cuentas y de creditos.
+     * @param id codigo del cliente.
+     * @return Mono<CustomerPortfolio>
+     */
+    @GetMapping("/{id}/portfolio")
+    public
+    Mono<ResponseEntity<CustomerPortfolio>>
+    getPortfolio(@PathVariable final String id) {
+
+        return customerPortfolioOperations.findByIdCustomer(id)
+                .map(p -> ResponseEntity
+                        .ok()
+                        .body(p))
+                .defaultIfEmpty(new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    }
+}
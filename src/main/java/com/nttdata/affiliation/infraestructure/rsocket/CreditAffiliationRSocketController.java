@@ -0,0 +1,91 @@
+package com.nttdata.affiliation.infraestructure.rsocket;
+
+import com.nttdata.affiliation.application.CreditAffiliationOperations;
+import com.nttdata.affiliation.domain.AffiliationRejectedException;
+import com.nttdata.affiliation.domain.BulkCreateResult;
+import com.nttdata.affiliation.domain.CreditAffiliation;
+import com.nttdata.affiliation.infraestructure.config.RSocketProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.handler.annotation.DestinationVariable;
+import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.stereotype.Controller;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * CREDITAFFILIATIONRSOCKETCONTROLLER.
+ * Interfaz RSocket de las afiliaciones de creditos
+ */
+@Slf4j
+@Controller
+@MessageMapping("credits")
+@RequiredArgsConstructor
+public class CreditAffiliationRSocketController {
+    /**
+     * Operaciones de Afiliación.
+     */
+    private final CreditAffiliationOperations creditAffiliationOperations;
+    /**
+     * Configuración de la interfaz RSocket.
+     */
+    private final RSocketProperties properties;
+
+    /**
+     * Request-response: busca una afiliación por Id.
+     * @param id codigo.
+     * @return Mono<CreditAffiliation>
+     */
+    @MessageMapping("find-by-id.{id}")
+    public
+    Mono<CreditAffiliation>
+    findById(@DestinationVariable final String id) {
+        return creditAffiliationOperations.findById(id);
+    }
+
+    /**
+     * Request-stream: afiliaciones de un cliente.
+     * @param idCustomer codigo del cliente.
+     * @return Flux<CreditAffiliation>
+     */
+    @MessageMapping("find-by-customer.{idCustomer}")
+    public
+    Flux<CreditAffiliation>
+    findByIdCustomer(@DestinationVariable final String idCustomer) {
+        return creditAffiliationOperations.findByIdCustomer(idCustomer);
+    }
+
+    /**
+     * Request-stream: todas las afiliaciones.
+     * @return Flux<CreditAffiliation>
+     */
+    @MessageMapping("find-all")
+    public
+    Flux<CreditAffiliation>
+    findAll() {
+        return creditAffiliationOperations.findAll();
+    }
+
+    /**
+     * Request-channel: registro masivo. Cada afiliación recibida produce
+     * un resultado (creada o rechazada) sin cortar el canal; a lo sumo
+     * affiliation.rsocket.bulk-concurrency registros están en curso, por
+     * lo que la demanda hacia el cliente se ajusta a ese límite.
+     * @param affiliations afiliaciones a registrar.
+     * @return Flux<BulkCreateResult<CreditAffiliation>>
+     */
+    @MessageMapping("create")
+    public
+    Flux<BulkCreateResult<CreditAffiliation>>
+    create(final Flux<CreditAffiliation> affiliations) {
+        log.info("[create] Inicio");
+        return affiliations
+                .index()
+                .flatMap(t -> creditAffiliationOperations.create(t.getT2())
+                        .map(a -> new BulkCreateResult<>(t.getT1(), a, null))
+                        .onErrorResume(AffiliationRejectedException.class,
+                                e -> Mono.just(new BulkCreateResult<>(
+                                        t.getT1(), null, e.getReason()))),
+                        properties.getBulkConcurrency());
+    }
+}
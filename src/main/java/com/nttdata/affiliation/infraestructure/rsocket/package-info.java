@@ -0,0 +1,4 @@
+/**
+ * Paquete de la interfaz RSocket.
+ */
+package com.nttdata.affiliation.infraestructure.rsocket;
@@ -0,0 +1,129 @@
+package com.nttdata.affiliation.infraestructure.tracing;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * LATENCYBREAKDOWN.
+ * Acumula el tiempo de una petición por tramo (Mongo, servicios externos y
+ * circuit breaker). Viaja en el Context de Reactor; si la petición no lo
+ * tiene, las operaciones se ejecutan sin medir.
+ */
+public class LatencyBreakdown {
+    /**
+     * Tramo: operaciones en MongoDB.
+     */
+    public static final String MONGO = "mongo";
+    /**
+     * Tramo: servicio de clientes.
+     */
+    public static final String CUSTOMER = "customer";
+    /**
+     * Tramo: servicio de productos (cuentas bancarias).
+     */
+    public static final String ACCOUNT_PRODUCT = "account-product";
+    /**
+     * Tramo: servicio de productos (creditos).
+     */
+    public static final String CREDIT_PRODUCT = "credit-product";
+    /**
+     * Tramo: circuit breaker y time limiter (incluye la llamada externa).
+     */
+    public static final String CIRCUIT_BREAKER = "circuit-breaker";
+    /**
+     * Tiempo acumulado (ns) por tramo.
+     */
+    private final Map<String, LongAdder> nanos = new ConcurrentSkipListMap<>();
+    /**
+     * Cantidad de operaciones por tramo.
+     */
+    private final Map<String, LongAdder> counts
+            = new ConcurrentSkipListMap<>();
+
+    /**
+     * Mide un Mono en el tramo indicado.
+     * @param hop tramo.
+     * @param source operación.
+     * @param <T> resultado.
+     * @return Mono<T>
+     */
+    public static <T> Mono<T> timed(final String hop, final Mono<T> source) {
+        return Mono.deferContextual(context -> context
+                .<LatencyBreakdown>getOrEmpty(LatencyBreakdown.class)
+                .map(breakdown -> {
+                    Runnable stop = breakdown.start(hop);
+                    return source.doOnEach(signal -> stop.run())
+                            .doOnCancel(stop);
+                })
+                .orElse(source));
+    }
+
+    /**
+     * Mide un Flux en el tramo indicado.
+     * @param hop tramo.
+     * @param source operación.
+     * @param <T> resultado.
+     * @return Flux<T>
+     */
+    public static <T> Flux<T> timed(final String hop, final Flux<T> source) {
+        return Flux.deferContextual(context -> context
+                .<LatencyBreakdown>getOrEmpty(LatencyBreakdown.class)
+                .map(breakdown -> {
+                    Runnable stop = breakdown.start(hop);
+                    return source.doOnTerminate(stop).doOnCancel(stop);
+                })
+                .orElse(source));
+    }
+
+    /**
+     * Inicia la medición de una operación. El tiempo se registra una vez,
+     * antes de propagar el resultado (un Mono que emite su valor puede
+     * hacer que se escriba la respuesta antes de su onComplete).
+     * @param hop tramo.
+     * @return Runnable registra el tiempo transcurrido.
+     */
+    private Runnable start(final String hop) {
+        long start = System.nanoTime();
+        AtomicBoolean stopped = new AtomicBoolean();
+        return () -> {
+            if (stopped.compareAndSet(false, true)) {
+                add(hop, System.nanoTime() - start);
+            }
+        };
+    }
+
+    /**
+     * Registra el tiempo de una operación.
+     * @param hop tramo.
+     * @param elapsed tiempo en ns.
+     */
+    public void add(final String hop, final long elapsed) {
+        nanos.computeIfAbsent(hop, k -> new LongAdder()).add(elapsed);
+        counts.computeIfAbsent(hop, k -> new LongAdder()).increment();
+    }
+
+    /**
+     * Valor de la cabecera Server-Timing, por ejemplo
+     * customer;dur=12.4;desc="1", mongo;dur=3.1;desc="2".
+     * Las operaciones en paralelo se suman, por lo que el total de los
+     * tramos puede superar el tiempo de la petición.
+     * @return String
+     */
+    public String toServerTiming() {
+        return nanos.entrySet().stream()
+                .map(e -> String.format(Locale.ROOT, "%s;dur=%.1f;desc=\"%d\"",
+                        e.getKey(),
+                        e.getValue().sum() / (double) TimeUnit.MILLISECONDS
+                                .toNanos(1),
+                        counts.get(e.getKey()).sum()))
+                .collect(Collectors.joining(", "));
+    }
+}
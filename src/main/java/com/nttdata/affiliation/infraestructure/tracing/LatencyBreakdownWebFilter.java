@@ -0,0 +1,59 @@
+package com.nttdata.affiliation.infraestructure.tracing;
+
+import com.nttdata.affiliation.infraestructure.config.TracingProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+/**
+ * LATENCYBREAKDOWNWEBFILTER.
+ * En modo debug (cabecera affiliation.tracing.debug-header o
+ * affiliation.tracing.server-timing=true) agrega un LatencyBreakdown al
+ * Context de la petición y devuelve el desglose en la cabecera
+ * Server-Timing.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LatencyBreakdownWebFilter implements WebFilter {
+    /**
+     * Cabecera de la respuesta.
+     */
+    public static final String SERVER_TIMING = "Server-Timing";
+    /**
+     * Configuración.
+     */
+    private final TracingProperties properties;
+
+    /**
+     * Filtro.
+     * @param exchange petición.
+     * @param chain cadena de filtros.
+     * @return Mono<Void>
+     */
+    @Override
+    public Mono<Void> filter(final ServerWebExchange exchange,
+                             final WebFilterChain chain) {
+        if (!properties.isServerTiming() && !exchange.getRequest()
+                .getHeaders().containsKey(properties.getDebugHeader())) {
+            return chain.filter(exchange);
+        }
+        LatencyBreakdown breakdown = new LatencyBreakdown();
+        exchange.getResponse().beforeCommit(() -> {
+            String timing = breakdown.toServerTiming();
+            log.debug("[filter] {} {}: {}", exchange.getRequest().getMethod(),
+                    exchange.getRequest().getPath(), timing);
+            if (!timing.isEmpty()) {
+                exchange.getResponse().getHeaders().add(SERVER_TIMING, timing);
+            }
+            return Mono.empty();
+        });
+        return chain.filter(exchange)
+                .contextWrite(context ->
+                        context.put(LatencyBreakdown.class, breakdown));
+    }
+}
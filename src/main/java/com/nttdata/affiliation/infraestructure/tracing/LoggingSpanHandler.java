@@ -0,0 +1,45 @@
+package com.nttdata.affiliation.infraestructure.tracing;
+
+import brave.handler.MutableSpan;
+import brave.handler.SpanHandler;
+import brave.propagation.TraceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * LOGGINGSPANHANDLER.
+ * Exportador local: escribe en el log los spans muestreados al terminar
+ * (affiliation.tracing.log-exporter=true). Para enviar los spans a un
+ * colector basta agregar spring-cloud-sleuth-zipkin.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "affiliation.tracing", name = "log-exporter",
+        havingValue = "true")
+public class LoggingSpanHandler extends SpanHandler {
+
+    /**
+     * Span terminado.
+     * @param context contexto de la traza.
+     * @param span span.
+     * @param cause motivo.
+     * @return boolean
+     */
+    @Override
+    public boolean end(final TraceContext context, final MutableSpan span,
+                       final Cause cause) {
+        if (cause == Cause.FINISHED && context.sampled() != null
+                && context.sampled()) {
+            log.info("[span] trace={} span={} parent={} kind={} name={} "
+                            + "remote={} durationUs={} error={}",
+                    context.traceIdString(), context.spanIdString(),
+                    context.parentIdString(), span.kind(), span.name(),
+                    span.remoteServiceName(),
+                    span.finishTimestamp() - span.startTimestamp(),
+                    span.error() == null ? span.tag("error")
+                            : span.error().toString());
+        }
+        return true;
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Paquete de trazabilidad de las peticiones.
+ */
+package com.nttdata.affiliation.infraestructure.tracing;
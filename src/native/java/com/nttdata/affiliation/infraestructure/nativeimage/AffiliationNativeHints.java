@@ -0,0 +1,83 @@
+package com.nttdata.affiliation.infraestructure.nativeimage;
+
+import com.nttdata.affiliation.domain.AccountAffiliation;
+import com.nttdata.affiliation.domain.AffiliationSummary;
+import com.nttdata.affiliation.domain.CreditAffiliation;
+import com.nttdata.affiliation.domain.CustomerPortfolio;
+import com.nttdata.affiliation.domain.bean.Account;
+import com.nttdata.affiliation.domain.bean.AccountType;
+import com.nttdata.affiliation.domain.bean.Credit;
+import com.nttdata.affiliation.domain.bean.CreditType;
+import com.nttdata.affiliation.domain.bean.Customer;
+import com.nttdata.affiliation.domain.bean.CustomerType;
+import com.nttdata.affiliation.domain.bean.DocumentType;
+import com.nttdata.affiliation.domain.bean.EligibilityRule;
+import com.nttdata.affiliation.domain.bean.RejectionReason;
+import com.nttdata.affiliation.domain.bean.Status;
+import com.nttdata.affiliation.domain.bean.SummaryGroup;
+import com.nttdata.affiliation.infraestructure.logging.LogSamplingTurboFilter;
+import com.nttdata.affiliation.infraestructure.model.dao.AccountAffiliationDao;
+import com.nttdata.affiliation.infraestructure.model.dao.CreditAffiliationDao;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.nativex.hint.NativeHint;
+import org.springframework.nativex.hint.TypeAccess;
+import org.springframework.nativex.hint.TypeHint;
+
+/**
+ * AFFILIATIONNATIVEHINTS.
+ * Hints de reflexión para la imagen nativa: documentos de Mongo, beans
+ * (Lombok @Data) serializados con Jackson, la configuración de
+ * Resilience4j y las clases que logback instancia desde
+ * logback-spring.xml. Solo se compila con el perfil native.
+ */
+@Configuration(proxyBeanMethods = false)
+@NativeHint(
+        types = {
+                @TypeHint(types = {
+                        AccountAffiliationDao.class,
+                        CreditAffiliationDao.class,
+                        AccountAffiliation.class,
+                        CreditAffiliation.class,
+                        CustomerPortfolio.class,
+                        AffiliationSummary.class,
+                        Customer.class,
+                        Account.class,
+                        Credit.class
+                }, access = {
+                        TypeAccess.DECLARED_CONSTRUCTORS,
+                        TypeAccess.DECLARED_FIELDS,
+                        TypeAccess.DECLARED_METHODS,
+                        TypeAccess.PUBLIC_METHODS
+                }),
+                @TypeHint(types = {
+                        AccountType.class,
+                        CreditType.class,
+                        CustomerType.class,
+                        DocumentType.class,
+                        EligibilityRule.class,
+                        RejectionReason.class,
+                        Status.class,
+                        SummaryGroup.class
+                }, access = {
+                        TypeAccess.DECLARED_FIELDS,
+                        TypeAccess.PUBLIC_METHODS
+                }),
+                @TypeHint(typeNames = {
+                        "io.github.resilience4j.circuitbreaker.CircuitBreakerConfig",
+                        "io.github.resilience4j.circuitbreaker.CircuitBreakerConfig$Builder",
+                        "io.github.resilience4j.timelimiter.TimeLimiterConfig",
+                        "io.github.resilience4j.timelimiter.TimeLimiterConfig$Builder",
+                        "io.github.resilience4j.core.registry.InMemoryRegistryStore"
+                }, access = {
+                        TypeAccess.DECLARED_CONSTRUCTORS,
+                        TypeAccess.DECLARED_METHODS
+                }),
+                @TypeHint(types = LogSamplingTurboFilter.class,
+                        typeNames = "ch.qos.logback.classic.AsyncAppender",
+                        access = {
+                                TypeAccess.DECLARED_CONSTRUCTORS,
+                                TypeAccess.PUBLIC_METHODS
+                        })
+        })
+public class AffiliationNativeHints {
+}
@@ -0,0 +1,4 @@
+/**
+ * Paquete de hints para la imagen nativa (solo perfil native).
+ */
+package com.nttdata.affiliation.infraestructure.nativeimage;
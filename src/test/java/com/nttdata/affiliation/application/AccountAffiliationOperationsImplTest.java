@@ -0,0 +1,171 @@
+package com.nttdata.affiliation.application;
+
+import com.nttdata.affiliation.domain.AccountAffiliation;
+import com.nttdata.affiliation.domain.AffiliationRejectedException;
+import com.nttdata.affiliation.domain.bean.Account;
+import com.nttdata.affiliation.domain.bean.AccountType;
+import com.nttdata.affiliation.domain.bean.Customer;
+import com.nttdata.affiliation.domain.bean.CustomerType;
+import com.nttdata.affiliation.infraestructure.config.EligibilityProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AccountAffiliationOperationsImplTest {
+
+	private static final Duration LATENCY = Duration.ofMillis(200);
+
+	private AccountAffiliationRepository repository;
+	private SimpleMeterRegistry meterRegistry;
+	private AccountAffiliationOperationsImpl operations;
+	private final AtomicInteger customerCalls = new AtomicInteger();
+	private final Map<String, AtomicInteger> productCalls = new ConcurrentHashMap<>();
+
+	@BeforeEach
+	void setUp() {
+		repository = mock(AccountAffiliationRepository.class);
+		meterRegistry = new SimpleMeterRegistry();
+		EligibilityProperties properties = new EligibilityProperties();
+		operations = new AccountAffiliationOperationsImpl(repository,
+				new EligibilityPolicy(properties.getAccount(), properties.getCredit()),
+				new AffiliationValidator(), meterRegistry);
+		when(repository.create(any())).thenAnswer(i -> {
+			AccountAffiliation saved = i.getArgument(0);
+			saved.setId("new");
+			return Mono.just(saved);
+		});
+	}
+
+	@Test
+	void personalCreateCallsEachDownstreamEntityOnce() {
+		stubCustomer(CustomerType.PERSONAL);
+		stubProduct("A1", AccountType.AHORRO);
+		stubProduct("P1", AccountType.PLAZO_FIJO);
+		stubProduct("C1", AccountType.CUENTA_CORRIENTE);
+		when(repository.findByIdCustomer("cus1")).thenReturn(
+				Flux.just(affiliation("P1"), affiliation("P1"), affiliation("C1")));
+
+		StepVerifier.create(operations.create(affiliation("A1")))
+				.expectNextMatches(a -> "new".equals(a.getId()))
+				.verifyComplete();
+
+		assertThat(customerCalls).hasValue(1);
+		assertThat(productCalls.get("A1")).hasValue(1);
+		assertThat(productCalls.get("P1")).hasValue(1);
+		assertThat(productCalls.get("C1")).hasValue(1);
+		assertThat(meterRegistry.get(OutboundCallBudget.METRIC)
+				.tag("downstream", OutboundCallBudget.ACCOUNT_PRODUCT)
+				.summary().totalAmount()).isEqualTo(3);
+	}
+
+	@Test
+	void personalCreateReusesRequestedProductForExistingRows() {
+		stubCustomer(CustomerType.PERSONAL);
+		stubProduct("A1", AccountType.AHORRO);
+		when(repository.findByIdCustomer("cus1")).thenReturn(
+				Flux.just(affiliation("A1"), affiliation("A1")));
+
+		StepVerifier.create(operations.create(affiliation("A1")))
+				.expectError(AffiliationRejectedException.class)
+				.verify();
+
+		assertThat(customerCalls).hasValue(1);
+		assertThat(productCalls.get("A1")).hasValue(1);
+		verify(repository, never()).create(any());
+	}
+
+	@Test
+	void invalidRequestMakesNoDownstreamCall() {
+		AccountAffiliation affiliation = affiliation("A1");
+		affiliation.setNumberOfHolder(0);
+
+		StepVerifier.create(operations.create(affiliation))
+				.expectError(AffiliationRejectedException.class)
+				.verify();
+
+		verify(repository, never()).getCustomerById(anyString());
+		verify(repository, never()).getProductAccountById(anyString());
+	}
+
+	@Test
+	void customerAndProductAreResolvedConcurrently() {
+		Customer customer = new Customer();
+		customer.setCustomerType(CustomerType.EMPRESARIAL);
+		Account account = new Account();
+		account.setAccountType(AccountType.CUENTA_CORRIENTE);
+		when(repository.getCustomerById("cus1")).thenReturn(
+				Flux.defer(() -> Mono.delay(LATENCY).thenReturn(customer).flux()));
+		when(repository.getProductAccountById("C1")).thenReturn(
+				Flux.defer(() -> Mono.delay(LATENCY).thenReturn(account).flux()));
+
+		StepVerifier.withVirtualTime(() -> operations.create(affiliation("C1")))
+				.expectSubscription()
+				.thenAwait(LATENCY)
+				.expectNextMatches(a -> "new".equals(a.getId()))
+				.expectComplete()
+				.verify(Duration.ofSeconds(5));
+	}
+
+	@Test
+	void rejectedCustomerCancelsProductLookup() {
+		AtomicBoolean productCancelled = new AtomicBoolean();
+		when(repository.getCustomerById("cus1")).thenReturn(Flux.defer(
+				() -> Mono.delay(Duration.ofMillis(50)).thenReturn(new Customer()).flux()));
+		when(repository.getProductAccountById("C1")).thenReturn(
+				Flux.defer(() -> Mono.delay(LATENCY).thenReturn(new Account()).flux())
+						.doOnCancel(() -> productCancelled.set(true)));
+
+		StepVerifier.withVirtualTime(() -> operations.create(affiliation("C1")))
+				.expectSubscription()
+				.thenAwait(Duration.ofMillis(50))
+				.expectError(AffiliationRejectedException.class)
+				.verify(Duration.ofSeconds(5));
+
+		assertThat(productCancelled).isTrue();
+	}
+
+	private void stubCustomer(CustomerType customerType) {
+		Customer customer = new Customer();
+		customer.setCode("cus1");
+		customer.setCustomerType(customerType);
+		when(repository.getCustomerById("cus1")).thenReturn(Flux.defer(() -> {
+			customerCalls.incrementAndGet();
+			return Flux.just(customer);
+		}));
+	}
+
+	private void stubProduct(String id, AccountType accountType) {
+		Account account = new Account();
+		account.setId(id);
+		account.setAccountType(accountType);
+		when(repository.getProductAccountById(id)).thenReturn(Flux.defer(() -> {
+			productCalls.computeIfAbsent(id, k -> new AtomicInteger()).incrementAndGet();
+			return Flux.just(account);
+		}));
+	}
+
+	private static AccountAffiliation affiliation(String idAccount) {
+		AccountAffiliation affiliation = new AccountAffiliation();
+		affiliation.setIdCustomer("cus1");
+		affiliation.setIdAccount(idAccount);
+		affiliation.setNumberOfHolder(1);
+		return affiliation;
+	}
+}
@@ -0,0 +1,189 @@
+package com.nttdata.affiliation.application;
+
+import com.nttdata.affiliation.domain.AccountAffiliation;
+import com.nttdata.affiliation.domain.BulkCreateResult;
+import com.nttdata.affiliation.domain.ImportProgress;
+import com.nttdata.affiliation.domain.bean.Account;
+import com.nttdata.affiliation.domain.bean.AccountType;
+import com.nttdata.affiliation.domain.bean.Customer;
+import com.nttdata.affiliation.domain.bean.CustomerType;
+import com.nttdata.affiliation.domain.bean.RejectionReason;
+import com.nttdata.affiliation.infraestructure.config.EligibilityProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AffiliationImportOperationsImplTest {
+
+	private AccountAffiliationRepository repository;
+	private AffiliationImportOperationsImpl importOperations;
+	private final Map<String, ImportProgress> checkpoints = new ConcurrentHashMap<>();
+	private final AtomicInteger customerCalls = new AtomicInteger();
+	private final AtomicInteger productCalls = new AtomicInteger();
+	private final List<List<AccountAffiliation>> inserts = new ArrayList<>();
+
+	@BeforeEach
+	void setUp() {
+		repository = mock(AccountAffiliationRepository.class);
+		SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+		EligibilityProperties properties = new EligibilityProperties();
+		AccountAffiliationOperations accountOperations = new AccountAffiliationOperationsImpl(
+				repository,
+				new EligibilityPolicy(properties.getAccount(), properties.getCredit()),
+				new AffiliationValidator(), meterRegistry);
+		ImportCheckpointRepository checkpointRepository = new ImportCheckpointRepository() {
+			@Override
+			public Mono<ImportProgress> find(String kind, String importId) {
+				return Mono.justOrEmpty(checkpoints.get(kind + ":" + importId));
+			}
+
+			@Override
+			public Mono<ImportProgress> save(ImportProgress progress) {
+				checkpoints.put(progress.getKind() + ":" + progress.getImportId(), progress);
+				return Mono.just(progress);
+			}
+		};
+		importOperations = new AffiliationImportOperationsImpl(accountOperations,
+				mock(CreditAffiliationOperations.class), repository,
+				mock(CreditAffiliationRepository.class), checkpointRepository,
+				meterRegistry, 3, 4);
+
+		Customer customer = new Customer();
+		customer.setCustomerType(CustomerType.EMPRESARIAL);
+		Account account = new Account();
+		account.setAccountType(AccountType.CUENTA_CORRIENTE);
+		when(repository.getCustomerById("cus1")).thenReturn(Flux.defer(() -> {
+			customerCalls.incrementAndGet();
+			return Flux.just(customer);
+		}));
+		when(repository.getProductAccountById("C1")).thenReturn(Flux.defer(() -> {
+			productCalls.incrementAndGet();
+			return Flux.just(account);
+		}));
+		when(repository.createAll(anyList())).thenAnswer(i -> {
+			List<AccountAffiliation> affiliations = i.getArgument(0);
+			inserts.add(affiliations);
+			return Flux.fromIterable(affiliations).map(AccountAffiliation::getId);
+		});
+	}
+
+	@Test
+	void chunksShareLookupsAndReportRejectedRows() {
+		StepVerifier.create(importOperations.importAccounts("imp1", Flux.just(
+						row(1), row(2),
+						new BulkCreateResult<AccountAffiliation>(3, null, RejectionReason.INVALID_ROW),
+						row(4), row(5))))
+				.expectNextMatches(p -> p.getLastLine() == 3 && p.getImported() == 2
+						&& p.getErrors().size() == 1
+						&& p.getErrors().get(0).getRejection() == RejectionReason.INVALID_ROW)
+				.expectNextMatches(p -> p.getLastLine() == 5 && p.getImported() == 4)
+				.expectNextMatches(p -> p.isCompleted() && p.getRejected() == 1)
+				.verifyComplete();
+
+		assertThat(inserts).hasSize(2);
+		assertThat(customerCalls).hasValue(2);
+		assertThat(productCalls).hasValue(2);
+	}
+
+	@Test
+	void resumeSkipsRowsUpToCheckpointWithSameIds() {
+		StepVerifier.create(importOperations.importAccounts("imp1",
+						Flux.just(row(1), row(2), row(3))))
+				.expectNextCount(2)
+				.verifyComplete();
+		String line3Id = inserts.get(0).get(2).getId();
+		ImportProgress checkpoint = checkpoints.get("account:imp1");
+		checkpoint.setCompleted(false);
+		checkpoint.setLastLine(2);
+		inserts.clear();
+
+		StepVerifier.create(importOperations.importAccounts("imp1",
+						Flux.just(row(1), row(2), row(3), row(4))))
+				.expectNextMatches(p -> p.getLastLine() == 4 && p.getSkipped() == 2)
+				.expectNextMatches(ImportProgress::isCompleted)
+				.verifyComplete();
+
+		assertThat(inserts).hasSize(1);
+		assertThat(inserts.get(0)).hasSize(2);
+		assertThat(inserts.get(0).get(0).getId()).hasSize(24).isEqualTo(line3Id);
+	}
+
+	@Test
+	void onePerTypeRejectsRepeatedRowsWithinAndAcrossChunks() {
+		Customer personal = new Customer();
+		personal.setCustomerType(CustomerType.PERSONAL);
+		Account savings = new Account();
+		savings.setAccountType(AccountType.AHORRO);
+		when(repository.getCustomerById("cus2")).thenReturn(Flux.just(personal));
+		when(repository.getProductAccountById("A1")).thenReturn(Flux.just(savings));
+		when(repository.findByIdCustomer("cus2")).thenReturn(Flux.empty());
+
+		StepVerifier.create(importOperations.importAccounts("imp2", Flux.range(1, 5)
+						.map(line -> row(line, "cus2", "A1"))))
+				.expectNextCount(2)
+				.expectNextMatches(p -> p.isCompleted() && p.getImported() == 1
+						&& p.getRejected() == 4)
+				.verifyComplete();
+
+		assertThat(inserts).hasSize(1);
+		assertThat(inserts.get(0)).hasSize(1);
+	}
+
+	@Test
+	void resumedOnePerTypeRowIsNotRejectedByItsOwnDocument() {
+		Customer personal = new Customer();
+		personal.setCustomerType(CustomerType.PERSONAL);
+		Account savings = new Account();
+		savings.setAccountType(AccountType.AHORRO);
+		when(repository.getCustomerById("cus2")).thenReturn(Flux.just(personal));
+		when(repository.getProductAccountById("A1")).thenReturn(Flux.just(savings));
+		when(repository.findByIdCustomer("cus2")).thenReturn(Flux.empty());
+		StepVerifier.create(importOperations.importAccounts("imp3",
+						Flux.just(row(1, "cus2", "A1"))))
+				.expectNextCount(2)
+				.verifyComplete();
+		AccountAffiliation written = inserts.get(0).get(0);
+		// El bloque se escribió pero el proceso terminó antes del checkpoint.
+		checkpoints.clear();
+		inserts.clear();
+		when(repository.findByIdCustomer("cus2")).thenReturn(Flux.just(written));
+
+		StepVerifier.create(importOperations.importAccounts("imp3",
+						Flux.just(row(1, "cus2", "A1"), row(2, "cus2", "A1"))))
+				.expectNextCount(1)
+				.expectNextMatches(p -> p.isCompleted() && p.getImported() == 1
+						&& p.getRejected() == 1)
+				.verifyComplete();
+
+		assertThat(inserts).hasSize(1);
+		assertThat(inserts.get(0)).extracting(AccountAffiliation::getId)
+				.containsExactly(written.getId());
+	}
+
+	private static BulkCreateResult<AccountAffiliation> row(long line) {
+		return row(line, "cus1", "C1");
+	}
+
+	private static BulkCreateResult<AccountAffiliation> row(long line, String idCustomer,
+															String idAccount) {
+		AccountAffiliation affiliation = new AccountAffiliation();
+		affiliation.setIdCustomer(idCustomer);
+		affiliation.setIdAccount(idAccount);
+		affiliation.setNumberOfHolder(1);
+		return new BulkCreateResult<>(line, affiliation, null);
+	}
+}
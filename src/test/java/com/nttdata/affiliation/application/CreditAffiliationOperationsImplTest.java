@@ -0,0 +1,92 @@
+package com.nttdata.affiliation.application;
+
+import com.nttdata.affiliation.domain.AffiliationRejectedException;
+import com.nttdata.affiliation.domain.CreditAffiliation;
+import com.nttdata.affiliation.domain.bean.Credit;
+import com.nttdata.affiliation.domain.bean.CreditType;
+import com.nttdata.affiliation.domain.bean.Customer;
+import com.nttdata.affiliation.domain.bean.CustomerType;
+import com.nttdata.affiliation.infraestructure.config.EligibilityProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CreditAffiliationOperationsImplTest {
+
+	private CreditAffiliationRepository repository;
+	private CreditAffiliationOperationsImpl operations;
+	private final AtomicInteger customerCalls = new AtomicInteger();
+	private final AtomicInteger productCalls = new AtomicInteger();
+
+	@BeforeEach
+	void setUp() {
+		repository = mock(CreditAffiliationRepository.class);
+		EligibilityProperties properties = new EligibilityProperties();
+		operations = new CreditAffiliationOperationsImpl(repository,
+				new EligibilityPolicy(properties.getAccount(), properties.getCredit()),
+				new AffiliationValidator(), new SimpleMeterRegistry());
+		when(repository.create(any())).thenAnswer(i -> {
+			CreditAffiliation saved = i.getArgument(0);
+			saved.setId("new");
+			return Mono.just(saved);
+		});
+	}
+
+	@Test
+	void enterpriseCreateCallsEachDownstreamOnce() {
+		stub(CustomerType.EMPRESARIAL, CreditType.CREDITO_EMPRESARIAL);
+
+		StepVerifier.create(operations.create(affiliation()))
+				.expectNextMatches(c -> "new".equals(c.getId()))
+				.verifyComplete();
+
+		assertThat(customerCalls).hasValue(1);
+		assertThat(productCalls).hasValue(1);
+	}
+
+	@Test
+	void rejectedCreateCallsEachDownstreamOnce() {
+		stub(CustomerType.PERSONAL, CreditType.CREDITO_EMPRESARIAL);
+
+		StepVerifier.create(operations.create(affiliation()))
+				.expectError(AffiliationRejectedException.class)
+				.verify();
+
+		assertThat(customerCalls).hasValue(1);
+		assertThat(productCalls).hasValue(1);
+		verify(repository, never()).create(any());
+	}
+
+	private void stub(CustomerType customerType, CreditType creditType) {
+		Customer customer = new Customer();
+		customer.setCustomerType(customerType);
+		Credit credit = new Credit();
+		credit.setCreditType(creditType);
+		when(repository.getCustomerById("cus1")).thenReturn(Mono.defer(() -> {
+			customerCalls.incrementAndGet();
+			return Mono.just(customer);
+		}));
+		when(repository.getProductCreditById("cr1")).thenReturn(Mono.defer(() -> {
+			productCalls.incrementAndGet();
+			return Mono.just(credit);
+		}));
+	}
+
+	private static CreditAffiliation affiliation() {
+		CreditAffiliation affiliation = new CreditAffiliation();
+		affiliation.setIdCustomer("cus1");
+		affiliation.setIdCredit("cr1");
+		return affiliation;
+	}
+}
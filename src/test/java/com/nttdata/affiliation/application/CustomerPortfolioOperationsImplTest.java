@@ -0,0 +1,96 @@
+package com.nttdata.affiliation.application;
+
+import com.nttdata.affiliation.domain.AccountAffiliation;
+import com.nttdata.affiliation.domain.CreditAffiliation;
+import com.nttdata.affiliation.domain.bean.Account;
+import com.nttdata.affiliation.domain.bean.Credit;
+import com.nttdata.affiliation.domain.bean.Customer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CustomerPortfolioOperationsImplTest {
+
+	private AccountAffiliationRepository accountRepository;
+	private CreditAffiliationRepository creditRepository;
+	private CustomerPortfolioOperationsImpl operations;
+
+	@BeforeEach
+	void setUp() {
+		accountRepository = mock(AccountAffiliationRepository.class);
+		creditRepository = mock(CreditAffiliationRepository.class);
+		operations = new CustomerPortfolioOperationsImpl(accountRepository, creditRepository);
+		Customer customer = new Customer();
+		customer.setCode("cus1");
+		when(creditRepository.getCustomerById("cus1")).thenReturn(Mono.just(customer));
+		when(accountRepository.getProductAccountById(anyString())).thenAnswer(i -> {
+			Account account = new Account();
+			account.setId(i.getArgument(0));
+			return Flux.just(account);
+		});
+		when(creditRepository.getProductCreditById(anyString())).thenAnswer(i -> {
+			Credit credit = new Credit();
+			credit.setId(i.getArgument(0));
+			return Mono.just(credit);
+		});
+	}
+
+	@Test
+	void eachDistinctProductIsResolvedOnce() {
+		when(accountRepository.findByIdCustomer("cus1")).thenReturn(Flux.just(
+				account("A1"), account("A1"), account("C1"), account(null)));
+		when(creditRepository.findByIdCustomer("cus1")).thenReturn(Flux.just(
+				credit("K1"), credit("K1")));
+
+		StepVerifier.create(operations.findByIdCustomer("cus1"))
+				.assertNext(portfolio -> {
+					assertThat(portfolio.getCustomer().getCode()).isEqualTo("cus1");
+					assertThat(portfolio.getAccounts()).hasSize(4)
+							.allMatch(a -> a.getCustomer() == portfolio.getCustomer());
+					assertThat(portfolio.getAccounts().get(1).getAccount().getId()).isEqualTo("A1");
+					assertThat(portfolio.getAccounts().get(3).getAccount()).isNull();
+					assertThat(portfolio.getCredits()).extracting(c -> c.getCredit().getId())
+							.containsExactly("K1", "K1");
+				})
+				.verifyComplete();
+
+		verify(creditRepository, times(1)).getCustomerById("cus1");
+		verify(accountRepository, times(1)).getProductAccountById("A1");
+		verify(accountRepository, times(1)).getProductAccountById("C1");
+		verify(creditRepository, times(1)).getProductCreditById("K1");
+	}
+
+	@Test
+	void customerWithoutAffiliationsIsEmpty() {
+		when(accountRepository.findByIdCustomer("cus1")).thenReturn(Flux.empty());
+		when(creditRepository.findByIdCustomer("cus1")).thenReturn(Flux.empty());
+
+		StepVerifier.create(operations.findByIdCustomer("cus1")).verifyComplete();
+
+		verify(creditRepository, never()).getCustomerById(anyString());
+	}
+
+	private static AccountAffiliation account(final String idAccount) {
+		AccountAffiliation affiliation = new AccountAffiliation();
+		affiliation.setIdCustomer("cus1");
+		affiliation.setIdAccount(idAccount);
+		return affiliation;
+	}
+
+	private static CreditAffiliation credit(final String idCredit) {
+		CreditAffiliation affiliation = new CreditAffiliation();
+		affiliation.setIdCustomer("cus1");
+		affiliation.setIdCredit(idCredit);
+		return affiliation;
+	}
+}
@@ -0,0 +1,82 @@
+package com.nttdata.affiliation.application;
+
+import com.nttdata.affiliation.domain.bean.AccountType;
+import com.nttdata.affiliation.domain.bean.CreditType;
+import com.nttdata.affiliation.domain.bean.CustomerType;
+import com.nttdata.affiliation.domain.bean.EligibilityRule;
+import com.nttdata.affiliation.infraestructure.config.EligibilityProperties;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EligibilityPolicyTest {
+
+	@Test
+	void defaultsReproduceTheOriginalRules() {
+		EligibilityPolicy policy = policy(Map.of());
+
+		for (AccountType accountType : AccountType.values()) {
+			assertThat(policy.accountRule(CustomerType.PERSONAL, accountType))
+					.isEqualTo(EligibilityRule.ONE_PER_TYPE);
+		}
+		assertThat(policy.accountRule(CustomerType.EMPRESARIAL, AccountType.CUENTA_CORRIENTE))
+				.isEqualTo(EligibilityRule.ALLOWED);
+		assertThat(policy.accountRule(CustomerType.EMPRESARIAL, AccountType.AHORRO))
+				.isEqualTo(EligibilityRule.DENIED);
+		assertThat(policy.creditRule(CustomerType.PERSONAL, CreditType.TARJETA_DE_CREDITO_PERSONAL))
+				.isEqualTo(EligibilityRule.ALLOWED);
+		assertThat(policy.creditRule(CustomerType.PERSONAL, CreditType.CREDITO_EMPRESARIAL))
+				.isEqualTo(EligibilityRule.DENIED);
+		assertThat(policy.creditRule(CustomerType.EMPRESARIAL, CreditType.CREDITO_EMPRESARIAL))
+				.isEqualTo(EligibilityRule.ALLOWED);
+	}
+
+	@Test
+	void everyCombinationHasADecision() {
+		EligibilityPolicy policy = new EligibilityPolicy(null, Map.of());
+
+		for (CustomerType customerType : CustomerType.values()) {
+			for (AccountType accountType : AccountType.values()) {
+				assertThat(policy.accountRule(customerType, accountType)).isEqualTo(EligibilityRule.DENIED);
+			}
+			for (CreditType creditType : CreditType.values()) {
+				assertThat(policy.creditRule(customerType, creditType)).isEqualTo(EligibilityRule.DENIED);
+			}
+		}
+		assertThat(policy.accountRule(null, AccountType.AHORRO)).isEqualTo(EligibilityRule.DENIED);
+		assertThat(policy.creditRule(CustomerType.PERSONAL, null)).isEqualTo(EligibilityRule.DENIED);
+	}
+
+	@Test
+	void configuredRowsEnableNewCustomerTypesAndReplaceTheDefaults() {
+		EligibilityPolicy policy = policy(Map.of(
+				"affiliation.eligibility.account.PERSONAL_VIP.AHORRO", "ALLOWED",
+				"affiliation.eligibility.account.PERSONAL.AHORRO", "ALLOWED",
+				"affiliation.eligibility.credit.EMPRESARIAL_PYME.CREDITO_EMPRESARIAL", "ONE_PER_TYPE"));
+
+		assertThat(policy.accountRule(CustomerType.PERSONAL_VIP, AccountType.AHORRO))
+				.isEqualTo(EligibilityRule.ALLOWED);
+		assertThat(policy.accountRule(CustomerType.PERSONAL_VIP, AccountType.PLAZO_FIJO))
+				.isEqualTo(EligibilityRule.DENIED);
+		assertThat(policy.accountRule(CustomerType.PERSONAL, AccountType.AHORRO))
+				.isEqualTo(EligibilityRule.ALLOWED);
+		assertThat(policy.accountRule(CustomerType.PERSONAL, AccountType.PLAZO_FIJO))
+				.isEqualTo(EligibilityRule.DENIED);
+		assertThat(policy.accountRule(CustomerType.EMPRESARIAL, AccountType.CUENTA_CORRIENTE))
+				.isEqualTo(EligibilityRule.ALLOWED);
+		assertThat(policy.creditRule(CustomerType.EMPRESARIAL_PYME, CreditType.CREDITO_EMPRESARIAL))
+				.isEqualTo(EligibilityRule.ONE_PER_TYPE);
+	}
+
+	private static EligibilityPolicy policy(final Map<String, String> source) {
+		EligibilityProperties properties = new Binder(new MapConfigurationPropertySource(source))
+				.bind("affiliation.eligibility", Bindable.ofInstance(new EligibilityProperties()))
+				.orElseGet(EligibilityProperties::new);
+		return new EligibilityPolicy(properties.getAccount(), properties.getCredit());
+	}
+}
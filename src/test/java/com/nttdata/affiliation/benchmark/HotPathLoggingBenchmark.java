@@ -0,0 +1,119 @@
+package com.nttdata.affiliation.benchmark;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.AsyncAppenderBase;
+import ch.qos.logback.core.OutputStreamAppender;
+import com.nttdata.affiliation.infraestructure.logging.LogSamplingTurboFilter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Costo del log en el camino de enriquecimiento: mensaje concatenado en
+ * INFO (antes) frente a mensaje parametrizado en DEBUG deshabilitado,
+ * parametrizado en INFO y muestreado 1/100, con appender síncrono o
+ * asíncrono. El appender escribe en un stream descartado para medir solo
+ * el costo del log en el hilo que llama.
+ *
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.includes=HotPathLoggingBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class HotPathLoggingBenchmark {
+
+	@Param({"sync", "async"})
+	public String appender;
+
+	private LoggerContext context;
+
+	private Logger logger;
+
+	private Logger sampled;
+
+	private String idCustomer = "61a5a3c6e3b1f35c2c7e1a01";
+
+	@Setup
+	public void setUp() {
+		context = new LoggerContext();
+		PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+		encoder.setContext(context);
+		encoder.setPattern("%d %5p [%t] %logger{39} : %m%n");
+		encoder.start();
+		OutputStreamAppender<ILoggingEvent> output = new OutputStreamAppender<>();
+		output.setContext(context);
+		output.setEncoder(encoder);
+		output.setOutputStream(OutputStream.nullOutputStream());
+		output.start();
+
+		Appender<ILoggingEvent> root = output;
+		if ("async".equals(appender)) {
+			AsyncAppender async = new AsyncAppender();
+			async.setContext(context);
+			async.setQueueSize(AsyncAppenderBase.DEFAULT_QUEUE_SIZE * 32);
+			async.setNeverBlock(true);
+			async.addAppender(output);
+			async.start();
+			root = async;
+		}
+		LogSamplingTurboFilter filter = new LogSamplingTurboFilter();
+		filter.setContext(context);
+		filter.setRate("bench.sampled", 100);
+		filter.start();
+		context.addTurboFilter(filter);
+
+		Logger rootLogger = context.getLogger(Logger.ROOT_LOGGER_NAME);
+		rootLogger.setLevel(Level.INFO);
+		rootLogger.addAppender(root);
+		logger = context.getLogger("bench.repository");
+		sampled = context.getLogger("bench.sampled.repository");
+	}
+
+	@TearDown
+	public void tearDown() {
+		context.stop();
+	}
+
+	@Benchmark
+	public void concatenatedInfo() {
+		logger.info("[getCustomerById] Inicio:" + idCustomer);
+	}
+
+	@Benchmark
+	public void parameterizedDebug() {
+		logger.debug("[getCustomerById] Inicio: {}", idCustomer);
+	}
+
+	@Benchmark
+	public void parameterizedInfo() {
+		logger.info("[getCustomerById] Inicio: {}", idCustomer);
+	}
+
+	@Benchmark
+	public void sampledInfo() {
+		sampled.info("[getCustomerById] Inicio: {}", idCustomer);
+	}
+}
@@ -0,0 +1,140 @@
+package com.nttdata.affiliation.benchmark;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.nttdata.affiliation.domain.AccountAffiliation;
+import com.nttdata.affiliation.domain.CreditAffiliation;
+import com.nttdata.affiliation.domain.bean.Account;
+import com.nttdata.affiliation.domain.bean.AccountType;
+import com.nttdata.affiliation.domain.bean.Credit;
+import com.nttdata.affiliation.domain.bean.CreditType;
+import com.nttdata.affiliation.domain.bean.Customer;
+import com.nttdata.affiliation.domain.bean.CustomerType;
+import com.nttdata.affiliation.domain.bean.Status;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rendimiento de la serialización de afiliaciones enriquecidas con el
+ * ObjectMapper por defecto de Spring frente al configurado en
+ * JacksonCodecConfiguration (NON_NULL + Blackbird). La mitad de las
+ * afiliaciones tienen un cliente o producto de respaldo vacío, como
+ * cuando falla un servicio externo.
+ *
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.includes=JacksonTuningBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JacksonTuningBenchmark {
+
+	@Param({"stock", "tuned"})
+	public String mapper;
+
+	private ObjectMapper objectMapper;
+
+	private List<AccountAffiliation> accounts;
+
+	private List<CreditAffiliation> credits;
+
+	@Setup
+	public void setUp() throws IOException {
+		Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json();
+		if ("tuned".equals(mapper)) {
+			builder.serializationInclusion(JsonInclude.Include.NON_NULL)
+					.modulesToInstall(new BlackbirdModule());
+		}
+		objectMapper = builder.build();
+		accounts = new ArrayList<>();
+		credits = new ArrayList<>();
+		for (int i = 0; i < 20; i++) {
+			accounts.add(account(i));
+			credits.add(credit(i));
+		}
+		System.out.printf("%n%s: cuentas %d bytes, creditos %d bytes%n", mapper,
+				objectMapper.writeValueAsBytes(accounts).length,
+				objectMapper.writeValueAsBytes(credits).length);
+	}
+
+	@Benchmark
+	public byte[] accountAffiliations() throws IOException {
+		return objectMapper.writeValueAsBytes(accounts);
+	}
+
+	@Benchmark
+	public byte[] creditAffiliations() throws IOException {
+		return objectMapper.writeValueAsBytes(credits);
+	}
+
+	private static Customer customer(int i) {
+		Customer customer = new Customer();
+		if (i % 2 == 0) {
+			customer.setCode("cus" + i);
+			customer.setCustomerType(CustomerType.PERSONAL);
+			customer.setDocumentNumber("4567" + (1000 + i));
+			customer.setName("Cliente " + i);
+			customer.setState(Status.ACTIVO);
+		}
+		return customer;
+	}
+
+	private static AccountAffiliation account(int i) {
+		Account account = new Account();
+		if (i % 2 == 1) {
+			account.setId("acc" + i);
+			account.setAccountType(AccountType.AHORRO);
+			account.setName("Cuenta de ahorro");
+			account.setCommission(0.0);
+		}
+		AccountAffiliation affiliation = new AccountAffiliation();
+		affiliation.setId("aff" + i);
+		affiliation.setIdCustomer("cus" + i);
+		affiliation.setIdAccount("acc" + i);
+		affiliation.setCustomer(customer(i));
+		affiliation.setAccount(account);
+		affiliation.setNumber("191-" + (1000000 + i));
+		affiliation.setNumberOfHolder(1);
+		affiliation.setBaseAmount(100.0 + i);
+		affiliation.setBalance(2500.75 + i);
+		affiliation.setStatus(Status.ACTIVO);
+		return affiliation;
+	}
+
+	private static CreditAffiliation credit(int i) {
+		Credit credit = new Credit();
+		if (i % 2 == 1) {
+			credit.setId("cre" + i);
+			credit.setCreditType(CreditType.CREDITO_PERSONAL);
+			credit.setMaximumNumberCredit(1);
+		}
+		CreditAffiliation affiliation = new CreditAffiliation();
+		affiliation.setId("aff" + i);
+		affiliation.setIdCustomer("cus" + i);
+		affiliation.setIdCredit("cre" + i);
+		affiliation.setCustomer(customer(i));
+		affiliation.setCredit(credit);
+		affiliation.setLoanNumber("L-" + i);
+		affiliation.setBaseAmount(500.0 + i);
+		affiliation.setBalance(500.0 + i);
+		return affiliation;
+	}
+}
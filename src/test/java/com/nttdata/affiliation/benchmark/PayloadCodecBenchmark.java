@@ -0,0 +1,113 @@
+package com.nttdata.affiliation.benchmark;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.nttdata.affiliation.domain.AccountAffiliation;
+import com.nttdata.affiliation.domain.bean.Account;
+import com.nttdata.affiliation.domain.bean.AccountType;
+import com.nttdata.affiliation.domain.bean.Customer;
+import com.nttdata.affiliation.domain.bean.CustomerType;
+import com.nttdata.affiliation.domain.bean.DocumentType;
+import com.nttdata.affiliation.domain.bean.Status;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tamaño y tiempo de codificación/decodificación de un listado de
+ * AccountAffiliation (con Customer y Account anidados) en JSON, Smile y
+ * CBOR, con la misma configuración de Jackson que usan los codecs.
+ * El tamaño de cada formato se imprime al preparar el estado.
+ *
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.includes=PayloadCodecBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PayloadCodecBenchmark {
+
+	@Param({"json", "smile", "cbor"})
+	public String format;
+
+	@Param({"1", "50"})
+	public int affiliations;
+
+	private ObjectMapper mapper;
+
+	private List<AccountAffiliation> payload;
+
+	private byte[] encoded;
+
+	@Setup
+	public void setUp() throws IOException {
+		JsonFactory factory = "smile".equals(format) ? new SmileFactory()
+				: "cbor".equals(format) ? new CBORFactory() : new JsonFactory();
+		mapper = Jackson2ObjectMapperBuilder.json().factory(factory).build();
+		payload = new ArrayList<>();
+		for (int i = 0; i < affiliations; i++) {
+			payload.add(affiliation(i));
+		}
+		encoded = mapper.writeValueAsBytes(payload);
+		System.out.printf("%n%s, %d afiliaciones: %d bytes%n", format, affiliations, encoded.length);
+	}
+
+	@Benchmark
+	public byte[] encode() throws IOException {
+		return mapper.writeValueAsBytes(payload);
+	}
+
+	@Benchmark
+	public AccountAffiliation[] decode() throws IOException {
+		return mapper.readValue(encoded, AccountAffiliation[].class);
+	}
+
+	private static AccountAffiliation affiliation(int i) {
+		Customer customer = new Customer();
+		customer.setCode("61a5a3c6e3b1f35c2c7e1a" + String.format("%02d", i % 100));
+		customer.setCustomerType(CustomerType.PERSONAL);
+		customer.setDocumentType(DocumentType.DNI);
+		customer.setDocumentNumber("4567" + (1000 + i));
+		customer.setName("Cliente " + i);
+		customer.setState(Status.ACTIVO);
+		Account account = new Account();
+		account.setId("61a5a40fe3b1f35c2c7e1b" + String.format("%02d", i % 100));
+		account.setAccountType(AccountType.AHORRO);
+		account.setName("Cuenta de ahorro");
+		account.setCommission(0.0);
+		account.setLimitMovement(10);
+		account.setMinimumDailyAverageAmount(0.0);
+		AccountAffiliation affiliation = new AccountAffiliation();
+		affiliation.setId("61a5a52ee3b1f35c2c7e1c" + String.format("%02d", i % 100));
+		affiliation.setIdCustomer(customer.getCode());
+		affiliation.setIdAccount(account.getId());
+		affiliation.setCustomer(customer);
+		affiliation.setAccount(account);
+		affiliation.setNumber("191-" + (1000000 + i));
+		affiliation.setMovementDay("15");
+		affiliation.setNumberOfHolder(1);
+		affiliation.setNumberOfSigner(0);
+		affiliation.setBaseAmount(100.0 + i);
+		affiliation.setBalance(2500.75 + i);
+		affiliation.setStatus(Status.ACTIVO);
+		return affiliation;
+	}
+}
@@ -0,0 +1,75 @@
+package com.nttdata.affiliation.infraestructure.config;
+
+import com.mongodb.ReadConcern;
+import com.mongodb.ReadPreference;
+import com.mongodb.TaggableReadPreference;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MongoReadPropertiesTest {
+
+	@Test
+	void operationsKeepTheDefaultsTheyDoNotSet() {
+		MongoReadProperties properties = bind(Map.of(
+				"affiliation.mongo-read.defaults.read-concern", "majority",
+				"affiliation.mongo-read.operations.find-all.read-preference", "secondaryPreferred",
+				"affiliation.mongo-read.operations.find-all.max-staleness", "120s"));
+
+		properties.validate();
+
+		MongoReadProperties.Settings findAll = properties.settings("find-all");
+		assertThat(findAll.toReadConcern()).isEqualTo(ReadConcern.MAJORITY);
+		assertThat(findAll.toReadPreference().getName()).isEqualTo("secondaryPreferred");
+		assertThat(((TaggableReadPreference) findAll.toReadPreference()).getMaxStaleness(TimeUnit.SECONDS))
+				.isEqualTo(120);
+		assertThat(properties.settings("find-by-id").toReadPreference()).isEqualTo(ReadPreference.primary());
+		assertThat(properties.settings("find-by-id").toReadConcern()).isEqualTo(ReadConcern.MAJORITY);
+	}
+
+	@Test
+	void maxStalenessWithPrimaryIsRejectedAtBindTime() {
+		MongoReadProperties properties = bind(Map.of(
+				"affiliation.mongo-read.operations.summarize.max-staleness", "120s"));
+
+		assertThatThrownBy(properties::validate)
+				.isInstanceOf(IllegalStateException.class)
+				.hasMessageContaining("summarize");
+	}
+
+	@Test
+	void maxStalenessBelowTheMongoMinimumIsRejected() {
+		MongoReadProperties properties = bind(Map.of(
+				"affiliation.mongo-read.defaults.read-preference", "secondary",
+				"affiliation.mongo-read.defaults.max-staleness", "30s"));
+
+		assertThatThrownBy(properties::validate)
+				.isInstanceOf(IllegalStateException.class)
+				.hasMessageContaining("90s");
+	}
+
+	@Test
+	void primaryOperationDoesNotInheritMaxStaleness() {
+		MongoReadProperties properties = bind(Map.of(
+				"affiliation.mongo-read.defaults.read-preference", "nearest",
+				"affiliation.mongo-read.defaults.max-staleness", "100s",
+				"affiliation.mongo-read.operations.find-by-id.read-preference", "primary",
+				"affiliation.mongo-read.operations.export.read-concern", "bogus"));
+
+		assertThat(properties.settings("find-by-id").toReadPreference()).isEqualTo(ReadPreference.primary());
+		assertThatThrownBy(properties::validate).hasMessageContaining("export");
+	}
+
+	private static MongoReadProperties bind(Map<String, String> values) {
+		return new Binder(new MapConfigurationPropertySource(values))
+				.bind("affiliation.mongo-read", Bindable.ofInstance(new MongoReadProperties()))
+				.get();
+	}
+}
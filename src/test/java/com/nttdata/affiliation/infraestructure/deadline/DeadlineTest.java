@@ -0,0 +1,50 @@
+package com.nttdata.affiliation.infraestructure.deadline;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DeadlineTest {
+
+	@Test
+	void remainingBudgetCancelsSlowDownstream() {
+		AtomicBoolean cancelled = new AtomicBoolean();
+
+		StepVerifier.withVirtualTime(() -> Deadline.bounded(
+						Flux.interval(Duration.ofMillis(400)).take(5)
+								.doOnCancel(() -> cancelled.set(true)))
+						.contextWrite(Deadline.with(Deadline.after(Duration.ofSeconds(1)))))
+				.expectSubscription()
+				.thenAwait(Duration.ofSeconds(1))
+				.expectNextCount(2)
+				.expectError(DeadlineExceededException.class)
+				.verify(Duration.ofSeconds(5));
+
+		assertThat(cancelled).isTrue();
+	}
+
+	@Test
+	void expiredDeadlineSkipsTheCall() {
+		AtomicBoolean subscribed = new AtomicBoolean();
+
+		StepVerifier.create(Deadline.bounded(Mono.fromCallable(() -> subscribed.getAndSet(true)))
+						.contextWrite(Deadline.with(Deadline.after(Duration.ofMillis(-1)))))
+				.expectError(DeadlineExceededException.class)
+				.verify();
+
+		assertThat(subscribed).isFalse();
+	}
+
+	@Test
+	void withoutDeadlineSourceIsUnchanged() {
+		StepVerifier.create(Deadline.bounded(Mono.just("ok")))
+				.expectNext("ok")
+				.verifyComplete();
+	}
+}
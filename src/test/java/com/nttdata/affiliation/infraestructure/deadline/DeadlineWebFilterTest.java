@@ -0,0 +1,89 @@
+package com.nttdata.affiliation.infraestructure.deadline;
+
+import com.nttdata.affiliation.infraestructure.config.DeadlineProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DeadlineWebFilterTest {
+
+	private static final long NONE = -1;
+
+	private DeadlineProperties properties;
+	private final AtomicLong remaining = new AtomicLong();
+
+	private final WebFilterChain chain = exchange -> Mono.deferContextual(context -> {
+		remaining.set(Deadline.current(context).isPresent()
+				? Deadline.remainingMillis(context) : NONE);
+		return Mono.empty();
+	});
+
+	@BeforeEach
+	void setUp() {
+		properties = new DeadlineProperties();
+		properties.setEnabled(true);
+	}
+
+	@Test
+	void disabledByDefault() {
+		DeadlineProperties defaults = new DeadlineProperties();
+
+		filter(defaults, MockServerHttpRequest.get("/affiliations/accounts/1"));
+
+		assertThat(defaults.isEnabled()).isFalse();
+		assertThat(remaining).hasValue(NONE);
+	}
+
+	@Test
+	void unlistedRoutesGetTheDefaultTimeout() {
+		filter(properties, MockServerHttpRequest.get("/affiliations/accounts/1"));
+
+		assertThat(remaining.get()).isPositive().isLessThanOrEqualTo(10_000);
+	}
+
+	@Test
+	void headerIsCappedAtTheMaximum() {
+		filter(properties, MockServerHttpRequest.get("/affiliations/accounts/1")
+				.header(properties.getHeader(), "500"));
+		assertThat(remaining.get()).isPositive().isLessThanOrEqualTo(500);
+
+		filter(properties, MockServerHttpRequest.get("/affiliations/accounts/1")
+				.header(properties.getHeader(), "600000"));
+		assertThat(remaining.get()).isGreaterThan(10_000).isLessThanOrEqualTo(60_000);
+	}
+
+	@Test
+	void streamingListingsHaveNoDeadline() {
+		filter(properties, MockServerHttpRequest.get("/affiliations/accounts"));
+		assertThat(remaining).hasValue(NONE);
+
+		filter(properties, MockServerHttpRequest.get("/affiliations/credits/customer/cus1"));
+		assertThat(remaining).hasValue(NONE);
+
+		filter(properties, MockServerHttpRequest.post("/affiliations/accounts"));
+		assertThat(remaining.get()).isPositive();
+	}
+
+	@Test
+	void routesWithoutDeadlineIgnoreTheHeader() {
+		filter(properties, MockServerHttpRequest.get("/affiliations/export/accounts")
+				.header(properties.getHeader(), "500"));
+
+		assertThat(remaining).hasValue(NONE);
+	}
+
+	private void filter(final DeadlineProperties deadlineProperties,
+						final MockServerHttpRequest.BaseBuilder<?> request) {
+		new DeadlineWebFilter(deadlineProperties)
+				.filter(MockServerWebExchange.from(request), chain)
+				.block(Duration.ofSeconds(5));
+	}
+}
@@ -0,0 +1,58 @@
+package com.nttdata.affiliation.infraestructure.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LogSamplingTurboFilterTest {
+
+	private final LoggerContext context = new LoggerContext();
+
+	private final LogSamplingTurboFilter filter = new LogSamplingTurboFilter();
+
+	private Logger logger;
+
+	@BeforeEach
+	void setUp() {
+		logger = context.getLogger("com.nttdata.affiliation.application.Sample");
+		logger.setLevel(Level.DEBUG);
+	}
+
+	@Test
+	void keepsOneOfEveryRateEventsOfThePackage() {
+		filter.setSampling("com.nttdata.affiliation.application=3");
+
+		List<FilterReply> replies = new ArrayList<>();
+		for (int i = 0; i < 6; i++) {
+			replies.add(decide(Level.INFO));
+		}
+
+		assertThat(replies).containsExactly(FilterReply.NEUTRAL,
+				FilterReply.DENY, FilterReply.DENY, FilterReply.NEUTRAL,
+				FilterReply.DENY, FilterReply.DENY);
+		assertThat(decide(Level.WARN)).isEqualTo(FilterReply.NEUTRAL);
+	}
+
+	@Test
+	void removedRateLeavesEventsUnsampled() {
+		filter.setRate("com.nttdata.affiliation", 2);
+		decide(Level.INFO);
+		filter.setRate("com.nttdata.affiliation", 1);
+
+		assertThat(decide(Level.INFO)).isEqualTo(FilterReply.NEUTRAL);
+		assertThat(decide(Level.INFO)).isEqualTo(FilterReply.NEUTRAL);
+		assertThat(filter.getRates()).isEmpty();
+	}
+
+	private FilterReply decide(final Level level) {
+		return filter.decide(null, logger, level, "event {}", null, null);
+	}
+}
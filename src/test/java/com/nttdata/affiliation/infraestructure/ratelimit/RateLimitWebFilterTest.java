@@ -0,0 +1,104 @@
+package com.nttdata.affiliation.infraestructure.ratelimit;
+
+import com.nttdata.affiliation.infraestructure.config.RateLimitProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.http.server.reactive.MockServerHttpResponse;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimitWebFilterTest {
+
+	private static final WebFilterChain CHAIN = exchange -> {
+		exchange.getResponse().setStatusCode(HttpStatus.OK);
+		return Mono.empty();
+	};
+
+	private RateLimitProperties properties;
+	private SimpleMeterRegistry meterRegistry;
+	private RateLimitWebFilter filter;
+
+	@BeforeEach
+	void setUp() {
+		properties = new RateLimitProperties();
+		properties.setEnabled(true);
+		properties.setDefaults(new RateLimitProperties.Limit(2, 0.001));
+		properties.setExpensive(new RateLimitProperties.Limit(3, 0.001));
+		properties.getKnownClients().add("a");
+		meterRegistry = new SimpleMeterRegistry();
+		filter = new RateLimitWebFilter(properties, meterRegistry);
+	}
+
+	@Test
+	void exhaustedClientGets429WithRetryAfter() {
+		assertThat(call("GET", "/affiliations/accounts/1", "a").getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(call("GET", "/affiliations/accounts/2", "a").getStatusCode()).isEqualTo(HttpStatus.OK);
+
+		MockServerHttpResponse limited = call("GET", "/affiliations/accounts/3", "a");
+		assertThat(limited.getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+		assertThat(Long.parseLong(limited.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)))
+				.isPositive();
+		assertThat(call("GET", "/affiliations/accounts/1", "b").getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(meterRegistry.get(RateLimitWebFilter.METRIC)
+				.tag("client", "a").tag("result", "limited").counter().count()).isEqualTo(1);
+	}
+
+	@Test
+	void expensiveRoutesShareOneBudgetPerClient() {
+		assertThat(call("GET", "/affiliations/accounts", "a").getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(call("GET", "/affiliations/credits", "a").getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(call("POST", "/affiliations/accounts", "a").getStatusCode()).isEqualTo(HttpStatus.OK);
+
+		assertThat(call("POST", "/affiliations/credits", "a").getStatusCode())
+				.isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+		assertThat(call("GET", "/affiliations/credits/1", "a").getStatusCode()).isEqualTo(HttpStatus.OK);
+	}
+
+	@Test
+	void refreshAppliesNewLimits() {
+		call("GET", "/affiliations/accounts/1", "a");
+		call("GET", "/affiliations/accounts/1", "a");
+		properties.setDefaults(new RateLimitProperties.Limit(5, 0.001));
+
+		filter.refresh();
+
+		assertThat(call("GET", "/affiliations/accounts/1", "a").getStatusCode()).isEqualTo(HttpStatus.OK);
+	}
+
+	@Test
+	void unknownClientsAreTaggedAsOther() {
+		call("GET", "/affiliations/accounts/1", "b");
+		call("GET", "/affiliations/accounts/1", "c");
+
+		assertThat(meterRegistry.get(RateLimitWebFilter.METRIC)
+				.tag("client", "other").tag("result", "allowed").counter().count()).isEqualTo(2);
+		assertThat(meterRegistry.find(RateLimitWebFilter.METRIC).tag("client", "b").counter()).isNull();
+	}
+
+	@Test
+	void clientsBeyondMaxBucketsShareOneBucket() {
+		properties.setMaxBuckets(1);
+		call("GET", "/affiliations/accounts/1", "a");
+
+		assertThat(call("GET", "/affiliations/accounts/1", "b").getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(call("GET", "/affiliations/accounts/1", "c").getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(call("GET", "/affiliations/accounts/1", "d").getStatusCode())
+				.isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+	}
+
+	private MockServerHttpResponse call(String method, String path, String client) {
+		MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest
+				.method(HttpMethod.valueOf(method), path)
+				.header(properties.getClientHeader(), client));
+		filter.filter(exchange, CHAIN).block();
+		return exchange.getResponse();
+	}
+}
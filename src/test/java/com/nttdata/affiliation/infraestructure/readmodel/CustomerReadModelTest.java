@@ -0,0 +1,211 @@
+package com.nttdata.affiliation.infraestructure.readmodel;
+
+import com.mongodb.MongoCommandException;
+import com.mongodb.ServerAddress;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.OperationType;
+import com.nttdata.affiliation.infraestructure.config.ReadModelProperties;
+import com.nttdata.affiliation.infraestructure.model.dao.AccountAffiliationDao;
+import org.bson.BsonDocument;
+import org.bson.BsonInt32;
+import org.bson.BsonObjectId;
+import org.bson.BsonString;
+import org.bson.BsonTimestamp;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.data.mongodb.core.ChangeStreamEvent;
+import org.springframework.data.mongodb.core.ChangeStreamOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CustomerReadModelTest {
+
+	private static final String COLLECTION = "accountAffiliation";
+	private static final ObjectId DELETED = new ObjectId();
+	private static final BsonTimestamp OPERATION_TIME = new BsonTimestamp(1700000000, 3);
+
+	private ReactiveMongoTemplate mongoTemplate;
+	private AccountAffiliationReadModel readModel;
+
+	@BeforeEach
+	void setUp() {
+		mongoTemplate = mock(ReactiveMongoTemplate.class);
+		ReadModelProperties properties = new ReadModelProperties();
+		properties.setReconnectDelay(Duration.ofMillis(10));
+		readModel = new AccountAffiliationReadModel(mongoTemplate, properties);
+		when(mongoTemplate.findAll(AccountAffiliationDao.class, COLLECTION)).thenReturn(Flux.just(
+				affiliation("a1", "cus1"), affiliation("a2", "cus1"),
+				affiliation(DELETED.toHexString(), "cus2")));
+		when(mongoTemplate.executeCommand(any(Document.class)))
+				.thenReturn(Mono.just(new Document("ok", 1.0).append("operationTime", OPERATION_TIME)));
+	}
+
+	@AfterEach
+	void tearDown() {
+		readModel.stop();
+	}
+
+	@Test
+	void bootstrapIndexesTheCollectionByCustomer() {
+		stubChangeStream(Flux.never());
+
+		assertThat(readModel.isReady()).isFalse();
+		readModel.start();
+
+		assertThat(readModel.isReady()).isTrue();
+		assertThat(readModel.findByIdCustomer("cus1").map(AccountAffiliationDao::getId).collectList().block())
+				.containsExactlyInAnyOrder("a1", "a2");
+		assertThat(readModel.findByIdCustomer("none").collectList().block()).isEmpty();
+		assertThat(readModel.customerOf("a1")).isEqualTo("cus1");
+		ChangeStreamOptions options = options(1).get(0);
+		assertThat(options.getResumeBsonTimestamp()).contains(OPERATION_TIME);
+		assertThat(options.getResumeToken()).isEmpty();
+		InOrder order = inOrder(mongoTemplate);
+		order.verify(mongoTemplate).executeCommand(any(Document.class));
+		order.verify(mongoTemplate).findAll(AccountAffiliationDao.class, COLLECTION);
+	}
+
+	@Test
+	void missingOperationTimeRetriesInsteadOfGuessingTheStart() {
+		when(mongoTemplate.executeCommand(any(Document.class))).thenReturn(
+				Mono.just(new Document("ok", 1.0)),
+				Mono.just(new Document("ok", 1.0).append("operationTime", OPERATION_TIME)));
+		stubChangeStream(Flux.never());
+
+		readModel.start();
+
+		assertThat(options(1).get(0).getResumeBsonTimestamp()).contains(OPERATION_TIME);
+		verify(mongoTemplate, times(2)).executeCommand(any(Document.class));
+		verify(mongoTemplate, times(1)).findAll(AccountAffiliationDao.class, COLLECTION);
+	}
+
+	@Test
+	void changeStreamEventsKeepTheModelCurrent() {
+		stubChangeStream(Flux.just(
+				event(OperationType.INSERT, affiliation("a3", "cus2"), "t1"),
+				event(OperationType.UPDATE, affiliation("a1", "cus2"), "t2"),
+				deleted(DELETED, "t3")), Flux.never());
+
+		readModel.start();
+
+		assertThat(readModel.findByIdCustomer("cus1").map(AccountAffiliationDao::getId).collectList().block())
+				.containsExactly("a2");
+		assertThat(readModel.findByIdCustomer("cus2").map(AccountAffiliationDao::getId).collectList().block())
+				.containsExactlyInAnyOrder("a1", "a3");
+		assertThat(readModel.customerOf("a1")).isEqualTo("cus2");
+		assertThat(readModel.customerOf(DELETED.toHexString())).isNull();
+	}
+
+	@Test
+	void disconnectResumesAfterTheLastTokenWithoutReloading() {
+		stubChangeStream(
+				Flux.concat(Flux.just(event(OperationType.INSERT, affiliation("a3", "cus2"), "t1")),
+						Flux.error(new MongoCommandException(error(6), new ServerAddress()))),
+				Flux.never());
+
+		readModel.start();
+
+		List<ChangeStreamOptions> options = options(2);
+		assertThat(options.get(1).isResumeAfter()).isTrue();
+		assertThat(options.get(1).getResumeToken()).contains(token("t1"));
+		verify(mongoTemplate, times(1)).findAll(AccountAffiliationDao.class, COLLECTION);
+		assertThat(readModel.customerOf("a3")).isEqualTo("cus2");
+	}
+
+	@Test
+	void lostHistoryReloadsTheCollection() {
+		stubChangeStream(
+				Flux.concat(Flux.just(event(OperationType.INSERT, affiliation("a3", "cus2"), "t1")),
+						Flux.error(new MongoCommandException(error(286), new ServerAddress()))),
+				Flux.never());
+
+		readModel.start();
+
+		List<ChangeStreamOptions> options = options(2);
+		assertThat(options.get(1).getResumeToken()).isEmpty();
+		assertThat(options.get(1).getResumeBsonTimestamp()).contains(OPERATION_TIME);
+		verify(mongoTemplate, times(2)).findAll(AccountAffiliationDao.class, COLLECTION);
+		assertThat(readModel.customerOf("a3")).isNull();
+		assertThat(readModel.isReady()).isTrue();
+	}
+
+	@Test
+	void invalidatedStreamReloadsTheCollection() {
+		stubChangeStream(Flux.just(event(OperationType.DROP, null, "t1")), Flux.never());
+
+		readModel.start();
+
+		assertThat(options(2).get(1).getResumeToken()).isEmpty();
+		verify(mongoTemplate, times(2)).findAll(AccountAffiliationDao.class, COLLECTION);
+	}
+
+	@SafeVarargs
+	private void stubChangeStream(final Flux<ChangeStreamEvent<AccountAffiliationDao>> first,
+								  final Flux<ChangeStreamEvent<AccountAffiliationDao>>... next) {
+		when(mongoTemplate.changeStream(eq(COLLECTION), any(ChangeStreamOptions.class),
+				eq(AccountAffiliationDao.class))).thenReturn(first, next);
+	}
+
+	private List<ChangeStreamOptions> options(final int calls) {
+		ArgumentCaptor<ChangeStreamOptions> options = ArgumentCaptor.forClass(ChangeStreamOptions.class);
+		verify(mongoTemplate, timeout(5000).times(calls)).changeStream(eq(COLLECTION),
+				options.capture(), eq(AccountAffiliationDao.class));
+		return options.getAllValues();
+	}
+
+	@SuppressWarnings("unchecked")
+	private static ChangeStreamEvent<AccountAffiliationDao> event(final OperationType operationType,
+																  final AccountAffiliationDao body,
+																  final String token) {
+		ChangeStreamEvent<AccountAffiliationDao> event = mock(ChangeStreamEvent.class);
+		when(event.getOperationType()).thenReturn(operationType);
+		when(event.getBody()).thenReturn(body);
+		when(event.getResumeToken()).thenReturn(token(token));
+		return event;
+	}
+
+	private static ChangeStreamEvent<AccountAffiliationDao> deleted(final ObjectId id, final String token) {
+		ChangeStreamEvent<AccountAffiliationDao> event = event(OperationType.DELETE, null, token);
+		when(event.getRaw()).thenReturn(new ChangeStreamDocument<Document>(OperationType.DELETE,
+				token(token).asDocument(), null, null, null,
+				new BsonDocument("_id", new BsonObjectId(id)), null, null, null, null));
+		return event;
+	}
+
+	private static BsonValue token(final String value) {
+		return new BsonDocument("_data", new BsonString(value));
+	}
+
+	private static BsonDocument error(final int code) {
+		return new BsonDocument("ok", new BsonInt32(0))
+				.append("code", new BsonInt32(code))
+				.append("errmsg", new BsonString("change stream error"));
+	}
+
+	private static AccountAffiliationDao affiliation(final String id, final String idCustomer) {
+		AccountAffiliationDao affiliation = new AccountAffiliationDao();
+		affiliation.setId(id);
+		affiliation.setIdCustomer(idCustomer);
+		return affiliation;
+	}
+}
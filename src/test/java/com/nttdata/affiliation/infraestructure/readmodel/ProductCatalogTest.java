@@ -0,0 +1,94 @@
+package com.nttdata.affiliation.infraestructure.readmodel;
+
+import com.nttdata.affiliation.domain.bean.Account;
+import com.nttdata.affiliation.domain.bean.AccountType;
+import com.nttdata.affiliation.domain.bean.Credit;
+import com.nttdata.affiliation.infraestructure.config.CatalogProperties;
+import com.nttdata.affiliation.infraestructure.config.CodecProperties;
+import com.nttdata.affiliation.infraestructure.config.ResilienceProperties;
+import com.nttdata.affiliation.infraestructure.resilience.DownstreamResilience;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductCatalogTest {
+
+	private final Map<String, String> responses = new ConcurrentHashMap<>();
+	private SimpleMeterRegistry meterRegistry;
+	private ProductCatalog catalog;
+
+	@BeforeEach
+	void setUp() {
+		responses.put("/products/account", "[{\"id\":\"acc1\",\"accountType\":\"AHORRO\",\"limitMovement\":10},"
+				+ "{\"id\":\"empty\"}]");
+		responses.put("/products/credit", "[{\"id\":\"cre1\",\"creditType\":\"CREDITO_PERSONAL\"}]");
+		WebClient.Builder webClient = WebClient.builder().exchangeFunction(request -> {
+			String body = responses.get(request.url().getPath());
+			return Mono.just(body == null
+					? ClientResponse.create(HttpStatus.SERVICE_UNAVAILABLE).build()
+					: ClientResponse.create(HttpStatus.OK)
+							.header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+							.body(body)
+							.build());
+		});
+		meterRegistry = new SimpleMeterRegistry();
+		catalog = new ProductCatalog(webClient, new CodecProperties(),
+				new DownstreamResilience(CircuitBreakerRegistry.ofDefaults(), new ResilienceProperties()),
+				new CatalogProperties(), meterRegistry);
+		catalog.refresh().block();
+	}
+
+	@Test
+	void lookupsAreServedFromTheLoadedCatalog() {
+		assertThat(catalog.account("acc1")).get()
+				.extracting(Account::getAccountType).isEqualTo(AccountType.AHORRO);
+		assertThat(catalog.credit("cre1")).isPresent();
+		assertThat(catalog.account("empty")).isEmpty();
+		assertThat(catalog.account(null)).isEmpty();
+
+		assertThat(meterRegistry.get(ProductCatalog.METRIC).tag("product", "account")
+				.tag("result", "hit").counter().count()).isEqualTo(1);
+		assertThat(meterRegistry.get(ProductCatalog.METRIC).tag("product", "account")
+				.tag("result", "miss").counter().count()).isEqualTo(2);
+	}
+
+	@Test
+	void callersGetCopiesOfTheCatalogEntries() {
+		Account first = catalog.account("acc1").orElseThrow();
+		first.setLimitMovement(0);
+		first.setAccountType(AccountType.CUENTA_CORRIENTE);
+
+		Account second = catalog.account("acc1").orElseThrow();
+		assertThat(second).isNotSameAs(first);
+		assertThat(second.getLimitMovement()).isEqualTo(10);
+		assertThat(second.getAccountType()).isEqualTo(AccountType.AHORRO);
+
+		Credit fetched = new Credit();
+		fetched.setId("cre2");
+		fetched.setCreditType(catalog.credit("cre1").orElseThrow().getCreditType());
+		catalog.put(fetched);
+		fetched.setMaximumNumberCredit(99);
+		assertThat(catalog.credit("cre2").orElseThrow().getMaximumNumberCredit()).isZero();
+	}
+
+	@Test
+	void failedReloadKeepsThePreviousCatalog() {
+		responses.remove("/products/account");
+
+		catalog.refresh().block();
+
+		assertThat(catalog.account("acc1")).isPresent();
+	}
+}
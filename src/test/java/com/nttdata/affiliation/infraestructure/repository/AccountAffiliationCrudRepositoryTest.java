@@ -0,0 +1,95 @@
+package com.nttdata.affiliation.infraestructure.repository;
+
+import com.nttdata.affiliation.domain.AccountAffiliation;
+import com.nttdata.affiliation.infraestructure.config.ArchivalProperties;
+import com.nttdata.affiliation.infraestructure.config.CodecProperties;
+import com.nttdata.affiliation.infraestructure.model.dao.AccountAffiliationDao;
+import com.nttdata.affiliation.infraestructure.readmodel.AccountAffiliationReadModel;
+import com.nttdata.affiliation.infraestructure.resilience.DownstreamResilience;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AccountAffiliationCrudRepositoryTest {
+
+	private IAccountAffiliationCrudRepository crudRepository;
+	private AccountAffiliationReadModel readModel;
+	private MongoReadRouter readRouter;
+	private AccountAffiliationCrudRepository repository;
+
+	@BeforeEach
+	@SuppressWarnings("unchecked")
+	void setUp() {
+		crudRepository = mock(IAccountAffiliationCrudRepository.class);
+		readModel = mock(AccountAffiliationReadModel.class);
+		readRouter = mock(MongoReadRouter.class);
+		DownstreamResilience resilience = mock(DownstreamResilience.class);
+		when(resilience.run(anyString(), any(Flux.class), any())).thenReturn(Flux.empty());
+		BalanceWriteBehindBuffer writeBehind = mock(BalanceWriteBehindBuffer.class);
+		when(writeBehind.overlay(any(AccountAffiliationDao.class))).thenAnswer(invocation -> {
+			AccountAffiliationDao dao = invocation.getArgument(0);
+			if ("a1".equals(dao.getId())) {
+				dao.setBalance(10.0);
+			}
+			return dao;
+		});
+		repository = new AccountAffiliationCrudRepository(resilience, WebClient.builder(),
+				new CodecProperties(), crudRepository, provider(readModel),
+				provider(null), readRouter, mock(ShardKeyResolver.class),
+				provider(writeBehind), new ArchivalProperties());
+	}
+
+	@Test
+	void customerListingFromMongoShowsUnwrittenBalances() {
+		when(crudRepository.findByIdCustomer("cus1")).thenReturn(Flux.just(dao("a1"), dao("a2")));
+
+		assertThat(repository.findByIdCustomer("cus1").map(AccountAffiliation::getBalance)
+				.collectList().block()).containsExactly(10.0, 1.0);
+	}
+
+	@Test
+	void customerListingFromReadModelShowsUnwrittenBalancesWithoutChangingTheModel() {
+		AccountAffiliationDao cached = dao("a1");
+		when(readModel.isReady()).thenReturn(true);
+		when(readModel.findByIdCustomer("cus1")).thenReturn(Flux.just(cached));
+
+		assertThat(repository.findByIdCustomer("cus1").map(AccountAffiliation::getBalance)
+				.collectList().block()).containsExactly(10.0);
+		assertThat(cached.getBalance()).isEqualTo(1.0);
+	}
+
+	@Test
+	void fullListingShowsUnwrittenBalances() {
+		when(readRouter.find(eq(MongoReadRouter.FIND_ALL), any(Query.class),
+				eq(AccountAffiliationDao.class), eq(AccountAffiliationDao.class)))
+				.thenReturn(Flux.just(dao("a1"), dao("a2")));
+
+		assertThat(repository.findAll().map(AccountAffiliation::getBalance)
+				.collectList().block()).containsExactly(10.0, 1.0);
+	}
+
+	private static AccountAffiliationDao dao(final String id) {
+		AccountAffiliationDao dao = new AccountAffiliationDao();
+		dao.setId(id);
+		dao.setIdCustomer("cus1");
+		dao.setBalance(1.0);
+		return dao;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> ObjectProvider<T> provider(final T bean) {
+		ObjectProvider<T> provider = mock(ObjectProvider.class);
+		when(provider.getIfAvailable()).thenReturn(bean);
+		return provider;
+	}
+}
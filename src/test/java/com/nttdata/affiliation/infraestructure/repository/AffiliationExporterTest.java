@@ -0,0 +1,82 @@
+package com.nttdata.affiliation.infraestructure.repository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nttdata.affiliation.domain.bean.ExportFormat;
+import com.nttdata.affiliation.infraestructure.config.ExportProperties;
+import com.nttdata.affiliation.infraestructure.model.dao.AccountAffiliationDao;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import reactor.core.publisher.Flux;
+
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AffiliationExporterTest {
+
+	private static final ObjectId FIRST = new ObjectId("0000000000000000000000a1");
+
+	private MongoReadRouter readRouter;
+	private AffiliationExporter exporter;
+
+	@BeforeEach
+	void setUp() {
+		ReactiveMongoTemplate mongoTemplate = mock(ReactiveMongoTemplate.class);
+		when(mongoTemplate.getCollectionName(AccountAffiliationDao.class)).thenReturn("accountAffiliation");
+		readRouter = mock(MongoReadRouter.class);
+		when(readRouter.documents(eq(MongoReadRouter.EXPORT), eq("accountAffiliation"),
+				any(), any(), anyInt())).thenReturn(Flux.just(
+						new Document("_id", FIRST).append("idCustomer", "cus1")
+								.append("number", "191,\"A\"\nB").append("numberOfHolder", 1),
+						new Document("_id", "plain").append("idCustomer", "cus2")));
+		ExportProperties properties = new ExportProperties();
+		properties.setChunkRows(2);
+		exporter = new AffiliationExporter(mongoTemplate, readRouter, new ObjectMapper(), properties);
+	}
+
+	@Test
+	void csvQuotesValuesWithSeparatorsQuotesAndNewlines() {
+		String csv = text(exporter.exportAccounts(ExportFormat.CSV, null));
+
+		assertThat(csv).startsWith(String.join(",", AffiliationExporter.ACCOUNT_COLUMNS) + "\n");
+		assertThat(csv).contains("0000000000000000000000a1,cus1,,\"191,\"\"A\"\"\nB\",,1,,,,,\n");
+		assertThat(csv).endsWith("plain,cus2,,,,,,,,,\n");
+		assertThat(filter().toBsonDocument()).isEqualTo(new BsonDocument());
+	}
+
+	@Test
+	void resumedExportStartsAfterTheIdWithoutHeader() {
+		String ndjson = text(exporter.exportAccounts(ExportFormat.NDJSON, FIRST.toHexString()));
+		assertThat(ndjson.split("\n")).hasSize(2);
+		assertThat(filter().toBsonDocument().toJson()).contains("$gt").contains(FIRST.toHexString());
+
+		String csv = text(exporter.exportAccounts(ExportFormat.CSV, "plain"));
+		assertThat(csv).doesNotStartWith("id,");
+	}
+
+	private Bson filter() {
+		ArgumentCaptor<Bson> filter = ArgumentCaptor.forClass(Bson.class);
+		verify(readRouter).documents(eq(MongoReadRouter.EXPORT), eq("accountAffiliation"),
+				filter.capture(), any(), anyInt());
+		return filter.getValue();
+	}
+
+	private static String text(Flux<byte[]> chunks) {
+		return chunks.map(chunk -> new String(chunk, StandardCharsets.UTF_8))
+				.collect(Collectors.joining())
+				.block();
+	}
+}
@@ -0,0 +1,73 @@
+package com.nttdata.affiliation.infraestructure.repository;
+
+import com.nttdata.affiliation.domain.AffiliationSummary;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class AffiliationSummariesTest {
+
+	@Test
+	void productsOfTheSameTypeAreFoldedInFirstSeenOrder() {
+		StepVerifier.create(AffiliationSummaries.foldByKey(Flux.just(
+						summary("AHORRO", 2, 100.0, 10.0),
+						summary("CUENTA_CORRIENTE", 1, 50.0, null),
+						summary("AHORRO", 6, 300.0, 30.0))))
+				.assertNext(ahorro -> {
+					assertThat(ahorro.getKey()).isEqualTo("AHORRO");
+					assertThat(ahorro.getCount()).isEqualTo(8);
+					assertThat(ahorro.getTotalBalance()).isEqualTo(400.0);
+					assertThat(ahorro.getAverageBaseAmount()).isCloseTo(25.0, within(1e-9));
+				})
+				.assertNext(current -> {
+					assertThat(current.getKey()).isEqualTo("CUENTA_CORRIENTE");
+					assertThat(current.getCount()).isEqualTo(1);
+				})
+				.verifyComplete();
+	}
+
+	@Test
+	void missingAmountsDoNotHideTheOthers() {
+		StepVerifier.create(AffiliationSummaries.foldByKey(Flux.just(
+						summary("CREDITO_PERSONAL", 1, null, null),
+						summary("CREDITO_PERSONAL", 3, 90.0, 15.0),
+						summary("CREDITO_PERSONAL", 2, null, null))))
+				.assertNext(credit -> {
+					assertThat(credit.getCount()).isEqualTo(6);
+					assertThat(credit.getTotalBalance()).isEqualTo(90.0);
+					assertThat(credit.getAverageBaseAmount()).isEqualTo(15.0);
+				})
+				.verifyComplete();
+	}
+
+	@Test
+	void productsWithoutTypeShareOneGroup() {
+		StepVerifier.create(AffiliationSummaries.foldByKey(Flux.just(
+						summary(null, 1, 10.0, null),
+						summary(null, 2, 20.0, null))))
+				.assertNext(unknown -> {
+					assertThat(unknown.getKey()).isNull();
+					assertThat(unknown.getCount()).isEqualTo(3);
+					assertThat(unknown.getTotalBalance()).isEqualTo(30.0);
+				})
+				.verifyComplete();
+	}
+
+	@Test
+	void emptyInputGivesNoGroups() {
+		StepVerifier.create(AffiliationSummaries.foldByKey(Flux.empty())).verifyComplete();
+	}
+
+	private static AffiliationSummary summary(final String key, final long count,
+											  final Double totalBalance, final Double averageBaseAmount) {
+		AffiliationSummary summary = new AffiliationSummary();
+		summary.setKey(key);
+		summary.setCount(count);
+		summary.setTotalBalance(totalBalance);
+		summary.setAverageBaseAmount(averageBaseAmount);
+		return summary;
+	}
+}
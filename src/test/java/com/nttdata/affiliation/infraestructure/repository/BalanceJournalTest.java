@@ -0,0 +1,59 @@
+package com.nttdata.affiliation.infraestructure.repository;
+
+import com.nttdata.affiliation.domain.BalanceUpdate;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BalanceJournalTest {
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void recoversCoalescedUpdatesFromSealedAndActiveJournals() throws Exception {
+		BalanceJournal journal = new BalanceJournal(directory, false);
+		journal.append("a1", new BalanceUpdate(10.0, "01", "cus1", false));
+		journal.append("a2", new BalanceUpdate(5.0, null, null, false));
+		journal.seal();
+		journal.append("a1", new BalanceUpdate(12.5, null, null, false));
+		journal.discard("a2");
+		journal.close();
+
+		BalanceJournal reopened = new BalanceJournal(directory, false);
+		Map<String, BalanceUpdate> recovered = reopened.recover();
+
+		assertThat(recovered).containsOnlyKeys("a1");
+		assertThat(recovered.get("a1").getBalance()).isEqualTo(12.5);
+		assertThat(recovered.get("a1").getMovementDay()).isEqualTo("01");
+		assertThat(recovered.get("a1").getIdCustomer()).isEqualTo("cus1");
+		try (var files = Files.list(directory)) {
+			assertThat(files).hasSize(1);
+		}
+
+		reopened.close();
+		assertThat(new BalanceJournal(directory, false).recover())
+				.isEqualTo(recovered);
+	}
+
+	@Test
+	void ignoresTruncatedLastLine() throws Exception {
+		BalanceJournal journal = new BalanceJournal(directory, false);
+		journal.append("a1", new BalanceUpdate(10.0, null, null, false));
+		journal.close();
+		Files.write(directory.resolve("balance.journal"),
+				"S\ta1\t1".getBytes(StandardCharsets.UTF_8),
+				StandardOpenOption.APPEND);
+
+		Map<String, BalanceUpdate> recovered = new BalanceJournal(directory, false).recover();
+
+		assertThat(recovered.get("a1").getBalance()).isEqualTo(10.0);
+	}
+}
@@ -0,0 +1,182 @@
+package com.nttdata.affiliation.infraestructure.repository;
+
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.WriteModel;
+import com.mongodb.reactivestreams.client.MongoCollection;
+import com.nttdata.affiliation.domain.BalanceUpdate;
+import com.nttdata.affiliation.infraestructure.config.WriteBehindProperties;
+import com.nttdata.affiliation.infraestructure.model.dao.AccountAffiliationDao;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BalanceWriteBehindBufferTest {
+
+	@TempDir
+	Path directory;
+
+	private final List<List<? extends WriteModel<Document>>> writes = new CopyOnWriteArrayList<>();
+	private MongoCollection<Document> collection;
+	private ReactiveMongoTemplate mongoTemplate;
+	private WriteBehindProperties properties;
+	private BalanceWriteBehindBuffer buffer;
+
+	@BeforeEach
+	@SuppressWarnings("unchecked")
+	void setUp() throws Exception {
+		collection = mock(MongoCollection.class);
+		mongoTemplate = mock(ReactiveMongoTemplate.class);
+		when(mongoTemplate.getCollectionName(AccountAffiliationDao.class)).thenReturn("accountAffiliation");
+		when(mongoTemplate.getCollection("accountAffiliation")).thenReturn(Mono.just(collection));
+		succeed();
+		properties = new WriteBehindProperties();
+		properties.setEnabled(true);
+		properties.setFlushInterval(Duration.ofHours(1));
+		properties.setJournalDirectory(directory);
+		properties.setShutdownTimeout(Duration.ofMillis(500));
+		buffer = newBuffer();
+	}
+
+	@AfterEach
+	void tearDown() {
+		buffer.stop();
+	}
+
+	@Test
+	void coalescesUpdatesOfOneAffiliationIntoOneWrite() {
+		StepVerifier.create(buffer.submit("a1", new BalanceUpdate(10.0, null, "cus1", false)))
+				.assertNext(update -> assertThat(update.isPending()).isTrue())
+				.verifyComplete();
+		buffer.submit("a1", new BalanceUpdate(null, "05", null, false)).block();
+		buffer.submit("a2", new BalanceUpdate(5.0, null, null, false)).block();
+
+		buffer.flush().block();
+
+		assertThat(writes).hasSize(1);
+		assertThat(writes.get(0)).hasSize(2);
+		String a1 = writes.get(0).stream()
+				.map(model -> ((UpdateOneModel<Document>) model).getUpdate().toString())
+				.filter(update -> update.contains("10.0"))
+				.findFirst().orElseThrow();
+		assertThat(a1).contains("balance").contains("movementDay").contains("05");
+		assertThat(buffer.flush().block()).isNull();
+		assertThat(writes).hasSize(1);
+	}
+
+	@Test
+	void overlaysUnwrittenUpdatesOnReads() {
+		buffer.submit("a1", new BalanceUpdate(10.0, null, null, false)).block();
+		AccountAffiliationDao dao = new AccountAffiliationDao();
+		dao.setId("a1");
+		dao.setBalance(1.0);
+		dao.setMovementDay("01");
+
+		buffer.overlay(dao);
+
+		assertThat(dao.getBalance()).isEqualTo(10.0);
+		assertThat(dao.getMovementDay()).isEqualTo("01");
+	}
+
+	@Test
+	void failedWriteIsRestoredAndRecoveredAfterRestart() throws Exception {
+		when(collection.bulkWrite(anyList(), any(BulkWriteOptions.class)))
+				.thenReturn(Mono.error(new IllegalStateException("down")));
+		buffer.submit("a1", new BalanceUpdate(10.0, null, null, false)).block();
+
+		buffer.flush().block();
+		buffer.submit("a1", new BalanceUpdate(null, "07", null, false)).block();
+
+		AccountAffiliationDao dao = new AccountAffiliationDao();
+		dao.setId("a1");
+		assertThat(buffer.overlay(dao).getBalance()).isEqualTo(10.0);
+		buffer.stop();
+
+		succeed();
+		buffer = newBuffer();
+		buffer.start();
+		buffer.flush().block();
+		assertThat(writes).hasSize(1);
+		assertThat(writes.get(0).get(0).toString()).contains("10.0").contains("07");
+	}
+
+	@Test
+	void discardedUpdatesAreNeitherWrittenNorRecovered() throws Exception {
+		buffer.submit("a1", new BalanceUpdate(10.0, null, null, false)).block();
+
+		buffer.discard("a1").block();
+		buffer.flush().block();
+
+		assertThat(writes).isEmpty();
+		buffer.stop();
+		buffer = newBuffer();
+		buffer.start();
+		AccountAffiliationDao dao = new AccountAffiliationDao();
+		dao.setId("a1");
+		assertThat(buffer.overlay(dao).getBalance()).isNull();
+	}
+
+	@Test
+	void replaceDuringFlushWaitsForTheWriteInProgress() throws Exception {
+		Sinks.One<BulkWriteResult> write = Sinks.one();
+		AtomicBoolean written = new AtomicBoolean();
+		when(collection.bulkWrite(anyList(), any(BulkWriteOptions.class))).thenAnswer(invocation -> {
+			writes.add(invocation.getArgument(0));
+			return write.asMono().doOnNext(result -> written.set(true));
+		});
+		buffer.submit("a1", new BalanceUpdate(10.0, null, null, false)).block();
+		buffer.flush().subscribe();
+		while (writes.isEmpty()) {
+			Thread.sleep(5);
+		}
+
+		Mono<Boolean> discard = buffer.discard("a1").then(Mono.fromCallable(written::get));
+		StepVerifier.create(discard)
+				.then(() -> Schedulers.parallel().schedule(
+						() -> write.tryEmitValue(mock(BulkWriteResult.class)), 100,
+						TimeUnit.MILLISECONDS))
+				.expectNext(true)
+				.verifyComplete();
+
+		buffer.stop();
+		succeed();
+		buffer = newBuffer();
+		buffer.start();
+		buffer.flush().block();
+		assertThat(writes).hasSize(1);
+	}
+
+	private void succeed() {
+		when(collection.bulkWrite(anyList(), any(BulkWriteOptions.class))).thenAnswer(invocation -> {
+			writes.add(invocation.getArgument(0));
+			return Mono.just(mock(BulkWriteResult.class));
+		});
+	}
+
+	private BalanceWriteBehindBuffer newBuffer() throws Exception {
+		return new BalanceWriteBehindBuffer(mongoTemplate, properties,
+				new SimpleMeterRegistry(), Schedulers.boundedElastic());
+	}
+}
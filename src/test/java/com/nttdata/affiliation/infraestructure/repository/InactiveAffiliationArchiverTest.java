@@ -0,0 +1,144 @@
+package com.nttdata.affiliation.infraestructure.repository;
+
+import com.mongodb.MongoException;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.result.DeleteResult;
+import com.mongodb.reactivestreams.client.MongoCollection;
+import com.nttdata.affiliation.infraestructure.config.ArchivalProperties;
+import com.nttdata.affiliation.infraestructure.model.dao.AccountAffiliationDao;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import reactor.test.publisher.PublisherProbe;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class InactiveAffiliationArchiverTest {
+
+	private static final String HOT = "accountAffiliation";
+	private static final String ARCHIVE = "accountAffiliationArchive";
+
+	private ReactiveMongoTemplate mongoTemplate;
+	private MongoCollection<Document> archive;
+	private SimpleMeterRegistry meterRegistry;
+	private InactiveAffiliationArchiver archiver;
+
+	@BeforeEach
+	@SuppressWarnings("unchecked")
+	void setUp() {
+		mongoTemplate = mock(ReactiveMongoTemplate.class);
+		archive = mock(MongoCollection.class);
+		when(mongoTemplate.getCollectionName(AccountAffiliationDao.class)).thenReturn(HOT);
+		when(mongoTemplate.getCollection(ARCHIVE)).thenReturn(Mono.just(archive));
+		when(archive.bulkWrite(anyList(), any(BulkWriteOptions.class)))
+				.thenReturn(Mono.just(BulkWriteResult.unacknowledged()));
+		ArchivalProperties properties = new ArchivalProperties();
+		properties.setBatchSize(10);
+		properties.setPause(Duration.ZERO);
+		meterRegistry = new SimpleMeterRegistry();
+		archiver = new InactiveAffiliationArchiver(mongoTemplate, properties, meterRegistry);
+	}
+
+	@Test
+	void copiesThenDeletesEligibleAffiliations() {
+		when(mongoTemplate.find(any(Query.class), eq(Document.class), eq(HOT)))
+				.thenReturn(Flux.just(document("a"), document("b")));
+		when(mongoTemplate.remove(any(Query.class), eq(HOT)))
+				.thenReturn(Mono.just(DeleteResult.acknowledged(2)));
+
+		StepVerifier.create(archiver.archive()).expectNext(2L).verifyComplete();
+
+		verify(archive).bulkWrite(anyList(), any(BulkWriteOptions.class));
+		verify(mongoTemplate, never()).remove(any(Query.class), eq(ARCHIVE));
+		assertThat(archived()).isEqualTo(2);
+	}
+
+	@Test
+	void reactivatedAffiliationsAreRemovedFromTheArchive() {
+		when(mongoTemplate.find(any(Query.class), eq(Document.class), eq(HOT)))
+				.thenReturn(Flux.just(document("a"), document("b"), document("c")))
+				.thenReturn(Flux.just(document("b")));
+		when(mongoTemplate.remove(any(Query.class), eq(HOT)))
+				.thenReturn(Mono.just(DeleteResult.acknowledged(2)));
+		when(mongoTemplate.remove(any(Query.class), eq(ARCHIVE)))
+				.thenReturn(Mono.just(DeleteResult.acknowledged(1)));
+
+		StepVerifier.create(archiver.archive()).expectNext(2L).verifyComplete();
+
+		ArgumentCaptor<Query> rollback = ArgumentCaptor.forClass(Query.class);
+		verify(mongoTemplate).remove(rollback.capture(), eq(ARCHIVE));
+		assertThat(rollback.getValue().getQueryObject())
+				.isEqualTo(new Document("_id", new Document("$in", List.of("b"))));
+		assertThat(archived()).isEqualTo(2);
+	}
+
+	@Test
+	void failedCopyDeletesNothingAndAllowsTheNextRun() {
+		when(mongoTemplate.find(any(Query.class), eq(Document.class), eq(HOT)))
+				.thenReturn(Flux.just(document("a")));
+		when(archive.bulkWrite(anyList(), any(BulkWriteOptions.class)))
+				.thenReturn(Mono.error(new MongoException("archive down")))
+				.thenReturn(Mono.just(BulkWriteResult.unacknowledged()));
+		PublisherProbe<DeleteResult> skipped = PublisherProbe.of(Mono.just(DeleteResult.acknowledged(1)));
+		PublisherProbe<DeleteResult> deleted = PublisherProbe.of(Mono.just(DeleteResult.acknowledged(1)));
+		when(mongoTemplate.remove(any(Query.class), eq(HOT)))
+				.thenReturn(skipped.mono())
+				.thenReturn(deleted.mono());
+
+		StepVerifier.create(archiver.archive()).verifyError(MongoException.class);
+		skipped.assertWasNotSubscribed();
+
+		StepVerifier.create(archiver.archive()).expectNext(1L).verifyComplete();
+		deleted.assertWasSubscribed();
+	}
+
+	@Test
+	void failedRollbackPropagatesTheError() {
+		when(mongoTemplate.find(any(Query.class), eq(Document.class), eq(HOT)))
+				.thenReturn(Flux.just(document("a"), document("b")))
+				.thenReturn(Flux.just(document("b")));
+		when(mongoTemplate.remove(any(Query.class), eq(HOT)))
+				.thenReturn(Mono.just(DeleteResult.acknowledged(1)));
+		when(mongoTemplate.remove(any(Query.class), eq(ARCHIVE)))
+				.thenReturn(Mono.error(new MongoException("archive down")));
+
+		StepVerifier.create(archiver.archive()).verifyError(MongoException.class);
+		assertThat(archived()).isEqualTo(1);
+	}
+
+	@Test
+	void concurrentRunIsSkipped() {
+		when(mongoTemplate.find(any(Query.class), eq(Document.class), eq(HOT)))
+				.thenReturn(Flux.never());
+
+		archiver.archive().subscribe();
+
+		StepVerifier.create(archiver.archive()).expectNext(0L).verifyComplete();
+	}
+
+	private double archived() {
+		return meterRegistry.get(InactiveAffiliationArchiver.METRIC).counter().count();
+	}
+
+	private static Document document(final String id) {
+		return new Document("_id", id).append("status", "INACTIVO");
+	}
+}
@@ -0,0 +1,86 @@
+package com.nttdata.affiliation.infraestructure.repository;
+
+import com.nttdata.affiliation.infraestructure.readmodel.AccountAffiliationReadModel;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.test.StepVerifier;
+import reactor.util.context.Context;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ShardKeyResolverTest {
+
+	private SimpleMeterRegistry registry;
+	private ShardKeyResolver resolver;
+	private AccountAffiliationReadModel readModel;
+
+	@BeforeEach
+	void setUp() {
+		registry = new SimpleMeterRegistry();
+		resolver = new ShardKeyResolver(registry);
+		readModel = mock(AccountAffiliationReadModel.class);
+	}
+
+	@Test
+	void byIdAddsTheShardKeyOnlyWhenKnown() {
+		assertThat(ShardKeyResolver.byId("a1", Optional.of("cus1")).getCriteriaObject())
+				.containsEntry("id", "a1").containsEntry(ShardKeyResolver.SHARD_KEY, "cus1");
+		assertThat(ShardKeyResolver.byId("a1", Optional.empty()).getCriteriaObject())
+				.containsEntry("id", "a1").doesNotContainKey(ShardKeyResolver.SHARD_KEY);
+	}
+
+	@Test
+	void withCustomerIgnoresMissingKeys() {
+		assertThat(ShardKeyResolver.withCustomer(null).apply(Context.empty()).isEmpty()).isTrue();
+		assertThat(ShardKeyResolver.withCustomer("").apply(Context.empty()).isEmpty()).isTrue();
+		assertThat(ShardKeyResolver.withCustomer("cus1").apply(Context.empty())
+				.<String>get(ShardKeyResolver.class)).isEqualTo("cus1");
+	}
+
+	@Test
+	void requestKeyTargetsTheQueryWithoutTheReadModel() {
+		StepVerifier.create(resolver.resolve("accountAffiliation", "a1", readModel)
+						.contextWrite(ShardKeyResolver.withCustomer("cus1")))
+				.expectNext(Optional.of("cus1"))
+				.verifyComplete();
+
+		verify(readModel, never()).customerOf("a1");
+		assertThat(untargeted()).isNull();
+	}
+
+	@Test
+	void readModelTargetsTheQueryWhenTheRequestHasNoKey() {
+		when(readModel.customerOf("a1")).thenReturn("cus1");
+
+		StepVerifier.create(resolver.resolve("accountAffiliation", "a1", readModel))
+				.expectNext(Optional.of("cus1"))
+				.verifyComplete();
+
+		assertThat(untargeted()).isNull();
+	}
+
+	@Test
+	void unknownKeyIsCountedAsUntargeted() {
+		StepVerifier.create(resolver.resolve("accountAffiliation", "a1", readModel))
+				.expectNext(Optional.empty())
+				.verifyComplete();
+		StepVerifier.create(resolver.resolve("accountAffiliation", "a2", null))
+				.expectNext(Optional.empty())
+				.verifyComplete();
+
+		assertThat(untargeted().count()).isEqualTo(2.0);
+	}
+
+	private Counter untargeted() {
+		return registry.find(ShardKeyResolver.METRIC)
+				.tag("collection", "accountAffiliation").counter();
+	}
+}
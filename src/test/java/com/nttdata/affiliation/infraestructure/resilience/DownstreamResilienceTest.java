@@ -0,0 +1,124 @@
+package com.nttdata.affiliation.infraestructure.resilience;
+
+import com.nttdata.affiliation.infraestructure.config.ResilienceProperties;
+import com.nttdata.affiliation.infraestructure.deadline.Deadline;
+import com.nttdata.affiliation.infraestructure.deadline.DeadlineExceededException;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DownstreamResilienceTest {
+
+	private ResilienceProperties properties;
+	private CircuitBreakerRegistry registry;
+	private DownstreamResilience resilience;
+
+	@BeforeEach
+	void setUp() {
+		properties = new ResilienceProperties();
+		properties.getDefaults().setRetryBackoff(Duration.ofMillis(1));
+		registry = CircuitBreakerRegistry.ofDefaults();
+		resilience = new DownstreamResilience(registry, properties);
+	}
+
+	@Test
+	void partiallyConfiguredDownstreamKeepsTheDefaults() {
+		ResilienceProperties bound = new Binder(new MapConfigurationPropertySource(Map.of(
+				"affiliation.resilience.defaults.timeout", "5s",
+				"affiliation.resilience.downstreams.customer.max-attempts", "3")))
+				.bind("affiliation.resilience", Bindable.ofInstance(new ResilienceProperties()))
+				.get();
+
+		ResilienceProperties.Downstream customer = bound.downstream("customer");
+		assertThat(customer.getMaxAttempts()).isEqualTo(3);
+		assertThat(customer.getTimeout()).isEqualTo(Duration.ofSeconds(5));
+		assertThat(customer.getFailureRateThreshold()).isEqualTo(50f);
+		assertThat(bound.downstream("credit-product").getMaxAttempts()).isEqualTo(1);
+		assertThat(bound.downstream("credit-product").getSlowCallDuration())
+				.isEqualTo(Duration.ofSeconds(2));
+	}
+
+	@Test
+	void onlyServerErrorsAreRetried() {
+		properties.getDownstreams().put("customer", attempts(3));
+		AtomicInteger serverError = new AtomicInteger();
+		AtomicInteger notFound = new AtomicInteger();
+
+		StepVerifier.create(resilience.run("customer", failing(serverError, 503),
+						e -> Mono.just("fallback")))
+				.expectNext("fallback")
+				.verifyComplete();
+		StepVerifier.create(resilience.run("customer", failing(notFound, 404),
+						e -> Mono.just(e.getClass().getSimpleName())))
+				.expectNext("NotFound")
+				.verifyComplete();
+
+		assertThat(serverError).hasValue(3);
+		assertThat(notFound).hasValue(1);
+	}
+
+	@Test
+	void refreshReplacesOnlyChangedPolicies() {
+		AtomicInteger calls = new AtomicInteger();
+		resilience.run("customer", failing(calls, 503), e -> Mono.just("fallback")).block();
+		resilience.run("account-product", Mono.just("ok"), e -> Mono.just("fallback")).block();
+		var accountBreaker = registry.circuitBreaker("account-product");
+
+		properties.getDownstreams().put("customer", attempts(2));
+		resilience.refresh();
+		calls.set(0);
+		resilience.run("customer", failing(calls, 503), e -> Mono.just("fallback")).block();
+
+		assertThat(calls).hasValue(2);
+		assertThat(registry.circuitBreaker("account-product")).isSameAs(accountBreaker);
+	}
+
+	@Test
+	void expiredDeadlineSkipsTheFallback() {
+		AtomicInteger fallbacks = new AtomicInteger();
+
+		StepVerifier.create(resilience.run("customer", Mono.<String>never(), e -> {
+							fallbacks.incrementAndGet();
+							return Mono.just("fallback");
+						})
+						.contextWrite(Deadline.with(Deadline.after(Duration.ofMillis(50)))))
+				.expectError(DeadlineExceededException.class)
+				.verify(Duration.ofSeconds(5));
+		StepVerifier.create(resilience.run("customer", failing(new AtomicInteger(), 503), e -> {
+							fallbacks.incrementAndGet();
+							return Mono.just("fallback");
+						})
+						.contextWrite(Deadline.with(Deadline.after(Duration.ofSeconds(5)))))
+				.expectNext("fallback")
+				.verifyComplete();
+
+		assertThat(fallbacks).hasValue(1);
+	}
+
+	private static ResilienceProperties.Downstream attempts(int maxAttempts) {
+		ResilienceProperties.Downstream downstream = new ResilienceProperties.Downstream();
+		downstream.setMaxAttempts(maxAttempts);
+		return downstream;
+	}
+
+	private static Mono<String> failing(AtomicInteger calls, int status) {
+		return Mono.defer(() -> {
+			calls.incrementAndGet();
+			return Mono.error(WebClientResponseException.create(status, "error",
+					HttpHeaders.EMPTY, new byte[0], null));
+		});
+	}
+}
@@ -0,0 +1,70 @@
+package com.nttdata.affiliation.infraestructure.rest;
+
+import com.nttdata.affiliation.application.AccountAffiliationOperations;
+import com.nttdata.affiliation.domain.AccountAffiliation;
+import com.nttdata.affiliation.infraestructure.repository.ShardKeyResolver;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AccountAffiliationControllerTest {
+
+	private AccountAffiliationOperations operations;
+	private WebTestClient webTestClient;
+
+	@BeforeEach
+	void setUp() {
+		operations = mock(AccountAffiliationOperations.class);
+		webTestClient = WebTestClient
+				.bindToController(new AccountAffiliationController(operations))
+				.build();
+	}
+
+	@Test
+	void deleteOfExistingAffiliationIsNoContent() {
+		when(operations.delete("a1")).thenReturn(Mono.just(true));
+
+		webTestClient.delete().uri("/affiliations/accounts/a1")
+				.exchange()
+				.expectStatus().isNoContent();
+		verify(operations, never()).findById("a1");
+	}
+
+	@Test
+	void deleteOfMissingAffiliationIsNotFound() {
+		when(operations.delete("missing")).thenReturn(Mono.just(false));
+
+		webTestClient.delete().uri("/affiliations/accounts/missing")
+				.exchange()
+				.expectStatus().isNotFound();
+	}
+
+	@Test
+	void putRoutesByTheQueryParameterAndNeverByTheBody() {
+		when(operations.update(eq("a1"), any(AccountAffiliation.class))).thenAnswer(invocation ->
+				Mono.deferContextual(context -> Mono.just(invocation.<AccountAffiliation>getArgument(1))
+						.doOnNext(a -> a.setIdCustomer(context
+								.<String>getOrDefault(ShardKeyResolver.class, "none")))));
+
+		webTestClient.put().uri("/affiliations/accounts/a1")
+				.bodyValue(Map.of("idCustomer", "cus-body"))
+				.exchange()
+				.expectStatus().isOk()
+				.expectBody().jsonPath("$.idCustomer").isEqualTo("none");
+		webTestClient.put().uri("/affiliations/accounts/a1?idCustomer=cus1")
+				.bodyValue(Map.of("idCustomer", "cus-body"))
+				.exchange()
+				.expectStatus().isOk()
+				.expectBody().jsonPath("$.idCustomer").isEqualTo("cus1");
+	}
+}
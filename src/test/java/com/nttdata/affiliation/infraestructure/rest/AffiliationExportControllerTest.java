@@ -0,0 +1,75 @@
+package com.nttdata.affiliation.infraestructure.rest;
+
+import com.nttdata.affiliation.domain.bean.ExportFormat;
+import com.nttdata.affiliation.infraestructure.repository.AffiliationExporter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AffiliationExportControllerTest {
+
+	private static final String CSV = "id,idCustomer\na1,cus1\n";
+
+	private WebTestClient webTestClient;
+
+	@BeforeEach
+	void setUp() {
+		AffiliationExporter exporter = mock(AffiliationExporter.class);
+		when(exporter.exportAccounts(any(ExportFormat.class), any())).thenAnswer(i ->
+				Flux.just(CSV.getBytes(StandardCharsets.UTF_8)));
+		webTestClient = WebTestClient
+				.bindToController(new AffiliationExportController(exporter))
+				.build();
+	}
+
+	@Test
+	void gzipWithZeroQualityIsNotCompressed() {
+		webTestClient.get().uri("/affiliations/export/accounts")
+				.header(HttpHeaders.ACCEPT_ENCODING, "br, gzip;q=0")
+				.exchange()
+				.expectStatus().isOk()
+				.expectHeader().doesNotExist(HttpHeaders.CONTENT_ENCODING)
+				.expectHeader().valueEquals(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+				.expectBody(String.class).isEqualTo(CSV);
+	}
+
+	@Test
+	void acceptedGzipUsesContentEncodingWithThePlainFileName() throws Exception {
+		byte[] body = webTestClient.get().uri("/affiliations/export/accounts")
+				.header(HttpHeaders.ACCEPT_ENCODING, "deflate;q=1.0, GZIP ; q=0.5")
+				.exchange()
+				.expectStatus().isOk()
+				.expectHeader().valueEquals(HttpHeaders.CONTENT_ENCODING, "gzip")
+				.expectHeader().valueEquals(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+				.expectHeader().value(HttpHeaders.CONTENT_DISPOSITION,
+						disposition -> assertThat(disposition)
+								.contains("account-affiliations.csv").doesNotContain(".gz"))
+				.expectBody(byte[].class).returnResult().getResponseBody();
+
+		try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(body))) {
+			assertThat(new String(gzip.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo(CSV);
+		}
+	}
+
+	@Test
+	void acceptEncodingQualityValues() {
+		assertThat(AffiliationExportController.acceptsGzip(List.of("gzip"))).isTrue();
+		assertThat(AffiliationExportController.acceptsGzip(List.of("*;q=0.1"))).isTrue();
+		assertThat(AffiliationExportController.acceptsGzip(List.of("*", "gzip;q=0"))).isFalse();
+		assertThat(AffiliationExportController.acceptsGzip(List.of("x-gzip;q=0.000"))).isFalse();
+		assertThat(AffiliationExportController.acceptsGzip(List.of("identity"))).isFalse();
+		assertThat(AffiliationExportController.acceptsGzip(List.of())).isFalse();
+	}
+}
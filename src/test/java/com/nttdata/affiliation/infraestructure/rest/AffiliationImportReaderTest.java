@@ -0,0 +1,59 @@
+package com.nttdata.affiliation.infraestructure.rest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nttdata.affiliation.domain.AccountAffiliation;
+import com.nttdata.affiliation.domain.bean.ExportFormat;
+import com.nttdata.affiliation.domain.bean.RejectionReason;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AffiliationImportReaderTest {
+
+	private final AffiliationImportReader reader = new AffiliationImportReader(new ObjectMapper());
+
+	@Test
+	void quotedValuesMaySpanSeveralLines() {
+		Flux<DataBuffer> body = body("id,idCustomer,idAccount,number\r\n",
+				"x1,cus1,\"acc,1\",\"191\n\"\"A",
+				"\"\"\"\ny1,cus2,acc2,192\n",
+				"z1,cus3,acc3,\"open\n");
+
+		StepVerifier.create(reader.read(body, ExportFormat.CSV, AccountAffiliation.class))
+				.assertNext(row -> {
+					assertThat(row.getIndex()).isEqualTo(1);
+					assertThat(row.getAffiliation().getId()).isNull();
+					assertThat(row.getAffiliation().getIdAccount()).isEqualTo("acc,1");
+					assertThat(row.getAffiliation().getNumber()).isEqualTo("191\n\"A\"");
+				})
+				.assertNext(row -> {
+					assertThat(row.getIndex()).isEqualTo(2);
+					assertThat(row.getAffiliation().getIdCustomer()).isEqualTo("cus2");
+				})
+				.assertNext(row -> {
+					assertThat(row.getIndex()).isEqualTo(3);
+					assertThat(row.getRejection()).isEqualTo(RejectionReason.INVALID_ROW);
+				})
+				.verifyComplete();
+	}
+
+	@Test
+	void ndjsonRowsAreNumberedByLine() {
+		StepVerifier.create(reader.read(body("{\"idCustomer\":\"cus1\"}\n", "not json\n"),
+						ExportFormat.NDJSON, AccountAffiliation.class))
+				.assertNext(row -> assertThat(row.getAffiliation().getIdCustomer()).isEqualTo("cus1"))
+				.assertNext(row -> assertThat(row.getRejection()).isEqualTo(RejectionReason.INVALID_ROW))
+				.verifyComplete();
+	}
+
+	private static Flux<DataBuffer> body(String... parts) {
+		return Flux.fromArray(parts).map(part -> DefaultDataBufferFactory.sharedInstance
+				.wrap(part.getBytes(StandardCharsets.UTF_8)));
+	}
+}
@@ -0,0 +1,116 @@
+package com.nttdata.affiliation.infraestructure.rsocket;
+
+import com.nttdata.affiliation.application.AccountAffiliationOperations;
+import com.nttdata.affiliation.domain.AccountAffiliation;
+import com.nttdata.affiliation.domain.AffiliationRejectedException;
+import com.nttdata.affiliation.domain.BulkCreateResult;
+import com.nttdata.affiliation.domain.bean.RejectionReason;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.rsocket.context.LocalRSocketServerPort;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.messaging.rsocket.RSocketRequester;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(properties = {"spring.rsocket.server.port=0",
+		"eureka.client.enabled=false"})
+class AccountAffiliationRSocketControllerTest {
+
+	@MockBean
+	private AccountAffiliationOperations operations;
+
+	@Autowired
+	private RSocketRequester.Builder builder;
+
+	@LocalRSocketServerPort
+	private int port;
+
+	private RSocketRequester requester;
+
+	@BeforeEach
+	void setUp() {
+		requester = builder.tcp("localhost", port);
+	}
+
+	@AfterEach
+	void tearDown() {
+		requester.dispose();
+	}
+
+	@Test
+	void findByIdIsRequestResponse() {
+		when(operations.findById("a1")).thenReturn(Mono.just(affiliation("a1")));
+
+		StepVerifier.create(requester.route("accounts.find-by-id.a1")
+						.retrieveMono(AccountAffiliation.class))
+				.expectNextMatches(a -> "a1".equals(a.getId()))
+				.verifyComplete();
+	}
+
+	@Test
+	void customerStreamHonorsRequestedCredits() {
+		AtomicLong emitted = new AtomicLong();
+		when(operations.findByIdCustomer("cus1")).thenReturn(Flux.range(0, 1000)
+				.map(i -> affiliation("a" + i))
+				.doOnNext(a -> emitted.incrementAndGet()));
+
+		StepVerifier.create(requester.route("accounts.find-by-customer.cus1")
+						.retrieveFlux(AccountAffiliation.class), 5)
+				.expectNextCount(5)
+				.thenCancel()
+				.verify();
+
+		assertThat(emitted.get()).isLessThan(1000);
+	}
+
+	@Test
+	void bulkCreateReportsEachResultOnOneChannel() {
+		when(operations.create(any())).thenAnswer(i -> {
+			AccountAffiliation affiliation = i.getArgument(0);
+			if ("bad".equals(affiliation.getIdAccount())) {
+				return Mono.error(new AffiliationRejectedException(
+						RejectionReason.DUPLICATE_PRODUCT_TYPE));
+			}
+			affiliation.setId("id-" + affiliation.getIdAccount());
+			return Mono.just(affiliation);
+		});
+		Flux<AccountAffiliation> input = Flux.just("ok1", "bad", "ok2").map(idAccount -> {
+			AccountAffiliation affiliation = new AccountAffiliation();
+			affiliation.setIdCustomer("cus1");
+			affiliation.setIdAccount(idAccount);
+			return affiliation;
+		});
+
+		StepVerifier.create(requester.route("accounts.create")
+						.data(input)
+						.retrieveFlux(new ParameterizedTypeReference<BulkCreateResult<AccountAffiliation>>() { })
+						.collectSortedList((a, b) -> Long.compare(a.getIndex(), b.getIndex())))
+				.assertNext(results -> {
+					assertThat(results).hasSize(3);
+					assertThat(results.get(0).getAffiliation().getId()).isEqualTo("id-ok1");
+					assertThat(results.get(1).getRejection())
+							.isEqualTo(RejectionReason.DUPLICATE_PRODUCT_TYPE);
+					assertThat(results.get(2).getAffiliation().getId()).isEqualTo("id-ok2");
+				})
+				.verifyComplete();
+	}
+
+	private static AccountAffiliation affiliation(String id) {
+		AccountAffiliation affiliation = new AccountAffiliation();
+		affiliation.setId(id);
+		affiliation.setIdCustomer("cus1");
+		return affiliation;
+	}
+}
@@ -0,0 +1,72 @@
+package com.nttdata.affiliation.infraestructure.tracing;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LatencyBreakdownTest {
+
+	@Test
+	void withoutBreakdownInContextRunsUnmeasured() {
+		StepVerifier.create(LatencyBreakdown.timed(LatencyBreakdown.MONGO, Mono.just("a")))
+				.expectNext("a")
+				.verifyComplete();
+	}
+
+	@Test
+	void contextReachesNestedHopsAcrossThreads() {
+		LatencyBreakdown breakdown = new LatencyBreakdown();
+		Mono<String> customer = LatencyBreakdown.timed(LatencyBreakdown.CUSTOMER,
+				Mono.delay(Duration.ofMillis(20)).thenReturn("c"));
+		Flux<String> mongo = LatencyBreakdown.timed(LatencyBreakdown.MONGO,
+				Flux.just("1", "2").publishOn(Schedulers.parallel()));
+
+		StepVerifier.create(mongo
+						.flatMap(id -> customer.map(c -> c + id))
+						.subscribeOn(Schedulers.boundedElastic())
+						.contextWrite(context -> context.put(LatencyBreakdown.class, breakdown)))
+				.expectNextCount(2)
+				.verifyComplete();
+
+		String timing = breakdown.toServerTiming();
+		assertThat(timing).contains("customer;dur=").contains("desc=\"2\"")
+				.contains("mongo;dur=").contains("desc=\"1\"");
+		assertThat(timing.indexOf("customer")).isLessThan(timing.indexOf("mongo"));
+	}
+
+	@Test
+	void failedAndCancelledOperationsAreStillMeasured() {
+		LatencyBreakdown breakdown = new LatencyBreakdown();
+
+		StepVerifier.create(LatencyBreakdown.timed(LatencyBreakdown.CIRCUIT_BREAKER,
+								Mono.error(new IllegalStateException()))
+						.contextWrite(context -> context.put(LatencyBreakdown.class, breakdown)))
+				.verifyError(IllegalStateException.class);
+		StepVerifier.create(LatencyBreakdown.timed(LatencyBreakdown.CIRCUIT_BREAKER,
+								Mono.never())
+						.contextWrite(context -> context.put(LatencyBreakdown.class, breakdown)))
+				.thenAwait(Duration.ofMillis(10))
+				.thenCancel()
+				.verify();
+
+		assertThat(breakdown.toServerTiming()).startsWith("circuit-breaker;dur=")
+				.endsWith("desc=\"2\"");
+	}
+
+	@Test
+	void serverTimingFormatsMillisecondsPerHop() {
+		LatencyBreakdown breakdown = new LatencyBreakdown();
+		breakdown.add(LatencyBreakdown.MONGO, 1_500_000);
+		breakdown.add(LatencyBreakdown.MONGO, 1_600_000);
+		breakdown.add(LatencyBreakdown.ACCOUNT_PRODUCT, 12_400_000);
+
+		assertThat(breakdown.toServerTiming()).isEqualTo(
+				"account-product;dur=12.4;desc=\"1\", mongo;dur=3.1;desc=\"2\"");
+	}
+}
@@ -0,0 +1,78 @@
+package com.nttdata.affiliation.infraestructure.tracing;
+
+import com.nttdata.affiliation.infraestructure.config.TracingProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LatencyBreakdownWebFilterTest {
+
+	private static final WebFilterChain CHAIN = exchange -> LatencyBreakdown
+			.timed(LatencyBreakdown.MONGO, Mono.delay(Duration.ofMillis(5)))
+			.then(Mono.defer(() -> exchange.getResponse().setComplete()));
+
+	private TracingProperties properties;
+	private LatencyBreakdownWebFilter filter;
+
+	@BeforeEach
+	void setUp() {
+		properties = new TracingProperties();
+		filter = new LatencyBreakdownWebFilter(properties);
+	}
+
+	@Test
+	void debugHeaderAddsServerTiming() {
+		MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest
+				.get("/affiliations/accounts/1")
+				.header(properties.getDebugHeader(), "1"));
+
+		filter.filter(exchange, CHAIN).block(Duration.ofSeconds(5));
+
+		assertThat(exchange.getResponse().getHeaders()
+				.getFirst(LatencyBreakdownWebFilter.SERVER_TIMING))
+				.startsWith("mongo;dur=").endsWith("desc=\"1\"");
+	}
+
+	@Test
+	void withoutDebugHeaderNothingIsMeasured() {
+		MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest
+				.get("/affiliations/accounts/1"));
+
+		filter.filter(exchange, CHAIN).block(Duration.ofSeconds(5));
+
+		assertThat(exchange.getResponse().getHeaders())
+				.doesNotContainKey(LatencyBreakdownWebFilter.SERVER_TIMING);
+	}
+
+	@Test
+	void serverTimingPropertyAppliesToEveryRequest() {
+		properties.setServerTiming(true);
+		MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest
+				.get("/affiliations/accounts/1"));
+
+		filter.filter(exchange, CHAIN).block(Duration.ofSeconds(5));
+
+		assertThat(exchange.getResponse().getHeaders())
+				.containsKey(LatencyBreakdownWebFilter.SERVER_TIMING);
+	}
+
+	@Test
+	void noHeaderWhenNoHopWasMeasured() {
+		MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest
+				.get("/affiliations/accounts/1")
+				.header(properties.getDebugHeader(), "1"));
+
+		filter.filter(exchange, ex -> ex.getResponse().setComplete())
+				.block(Duration.ofSeconds(5));
+
+		assertThat(exchange.getResponse().getHeaders())
+				.doesNotContainKey(LatencyBreakdownWebFilter.SERVER_TIMING);
+	}
+}